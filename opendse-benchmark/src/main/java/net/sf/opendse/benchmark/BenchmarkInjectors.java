@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.opendse.encoding.module.OptimizationNewModule;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.OptimizationModule;
+import net.sf.opendse.optimization.SpecificationWrapper;
+import net.sf.opendse.optimization.evaluator.SumEvaluatorModule;
+import net.sf.opendse.optimization.io.SpecificationWrapperInstance;
+
+import org.opt4j.core.start.Opt4JModule;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+
+/**
+ * The {@code BenchmarkInjectors} create the injectors that provide the
+ * encoding, decoding, and evaluation components for a specification.
+ */
+public class BenchmarkInjectors {
+
+	/**
+	 * The implementation encodings.
+	 */
+	public enum EncodingType {
+		/**
+		 * The {@code Encoding} with the {@code InterpreterSpecification}.
+		 */
+		DEFAULT,
+		/**
+		 * The {@code ImplementationEncodingModularDefault} with the
+		 * {@code InterpreterVariable}.
+		 */
+		MODULAR;
+	}
+
+	/**
+	 * Creates an injector.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param type
+	 *            the implementation encoding
+	 * @return the injector
+	 */
+	public static Injector create(final Specification specification, EncodingType type) {
+		List<Module> modules = new ArrayList<Module>();
+
+		if (type == EncodingType.MODULAR) {
+			OptimizationNewModule optimization = new OptimizationNewModule();
+			optimization.setUseModularEncoding(true);
+			optimization.setStagnationRestartEnabled(false);
+			modules.add(optimization);
+		} else {
+			OptimizationModule optimization = new OptimizationModule();
+			optimization.setStagnationRestartEnabled(false);
+			modules.add(optimization);
+		}
+
+		SumEvaluatorModule sum = new SumEvaluatorModule();
+		sum.setSum("cost");
+		modules.add(sum);
+
+		modules.add(new Opt4JModule() {
+			@Override
+			protected void config() {
+				bind(SpecificationWrapper.class).toInstance(new SpecificationWrapperInstance(specification));
+			}
+		});
+
+		return Guice.createInjector(modules);
+	}
+
+}
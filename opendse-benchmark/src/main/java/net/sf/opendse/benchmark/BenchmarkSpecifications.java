@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.sf.opendse.generator.ApplicationGenerator;
+import net.sf.opendse.generator.ArchitectureGenerator;
+import net.sf.opendse.generator.Generator.Type;
+import net.sf.opendse.generator.IdProvider;
+import net.sf.opendse.generator.MappingGenerator;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@code BenchmarkSpecifications} create reproducible specifications of a
+ * given size for the benchmarks.
+ * <p>
+ * A specification consists of clusters. Each cluster is a star architecture
+ * (one bus and eight processors) with about 100 tasks (processes and
+ * messages) that are mapped to the processors of the cluster. The routing of
+ * each message is restricted to its cluster, and the buses of consecutive
+ * clusters are connected by a gateway link. Thus, the number of tasks,
+ * resources, and messages as well as the size of the routings grow linearly
+ * with the size.
+ */
+public class BenchmarkSpecifications {
+
+	protected static final int TASKS_PER_CLUSTER = 100;
+	protected static final int PROCESSORS_PER_CLUSTER = 8;
+
+	/**
+	 * Creates a specification.
+	 *
+	 * @param size
+	 *            the approximate number of tasks (processes and messages)
+	 * @param seed
+	 *            the random seed
+	 * @return the specification
+	 */
+	public static Specification create(int size, long seed) {
+		IdProvider taskId = new IdProvider("t");
+		IdProvider commId = new IdProvider("c");
+		IdProvider dependencyId = new IdProvider("d");
+		IdProvider resourceId = new IdProvider("r");
+		IdProvider linkId = new IdProvider("l");
+		IdProvider mappingId = new IdProvider("m");
+
+		ApplicationGenerator applicationGenerator = new ApplicationGenerator(seed, taskId, commId, dependencyId);
+		ArchitectureGenerator architectureGenerator = new ArchitectureGenerator(seed, resourceId, linkId);
+		MappingGenerator mappingGenerator = new MappingGenerator(seed, mappingId);
+		Random random = new Random(seed);
+
+		List<Application<Task, Dependency>> applications = new ArrayList<Application<Task, Dependency>>();
+		List<Architecture<Resource, Link>> architectures = new ArrayList<Architecture<Resource, Link>>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+
+		Resource previousBus = null;
+		List<Link> gateways = new ArrayList<Link>();
+		List<Resource[]> gatewayEndpoints = new ArrayList<Resource[]>();
+
+		int clusters = Math.max(1, (size + TASKS_PER_CLUSTER - 1) / TASKS_PER_CLUSTER);
+		for (int c = 0; c < clusters; c++) {
+			int tasks = Math.min(TASKS_PER_CLUSTER, size - c * TASKS_PER_CLUSTER);
+
+			Architecture<Resource, Link> architecture = architectureGenerator.getStar(1, PROCESSORS_PER_CLUSTER);
+			Set<Resource> processors = new HashSet<Resource>();
+			Resource bus = null;
+			for (Resource resource : architecture) {
+				if (architecture.getIncidentEdges(resource).size() == 1) {
+					resource.setType("ECU");
+					processors.add(resource);
+				} else {
+					resource.setType("CAN");
+					bus = resource;
+				}
+			}
+			architectureGenerator.annotateAttribute(architecture, "cost", 10, 100, Type.ELEMENT);
+
+			Application<Task, Dependency> application = new Application<Task, Dependency>();
+			while (application.getVertexCount() < tasks) {
+				Application<Task, Dependency> function = applicationGenerator.generate(5, 3, 3);
+				applicationGenerator.insertCommunication(function, 1, 3);
+				application = applicationGenerator.merge(application, function);
+			}
+
+			Mappings<Task, Resource> clusterMappings = mappingGenerator.create(application, processors, 1, 3);
+			for (Mapping<Task, Resource> mapping : clusterMappings) {
+				mapping.setAttribute("cost", 1 + random.nextInt(10));
+				mappings.add(mapping);
+			}
+
+			for (Task task : application) {
+				if (Models.isCommunication(task)) {
+					routings.set(task, copy(architecture));
+				}
+			}
+
+			if (previousBus != null) {
+				gateways.add(new Link(linkId.next()));
+				gatewayEndpoints.add(new Resource[] { previousBus, bus });
+			}
+			previousBus = bus;
+
+			applications.add(application);
+			architectures.add(architecture);
+		}
+
+		Application<Task, Dependency> application = applicationGenerator.merge(applications);
+		Architecture<Resource, Link> architecture = architectureGenerator.merge(architectures);
+		for (int i = 0; i < gateways.size(); i++) {
+			architecture.addEdge(gateways.get(i), gatewayEndpoints.get(i)[0], gatewayEndpoints.get(i)[1]);
+		}
+
+		return new Specification(application, architecture, mappings, routings);
+	}
+
+	protected static Architecture<Resource, Link> copy(Architecture<Resource, Link> architecture) {
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		for (Resource resource : architecture) {
+			routing.addVertex(new Resource(resource));
+		}
+		for (Link link : architecture.getEdges()) {
+			routing.addEdge(new Link(link), architecture.getEndpoints(link), architecture.getEdgeType(link));
+		}
+		return routing;
+	}
+
+}
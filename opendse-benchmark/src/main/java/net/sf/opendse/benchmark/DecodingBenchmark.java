@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.opendse.benchmark.BenchmarkInjectors.EncodingType;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.DesignSpaceExplorationCreator;
+import net.sf.opendse.optimization.ImplementationWrapper;
+import net.sf.opendse.optimization.SATCreatorDecoder;
+import net.sf.opendse.optimization.encoding.Interpreter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opt4j.core.Genotype;
+import org.opt4j.satdecoding.Model;
+
+import com.google.inject.Injector;
+
+/**
+ * Benchmarks the decoding of SAT genotypes by the {@link SATCreatorDecoder}
+ * (SAT solving and interpretation) and the interpretation of solved models.
+ * The {@code DEFAULT} encoding uses the {@code InterpreterSpecification}, the
+ * {@code MODULAR} encoding uses the {@code InterpreterVariable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DecodingBenchmark {
+
+	protected static final int GENOTYPES = 32;
+
+	@Param({ "100", "1000" })
+	public int size;
+
+	@Param({ "DEFAULT", "MODULAR" })
+	public EncodingType encoding;
+
+	protected Specification specification;
+	protected SATCreatorDecoder decoder;
+	protected Interpreter interpreter;
+	protected final List<Genotype> genotypes = new ArrayList<Genotype>();
+	protected final List<Model> models = new ArrayList<Model>();
+	protected int next = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		specification = BenchmarkSpecifications.create(size, 0);
+		Injector injector = BenchmarkInjectors.create(specification, encoding);
+
+		DesignSpaceExplorationCreator creator = injector.getInstance(DesignSpaceExplorationCreator.class);
+		ModelDecoder modelDecoder = injector.getInstance(ModelDecoder.class);
+		for (int i = 0; i < GENOTYPES; i++) {
+			Genotype genotype = creator.create().get("SAT");
+			genotypes.add(genotype);
+			models.add(modelDecoder.solve(genotype));
+		}
+
+		decoder = injector.getInstance(SATCreatorDecoder.class);
+		interpreter = injector.getInstance(Interpreter.class);
+	}
+
+	@Benchmark
+	public ImplementationWrapper decode() {
+		next = (next + 1) % GENOTYPES;
+		return decoder.decode(genotypes.get(next));
+	}
+
+	@Benchmark
+	public Specification interpret() {
+		next = (next + 1) % GENOTYPES;
+		return interpreter.toImplementation(specification, models.get(next));
+	}
+
+}
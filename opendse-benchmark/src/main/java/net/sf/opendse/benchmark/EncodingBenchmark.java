@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.opendse.benchmark.BenchmarkInjectors.EncodingType;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.SATConstraints;
+import net.sf.opendse.optimization.encoding.ImplementationEncoding;
+import net.sf.opendse.optimization.encoding.RoutingFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opt4j.satdecoding.Constraint;
+
+import com.google.inject.Injector;
+
+/**
+ * Benchmarks the formulation of the constraints by the implementation
+ * encodings and the complete initialization of the {@link SATConstraints}
+ * (routing filter, encoding, learning, and preprocessing).
+ * <p>
+ * Each invocation uses a new injector such that no encoding results are
+ * cached. Larger specifications are benchmarked with {@code -p size=10000}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EncodingBenchmark {
+
+	@Param({ "100", "1000" })
+	public int size;
+
+	@Param({ "DEFAULT", "MODULAR" })
+	public EncodingType encoding;
+
+	protected Specification specification;
+	protected Injector injector;
+
+	@Setup(Level.Trial)
+	public void setUpSpecification() {
+		specification = BenchmarkSpecifications.create(size, 0);
+		// the routing filter modifies the specification only once
+		RoutingFilter.filter(specification);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInjector() {
+		injector = BenchmarkInjectors.create(specification, encoding);
+	}
+
+	@Benchmark
+	public Collection<Constraint> toConstraints() {
+		return injector.getInstance(ImplementationEncoding.class).toConstraints();
+	}
+
+	@Benchmark
+	public List<Constraint> satConstraintsInit() {
+		SATConstraints constraints = injector.getInstance(SATConstraints.class);
+		constraints.init();
+		return constraints.getConstraints();
+	}
+
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.benchmark;
+
+import net.sf.opendse.optimization.SATConstraints;
+import net.sf.opendse.optimization.SATCreatorDecoder;
+import net.sf.opendse.optimization.SpecificationWrapper;
+import net.sf.opendse.optimization.VariableClassOrder;
+import net.sf.opendse.optimization.encoding.Interpreter;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.core.optimizer.Control;
+import org.opt4j.core.start.Constant;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.SATManager;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code ModelDecoder} exposes the SAT solving of the
+ * {@link SATCreatorDecoder} such that the interpretation of the models can
+ * be benchmarked separately.
+ */
+public class ModelDecoder extends SATCreatorDecoder {
+
+	@Inject
+	public ModelDecoder(VariableClassOrder order, SATManager manager, Rand random, SATConstraints constraints,
+			SpecificationWrapper specificationWrapper, Interpreter interpreter, Control control,
+			@Constant(value = "variableorder", namespace = SATCreatorDecoder.class) boolean useVariableOrder) {
+		super(order, manager, random, constraints, specificationWrapper, interpreter, control, useVariableOrder);
+	}
+
+	/**
+	 * Returns the decorated model of the SAT genotype.
+	 *
+	 * @param genotype
+	 *            the SAT genotype
+	 * @return the model
+	 */
+	public Model solve(Genotype genotype) {
+		return constraints.decorate(decodeSATGenotype(genotype));
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.Set;
 
 import org.opt4j.satdecoding.Constraint;
 
+import net.sf.opendse.model.CompiledSpecification;
 import net.sf.opendse.optimization.encoding.ImplementationEncoding;
 import net.sf.opendse.encoding.variables.InterfaceVariable;
 
@@ -25,4 +26,13 @@ public interface ImplementationEncodingModular extends ImplementationEncoding {
 	 *         implementation
 	 */
 	public Set<InterfaceVariable> getInterfaceVariables();
+
+	/**
+	 * return the {@link CompiledSpecification} of the encoded (preprocessed)
+	 * specification
+	 * 
+	 * @return the compiled specification or {@code null} if the specification
+	 *         is not encoded yet
+	 */
+	public CompiledSpecification getCompiledSpecification();
 }
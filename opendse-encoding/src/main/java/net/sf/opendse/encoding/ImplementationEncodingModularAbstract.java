@@ -8,6 +8,7 @@ import org.opt4j.satdecoding.Literal;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.CompiledSpecification;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Link;
 import net.sf.opendse.model.Mappings;
@@ -44,6 +45,8 @@ public abstract class ImplementationEncodingModularAbstract implements Implement
 	protected final Set<RoutingVariable> routingVariables;
 	protected final Set<AllocationVariable> allocationVariables;
 	protected final Set<Constraint> constraints;
+	protected Specification specification = null;
+	protected CompiledSpecification compiledSpecification = null;
 
 	public ImplementationEncodingModularAbstract(SpecificationPreprocessor preprocessor,
 			ApplicationEncoding applicationEncoding, MappingEncoding mappingEncoding, RoutingEncoding routingEncoding,
@@ -73,6 +76,7 @@ public abstract class ImplementationEncodingModularAbstract implements Implement
 	protected Set<Constraint> generateTheConstraints(Specification specification) {
 		Variables.clearCaches();
 		preprocessor.preprocessSpecification(specification);
+		this.specification = specification;
 		Application<Task, Dependency> application = specification.getApplication();
 		Mappings<Task, Resource> mappings = specification.getMappings();
 		Routings<Task, Resource, Link> routings = specification.getRoutings();
@@ -123,6 +127,20 @@ public abstract class ImplementationEncodingModularAbstract implements Implement
 		return result;
 	}
 
+	/**
+	 * Returns the {@link CompiledSpecification} of the preprocessed
+	 * specification. The specification is compiled on the first call.
+	 * 
+	 * @return the compiled specification
+	 */
+	@Override
+	public synchronized CompiledSpecification getCompiledSpecification() {
+		if (compiledSpecification == null && specification != null) {
+			compiledSpecification = new CompiledSpecification(specification);
+		}
+		return compiledSpecification;
+	}
+
 	/**
 	 * Formulates the constraints that enforce global characteristics of valid
 	 * implementations.
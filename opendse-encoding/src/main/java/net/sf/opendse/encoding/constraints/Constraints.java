@@ -5,6 +5,9 @@ import java.util.Set;
 
 import org.opt4j.satdecoding.Constraint;
 import org.opt4j.satdecoding.Constraint.Operator;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.Term;
 
 import net.sf.opendse.encoding.variables.AndVariable;
 import net.sf.opendse.encoding.variables.Variable;
@@ -217,4 +220,53 @@ public class Constraints {
 		return positiveImplication;
 	}
 
+	/**
+	 * Returns {@code true} if the given {@link Constraint} is satisfied by the
+	 * given {@link Model}. Variables that are not part of the model are
+	 * deactivated, except for {@link AndVariable}s which are active if all their
+	 * arguments are active.
+	 * 
+	 * @param constraint
+	 *            the constraint
+	 * @param model
+	 *            the model
+	 * @return {@code true} if the constraint is satisfied by the model
+	 */
+	public static boolean isSatisfied(Constraint constraint, Model model) {
+		int lhs = 0;
+		for (Term term : constraint) {
+			Literal literal = term.getLiteral();
+			if (isActive(literal.variable(), model) == literal.phase()) {
+				lhs += term.getCoefficient();
+			}
+		}
+		return constraint.getOperator().isTrue(lhs, constraint.getRhs());
+	}
+
+	/**
+	 * Returns {@code true} if the variable is active in the given {@link Model},
+	 * see {@link #isSatisfied(Constraint, Model)}.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @param model
+	 *            the model
+	 * @return {@code true} if the variable is active
+	 */
+	public static boolean isActive(Object variable, Model model) {
+		Boolean value = model.get(variable);
+		if (value != null) {
+			return value;
+		}
+		if (variable instanceof AndVariable) {
+			for (Variable argument : ((AndVariable) variable).getArguments()) {
+				if (!isActive(argument, model)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
 }
@@ -31,9 +31,11 @@ import net.sf.opendse.encoding.variables.T;
 import net.sf.opendse.encoding.variables.Variable;
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.CompiledSpecification;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Graph;
 import net.sf.opendse.model.Link;
 import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Mappings;
@@ -380,10 +382,21 @@ public class InterpreterVariable extends InterpreterAbstract{
 	protected void addImplementationLink(Link encodedLink, Architecture<Resource, Link> implementationAllocation,
 			Architecture<Resource, Link> specificationArchitecture) {
 		Link implementationLink = getImplementationLink(encodedLink, specificationArchitecture);
-		Resource implementationEndpoint1 = getImplementationResource(
-				specificationArchitecture.getEndpoints(encodedLink).getFirst(), specificationArchitecture);
-		Resource implementationEndpoint2 = getImplementationResource(
-				specificationArchitecture.getEndpoints(encodedLink).getSecond(), specificationArchitecture);
+		Resource specificationEndpoint1;
+		Resource specificationEndpoint2;
+		CompiledSpecification compiledSpecification = getCompiledSpecification(specificationArchitecture);
+		if (compiledSpecification != null) {
+			int l = compiledSpecification.getLinkIndex(encodedLink);
+			specificationEndpoint1 = compiledSpecification.getResource(compiledSpecification.getLinkSource(l));
+			specificationEndpoint2 = compiledSpecification.getResource(compiledSpecification.getLinkDestination(l));
+		} else {
+			specificationEndpoint1 = specificationArchitecture.getEndpoints(encodedLink).getFirst();
+			specificationEndpoint2 = specificationArchitecture.getEndpoints(encodedLink).getSecond();
+		}
+		Resource implementationEndpoint1 = getImplementationResource(specificationEndpoint1,
+				specificationArchitecture);
+		Resource implementationEndpoint2 = getImplementationResource(specificationEndpoint2,
+				specificationArchitecture);
 		if (implementationAllocation.getEdge(implementationLink) == null) {
 			implementationAllocation.addEdge(implementationLink, implementationEndpoint1, implementationEndpoint2,
 					EdgeType.UNDIRECTED);
@@ -402,11 +415,12 @@ public class InterpreterVariable extends InterpreterAbstract{
 	 *         {@link Architecture}
 	 */
 	protected Link getImplementationLink(Link encodedLink, Architecture<Resource, Link> specificationArchitecture) {
-		if (specificationArchitecture.getEdge(encodedLink) == null) {
+		Link specificationLink = getSpecificationLink(encodedLink, specificationArchitecture);
+		if (specificationLink == null) {
 			throw new IllegalArgumentException(
 					"The encoded link " + encodedLink.getId() + " is not present in the specification architecture");
 		}
-		return copy(specificationArchitecture.getEdge(encodedLink));
+		return copy(specificationLink);
 	}
 
 	/**
@@ -422,11 +436,72 @@ public class InterpreterVariable extends InterpreterAbstract{
 	 */
 	protected Resource getImplementationResource(Resource encodedResource,
 			Architecture<Resource, Link> specificationArchitecture) {
-		if (specificationArchitecture.getVertex(encodedResource) == null) {
+		Resource specificationResource = getSpecificationResource(encodedResource, specificationArchitecture);
+		if (specificationResource == null) {
 			throw new IllegalArgumentException("The encoded resource " + encodedResource.getId()
 					+ " is not present in the specification architecture");
 		}
-		return copy(specificationArchitecture.getVertex(encodedResource));
+		return copy(specificationResource);
+	}
+
+	/**
+	 * Returns the {@link CompiledSpecification} of the
+	 * {@link ImplementationEncodingModular} if the given graph is the
+	 * {@link Application} or the {@link Architecture} of the compiled
+	 * {@link Specification}.
+	 * 
+	 * @param graph
+	 *            the specification graph
+	 * @return the {@link CompiledSpecification} or {@code null}
+	 */
+	protected CompiledSpecification getCompiledSpecification(Graph<?, ?> graph) {
+		CompiledSpecification compiledSpecification = implementationEncoding.getCompiledSpecification();
+		if (compiledSpecification != null) {
+			Specification specification = compiledSpecification.getSpecification();
+			if (specification.getArchitecture() == graph || specification.getApplication() == graph) {
+				return compiledSpecification;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the {@link Resource} of the specification {@link Architecture}
+	 * with the id of the encoded resource or {@code null}.
+	 * 
+	 * @param encodedResource
+	 *            the encoded {@link Resource}
+	 * @param specificationArchitecture
+	 *            the {@link Architecture} from the {@link Specification}
+	 * @return the specification {@link Resource} or {@code null}
+	 */
+	protected Resource getSpecificationResource(Resource encodedResource,
+			Architecture<Resource, Link> specificationArchitecture) {
+		CompiledSpecification compiledSpecification = getCompiledSpecification(specificationArchitecture);
+		if (compiledSpecification != null) {
+			int i = compiledSpecification.getResourceIndex(encodedResource);
+			return i < 0 ? null : compiledSpecification.getResource(i);
+		}
+		return specificationArchitecture.getVertex(encodedResource);
+	}
+
+	/**
+	 * Returns the {@link Link} of the specification {@link Architecture} with
+	 * the id of the encoded link or {@code null}.
+	 * 
+	 * @param encodedLink
+	 *            the encoded {@link Link}
+	 * @param specificationArchitecture
+	 *            the {@link Architecture} from the {@link Specification}
+	 * @return the specification {@link Link} or {@code null}
+	 */
+	protected Link getSpecificationLink(Link encodedLink, Architecture<Resource, Link> specificationArchitecture) {
+		CompiledSpecification compiledSpecification = getCompiledSpecification(specificationArchitecture);
+		if (compiledSpecification != null) {
+			int i = compiledSpecification.getLinkIndex(encodedLink);
+			return i < 0 ? null : compiledSpecification.getLink(i);
+		}
+		return specificationArchitecture.getEdge(encodedLink);
 	}
 
 	/**
@@ -512,8 +587,16 @@ public class InterpreterVariable extends InterpreterAbstract{
 	 */
 	protected Dependency createImplementationDependency(Dependency encodedDependency,
 			Application<Task, Dependency> specificationApplication) {
-		if (specificationApplication.getEdge(encodedDependency) != null) {
-			return copy(specificationApplication.getEdge(encodedDependency));
+		Dependency specificationDependency;
+		CompiledSpecification compiledSpecification = getCompiledSpecification(specificationApplication);
+		if (compiledSpecification != null) {
+			int i = compiledSpecification.getDependencyIndex(encodedDependency);
+			specificationDependency = i < 0 ? null : compiledSpecification.getDependency(i);
+		} else {
+			specificationDependency = specificationApplication.getEdge(encodedDependency);
+		}
+		if (specificationDependency != null) {
+			return copy(specificationDependency);
 		} else {
 			return encodedDependency;
 		}
@@ -532,8 +615,16 @@ public class InterpreterVariable extends InterpreterAbstract{
 	 *         {@link Application}. Returns the given task otherwise
 	 */
 	protected Task createImplementationTask(Task encodedTask, Application<Task, Dependency> specificationApplication) {
-		if (specificationApplication.getVertex(encodedTask) != null) {
-			return copy(specificationApplication.getVertex(encodedTask));
+		Task specificationTask;
+		CompiledSpecification compiledSpecification = getCompiledSpecification(specificationApplication);
+		if (compiledSpecification != null) {
+			int i = compiledSpecification.getTaskIndex(encodedTask);
+			specificationTask = i < 0 ? null : compiledSpecification.getTask(i);
+		} else {
+			specificationTask = specificationApplication.getVertex(encodedTask);
+		}
+		if (specificationTask != null) {
+			return copy(specificationTask);
 		} else {
 			return encodedTask;
 		}
@@ -2,23 +2,34 @@ package net.sf.opendse.encoding.interpreter;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.metrics.Metrics;
+import net.sf.opendse.optimization.metrics.Metrics.Sample;
 
 @Singleton
 public class SpecificationPostProcessorMulti implements SpecificationPostProcessor {
 
 	protected final List<SpecificationPostProcessorComposable> postProcessorList;
+	protected final Map<SpecificationPostProcessorComposable, String> stages = new HashMap<SpecificationPostProcessorComposable, String>();
+	protected Metrics metrics = Metrics.DISABLED;
 	
 	@Inject
 	public SpecificationPostProcessorMulti() {
 		this.postProcessorList = new ArrayList<SpecificationPostProcessorComposable>();
 	}
 	
+	@Inject(optional = true)
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
 	/**
 	 * Adds the given {@link SpecificationPostProcessorComposable} to the post processor list.
 	 * 
@@ -26,13 +37,16 @@ public class SpecificationPostProcessorMulti implements SpecificationPostProcess
 	 */
 	public void addPostProcessor(SpecificationPostProcessorComposable postProcessor) {
 		this.postProcessorList.add(postProcessor);
+		this.stages.put(postProcessor, "SpecificationPostProcessor." + postProcessor.getClass().getSimpleName());
 	}
 	
 	@Override
 	public void postProcessImplementation(Specification implementation) {
         Collections.sort(postProcessorList);
 		for (SpecificationPostProcessorComposable postProcessor : postProcessorList) {
+			Sample sample = metrics.start(stages.get(postProcessor));
 			postProcessor.postProcessImplementation(implementation);
+			sample.stop();
 		}
 	}
 }
@@ -8,6 +8,7 @@ import net.sf.opendse.encoding.ImplementationEncodingModular;
 import net.sf.opendse.encoding.interpreter.InterpreterVariable;
 import net.sf.opendse.encoding.interpreter.SpecificationPostProcessorCycleRemover;
 import net.sf.opendse.encoding.routing.CycleBreakEncoder;
+import net.sf.opendse.encoding.routing.CycleBreakEncoderColorLazy;
 import net.sf.opendse.encoding.routing.CycleBreakEncoderNone;
 import net.sf.opendse.encoding.routing.RoutingEncodingFlexible;
 import net.sf.opendse.encoding.routing.RoutingEncodingNone;
@@ -17,6 +18,7 @@ import net.sf.opendse.optimization.DesignSpaceExplorationEvaluator;
 import net.sf.opendse.optimization.DesignSpaceExplorationModule;
 import net.sf.opendse.optimization.ImplementationEvaluator;
 import net.sf.opendse.optimization.ImplementationWidgetService;
+import net.sf.opendse.optimization.LazyConstraints;
 import net.sf.opendse.optimization.RoutingVariableClassOrder;
 import net.sf.opendse.optimization.SATConstraints;
 import net.sf.opendse.optimization.SATCreatorDecoder;
@@ -87,6 +89,8 @@ public class OptimizationNewModule extends ProblemModule {
 
 	protected boolean removeCyclesManually = false;
 
+	protected boolean lazyCycleConstraints = false;
+
 	@Required(property = "stagnationRestartEnabled", elements = { "TRUE" })
 	@Constant(value = "maximalNumberStagnatingGenerations", namespace = StagnationRestart.class)
 	protected int maximalNumberStagnatingGenerations = 20;
@@ -102,6 +106,14 @@ public class OptimizationNewModule extends ProblemModule {
 		this.removeCyclesManually = removeCyclesManually;
 	}
 
+	public boolean isLazyCycleConstraints() {
+		return lazyCycleConstraints;
+	}
+
+	public void setLazyCycleConstraints(boolean lazyCycleConstraints) {
+		this.lazyCycleConstraints = lazyCycleConstraints;
+	}
+
 	public boolean isUseModularEncoding() {
 		return useModularEncoding;
 	}
@@ -183,6 +195,7 @@ public class OptimizationNewModule extends ProblemModule {
 		scmulti.addBinding().to(SpecificationRouterConstraints.class);
 
 		Multibinder.newSetBinder(binder(), ImplementationEvaluator.class);
+		Multibinder<LazyConstraints> lazyMulti = Multibinder.newSetBinder(binder(), LazyConstraints.class);
 
 		if (stagnationRestartEnabled) {
 			addOptimizerIterationListener(StagnationRestart.class);
@@ -207,6 +220,9 @@ public class OptimizationNewModule extends ProblemModule {
 		if (removeCyclesManually) {
 			bind(CycleBreakEncoder.class).to(CycleBreakEncoderNone.class);
 			bind(SpecificationPostProcessorCycleRemover.class).asEagerSingleton();
+		} else if (lazyCycleConstraints) {
+			bind(CycleBreakEncoder.class).to(CycleBreakEncoderColorLazy.class);
+			lazyMulti.addBinding().to(CycleBreakEncoderColorLazy.class);
 		}
 
 		// bind the allocation encoder
@@ -1,8 +1,12 @@
 package net.sf.opendse.encoding.module;
 
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.start.Constant;
+
 import net.sf.opendse.encoding.interpreter.InterpreterPreprocessedRoutings;
 import net.sf.opendse.encoding.interpreter.InterpreterVariable;
 import net.sf.opendse.encoding.preprocessing.PreprocessedRoutings;
+import net.sf.opendse.encoding.preprocessing.PreprocessedRoutingsConstructive;
 import net.sf.opendse.encoding.preprocessing.PreprocessedRoutingsNonRedundantUnicast;
 import net.sf.opendse.encoding.routing.RoutingEncodingFlexible;
 import net.sf.opendse.encoding.routing.RoutingEncodingPP;
@@ -12,6 +16,14 @@ public class PreprocessedRoutingsModule extends DesignSpaceExplorationModule {
 
 	public boolean nonRedundantUnicast = false;
 
+	@Info("The maximal number of routings kept in memory.")
+	@Constant(value = "cacheCapacity", namespace = PreprocessedRoutingsConstructive.class)
+	public int cacheCapacity = 100000;
+
+	@Info("The directory where the routings are stored across runs (disabled if empty).")
+	@Constant(value = "cacheDirectory", namespace = PreprocessedRoutingsConstructive.class)
+	public String cacheDirectory = "";
+
 	public boolean isNonRedundantUnicast() {
 		return nonRedundantUnicast;
 	}
@@ -20,6 +32,22 @@ public class PreprocessedRoutingsModule extends DesignSpaceExplorationModule {
 		this.nonRedundantUnicast = nonRedundantUnicast;
 	}
 
+	public int getCacheCapacity() {
+		return cacheCapacity;
+	}
+
+	public void setCacheCapacity(int cacheCapacity) {
+		this.cacheCapacity = cacheCapacity;
+	}
+
+	public String getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
 	@Override
 	protected void config() {
 		bind(InterpreterVariable.class).to(InterpreterPreprocessedRoutings.class);
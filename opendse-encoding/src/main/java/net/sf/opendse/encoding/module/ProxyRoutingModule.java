@@ -4,14 +4,18 @@ import org.opt4j.core.config.Icons;
 import org.opt4j.core.config.annotations.Icon;
 import org.opt4j.core.config.annotations.Name;
 import org.opt4j.core.config.annotations.Parent;
+import org.opt4j.core.config.annotations.Required;
 import org.opt4j.core.start.Opt4JModule;
 
+import com.google.inject.multibindings.Multibinder;
+
 import net.sf.opendse.encoding.interpreter.SpecificationPostProcessorProxy;
 import net.sf.opendse.encoding.preprocessing.ProxySearch;
 import net.sf.opendse.encoding.preprocessing.ProxySearchReduction;
 import net.sf.opendse.encoding.routing.ProxyEncoder;
 import net.sf.opendse.encoding.routing.ProxyEncoderLazy;
 import net.sf.opendse.optimization.DesignSpaceExplorationModule;
+import net.sf.opendse.optimization.LazyConstraints;
 
 /**
  * The {@link ProxyRoutingModule} binds the classes necessary for a proxy-based
@@ -27,6 +31,18 @@ public class ProxyRoutingModule extends Opt4JModule {
 	@Name("activate the elements in the proxy areas")
 	protected boolean activateProxyAreas = true;
 
+	@Name("generate the proxy constraints lazily")
+	@Required(property = "activateProxyAreas", elements = { "TRUE" })
+	protected boolean lazyProxyConstraints = false;
+
+	public boolean isLazyProxyConstraints() {
+		return lazyProxyConstraints;
+	}
+
+	public void setLazyProxyConstraints(boolean lazyProxyConstraints) {
+		this.lazyProxyConstraints = lazyProxyConstraints;
+	}
+
 	public boolean isActivateProxyAreas() {
 		return activateProxyAreas;
 	}
@@ -43,6 +59,10 @@ public class ProxyRoutingModule extends Opt4JModule {
 			bind(SpecificationPostProcessorProxy.class).asEagerSingleton();
 		} else {
 			bind(ProxySearch.class).asEagerSingleton();
+			if (lazyProxyConstraints) {
+				bind(ProxyEncoder.class).to(ProxyEncoderLazy.class);
+				Multibinder.newSetBinder(binder(), LazyConstraints.class).addBinding().to(ProxyEncoderLazy.class);
+			}
 		}
 	}
 }
@@ -1,5 +1,6 @@
 package net.sf.opendse.encoding.preprocessing;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -7,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.opt4j.core.start.Constant;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -20,7 +23,8 @@ import net.sf.opendse.optimization.SpecificationWrapper;
 
 /**
  * The {@link PreprocessedRoutingsConstructive} is used to find all the routes
- * between a given source and a set of provided destinations.
+ * between a given source and a set of provided destinations. The found
+ * routings are kept in a {@link RoutingCache}.
  * 
  * @author Fedor Smirnov
  *
@@ -28,33 +32,64 @@ import net.sf.opendse.optimization.SpecificationWrapper;
 @Singleton
 public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 
-	protected class RoutingDescription {
-		protected final Resource src;
-		protected final Set<Resource> destinations;
-		public RoutingDescription(Resource src, Set<Resource> destinations) {
-			this.src = src;
-			this.destinations = destinations;
-		}
-	}
-
 	protected final Architecture<Resource, Link> specArch;
 	protected Architecture<Resource, Link> preprocessedArch;
-	protected final Map<RoutingDescription, Set<Architecture<Resource, Link>>> routingCache;
+	protected int cacheCapacity = 100000;
+	protected String cacheDirectory = "";
+	protected RoutingCache routingCache;
 
 	@Inject
 	public PreprocessedRoutingsConstructive(SpecificationWrapper wrapper) {
 		this.specArch = wrapper.getSpecification().getArchitecture();
-		this.routingCache = new HashMap<PreprocessedRoutingsConstructive.RoutingDescription, Set<Architecture<Resource, Link>>>();
+	}
+
+	/**
+	 * Sets the maximal number of routings kept in memory.
+	 * 
+	 * @param cacheCapacity
+	 *            the maximal number of cached routings
+	 */
+	@Inject(optional = true)
+	public void setCacheCapacity(
+			@Constant(value = "cacheCapacity", namespace = PreprocessedRoutingsConstructive.class) int cacheCapacity) {
+		this.cacheCapacity = cacheCapacity;
+	}
+
+	/**
+	 * Sets the directory where the found routings are stored across runs. An
+	 * empty string disables the on-disk store.
+	 * 
+	 * @param cacheDirectory
+	 *            the directory of the on-disk store
+	 */
+	@Inject(optional = true)
+	public void setCacheDirectory(
+			@Constant(value = "cacheDirectory", namespace = PreprocessedRoutingsConstructive.class) String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Returns the {@link RoutingCache}. It is created on the first access.
+	 * 
+	 * @return the routing cache
+	 */
+	protected RoutingCache getRoutingCache() {
+		if (routingCache == null) {
+			File directory = cacheDirectory == null || cacheDirectory.isEmpty() ? null : new File(cacheDirectory);
+			routingCache = new RoutingCache(specArch, cacheCapacity, directory);
+		}
+		return routingCache;
 	}
 
 	@Override
 	public Set<Architecture<Resource, Link>> getAllRoutings(Resource source, Set<Resource> destinations) {
-		RoutingDescription desc = new RoutingDescription(source, destinations);
-		preprocessArch(source, destinations);
-		if (!routingCache.containsKey(desc)) {
-			routingCache.put(desc, findRoutings(source, destinations));
+		Set<Architecture<Resource, Link>> routings = getRoutingCache().get(source, destinations);
+		if (routings == null) {
+			preprocessArch(source, destinations);
+			routings = findRoutings(source, destinations);
+			routingCache.put(source, destinations, routings);
 		}
-		return routingCache.get(desc);
+		return routings;
 	}
 	
 	/**
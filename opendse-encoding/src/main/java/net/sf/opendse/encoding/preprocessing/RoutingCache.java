@@ -0,0 +1,431 @@
+package net.sf.opendse.encoding.preprocessing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+
+/**
+ * The {@link RoutingCache} stores the routings found for a source and a set of
+ * destinations. Each routing is stored as a {@link BitSet} over the directed
+ * links of the architecture. The cache holds at most a given number of
+ * routings and evicts the least recently used entries. Optionally, the
+ * routings are also written to a directory, in a subdirectory named after the
+ * hash of the architecture, so that later runs on the same architecture can
+ * reuse them.
+ */
+public class RoutingCache {
+
+	/**
+	 * Describes a routing problem, i.e., the source and the destinations.
+	 */
+	protected static class RoutingDescription {
+		protected final Resource src;
+		protected final Set<Resource> destinations;
+
+		public RoutingDescription(Resource src, Set<Resource> destinations) {
+			this.src = src;
+			this.destinations = new HashSet<Resource>(destinations);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * src.hashCode() + destinations.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof RoutingDescription)) {
+				return false;
+			}
+			RoutingDescription other = (RoutingDescription) obj;
+			return src.equals(other.src) && destinations.equals(other.destinations);
+		}
+
+		/**
+		 * Returns the ids of the source and the sorted destinations.
+		 *
+		 * @return the ids of the source and the sorted destinations
+		 */
+		protected List<String> getIds() {
+			List<String> ids = new ArrayList<String>();
+			for (Resource destination : destinations) {
+				ids.add(destination.getId());
+			}
+			Collections.sort(ids);
+			ids.add(0, src.getId());
+			return ids;
+		}
+	}
+
+	protected final Architecture<Resource, Link> architecture;
+	protected final List<Link> links;
+	protected final Map<Link, Integer> linkIndices = new HashMap<Link, Integer>();
+	protected final int capacity;
+	protected final File directory;
+	protected final Map<RoutingDescription, List<BitSet>> entries;
+	protected int size = 0;
+
+	/**
+	 * Constructs a {@link RoutingCache} that is kept in memory only.
+	 *
+	 * @param architecture
+	 *            the architecture of the specification
+	 * @param capacity
+	 *            the maximal number of routings kept in memory
+	 */
+	public RoutingCache(Architecture<Resource, Link> architecture, int capacity) {
+		this(architecture, capacity, null);
+	}
+
+	/**
+	 * Constructs a {@link RoutingCache}.
+	 *
+	 * @param architecture
+	 *            the architecture of the specification
+	 * @param capacity
+	 *            the maximal number of routings kept in memory
+	 * @param directory
+	 *            the directory of the on-disk store or {@code null} if the
+	 *            routings are not persisted
+	 */
+	public RoutingCache(Architecture<Resource, Link> architecture, int capacity, File directory) {
+		this.architecture = architecture;
+		this.capacity = capacity;
+		this.links = new ArrayList<Link>(architecture.getEdges());
+		Collections.sort(links, new Comparator<Link>() {
+			@Override
+			public int compare(Link l1, Link l2) {
+				return l1.getId().compareTo(l2.getId());
+			}
+		});
+		for (int i = 0; i < links.size(); i++) {
+			linkIndices.put(links.get(i), i);
+		}
+		this.directory = directory == null ? null : new File(directory, getArchitectureHash());
+		this.entries = new LinkedHashMap<RoutingDescription, List<BitSet>>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the cached routings between the given source and the given
+	 * destinations or {@code null} if the routings are neither in memory nor
+	 * in the on-disk store.
+	 *
+	 * @param src
+	 *            the source resource
+	 * @param destinations
+	 *            the destination resources
+	 * @return the cached routings or {@code null}
+	 */
+	public synchronized Set<Architecture<Resource, Link>> get(Resource src, Set<Resource> destinations) {
+		RoutingDescription desc = new RoutingDescription(src, destinations);
+		List<BitSet> encoded = entries.get(desc);
+		if (encoded == null && directory != null) {
+			encoded = read(desc);
+			if (encoded != null) {
+				add(desc, encoded);
+			}
+		}
+		if (encoded == null) {
+			return null;
+		}
+		Set<Architecture<Resource, Link>> routings = new HashSet<Architecture<Resource, Link>>();
+		for (BitSet bits : encoded) {
+			routings.add(decode(src, bits));
+		}
+		return routings;
+	}
+
+	/**
+	 * Stores the routings between the given source and the given destinations.
+	 *
+	 * @param src
+	 *            the source resource
+	 * @param destinations
+	 *            the destination resources
+	 * @param routings
+	 *            the routings
+	 */
+	public synchronized void put(Resource src, Set<Resource> destinations, Set<Architecture<Resource, Link>> routings) {
+		RoutingDescription desc = new RoutingDescription(src, destinations);
+		List<BitSet> encoded = new ArrayList<BitSet>();
+		for (Architecture<Resource, Link> routing : routings) {
+			encoded.add(encode(routing));
+		}
+		if (directory != null) {
+			write(desc, encoded);
+		}
+		add(desc, encoded);
+	}
+
+	/**
+	 * Returns the number of routings kept in memory.
+	 *
+	 * @return the number of routings kept in memory
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Adds the entry to the memory and evicts the least recently used entries
+	 * until the capacity is met. Entries larger than the capacity are not
+	 * kept.
+	 *
+	 * @param desc
+	 *            the routing description
+	 * @param encoded
+	 *            the encoded routings
+	 */
+	protected void add(RoutingDescription desc, List<BitSet> encoded) {
+		if (encoded.size() > capacity) {
+			return;
+		}
+		List<BitSet> previous = entries.put(desc, encoded);
+		size += encoded.size() - (previous == null ? 0 : previous.size());
+		Iterator<Entry<RoutingDescription, List<BitSet>>> it = entries.entrySet().iterator();
+		while (size > capacity) {
+			size -= it.next().getValue().size();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Encodes the given routing. The bit {@code 2i} is set if the {@code i}-th
+	 * link is used from its first to its second endpoint, the bit
+	 * {@code 2i+1} is set if it is used in the opposite direction.
+	 *
+	 * @param routing
+	 *            the routing
+	 * @return the encoded routing
+	 */
+	protected BitSet encode(Architecture<Resource, Link> routing) {
+		BitSet bits = new BitSet(2 * links.size());
+		for (Link link : routing.getEdges()) {
+			Integer index = linkIndices.get(link);
+			if (index == null) {
+				throw new IllegalArgumentException("The link " + link + " is not part of the architecture.");
+			}
+			boolean forward = routing.getSource(link).equals(architecture.getEndpoints(link).getFirst());
+			bits.set(2 * index + (forward ? 0 : 1));
+		}
+		return bits;
+	}
+
+	/**
+	 * Decodes the given routing.
+	 *
+	 * @param src
+	 *            the source resource
+	 * @param bits
+	 *            the encoded routing
+	 * @return the routing
+	 */
+	protected Architecture<Resource, Link> decode(Resource src, BitSet bits) {
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		routing.addVertex(src);
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			Link link = links.get(i / 2);
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			if (i % 2 == 0) {
+				routing.addEdge(link, endpoints.getFirst(), endpoints.getSecond(), EdgeType.DIRECTED);
+			} else {
+				routing.addEdge(link, endpoints.getSecond(), endpoints.getFirst(), EdgeType.DIRECTED);
+			}
+		}
+		return routing;
+	}
+
+	/**
+	 * Returns the file of the given routing description in the on-disk store.
+	 *
+	 * @param desc
+	 *            the routing description
+	 * @return the file
+	 */
+	protected File getFile(RoutingDescription desc) {
+		return new File(directory, Long.toHexString(hash(desc.getIds())) + ".routings");
+	}
+
+	/**
+	 * Reads the routings from the on-disk store. Missing, incomplete, corrupt,
+	 * or colliding files are treated as a cache miss.
+	 *
+	 * @param desc
+	 *            the routing description
+	 * @return the encoded routings or {@code null}
+	 */
+	protected List<BitSet> read(RoutingDescription desc) {
+		File file = getFile(desc);
+		if (!file.exists()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			List<String> ids = desc.getIds();
+			if (in.readInt() != ids.size()) {
+				return null;
+			}
+			for (String id : ids) {
+				if (!in.readUTF().equals(id)) {
+					return null;
+				}
+			}
+			int size = 2 * links.size();
+			int n = in.readInt();
+			if (n < 0) {
+				return null;
+			}
+			List<BitSet> encoded = new ArrayList<BitSet>();
+			for (int i = 0; i < n; i++) {
+				BitSet bits = new BitSet(size);
+				int cardinality = in.readInt();
+				if (cardinality < 0 || cardinality > size) {
+					return null;
+				}
+				for (int j = 0; j < cardinality; j++) {
+					int index = in.readInt();
+					if (index < 0 || index >= size) {
+						return null;
+					}
+					bits.set(index);
+				}
+				encoded.add(bits);
+			}
+			return encoded;
+		} catch (IOException e) {
+			return null;
+		} finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * Writes the routings to the on-disk store. The file is written to a
+	 * temporary file first so that an interrupted run does not leave an
+	 * incomplete entry. If the store cannot be written, the failure is logged
+	 * and the routings are only kept in memory.
+	 *
+	 * @param desc
+	 *            the routing description
+	 * @param encoded
+	 *            the encoded routings
+	 */
+	protected void write(RoutingDescription desc, List<BitSet> encoded) {
+		File file = getFile(desc);
+		DataOutputStream out = null;
+		File tmp = null;
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("Could not create the directory " + directory + ".");
+			}
+			tmp = File.createTempFile("routings", ".tmp", directory);
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			List<String> ids = desc.getIds();
+			out.writeInt(ids.size());
+			for (String id : ids) {
+				out.writeUTF(id);
+			}
+			out.writeInt(encoded.size());
+			for (BitSet bits : encoded) {
+				out.writeInt(bits.cardinality());
+				for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+					out.writeInt(i);
+				}
+			}
+			out.close();
+			out = null;
+			if (!tmp.renameTo(file)) {
+				file.delete();
+				if (!tmp.renameTo(file)) {
+					throw new IOException("Could not write the file " + file + ".");
+				}
+			}
+			tmp = null;
+		} catch (IOException e) {
+			System.err.println("Could not store the routings in " + directory + ": " + e.getMessage());
+		} finally {
+			close(out);
+			if (tmp != null) {
+				tmp.delete();
+			}
+		}
+	}
+
+	protected static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Returns the hash of the architecture. It is independent of the order of
+	 * the resources and links.
+	 *
+	 * @return the hash of the architecture
+	 */
+	protected String getArchitectureHash() {
+		List<String> tokens = new ArrayList<String>();
+		for (Resource resource : architecture) {
+			tokens.add("r:" + resource.getId());
+		}
+		for (Link link : links) {
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			tokens.add("l:" + link.getId() + ":" + endpoints.getFirst().getId() + ":" + endpoints.getSecond().getId()
+					+ ":" + architecture.getEdgeType(link));
+		}
+		Collections.sort(tokens);
+		return Long.toHexString(hash(tokens));
+	}
+
+	/**
+	 * Returns the FNV-1a hash of the given tokens.
+	 *
+	 * @param tokens
+	 *            the tokens
+	 * @return the hash
+	 */
+	protected static long hash(List<String> tokens) {
+		long hash = 0xcbf29ce484222325L;
+		for (String token : tokens) {
+			for (int i = 0; i < token.length(); i++) {
+				hash ^= token.charAt(i);
+				hash *= 0x100000001b3L;
+			}
+			hash ^= '\n';
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+}
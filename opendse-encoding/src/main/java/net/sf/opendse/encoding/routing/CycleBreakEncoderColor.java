@@ -60,57 +60,78 @@ public class CycleBreakEncoderColor implements CycleBreakEncoder {
 	protected Set<Constraint> performTwoColoring(T commVar, Architecture<Resource, Link> routing) {
 		Set<Constraint> result = new HashSet<Constraint>();
 		Task comm = commVar.getTask();
-		// iterates all pairs of directed links
 		for (Resource first : routing) {
-			if (!ResourcePropertyService.getProxyId(first).equals(first.getId())) {
-				// proxy resource
-				continue;
-			}
-			for (Link firstLink : routing.getIncidentEdges(first)) {
-				for (Link secondLink : routing.getIncidentEdges(first)) {
-					if (firstLink.equals(secondLink)) {
-						continue;
-					}
-					Resource second = routing.getOpposite(first, firstLink);
-					Resource third = routing.getOpposite(first, secondLink);
-					
-					CLRR inLink1 = Variables.varCLRR(comm, new DirectedLink(firstLink, second, first));
-					CLRR outLink1 = Variables.varCLRR(comm, new DirectedLink(secondLink, first, third));
-					
-					CLRR outLink2 = Variables.varCLRR(comm, new DirectedLink(firstLink, first, second));
-					CLRR inLink2 = Variables.varCLRR(comm, new DirectedLink(secondLink, third, first));
-					
-					ColoredCommNode secondBlack = Variables.varColoredCommNode(comm, second, black);
-					ColoredCommNode thirdBlack = Variables.varColoredCommNode(comm, third, black);
-					
-					Constraint differentNeighborColor1a = new Constraint(Operator.LE, 3);
-					differentNeighborColor1a.add(Variables.p(inLink1));
-					differentNeighborColor1a.add(Variables.p(outLink1));
-					differentNeighborColor1a.add(Variables.p(secondBlack));
-					differentNeighborColor1a.add(Variables.p(thirdBlack));
-					result.add(differentNeighborColor1a);
-					
-					Constraint differentNeighborColor1b = new Constraint(Operator.LE, 1);
-					differentNeighborColor1b.add(Variables.p(inLink1));
-					differentNeighborColor1b.add(Variables.p(outLink1));
-					differentNeighborColor1b.add(-1, Variables.p(secondBlack));
-					differentNeighborColor1b.add(-1, Variables.p(thirdBlack));
-					result.add(differentNeighborColor1b);
-					
-					Constraint differentNeighborColor2a = new Constraint(Operator.LE, 3);
-					differentNeighborColor2a.add(Variables.p(inLink2));
-					differentNeighborColor2a.add(Variables.p(outLink2));
-					differentNeighborColor2a.add(Variables.p(secondBlack));
-					differentNeighborColor2a.add(Variables.p(thirdBlack));
-					result.add(differentNeighborColor2a);
-					
-					Constraint differentNeighborColor2b = new Constraint(Operator.LE, 1);
-					differentNeighborColor2b.add(Variables.p(inLink2));
-					differentNeighborColor2b.add(Variables.p(outLink2));
-					differentNeighborColor2b.add(-1, Variables.p(secondBlack));
-					differentNeighborColor2b.add(-1, Variables.p(thirdBlack));
-					result.add(differentNeighborColor2b);
+			result.addAll(performTwoColoring(comm, routing, first));
+		}
+		return result;
+	}
+
+	/**
+	 * Formulates the {@link Constraint}s of the 2-coloring for the pairs of
+	 * links incident to the given resource, see
+	 * {@link #performTwoColoring(T, Architecture)}.
+	 * 
+	 * @param comm
+	 *            the communication that is being routed
+	 * @param routing
+	 *            the {@link Architecture} graph representing all possible
+	 *            routings for the communication that is being routed
+	 * @param first
+	 *            the resource
+	 * @return {@link Constraint}s of the 2-coloring for the pairs of links
+	 *         incident to the given resource
+	 */
+	protected Set<Constraint> performTwoColoring(Task comm, Architecture<Resource, Link> routing, Resource first) {
+		Set<Constraint> result = new HashSet<Constraint>();
+		if (!ResourcePropertyService.getProxyId(first).equals(first.getId())) {
+			// proxy resource
+			return result;
+		}
+		// iterates all pairs of directed links
+		for (Link firstLink : routing.getIncidentEdges(first)) {
+			for (Link secondLink : routing.getIncidentEdges(first)) {
+				if (firstLink.equals(secondLink)) {
+					continue;
 				}
+				Resource second = routing.getOpposite(first, firstLink);
+				Resource third = routing.getOpposite(first, secondLink);
+				
+				CLRR inLink1 = Variables.varCLRR(comm, new DirectedLink(firstLink, second, first));
+				CLRR outLink1 = Variables.varCLRR(comm, new DirectedLink(secondLink, first, third));
+				
+				CLRR outLink2 = Variables.varCLRR(comm, new DirectedLink(firstLink, first, second));
+				CLRR inLink2 = Variables.varCLRR(comm, new DirectedLink(secondLink, third, first));
+				
+				ColoredCommNode secondBlack = Variables.varColoredCommNode(comm, second, black);
+				ColoredCommNode thirdBlack = Variables.varColoredCommNode(comm, third, black);
+				
+				Constraint differentNeighborColor1a = new Constraint(Operator.LE, 3);
+				differentNeighborColor1a.add(Variables.p(inLink1));
+				differentNeighborColor1a.add(Variables.p(outLink1));
+				differentNeighborColor1a.add(Variables.p(secondBlack));
+				differentNeighborColor1a.add(Variables.p(thirdBlack));
+				result.add(differentNeighborColor1a);
+				
+				Constraint differentNeighborColor1b = new Constraint(Operator.LE, 1);
+				differentNeighborColor1b.add(Variables.p(inLink1));
+				differentNeighborColor1b.add(Variables.p(outLink1));
+				differentNeighborColor1b.add(-1, Variables.p(secondBlack));
+				differentNeighborColor1b.add(-1, Variables.p(thirdBlack));
+				result.add(differentNeighborColor1b);
+				
+				Constraint differentNeighborColor2a = new Constraint(Operator.LE, 3);
+				differentNeighborColor2a.add(Variables.p(inLink2));
+				differentNeighborColor2a.add(Variables.p(outLink2));
+				differentNeighborColor2a.add(Variables.p(secondBlack));
+				differentNeighborColor2a.add(Variables.p(thirdBlack));
+				result.add(differentNeighborColor2a);
+				
+				Constraint differentNeighborColor2b = new Constraint(Operator.LE, 1);
+				differentNeighborColor2b.add(Variables.p(inLink2));
+				differentNeighborColor2b.add(Variables.p(outLink2));
+				differentNeighborColor2b.add(-1, Variables.p(secondBlack));
+				differentNeighborColor2b.add(-1, Variables.p(thirdBlack));
+				result.add(differentNeighborColor2b);
 			}
 		}
 		
@@ -140,31 +161,51 @@ public class CycleBreakEncoderColor implements CycleBreakEncoder {
 		Set<Constraint> result = new HashSet<Constraint>();
 		// iterates each resource and processes each in- and out-link pair
 		for (Resource res : routing) {
-			result.add(paintResource3Colors(comm, res));
-			Set<DirectedLink> inLinks = new HashSet<Models.DirectedLink>(Models.getInLinks(routing, res));
-			Set<DirectedLink> outLinks = new HashSet<Models.DirectedLink>(Models.getOutLinks(routing, res));
-			// states that the resource has to have a different color than its
-			// predecessor
-			for (DirectedLink inLink : inLinks) {
-				Resource predecessor = inLink.getSource();
-				result.addAll(paintNeighborsDifferently(comm, inLink, res, predecessor));
-			}
-			// states that the resource has to have a different color than its
-			// predecessor
+			result.addAll(performThreeColoring(comm, routing, res));
+		}
+		return result;
+	}
+
+	/**
+	 * Formulates the {@link Constraint}s of the 3-coloring for the given
+	 * resource and its in- and out-links, see
+	 * {@link #performThreeColoring(T, Architecture)}.
+	 * 
+	 * @param comm
+	 *            the communication that is being routed
+	 * @param routing
+	 *            the {@link Architecture} graph representing all possible
+	 *            routings for the communication that is being routed
+	 * @param res
+	 *            the resource
+	 * @return {@link Constraint}s of the 3-coloring for the given resource
+	 */
+	protected Set<Constraint> performThreeColoring(Task comm, Architecture<Resource, Link> routing, Resource res) {
+		Set<Constraint> result = new HashSet<Constraint>();
+		result.add(paintResource3Colors(comm, res));
+		Set<DirectedLink> inLinks = new HashSet<Models.DirectedLink>(Models.getInLinks(routing, res));
+		Set<DirectedLink> outLinks = new HashSet<Models.DirectedLink>(Models.getOutLinks(routing, res));
+		// states that the resource has to have a different color than its
+		// predecessor
+		for (DirectedLink inLink : inLinks) {
+			Resource predecessor = inLink.getSource();
+			result.addAll(paintNeighborsDifferently(comm, inLink, res, predecessor));
+		}
+		// states that the resource has to have a different color than its
+		// predecessor
+		for (DirectedLink outLink : outLinks) {
+			Resource successor = outLink.getDest();
+			result.addAll(paintNeighborsDifferently(comm, outLink, res, successor));
+		}
+		// states that the predecessor has to be painted differently that
+		// the successor
+		for (DirectedLink inLink : inLinks) {
 			for (DirectedLink outLink : outLinks) {
+				Resource predecessor = inLink.getSource();
 				Resource successor = outLink.getDest();
-				result.addAll(paintNeighborsDifferently(comm, outLink, res, successor));
-			}
-			// states that the predecessor has to be painted differently that
-			// the successor
-			for (DirectedLink inLink : inLinks) {
-				for (DirectedLink outLink : outLinks) {
-					Resource predecessor = inLink.getSource();
-					Resource successor = outLink.getDest();
-					if (predecessor.equals(successor))
-						continue;
-					result.addAll(paintNeighborhoodDifferently(comm, inLink, outLink, predecessor, successor));
-				}
+				if (predecessor.equals(successor))
+					continue;
+				result.addAll(paintNeighborhoodDifferently(comm, inLink, outLink, predecessor, successor));
 			}
 		}
 		return result;
@@ -0,0 +1,178 @@
+package net.sf.opendse.encoding.routing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
+
+import com.google.inject.Singleton;
+
+import net.sf.opendse.encoding.constraints.Constraints;
+import net.sf.opendse.encoding.module.OptimizationNewModule;
+import net.sf.opendse.encoding.variables.T;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Models.DirectedLink;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.LazyConstraints;
+
+/**
+ * The {@link CycleBreakEncoderColorLazy} generates the coloring constraints of
+ * the {@link CycleBreakEncoderColor} lazily. The initial encoding does not
+ * contain any coloring constraints. Once a model is found, the routing of each
+ * communication is checked for cycles and the coloring constraints of the
+ * resources on cycles are added as {@link LazyConstraints}, see
+ * {@link OptimizationNewModule}.
+ */
+@Singleton
+public class CycleBreakEncoderColorLazy extends CycleBreakEncoderColor implements LazyConstraints {
+
+	protected final Map<Task, Architecture<Resource, Link>> routings = new HashMap<Task, Architecture<Resource, Link>>();
+	protected final Map<Task, Set<Resource>> encodedResources = new HashMap<Task, Set<Resource>>();
+
+	@Override
+	public synchronized Set<Constraint> toConstraints(T communicationVariable, Architecture<Resource, Link> routing) {
+		routings.put(communicationVariable.getTask(), routing);
+		return new HashSet<Constraint>();
+	}
+
+	/**
+	 * Returns the coloring constraints of the resources that are on a cycle of
+	 * the routing of a communication in the model. The constraints of each
+	 * resource are returned at most once.
+	 * 
+	 * @param model
+	 *            the model
+	 * @return the violated constraints
+	 */
+	@Override
+	public synchronized Collection<Constraint> getViolatedConstraints(Model model) {
+		Set<Constraint> result = new HashSet<Constraint>();
+		for (Entry<Task, Architecture<Resource, Link>> entry : routings.entrySet()) {
+			Task comm = entry.getKey();
+			Architecture<Resource, Link> routing = entry.getValue();
+			Set<Resource> cycleResources = getCycleResources(comm, routing, model);
+			if (cycleResources.isEmpty()) {
+				continue;
+			}
+			Set<Resource> encoded = encodedResources.get(comm);
+			if (encoded == null) {
+				encoded = new HashSet<Resource>();
+				encodedResources.put(comm, encoded);
+			}
+			for (Resource res : cycleResources) {
+				if (encoded.add(res)) {
+					result.addAll(performTwoColoring(comm, routing, res));
+					result.addAll(performThreeColoring(comm, routing, res));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the resources that are on a cycle of the routing of the given
+	 * communication in the model, i.e., the resources of the strongly
+	 * connected components (with more than one resource) of the activated
+	 * links.
+	 * 
+	 * @param comm
+	 *            the communication
+	 * @param routing
+	 *            the {@link Architecture} graph representing all possible
+	 *            routings for the communication
+	 * @param model
+	 *            the model
+	 * @return the resources on a cycle
+	 */
+	protected Set<Resource> getCycleResources(Task comm, Architecture<Resource, Link> routing, Model model) {
+		Map<Resource, List<Resource>> successors = new HashMap<Resource, List<Resource>>();
+		for (DirectedLink link : Models.getLinks(routing)) {
+			if (Constraints.isActive(Variables.varCLRR(comm, link), model)) {
+				List<Resource> list = successors.get(link.getSource());
+				if (list == null) {
+					list = new ArrayList<Resource>();
+					successors.put(link.getSource(), list);
+				}
+				list.add(link.getDest());
+			}
+		}
+		Set<Resource> result = new HashSet<Resource>();
+		if (successors.isEmpty()) {
+			return result;
+		}
+
+		// iterative Tarjan algorithm
+		Map<Resource, Integer> index = new HashMap<Resource, Integer>();
+		Map<Resource, Integer> lowlink = new HashMap<Resource, Integer>();
+		Deque<Resource> stack = new ArrayDeque<Resource>();
+		Set<Resource> onStack = new HashSet<Resource>();
+		for (Resource root : successors.keySet()) {
+			if (index.containsKey(root)) {
+				continue;
+			}
+			Deque<Resource> path = new ArrayDeque<Resource>();
+			Deque<Iterator<Resource>> iterators = new ArrayDeque<Iterator<Resource>>();
+			visit(root, successors, index, lowlink, stack, onStack, path, iterators);
+			while (!path.isEmpty()) {
+				Resource v = path.peek();
+				Iterator<Resource> iterator = iterators.peek();
+				if (iterator.hasNext()) {
+					Resource w = iterator.next();
+					if (!index.containsKey(w)) {
+						visit(w, successors, index, lowlink, stack, onStack, path, iterators);
+					} else if (onStack.contains(w)) {
+						lowlink.put(v, Math.min(lowlink.get(v), index.get(w)));
+					}
+				} else {
+					path.pop();
+					iterators.pop();
+					if (!path.isEmpty()) {
+						Resource u = path.peek();
+						lowlink.put(u, Math.min(lowlink.get(u), lowlink.get(v)));
+					}
+					if (lowlink.get(v).equals(index.get(v))) {
+						List<Resource> component = new ArrayList<Resource>();
+						Resource w;
+						do {
+							w = stack.pop();
+							onStack.remove(w);
+							component.add(w);
+						} while (!w.equals(v));
+						if (component.size() > 1) {
+							result.addAll(component);
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	protected void visit(Resource v, Map<Resource, List<Resource>> successors, Map<Resource, Integer> index,
+			Map<Resource, Integer> lowlink, Deque<Resource> stack, Set<Resource> onStack, Deque<Resource> path,
+			Deque<Iterator<Resource>> iterators) {
+		index.put(v, index.size());
+		lowlink.put(v, index.get(v));
+		stack.push(v);
+		onStack.add(v);
+		path.push(v);
+		List<Resource> list = successors.get(v);
+		iterators.push(list != null ? list.iterator() : Collections.<Resource> emptyList().iterator());
+	}
+
+}
@@ -40,31 +40,56 @@ public class ProxyEncoderCompact implements ProxyEncoder {
 		// iterate all resources inside proxy areas
 		for (Resource res : routing) {
 			if (insideProxyArea(res, routing)) {
-				Set<Variable> srcMappings = new HashSet<Variable>();
-				Set<Variable> destMappings = new HashSet<Variable>();
-				getSrcDestMappings(mappingVariables, applicationVariables, communication, res, result, srcMappings,
-						destMappings);
-				List<DirectedLink> inLinks = Models.getInLinks(routing, res);
-				List<DirectedLink> outLinks = Models.getOutLinks(routing, res);
-				// formulate the constraints for the mapping variables
-				for (Variable srcMapping : srcMappings) {
-					result.add(makeMappingConstraint(communication, srcMapping, destMappings, outLinks));
-				}
-				for (Variable destMapping : destMappings) {
-					result.add(makeMappingConstraint(communication, destMapping, srcMappings, inLinks));
-				}
-				// formulate the constraints for each in-Link
-				for (DirectedLink inLink : inLinks) {
-					result.add(makeLinkConstraint(communication, inLink, destMappings, outLinks));
-				}
-				for (DirectedLink outLink : outLinks) {
-					result.add(makeLinkConstraint(communication, outLink, srcMappings, inLinks));
-				}
+				result.addAll(toConstraints(communication, routing, res, mappingVariables, applicationVariables));
 			}
 		}
 		return result;
 	}
 
+	/**
+	 * Generates the constraints that describe the activation conditions of the
+	 * given resource inside a proxy area and its in- and out-links.
+	 * 
+	 * @param communication
+	 *            the communication that is being routed
+	 * @param routing
+	 *            the {@link Architecture} representing the routing possibilities
+	 * @param res
+	 *            the resource inside a proxy area
+	 * @param mappingVariables
+	 *            the set of the variables encoding the mapping of the tasks
+	 * @param applicationVariables
+	 *            the set of variables encoding the activation of the application
+	 *            elements
+	 * @return the constraints that describe the activation conditions of the
+	 *         given resource and its in- and out-links
+	 */
+	protected Set<Constraint> toConstraints(Task communication, Architecture<Resource, Link> routing, Resource res,
+			Set<MappingVariable> mappingVariables, Set<ApplicationVariable> applicationVariables) {
+		Set<Constraint> result = new HashSet<Constraint>();
+		Set<Variable> srcMappings = new HashSet<Variable>();
+		Set<Variable> destMappings = new HashSet<Variable>();
+		getSrcDestMappings(mappingVariables, applicationVariables, communication, res, result, srcMappings,
+				destMappings);
+		List<DirectedLink> inLinks = Models.getInLinks(routing, res);
+		List<DirectedLink> outLinks = Models.getOutLinks(routing, res);
+		// formulate the constraints for the mapping variables
+		for (Variable srcMapping : srcMappings) {
+			result.add(makeMappingConstraint(communication, srcMapping, destMappings, outLinks));
+		}
+		for (Variable destMapping : destMappings) {
+			result.add(makeMappingConstraint(communication, destMapping, srcMappings, inLinks));
+		}
+		// formulate the constraints for each in-Link
+		for (DirectedLink inLink : inLinks) {
+			result.add(makeLinkConstraint(communication, inLink, destMappings, outLinks));
+		}
+		for (DirectedLink outLink : outLinks) {
+			result.add(makeLinkConstraint(communication, outLink, srcMappings, inLinks));
+		}
+		return result;
+	}
+
 	/**
 	 * Generates the constraint stating that the given link may only be active if at
 	 * least one of the enablers is active.
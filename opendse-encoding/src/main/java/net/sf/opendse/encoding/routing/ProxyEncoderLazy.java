@@ -1,29 +1,181 @@
 package net.sf.opendse.encoding.routing;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
 
+import com.google.inject.Singleton;
+
+import net.sf.opendse.encoding.constraints.Constraints;
+import net.sf.opendse.encoding.module.ProxyRoutingModule;
 import net.sf.opendse.encoding.variables.ApplicationVariable;
+import net.sf.opendse.encoding.variables.DTT;
+import net.sf.opendse.encoding.variables.M;
 import net.sf.opendse.encoding.variables.MappingVariable;
+import net.sf.opendse.encoding.variables.Variables;
 import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Models.DirectedLink;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.LazyConstraints;
 
 /**
- * The {@link ProxyEncoderLazy} does not do anything and relies on postprocessing for the generation of the correct implementation.
+ * The {@link ProxyEncoderLazy} does not encode the activation conditions of
+ * the elements inside the proxy areas upfront. If it is registered as
+ * {@link LazyConstraints} (see {@link ProxyRoutingModule}), the constraints of
+ * the {@link ProxyEncoderCompact} for a resource inside a proxy area are added
+ * once a model violates them. Otherwise, it relies on postprocessing for the
+ * generation of the correct implementation.
  * 
  * @author Fedor Smirnov
  *
  */
-public class ProxyEncoderLazy implements ProxyEncoder {
+@Singleton
+public class ProxyEncoderLazy extends ProxyEncoderCompact implements LazyConstraints {
+
+	protected final List<ProxyResource> pending = new ArrayList<ProxyResource>();
 
 	@Override
-	public Set<Constraint> toConstraints(Task communication, Architecture<Resource, Link> routing,
+	public synchronized Set<Constraint> toConstraints(Task communication, Architecture<Resource, Link> routing,
 			Set<MappingVariable> mappingVariables, Set<ApplicationVariable> applicationVariables) {
+		List<Resource> resources = new ArrayList<Resource>();
+		for (Resource res : routing) {
+			if (insideProxyArea(res, routing)) {
+				resources.add(res);
+			}
+		}
+		if (!resources.isEmpty()) {
+			// only the variables of the dependencies of the communication and
+			// the mappings of its source and destination tasks are relevant
+			Set<ApplicationVariable> dependencyVariables = new HashSet<ApplicationVariable>();
+			Set<Task> tasks = new HashSet<Task>();
+			for (ApplicationVariable applVar : applicationVariables) {
+				if (applVar instanceof DTT) {
+					DTT dttVar = (DTT) applVar;
+					if (dttVar.getDestinationTask().equals(communication)) {
+						dependencyVariables.add(dttVar);
+						tasks.add(dttVar.getSourceTask());
+					} else if (dttVar.getSourceTask().equals(communication)) {
+						dependencyVariables.add(dttVar);
+						tasks.add(dttVar.getDestinationTask());
+					}
+				}
+			}
+			Set<MappingVariable> taskMappingVariables = new HashSet<MappingVariable>();
+			for (MappingVariable mapVar : mappingVariables) {
+				if (mapVar instanceof M && tasks.contains(((M) mapVar).getMapping().getSource())) {
+					taskMappingVariables.add(mapVar);
+				}
+			}
+			for (Resource res : resources) {
+				pending.add(new ProxyResource(communication, routing, res, taskMappingVariables, dependencyVariables));
+			}
+		}
 		return new HashSet<Constraint>();
 	}
-	
+
+	/**
+	 * Returns the constraints of the resources inside proxy areas whose
+	 * activation conditions are violated by the model. The constraints of
+	 * each resource are returned at most once. The constraints of a resource
+	 * are only generated and checked if one of its links is used by the
+	 * communication or a source or destination task is mapped onto it, since
+	 * no constraint can be violated otherwise.
+	 * 
+	 * @param model
+	 *            the model
+	 * @return the violated constraints
+	 */
+	@Override
+	public synchronized Collection<Constraint> getViolatedConstraints(Model model) {
+		Set<Constraint> result = new HashSet<Constraint>();
+		Iterator<ProxyResource> iterator = pending.iterator();
+		while (iterator.hasNext()) {
+			ProxyResource proxyResource = iterator.next();
+			if (!proxyResource.isActive(model)) {
+				continue;
+			}
+			Set<Constraint> constraints = proxyResource.getConstraints();
+			for (Constraint constraint : constraints) {
+				if (!Constraints.isSatisfied(constraint, model)) {
+					result.addAll(constraints);
+					iterator.remove();
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The {@link ProxyResource} is a resource inside a proxy area of the
+	 * routing of a communication whose constraints were not added yet. The
+	 * constraints are generated once the resource is active in a model for the
+	 * first time.
+	 */
+	protected class ProxyResource {
+
+		protected final Task communication;
+		protected final Architecture<Resource, Link> routing;
+		protected final Resource resource;
+		protected final Set<MappingVariable> mappingVariables;
+		protected final Set<ApplicationVariable> applicationVariables;
+		protected final List<Object> activators = new ArrayList<Object>();
+		protected Set<Constraint> constraints = null;
+
+		protected ProxyResource(Task communication, Architecture<Resource, Link> routing, Resource resource,
+				Set<MappingVariable> mappingVariables, Set<ApplicationVariable> applicationVariables) {
+			this.communication = communication;
+			this.routing = routing;
+			this.resource = resource;
+			this.mappingVariables = mappingVariables;
+			this.applicationVariables = applicationVariables;
+			for (DirectedLink dLink : Models.getInLinks(routing, resource)) {
+				activators.add(Variables.varCLRR(communication, dLink));
+			}
+			for (DirectedLink dLink : Models.getOutLinks(routing, resource)) {
+				activators.add(Variables.varCLRR(communication, dLink));
+			}
+			for (MappingVariable mapVar : mappingVariables) {
+				if (mapVar instanceof M && ((M) mapVar).getMapping().getTarget().equals(resource)) {
+					activators.add(mapVar);
+				}
+			}
+		}
+
+		/**
+		 * Returns {@code true} if one of the links of the resource is used by
+		 * the communication or one of the source or destination tasks is
+		 * mapped onto the resource in the given model. Only then, one of the
+		 * constraints of the resource can be violated.
+		 * 
+		 * @param model
+		 *            the model
+		 * @return {@code true} if the resource is active in the model
+		 */
+		protected boolean isActive(Model model) {
+			for (Object activator : activators) {
+				if (Constraints.isActive(activator, model)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		protected Set<Constraint> getConstraints() {
+			if (constraints == null) {
+				constraints = toConstraints(communication, routing, resource, mappingVariables, applicationVariables);
+			}
+			return constraints;
+		}
+	}
+
 }
@@ -11,4 +11,15 @@ public class AndVariable extends Variable {
 	protected AndVariable(Variable... variables) {
 		super((Object[]) variables);
 	}
+
+	/**
+	 * Returns the variables whose AND-relation is encoded.
+	 * 
+	 * @return the variables whose AND-relation is encoded
+	 */
+	public Variable[] getArguments() {
+		Variable[] arguments = new Variable[objects.length - 1];
+		System.arraycopy(objects, 1, arguments, 0, arguments.length);
+		return arguments;
+	}
 }
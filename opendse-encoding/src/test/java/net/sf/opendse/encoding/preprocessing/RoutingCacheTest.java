@@ -0,0 +1,156 @@
+package net.sf.opendse.encoding.preprocessing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Resource;
+
+public class RoutingCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	protected Resource r0 = new Resource("r0");
+	protected Resource r1 = new Resource("r1");
+	protected Resource r2 = new Resource("r2");
+	protected Resource r3 = new Resource("r3");
+
+	protected Architecture<Resource, Link> getArchitecture() {
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		arch.addEdge(new Link("l0"), r0, r1, EdgeType.UNDIRECTED);
+		arch.addEdge(new Link("l1"), r0, r2, EdgeType.UNDIRECTED);
+		arch.addEdge(new Link("l2"), r1, r3, EdgeType.UNDIRECTED);
+		arch.addEdge(new Link("l3"), r2, r3, EdgeType.UNDIRECTED);
+		return arch;
+	}
+
+	protected Set<Architecture<Resource, Link>> getRoutings(Architecture<Resource, Link> arch, Resource src,
+			Resource dest) {
+		PreprocessedRoutingsConstructive ppRoutings = new PreprocessedRoutingsConstructive(
+				PreprocessedRoutingsConstructiveTest.makeWrapperMock(arch));
+		ppRoutings.preprocessArch(src, singleton(dest));
+		return ppRoutings.findRoutings(src, singleton(dest));
+	}
+
+	protected static Set<Resource> singleton(Resource resource) {
+		Set<Resource> result = new HashSet<Resource>();
+		result.add(resource);
+		return result;
+	}
+
+	protected static Set<Set<Models.DirectedLink>> getLinks(Set<Architecture<Resource, Link>> routings) {
+		Set<Set<Models.DirectedLink>> result = new HashSet<Set<Models.DirectedLink>>();
+		for (Architecture<Resource, Link> routing : routings) {
+			result.add(new HashSet<Models.DirectedLink>(Models.getLinks(routing)));
+		}
+		return result;
+	}
+
+	@Test
+	public void testEncodeDecode() {
+		Architecture<Resource, Link> arch = getArchitecture();
+		RoutingCache cache = new RoutingCache(arch, 10);
+		Set<Architecture<Resource, Link>> routings = getRoutings(arch, r3, r0);
+		assertEquals(3, routings.size());
+		assertNull(cache.get(r3, singleton(r0)));
+		cache.put(r3, singleton(r0), routings);
+		Set<Architecture<Resource, Link>> cached = cache.get(r3, singleton(r0));
+		assertEquals(getLinks(routings), getLinks(cached));
+		for (Architecture<Resource, Link> routing : cached) {
+			assertTrue(routing.containsVertex(r3));
+		}
+		assertNull(cache.get(r0, singleton(r3)));
+	}
+
+	@Test
+	public void testEviction() {
+		Architecture<Resource, Link> arch = getArchitecture();
+		RoutingCache cache = new RoutingCache(arch, 6);
+		cache.put(r0, singleton(r3), getRoutings(arch, r0, r3));
+		cache.put(r0, singleton(r1), getRoutings(arch, r0, r1));
+		assertEquals(6, cache.size());
+		// the access makes r0 -> r3 the most recently used entry
+		assertNotNull(cache.get(r0, singleton(r3)));
+		cache.put(r0, singleton(r2), getRoutings(arch, r0, r2));
+		assertEquals(6, cache.size());
+		assertNotNull(cache.get(r0, singleton(r3)));
+		assertNotNull(cache.get(r0, singleton(r2)));
+		assertNull(cache.get(r0, singleton(r1)));
+
+		// entries exceeding the capacity are not kept
+		cache = new RoutingCache(arch, 2);
+		cache.put(r0, singleton(r3), getRoutings(arch, r0, r3));
+		assertEquals(0, cache.size());
+		assertNull(cache.get(r0, singleton(r3)));
+	}
+
+	@Test
+	public void testStore() {
+		File directory = folder.getRoot();
+		Architecture<Resource, Link> arch = getArchitecture();
+		Set<Architecture<Resource, Link>> routings = getRoutings(arch, r0, r3);
+		new RoutingCache(arch, 0, directory).put(r0, singleton(r3), routings);
+
+		// a new cache on an equal architecture reads the stored routings
+		RoutingCache cache = new RoutingCache(getArchitecture(), 10, directory);
+		assertEquals(getLinks(routings), getLinks(cache.get(r0, singleton(r3))));
+		assertEquals(3, cache.size());
+		assertNull(cache.get(r3, singleton(r0)));
+
+		// a different architecture does not share the store
+		Architecture<Resource, Link> other = getArchitecture();
+		other.addEdge(new Link("l4"), r0, r3, EdgeType.UNDIRECTED);
+		assertNull(new RoutingCache(other, 10, directory).get(r0, singleton(r3)));
+	}
+
+	@Test
+	public void testUnwritableStore() throws IOException {
+		// a regular file cannot be used as directory
+		File directory = folder.newFile();
+		Architecture<Resource, Link> arch = getArchitecture();
+		Set<Architecture<Resource, Link>> routings = getRoutings(arch, r0, r3);
+		RoutingCache cache = new RoutingCache(arch, 10, directory);
+		cache.put(r0, singleton(r3), routings);
+		assertEquals(getLinks(routings), getLinks(cache.get(r0, singleton(r3))));
+	}
+
+	@Test
+	public void testCorruptStore() throws IOException {
+		File directory = folder.getRoot();
+		Architecture<Resource, Link> arch = getArchitecture();
+		RoutingCache cache = new RoutingCache(arch, 10, directory);
+		cache.put(r0, singleton(r3), getRoutings(arch, r0, r3));
+
+		// overwrite the entry with a routing that uses an unknown link index
+		RoutingCache.RoutingDescription desc = new RoutingCache.RoutingDescription(r0, singleton(r3));
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(cache.getFile(desc)));
+		List<String> ids = desc.getIds();
+		out.writeInt(ids.size());
+		for (String id : ids) {
+			out.writeUTF(id);
+		}
+		out.writeInt(1);
+		out.writeInt(1);
+		out.writeInt(2 * arch.getEdgeCount());
+		out.close();
+		assertNull(new RoutingCache(getArchitecture(), 10, directory).get(r0, singleton(r3)));
+	}
+}
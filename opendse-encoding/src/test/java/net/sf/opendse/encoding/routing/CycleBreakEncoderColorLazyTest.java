@@ -0,0 +1,83 @@
+package net.sf.opendse.encoding.routing;
+
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.encoding.variables.T;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+
+public class CycleBreakEncoderColorLazyTest {
+
+	protected Communication comm = new Communication("comm");
+	protected Resource r0 = new Resource("r0");
+	protected Resource r1 = new Resource("r1");
+	protected Resource r2 = new Resource("r2");
+	protected Resource r3 = new Resource("r3");
+	protected Link l0 = new Link("l0");
+	protected Link l1 = new Link("l1");
+	protected Link l2 = new Link("l2");
+	protected Link l3 = new Link("l3");
+
+	protected Architecture<Resource, Link> makeRouting() {
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		routing.addEdge(l0, r0, r1, EdgeType.UNDIRECTED);
+		routing.addEdge(l1, r1, r2, EdgeType.UNDIRECTED);
+		routing.addEdge(l2, r2, r0, EdgeType.UNDIRECTED);
+		routing.addEdge(l3, r2, r3, EdgeType.UNDIRECTED);
+		return routing;
+	}
+
+	@Test
+	public void testCycle() {
+		Architecture<Resource, Link> routing = makeRouting();
+		T commVar = Variables.varT(comm);
+		CycleBreakEncoderColorLazy encoder = new CycleBreakEncoderColorLazy();
+		assertTrue(encoder.toConstraints(commVar, routing).isEmpty());
+
+		Model model = new Model();
+		model.set(Variables.varCLRR(comm, l0, r0, r1), true);
+		model.set(Variables.varCLRR(comm, l1, r1, r2), true);
+		model.set(Variables.varCLRR(comm, l2, r2, r0), true);
+		model.set(Variables.varCLRR(comm, l3, r2, r3), true);
+
+		Collection<Constraint> cs = encoder.getViolatedConstraints(model);
+		Set<Constraint> expected = new HashSet<Constraint>();
+		CycleBreakEncoderColor eager = new CycleBreakEncoderColor();
+		for (Resource res : new Resource[] { r0, r1, r2 }) {
+			expected.addAll(eager.performTwoColoring(comm, routing, res));
+			expected.addAll(eager.performThreeColoring(comm, routing, res));
+		}
+		assertEquals(expected, new HashSet<Constraint>(cs));
+		assertFalse(cs.contains(eager.paintResource3Colors(comm, r3)));
+		assertTrue(eager.toConstraints(commVar, routing).containsAll(cs));
+
+		// the constraints are only returned once
+		assertTrue(encoder.getViolatedConstraints(model).isEmpty());
+	}
+
+	@Test
+	public void testNoCycle() {
+		Architecture<Resource, Link> routing = makeRouting();
+		CycleBreakEncoderColorLazy encoder = new CycleBreakEncoderColorLazy();
+		encoder.toConstraints(Variables.varT(comm), routing);
+
+		Model model = new Model();
+		model.set(Variables.varCLRR(comm, l0, r0, r1), true);
+		model.set(Variables.varCLRR(comm, l1, r1, r2), true);
+		model.set(Variables.varCLRR(comm, l3, r2, r3), true);
+		model.set(Variables.varCLRR(comm, l2, r2, r0), false);
+		assertTrue(encoder.getViolatedConstraints(model).isEmpty());
+	}
+}
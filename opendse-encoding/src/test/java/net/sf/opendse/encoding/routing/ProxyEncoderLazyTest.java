@@ -0,0 +1,101 @@
+package net.sf.opendse.encoding.routing;
+
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
+
+import net.sf.opendse.encoding.constraints.Constraints;
+import net.sf.opendse.encoding.routing.res.ProxyEncoderCompactTestRes;
+import net.sf.opendse.encoding.variables.ApplicationVariable;
+import net.sf.opendse.encoding.variables.DTT;
+import net.sf.opendse.encoding.variables.M;
+import net.sf.opendse.encoding.variables.MappingVariable;
+import net.sf.opendse.encoding.variables.T;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+public class ProxyEncoderLazyTest {
+
+	@Test
+	public void test() {
+		Specification spec = ProxyEncoderCompactTestRes.makeSpec();
+		Model model = new Model();
+
+		Set<MappingVariable> mappingVariables = new HashSet<MappingVariable>();
+		for (Mapping<Task, Resource> m : spec.getMappings()) {
+			M mVar = Variables.varM(m);
+			mappingVariables.add(mVar);
+			model.set(mVar, true);
+		}
+		Set<ApplicationVariable> applicationVariables = new HashSet<ApplicationVariable>();
+		for (Task task : spec.getApplication()) {
+			T tVar = Variables.varT(task);
+			applicationVariables.add(tVar);
+			model.set(tVar, true);
+		}
+		for (Dependency dep : spec.getApplication().getEdges()) {
+			DTT dVar = Variables.varDTT(dep, spec.getApplication().getSource(dep), spec.getApplication().getDest(dep));
+			applicationVariables.add(dVar);
+			model.set(dVar, true);
+		}
+
+		Task c0 = spec.getApplication().getVertex("c0");
+		ProxyEncoderLazy lazy = new ProxyEncoderLazy();
+		assertTrue(lazy.toConstraints(c0, spec.getRoutings().get(c0), mappingVariables, applicationVariables)
+				.isEmpty());
+
+		// the mapped tasks are active but no link is used
+		Collection<Constraint> cs = lazy.getViolatedConstraints(model);
+		assertFalse(cs.isEmpty());
+		Set<Constraint> compact = new ProxyEncoderCompact().toConstraints(c0, spec.getRoutings().get(c0),
+				mappingVariables, applicationVariables);
+		assertTrue(compact.containsAll(cs));
+		boolean violated = false;
+		for (Constraint constraint : cs) {
+			violated |= !Constraints.isSatisfied(constraint, model);
+		}
+		assertTrue(violated);
+
+		// the constraints are only returned once
+		Collection<Constraint> cs2 = lazy.getViolatedConstraints(model);
+		for (Constraint constraint : cs2) {
+			assertFalse(cs.contains(constraint));
+		}
+	}
+
+	@Test
+	public void testInactive() {
+		Specification spec = ProxyEncoderCompactTestRes.makeSpec();
+		Set<MappingVariable> mappingVariables = new HashSet<MappingVariable>();
+		for (Mapping<Task, Resource> m : spec.getMappings()) {
+			mappingVariables.add(Variables.varM(m));
+		}
+		Set<ApplicationVariable> applicationVariables = new HashSet<ApplicationVariable>();
+		for (Dependency dep : spec.getApplication().getEdges()) {
+			applicationVariables.add(
+					Variables.varDTT(dep, spec.getApplication().getSource(dep), spec.getApplication().getDest(dep)));
+		}
+
+		Task c0 = spec.getApplication().getVertex("c0");
+		ProxyEncoderLazy lazy = new ProxyEncoderLazy();
+		lazy.toConstraints(c0, spec.getRoutings().get(c0), mappingVariables, applicationVariables);
+		assertFalse(lazy.pending.isEmpty());
+
+		// no task is mapped and no link is used, so no constraints are
+		// generated
+		assertTrue(lazy.getViolatedConstraints(new Model()).isEmpty());
+		for (ProxyEncoderLazy.ProxyResource proxyResource : lazy.pending) {
+			assertNull(proxyResource.constraints);
+		}
+	}
+}
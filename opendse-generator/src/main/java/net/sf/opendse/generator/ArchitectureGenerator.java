@@ -21,8 +21,10 @@
  *******************************************************************************/
 package net.sf.opendse.generator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 import net.sf.opendse.model.Architecture;
@@ -100,6 +102,234 @@ public class ArchitectureGenerator extends Generator {
 		return architecture;
 	}
 
+	/**
+	 * Constructs a two-dimensional mesh architecture. Each resource is
+	 * connected to its horizontal and vertical neighbors.
+	 * 
+	 * @param width
+	 *            the number of columns
+	 * @param height
+	 *            the number of rows
+	 * @return the architecture
+	 */
+	public Architecture<Resource, Link> getMesh(int width, int height) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		createMesh(architecture, width, height, null);
+		return architecture;
+	}
+
+	/**
+	 * Constructs a network-on-chip architecture. The routers (type
+	 * {@code router}) are arranged in a two-dimensional mesh and each router
+	 * is connected to a given number of processing elements (type {@code PE}).
+	 * 
+	 * @param width
+	 *            the number of columns
+	 * @param height
+	 *            the number of rows
+	 * @param elements
+	 *            the number of processing elements per router
+	 * @return the architecture
+	 */
+	public Architecture<Resource, Link> getNoC(int width, int height, int elements) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource[] routers = createMesh(architecture, width, height, "router");
+		for (Resource router : routers) {
+			for (int i = 0; i < elements; i++) {
+				Resource element = createResource("PE");
+				architecture.addEdge(new Link(linkId.next()), router, element);
+			}
+		}
+		return architecture;
+	}
+
+	protected Resource[] createMesh(Architecture<Resource, Link> architecture, int width, int height, String type) {
+		Resource[] resources = new Resource[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Resource resource = createResource(type);
+				architecture.addVertex(resource);
+				resources[y * width + x] = resource;
+				if (x > 0) {
+					architecture.addEdge(new Link(linkId.next()), resources[y * width + x - 1], resource);
+				}
+				if (y > 0) {
+					architecture.addEdge(new Link(linkId.next()), resources[(y - 1) * width + x], resource);
+				}
+			}
+		}
+		return resources;
+	}
+
+	/**
+	 * Constructs a tree architecture. Each inner resource has the given number
+	 * of children such that the tree contains {@code branches^depth} leaves.
+	 * 
+	 * @param depth
+	 *            the depth of the tree
+	 * @param branches
+	 *            the number of children of each inner resource
+	 * @return the architecture
+	 */
+	public Architecture<Resource, Link> getTree(int depth, int branches) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+
+		List<Resource> level = new ArrayList<Resource>();
+		Resource root = new Resource(resourceId.next());
+		architecture.addVertex(root);
+		level.add(root);
+
+		for (int i = 0; i < depth; i++) {
+			List<Resource> next = new ArrayList<Resource>();
+			for (Resource parent : level) {
+				for (int j = 0; j < branches; j++) {
+					Resource child = new Resource(resourceId.next());
+					architecture.addEdge(new Link(linkId.next()), parent, child);
+					next.add(child);
+				}
+			}
+			level = next;
+		}
+
+		return architecture;
+	}
+
+	/**
+	 * Constructs a fat-tree architecture as a k-ary n-tree. The architecture
+	 * consists of {@code levels} levels of {@code arity^(levels-1)} switches
+	 * (type {@code switch}) and {@code arity^levels} processing nodes (type
+	 * {@code node}) that are connected to the switches of the lowest level.
+	 * In contrast to a tree, the bandwidth towards the root does not decrease
+	 * since each switch is connected to {@code arity} switches of the next
+	 * level.
+	 * 
+	 * @param levels
+	 *            the number of switch levels
+	 * @param arity
+	 *            the number of up and down links of each switch
+	 * @return the architecture
+	 */
+	public Architecture<Resource, Link> getFatTree(int levels, int arity) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		int switches = pow(arity, levels - 1);
+
+		Resource[][] level = new Resource[levels][switches];
+		for (int l = 0; l < levels; l++) {
+			for (int w = 0; w < switches; w++) {
+				level[l][w] = createResource("switch");
+				architecture.addVertex(level[l][w]);
+			}
+		}
+
+		// the switch w of level l is connected to the switches of level l+1
+		// whose labels differ from w in the digit l only
+		for (int l = 0; l + 1 < levels; l++) {
+			int weight = pow(arity, l);
+			for (int w = 0; w < switches; w++) {
+				int digit = (w / weight) % arity;
+				int base = w - digit * weight;
+				for (int d = 0; d < arity; d++) {
+					architecture.addEdge(new Link(linkId.next()), level[l][w], level[l + 1][base + d * weight]);
+				}
+			}
+		}
+
+		for (int w = 0; w < switches; w++) {
+			for (int d = 0; d < arity; d++) {
+				Resource node = createResource("node");
+				architecture.addEdge(new Link(linkId.next()), level[0][w], node);
+			}
+		}
+
+		return architecture;
+	}
+
+	/**
+	 * Constructs a hierarchical gateway network as it is common for
+	 * automotive architectures. A line of Ethernet switches (type
+	 * {@code Ethernet}) forms the backbone. Each switch is connected to a
+	 * number of gateways (type {@code Gateway}), each gateway is connected to
+	 * a number of field buses that are alternately of type {@code CAN} and
+	 * {@code FlexRay}, and each field bus connects a number of ECUs (type
+	 * {@code ECU}).
+	 * 
+	 * @param switches
+	 *            the number of Ethernet switches
+	 * @param gateways
+	 *            the number of gateways per switch
+	 * @param buses
+	 *            the number of field buses per gateway
+	 * @param ecus
+	 *            the number of ECUs per field bus
+	 * @return the architecture
+	 */
+	public Architecture<Resource, Link> getGatewayNetwork(int switches, int gateways, int buses, int ecus) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+
+		Resource previous = null;
+		for (int s = 0; s < switches; s++) {
+			Resource ethernet = createResource("Ethernet");
+			architecture.addVertex(ethernet);
+			if (previous != null) {
+				architecture.addEdge(new Link(linkId.next()), previous, ethernet);
+			}
+			previous = ethernet;
+
+			for (int g = 0; g < gateways; g++) {
+				Resource gateway = createResource("Gateway");
+				architecture.addEdge(new Link(linkId.next()), ethernet, gateway);
+
+				for (int b = 0; b < buses; b++) {
+					Resource bus = createResource(b % 2 == 0 ? "CAN" : "FlexRay");
+					architecture.addEdge(new Link(linkId.next()), gateway, bus);
+
+					for (int e = 0; e < ecus; e++) {
+						Resource ecu = createResource("ECU");
+						architecture.addEdge(new Link(linkId.next()), bus, ecu);
+					}
+				}
+			}
+		}
+
+		return architecture;
+	}
+
+	/**
+	 * Returns the resources of the given type in the order of their ids.
+	 * 
+	 * @param architecture
+	 *            the architecture
+	 * @param type
+	 *            the type
+	 * @return the resources of the given type
+	 */
+	public static List<Resource> getResources(Architecture<Resource, Link> architecture, String type) {
+		List<Resource> resources = new ArrayList<Resource>();
+		for (Resource resource : architecture) {
+			if (type.equals(resource.getType())) {
+				resources.add(resource);
+			}
+		}
+		sortById(resources);
+		return resources;
+	}
+
+	protected Resource createResource(String type) {
+		Resource resource = new Resource(resourceId.next());
+		if (type != null) {
+			resource.setType(type);
+		}
+		return resource;
+	}
+
+	protected static int pow(int base, int exponent) {
+		int result = 1;
+		for (int i = 0; i < exponent; i++) {
+			result *= base;
+		}
+		return result;
+	}
+
 	public Architecture<Resource, Link> merge(Collection<Architecture<Resource, Link>> architectures) {
 		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
 		for (Architecture<Resource, Link> arch : architectures) {
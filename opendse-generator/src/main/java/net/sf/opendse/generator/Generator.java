@@ -21,10 +21,13 @@
  *******************************************************************************/
 package net.sf.opendse.generator;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 
 import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
 import net.sf.opendse.model.Graph;
 import net.sf.opendse.model.Models;
 import net.sf.opendse.model.Node;
@@ -38,6 +41,18 @@ public abstract class Generator {
 
 	protected final Random random;
 
+	protected static final Comparator<Element> ID_ORDER = new Comparator<Element>() {
+		@Override
+		public int compare(Element e0, Element e1) {
+			String id0 = e0.getId();
+			String id1 = e1.getId();
+			if (id0.length() != id1.length()) {
+				return id0.length() < id1.length() ? -1 : 1;
+			}
+			return id0.compareTo(id1);
+		}
+	};
+
 	public Generator(Random random) {
 		this.random = random;
 	}
@@ -50,6 +65,18 @@ public abstract class Generator {
 		return list.get(random.nextInt(list.size()));
 	}
 
+	/**
+	 * Sorts elements by their ids such that the result does not depend on the
+	 * iteration order of the collection they are taken from. Shorter ids are
+	 * ordered first, i.e., {@code r9} precedes {@code r10}.
+	 * 
+	 * @param elements
+	 *            the elements
+	 */
+	public static void sortById(List<? extends Element> elements) {
+		Collections.sort(elements, ID_ORDER);
+	}
+
 	public void annotateAttribute(Graph<?, ?> graph, String attribute, int min, int max, Type type) {
 		if (type == Type.NODE || type == Type.PROCESS || type == Type.COMMUNICATION || type == Type.ELEMENT) {
 			for (Node n : graph.getVertices()) {
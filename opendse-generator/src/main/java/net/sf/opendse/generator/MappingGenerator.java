@@ -25,6 +25,7 @@ import static net.sf.opendse.model.Models.filterProcesses;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
@@ -132,6 +133,68 @@ public class MappingGenerator extends Generator {
 		return mappings;
 	}
 
+	/**
+	 * Creates mappings with a given density. Each process is mapped to
+	 * {@code density * |resources|} (at least one) distinct resources. The
+	 * resources are ordered by their ids such that the result only depends on
+	 * the seed.
+	 * 
+	 * @param application
+	 *            the application
+	 * @param resources
+	 *            the resources
+	 * @param density
+	 *            the fraction of the resources each process is mapped to
+	 *            (between 0 and 1)
+	 * @return the mappings
+	 */
+	public Mappings<Task, Resource> create(Application<Task, Dependency> application, Collection<Resource> resources,
+			double density) {
+		if (density < 0 || density > 1) {
+			throw new IllegalArgumentException("The mapping density has to be between 0 and 1: " + density);
+		}
+		List<Resource> res = new ArrayList<Resource>(new HashSet<Resource>(resources));
+		sortById(res);
+		return createSorted(application, res, density);
+	}
+
+	/**
+	 * Creates mappings with a given density for resources that are already
+	 * distinct and ordered by their ids.
+	 * 
+	 * @param application
+	 *            the application
+	 * @param resources
+	 *            the distinct resources ordered by their ids
+	 * @param density
+	 *            the fraction of the resources each process is mapped to
+	 * @return the mappings
+	 */
+	protected Mappings<Task, Resource> createSorted(Application<Task, Dependency> application,
+			List<Resource> resources, double density) {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+
+		List<Task> tasks = new ArrayList<Task>();
+		for (Task task : filterProcesses(application)) {
+			tasks.add(task);
+		}
+		sortById(tasks);
+		List<Resource> res = new ArrayList<Resource>(resources);
+		int x = Math.max(1, Math.min(res.size(), (int) Math.round(density * res.size())));
+
+		for (Task task : tasks) {
+			// partial Fisher-Yates shuffle to select x distinct targets
+			for (int i = 0; i < x; i++) {
+				int j = i + random.nextInt(res.size() - i);
+				Collections.swap(res, i, j);
+				Mapping<Task, Resource> mapping = new Mapping<Task, Resource>(mappingId.next(), task, res.get(i));
+				mappings.add(mapping);
+			}
+		}
+
+		return mappings;
+	}
+
 	public void annotateAttribute(Mappings<Task, Resource> mappings, String attribute, int min, int max) {
 
 		for (Mapping<Task, Resource> mapping : mappings.getAll()) {
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.generator;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import net.sf.opendse.io.SpecificationStreamWriter;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code SpecificationGenerator} generates specifications with a given
+ * architecture and a given number of functions. Each function is a random
+ * task graph (see {@link ApplicationGenerator#generate(int, int, int)}) with
+ * communication tasks whose processes are mapped to the target resources
+ * with a given density (see
+ * {@link MappingGenerator#create(Application, Collection, double)}).
+ * <p>
+ * Each function is generated with its own seed that is derived from the seed
+ * of the generator and the index of the function. Thus, a function can be
+ * regenerated at any time which allows to write specifications with
+ * 10<sup>5</sup> to 10<sup>6</sup> elements directly to a file: The
+ * application and the mappings are streamed in several passes over the
+ * functions such that only the architecture and a single function are kept
+ * in memory. The routings are not written, i.e., each message can be routed
+ * over the complete architecture.
+ */
+public class SpecificationGenerator {
+
+	protected final long seed;
+	protected final Architecture<Resource, Link> architecture;
+	protected final List<Resource> targets;
+
+	protected int functionSize = 10;
+	protected int inDegree = 3;
+	protected int outDegree = 3;
+	protected int minReceivers = 1;
+	protected int maxReceivers = 3;
+	protected double mappingDensity = 0.1;
+	protected String mappingAttribute = null;
+	protected int mappingAttributeMin = 0;
+	protected int mappingAttributeMax = 0;
+
+	/**
+	 * Constructs a {@code SpecificationGenerator} that maps the processes to
+	 * all resources of the architecture.
+	 * 
+	 * @param seed
+	 *            the seed
+	 * @param architecture
+	 *            the architecture
+	 */
+	public SpecificationGenerator(long seed, Architecture<Resource, Link> architecture) {
+		this(seed, architecture, architecture.getVertices());
+	}
+
+	/**
+	 * Constructs a {@code SpecificationGenerator}.
+	 * 
+	 * @param seed
+	 *            the seed
+	 * @param architecture
+	 *            the architecture
+	 * @param targets
+	 *            the resources the processes are mapped to
+	 */
+	public SpecificationGenerator(long seed, Architecture<Resource, Link> architecture, Collection<Resource> targets) {
+		this.seed = seed;
+		this.architecture = architecture;
+		this.targets = new ArrayList<Resource>(new HashSet<Resource>(targets));
+		Generator.sortById(this.targets);
+	}
+
+	/**
+	 * Sets the parameters of the task graph of each function.
+	 * 
+	 * @param size
+	 *            the minimal number of processes
+	 * @param inDegree
+	 *            the maximum in-degree
+	 * @param outDegree
+	 *            the maximum out-degree
+	 */
+	public void setFunction(int size, int inDegree, int outDegree) {
+		this.functionSize = size;
+		this.inDegree = inDegree;
+		this.outDegree = outDegree;
+	}
+
+	/**
+	 * Sets the number of receivers of each communication.
+	 * 
+	 * @param min
+	 *            the minimal number of receivers
+	 * @param max
+	 *            the maximal number of receivers
+	 */
+	public void setReceivers(int min, int max) {
+		this.minReceivers = min;
+		this.maxReceivers = max;
+	}
+
+	/**
+	 * Sets the mapping density, i.e., the fraction of the target resources
+	 * each process is mapped to.
+	 * 
+	 * @param density
+	 *            the mapping density (between 0 and 1)
+	 */
+	public void setMappingDensity(double density) {
+		if (density < 0 || density > 1) {
+			throw new IllegalArgumentException("The mapping density has to be between 0 and 1: " + density);
+		}
+		this.mappingDensity = density;
+	}
+
+	/**
+	 * Annotates each mapping with a random integer attribute.
+	 * 
+	 * @param attribute
+	 *            the name of the attribute
+	 * @param min
+	 *            the minimal value
+	 * @param max
+	 *            the maximal value
+	 */
+	public void setMappingAttribute(String attribute, int min, int max) {
+		this.mappingAttribute = attribute;
+		this.mappingAttributeMin = min;
+		this.mappingAttributeMax = max;
+	}
+
+	/**
+	 * Creates the specification in memory.
+	 * 
+	 * @param functions
+	 *            the number of functions
+	 * @return the specification
+	 */
+	public Specification create(int functions) {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+
+		Pass pass = new Pass();
+		for (int i = 0; i < functions; i++) {
+			Application<Task, Dependency> function = pass.getFunction(i);
+			for (Task task : function) {
+				application.addVertex(task);
+			}
+			for (Dependency dependency : function.getEdges()) {
+				application.addEdge(dependency, function.getEndpoints(dependency), function.getEdgeType(dependency));
+			}
+			for (Mapping<Task, Resource> mapping : pass.getMappings(i, function)) {
+				mappings.add(mapping);
+			}
+		}
+
+		return new Specification(application, architecture, mappings);
+	}
+
+	/**
+	 * Writes the specification to a file without creating it in memory. The
+	 * file is compressed with gzip if its name ends with
+	 * {@link SpecificationStreamWriter#GZIP_SUFFIX}.
+	 * 
+	 * @param functions
+	 *            the number of functions
+	 * @param file
+	 *            the file
+	 */
+	public void write(int functions, File file) {
+		new Writer(functions).write(getSkeleton(), file);
+	}
+
+	/**
+	 * Writes the specification to an output stream without creating it in
+	 * memory.
+	 * 
+	 * @param functions
+	 *            the number of functions
+	 * @param out
+	 *            the output stream
+	 */
+	public void write(int functions, OutputStream out) {
+		new Writer(functions).write(getSkeleton(), out);
+	}
+
+	protected Specification getSkeleton() {
+		return new Specification(new Application<Task, Dependency>(), architecture, new Mappings<Task, Resource>(),
+				null);
+	}
+
+	/**
+	 * Returns the seed of a function for a given purpose.
+	 * 
+	 * @param index
+	 *            the index of the function
+	 * @param stream
+	 *            the purpose (0 for the task graph, 1 for the mappings)
+	 * @return the seed
+	 */
+	protected long getSeed(int index, int stream) {
+		// SplitMix64 finalizer to decorrelate consecutive indices
+		long z = seed + (2L * index + stream + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * A {@code Pass} generates the functions in the order of their indices.
+	 * Since the ids are provided in this order, each pass creates the same
+	 * elements.
+	 */
+	protected class Pass {
+
+		protected final IdProvider taskId = new IdProvider("t");
+		protected final IdProvider commId = new IdProvider("c");
+		protected final IdProvider dependencyId = new IdProvider("d");
+		protected final IdProvider mappingId = new IdProvider("m");
+
+		protected Application<Task, Dependency> getFunction(int index) {
+			ApplicationGenerator generator = new ApplicationGenerator(getSeed(index, 0), taskId, commId,
+					dependencyId);
+			Application<Task, Dependency> function = generator.generate(functionSize, inDegree, outDegree);
+			generator.insertCommunication(function, minReceivers, maxReceivers);
+			return function;
+		}
+
+		protected Mappings<Task, Resource> getMappings(int index, Application<Task, Dependency> function) {
+			MappingGenerator generator = new MappingGenerator(getSeed(index, 1), mappingId);
+			Mappings<Task, Resource> mappings = generator.createSorted(function, targets, mappingDensity);
+			if (mappingAttribute != null) {
+				generator.annotateAttribute(mappings, mappingAttribute, mappingAttributeMin, mappingAttributeMax);
+			}
+			return mappings;
+		}
+	}
+
+	/**
+	 * The {@code Writer} replaces the (empty) application and mappings of the
+	 * written specification by the generated functions.
+	 */
+	protected class Writer extends SpecificationStreamWriter {
+
+		protected final int functions;
+
+		protected Writer(int functions) {
+			super(false, false);
+			this.functions = functions;
+		}
+
+		@Override
+		protected void writeApplication(Indenter out, Application<Task, Dependency> application)
+				throws XMLStreamException {
+			out.start("application");
+
+			Pass pass = new Pass();
+			for (int i = 0; i < functions; i++) {
+				for (Task task : pass.getFunction(i)) {
+					if (Models.isProcess(task)) {
+						writeNode(out, task, "task", getAttributes(task));
+						out.end();
+					}
+				}
+			}
+			pass = new Pass();
+			for (int i = 0; i < functions; i++) {
+				for (Task task : pass.getFunction(i)) {
+					if (!Models.isProcess(task)) {
+						writeNode(out, task, "communication", getAttributes(task));
+						out.end();
+					}
+				}
+			}
+			pass = new Pass();
+			for (int i = 0; i < functions; i++) {
+				Application<Task, Dependency> function = pass.getFunction(i);
+				for (Dependency dependency : function.getEdges()) {
+					Pair<Task> endpoints = function.getEndpoints(dependency);
+					writeEdge(out, dependency, "dependency", endpoints.getFirst(), endpoints.getSecond(),
+							function.getEdgeType(dependency), getAttributes(dependency));
+				}
+			}
+
+			out.start("functions");
+			pass = new Pass();
+			for (int i = 0; i < functions; i++) {
+				Application<Task, Dependency> function = pass.getFunction(i);
+				out.start("function");
+				out.attribute("anchor", function.getVertices().iterator().next().getId());
+				writeAttributes(out, new Attributes());
+				out.end();
+			}
+			out.end();
+
+			out.end();
+		}
+
+		@Override
+		protected void writeMappings(Indenter out, Mappings<Task, Resource> mappings) throws XMLStreamException {
+			out.start("mappings");
+
+			Pass pass = new Pass();
+			for (int i = 0; i < functions; i++) {
+				for (Mapping<Task, Resource> mapping : pass.getMappings(i, pass.getFunction(i))) {
+					out.start("mapping");
+					out.attribute("id", mapping.getId());
+					out.attribute("source", mapping.getSource().getId());
+					out.attribute("target", mapping.getTarget().getId());
+					writeNonEmptyAttributes(out, getAttributes(mapping));
+					out.end();
+				}
+			}
+
+			out.end();
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package net.sf.opendse.generator;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+
+public class ArchitectureGeneratorTest {
+
+	protected static boolean isConnected(Architecture<Resource, Link> architecture) {
+		if (architecture.getVertexCount() == 0) {
+			return true;
+		}
+		Set<Resource> visited = new HashSet<Resource>();
+		LinkedList<Resource> queue = new LinkedList<Resource>();
+		Resource first = architecture.getVertices().iterator().next();
+		visited.add(first);
+		queue.add(first);
+		while (!queue.isEmpty()) {
+			for (Resource neighbor : architecture.getNeighbors(queue.poll())) {
+				if (visited.add(neighbor)) {
+					queue.add(neighbor);
+				}
+			}
+		}
+		return visited.size() == architecture.getVertexCount();
+	}
+
+	@Test
+	public void testMesh() {
+		Architecture<Resource, Link> architecture = new ArchitectureGenerator(0).getMesh(4, 3);
+
+		Assert.assertEquals(12, architecture.getVertexCount());
+		Assert.assertEquals(3 * 3 + 4 * 2, architecture.getEdgeCount());
+		Assert.assertTrue(isConnected(architecture));
+		int corners = 0;
+		for (Resource resource : architecture) {
+			int degree = architecture.degree(resource);
+			Assert.assertTrue(degree >= 2 && degree <= 4);
+			if (degree == 2) {
+				corners++;
+			}
+		}
+		Assert.assertEquals(4, corners);
+	}
+
+	@Test
+	public void testNoC() {
+		Architecture<Resource, Link> architecture = new ArchitectureGenerator(0).getNoC(3, 2, 2);
+
+		Assert.assertEquals(6 + 6 * 2, architecture.getVertexCount());
+		Assert.assertEquals(2 * 2 + 3 + 6 * 2, architecture.getEdgeCount());
+		Assert.assertTrue(isConnected(architecture));
+		Assert.assertEquals(6, ArchitectureGenerator.getResources(architecture, "router").size());
+		for (Resource element : ArchitectureGenerator.getResources(architecture, "PE")) {
+			Assert.assertEquals(1, architecture.degree(element));
+			Resource router = architecture.getNeighbors(element).iterator().next();
+			Assert.assertEquals("router", router.getType());
+		}
+		Assert.assertEquals(12, ArchitectureGenerator.getResources(architecture, "PE").size());
+	}
+
+	@Test
+	public void testTree() {
+		Architecture<Resource, Link> architecture = new ArchitectureGenerator(0).getTree(3, 2);
+
+		Assert.assertEquals(1 + 2 + 4 + 8, architecture.getVertexCount());
+		Assert.assertEquals(architecture.getVertexCount() - 1, architecture.getEdgeCount());
+		Assert.assertTrue(isConnected(architecture));
+		int leaves = 0;
+		for (Resource resource : architecture) {
+			if (architecture.degree(resource) == 1) {
+				leaves++;
+			}
+		}
+		Assert.assertEquals(8, leaves);
+	}
+
+	@Test
+	public void testFatTree() {
+		int levels = 3;
+		int arity = 2;
+		Architecture<Resource, Link> architecture = new ArchitectureGenerator(0).getFatTree(levels, arity);
+
+		// 3 levels of 4 switches and 8 nodes
+		Assert.assertEquals(3 * 4 + 8, architecture.getVertexCount());
+		Assert.assertEquals((levels - 1) * 4 * arity + 8, architecture.getEdgeCount());
+		Assert.assertTrue(isConnected(architecture));
+		Assert.assertEquals(12, ArchitectureGenerator.getResources(architecture, "switch").size());
+		Assert.assertEquals(8, ArchitectureGenerator.getResources(architecture, "node").size());
+		for (Resource node : ArchitectureGenerator.getResources(architecture, "node")) {
+			Assert.assertEquals(1, architecture.degree(node));
+		}
+		// the bandwidth does not decrease towards the root
+		for (Resource s : ArchitectureGenerator.getResources(architecture, "switch")) {
+			int degree = architecture.degree(s);
+			Assert.assertTrue(degree == arity || degree == 2 * arity);
+		}
+	}
+
+	@Test
+	public void testGatewayNetwork() {
+		Architecture<Resource, Link> architecture = new ArchitectureGenerator(0).getGatewayNetwork(2, 2, 3, 4);
+
+		int gateways = 2 * 2;
+		int buses = gateways * 3;
+		int ecus = buses * 4;
+		Assert.assertEquals(2 + gateways + buses + ecus, architecture.getVertexCount());
+		Assert.assertEquals(architecture.getVertexCount() - 1, architecture.getEdgeCount());
+		Assert.assertTrue(isConnected(architecture));
+		Assert.assertEquals(2, ArchitectureGenerator.getResources(architecture, "Ethernet").size());
+		Assert.assertEquals(gateways, ArchitectureGenerator.getResources(architecture, "Gateway").size());
+		Assert.assertEquals(gateways * 2, ArchitectureGenerator.getResources(architecture, "CAN").size());
+		Assert.assertEquals(gateways, ArchitectureGenerator.getResources(architecture, "FlexRay").size());
+		Assert.assertEquals(ecus, ArchitectureGenerator.getResources(architecture, "ECU").size());
+	}
+}
@@ -0,0 +1,100 @@
+package net.sf.opendse.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+public class MappingGeneratorTest {
+
+	protected Application<Task, Dependency> getApplication() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		Task t2 = new Task("t2");
+		Communication c = new Communication("c");
+		application.addEdge(new Dependency("d0"), t0, c);
+		application.addEdge(new Dependency("d1"), c, t1);
+		application.addVertex(t2);
+		return application;
+	}
+
+	protected List<Resource> getResources(int n) {
+		List<Resource> resources = new ArrayList<Resource>();
+		for (int i = 0; i < n; i++) {
+			resources.add(new Resource("r" + i));
+		}
+		return resources;
+	}
+
+	protected void assertTargets(Mappings<Task, Resource> mappings, Application<Task, Dependency> application,
+			int targets) {
+		for (Task task : application) {
+			if (task instanceof Communication) {
+				Assert.assertTrue(mappings.get(task).isEmpty());
+			} else {
+				Assert.assertEquals(targets, mappings.get(task).size());
+				Assert.assertEquals(targets, mappings.getTargets(task).size());
+			}
+		}
+	}
+
+	@Test
+	public void testDensity() {
+		Application<Task, Dependency> application = getApplication();
+		List<Resource> resources = getResources(10);
+
+		Mappings<Task, Resource> mappings = new MappingGenerator(0).create(application, resources, 0.5);
+		Assert.assertEquals(3 * 5, mappings.size());
+		assertTargets(mappings, application, 5);
+
+		mappings = new MappingGenerator(0).create(application, resources, 1.0);
+		assertTargets(mappings, application, 10);
+
+		// each process is mapped to at least one resource
+		mappings = new MappingGenerator(0).create(application, resources, 0.0);
+		assertTargets(mappings, application, 1);
+	}
+
+	@Test
+	public void testDensityOrder() {
+		Application<Task, Dependency> application = getApplication();
+		List<Resource> resources = getResources(10);
+		List<Resource> reversed = new ArrayList<Resource>(resources);
+		Collections.reverse(reversed);
+
+		Mappings<Task, Resource> m0 = new MappingGenerator(3).create(application, resources, 0.3);
+		Mappings<Task, Resource> m1 = new MappingGenerator(3).create(application, reversed, 0.3);
+		Assert.assertEquals(getPairs(m0), getPairs(m1));
+	}
+
+	protected Set<String> getPairs(Mappings<Task, Resource> mappings) {
+		Set<String> pairs = new HashSet<String>();
+		for (Mapping<Task, Resource> mapping : mappings) {
+			pairs.add(mapping.getSource().getId() + ":" + mapping.getTarget().getId());
+		}
+		return pairs;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDensityTooLarge() {
+		new MappingGenerator(0).create(getApplication(), getResources(2), 1.5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDensityNegative() {
+		new MappingGenerator(0).create(getApplication(), getResources(2), -0.1);
+	}
+}
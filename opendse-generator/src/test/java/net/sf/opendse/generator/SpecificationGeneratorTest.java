@@ -0,0 +1,85 @@
+package net.sf.opendse.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.util.Pair;
+import net.sf.opendse.io.SpecificationReader;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+public class SpecificationGeneratorTest {
+
+	protected SpecificationGenerator getGenerator(long seed) {
+		SpecificationGenerator generator = new SpecificationGenerator(seed, new ArchitectureGenerator(0).getMesh(3,
+				3));
+		generator.setFunction(5, 2, 2);
+		generator.setMappingDensity(0.3);
+		generator.setMappingAttribute("cost", 1, 10);
+		return generator;
+	}
+
+	protected static String toString(Element element) {
+		List<String> attributes = new ArrayList<String>();
+		for (String name : element.getAttributeNames()) {
+			attributes.add(name + "=" + element.getAttribute(name));
+		}
+		Collections.sort(attributes);
+		return element.getClass().getSimpleName() + " " + element.getId() + " " + attributes;
+	}
+
+	/**
+	 * Returns the elements of the application and the mappings as sorted
+	 * lines such that specifications can be compared independent of the
+	 * order of their elements.
+	 */
+	protected static List<String> getLines(Specification specification) {
+		Application<Task, Dependency> application = specification.getApplication();
+		List<String> lines = new ArrayList<String>();
+		for (Task task : application) {
+			lines.add(toString(task));
+		}
+		for (Dependency dependency : application.getEdges()) {
+			Pair<Task> endpoints = application.getEndpoints(dependency);
+			lines.add(toString(dependency) + " " + endpoints.getFirst().getId() + " -> "
+					+ endpoints.getSecond().getId());
+		}
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			lines.add(toString(mapping) + " " + mapping.getSource().getId() + " -> " + mapping.getTarget().getId());
+		}
+		lines.add("functions " + application.getFunctions().size());
+		Collections.sort(lines);
+		return lines;
+	}
+
+	@Test
+	public void testSeed() {
+		List<String> lines = getLines(getGenerator(1).create(4));
+		Assert.assertEquals(lines, getLines(getGenerator(1).create(4)));
+		Assert.assertNotEquals(lines, getLines(getGenerator(2).create(4)));
+	}
+
+	@Test
+	public void testWrite() {
+		SpecificationGenerator generator = getGenerator(1);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.write(4, out);
+		Specification written = new SpecificationReader().read(new ByteArrayInputStream(out.toByteArray()));
+
+		Specification created = generator.create(4);
+		Assert.assertFalse(created.getMappings().getAll().isEmpty());
+		Assert.assertEquals(getLines(created), getLines(written));
+		Assert.assertEquals(created.getArchitecture().getVertexCount(), written.getArchitecture().getVertexCount());
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+/**
+ * The {@code AttributeCodec} transforms attribute values of a specific type
+ * into a string and back. Codecs are registered in the {@link AttributeCodecs}.
+ *
+ * @param <T>
+ *            the type of the attribute values
+ */
+public interface AttributeCodec<T> {
+
+	/**
+	 * Encodes the value as a string.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the string
+	 */
+	public String encode(T value);
+
+	/**
+	 * Decodes the value from a string.
+	 *
+	 * @param string
+	 *            the string
+	 * @return the value
+	 */
+	public T decode(String string);
+
+}
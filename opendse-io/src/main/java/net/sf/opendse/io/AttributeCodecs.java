@@ -0,0 +1,661 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+import net.sf.opendse.model.parameter.Parameters;
+
+/**
+ * The {@code AttributeCodecs} is the registry of the {@link AttributeCodec}s
+ * that are used to read and write attribute values. Codecs are available for
+ * the primitive wrappers, strings, numeric arrays, the
+ * {@link ParameterRange}, {@link ParameterRangeDiscrete}, and
+ * {@link ParameterUniqueID} parameters, and all enums. Since the elements of
+ * a {@link ParameterSelect} may be of any class, its codec is created for the
+ * class of the elements by {@link #getSelectCodec(Class)}. Attribute values of
+ * other types are handled by the reflective constructors or the Java
+ * serialization as before.
+ */
+public class AttributeCodecs {
+
+	protected static final Map<Class<?>, AttributeCodec<?>> codecs = new ConcurrentHashMap<Class<?>, AttributeCodec<?>>();
+	protected static final Map<String, Class<?>> types = new ConcurrentHashMap<String, Class<?>>();
+
+	static {
+		register(Integer.class, new AttributeCodec<Integer>() {
+			@Override
+			public String encode(Integer value) {
+				return value.toString();
+			}
+
+			@Override
+			public Integer decode(String string) {
+				return Integer.valueOf(string.trim());
+			}
+		});
+		register(Long.class, new AttributeCodec<Long>() {
+			@Override
+			public String encode(Long value) {
+				return value.toString();
+			}
+
+			@Override
+			public Long decode(String string) {
+				return Long.valueOf(string.trim());
+			}
+		});
+		register(Double.class, new AttributeCodec<Double>() {
+			@Override
+			public String encode(Double value) {
+				return value.toString();
+			}
+
+			@Override
+			public Double decode(String string) {
+				return Double.valueOf(string.trim());
+			}
+		});
+		register(Float.class, new AttributeCodec<Float>() {
+			@Override
+			public String encode(Float value) {
+				return value.toString();
+			}
+
+			@Override
+			public Float decode(String string) {
+				return Float.valueOf(string.trim());
+			}
+		});
+		register(Short.class, new AttributeCodec<Short>() {
+			@Override
+			public String encode(Short value) {
+				return value.toString();
+			}
+
+			@Override
+			public Short decode(String string) {
+				return Short.valueOf(string.trim());
+			}
+		});
+		register(Byte.class, new AttributeCodec<Byte>() {
+			@Override
+			public String encode(Byte value) {
+				return value.toString();
+			}
+
+			@Override
+			public Byte decode(String string) {
+				return Byte.valueOf(string.trim());
+			}
+		});
+		register(Boolean.class, new AttributeCodec<Boolean>() {
+			@Override
+			public String encode(Boolean value) {
+				return value.toString();
+			}
+
+			@Override
+			public Boolean decode(String string) {
+				return Boolean.valueOf(string.trim());
+			}
+		});
+		register(Character.class, new AttributeCodec<Character>() {
+			@Override
+			public String encode(Character value) {
+				return value.toString();
+			}
+
+			@Override
+			public Character decode(String string) {
+				if (string.length() != 1) {
+					throw new IllegalArgumentException("Invalid character: " + string);
+				}
+				return string.charAt(0);
+			}
+		});
+		register(String.class, new AttributeCodec<String>() {
+			@Override
+			public String encode(String value) {
+				return value;
+			}
+
+			@Override
+			public String decode(String string) {
+				return string;
+			}
+		});
+
+		register(int[].class, new AttributeCodec<int[]>() {
+			@Override
+			public String encode(int[] value) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < value.length; i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(value[i]);
+				}
+				return sb.toString();
+			}
+
+			@Override
+			public int[] decode(String string) {
+				String[] parts = split(string);
+				int[] value = new int[parts.length];
+				for (int i = 0; i < parts.length; i++) {
+					value[i] = Integer.parseInt(parts[i]);
+				}
+				return value;
+			}
+		});
+		register(long[].class, new AttributeCodec<long[]>() {
+			@Override
+			public String encode(long[] value) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < value.length; i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(value[i]);
+				}
+				return sb.toString();
+			}
+
+			@Override
+			public long[] decode(String string) {
+				String[] parts = split(string);
+				long[] value = new long[parts.length];
+				for (int i = 0; i < parts.length; i++) {
+					value[i] = Long.parseLong(parts[i]);
+				}
+				return value;
+			}
+		});
+		register(double[].class, new AttributeCodec<double[]>() {
+			@Override
+			public String encode(double[] value) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < value.length; i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(value[i]);
+				}
+				return sb.toString();
+			}
+
+			@Override
+			public double[] decode(String string) {
+				String[] parts = split(string);
+				double[] value = new double[parts.length];
+				for (int i = 0; i < parts.length; i++) {
+					value[i] = Double.parseDouble(parts[i]);
+				}
+				return value;
+			}
+		});
+		register(float[].class, new AttributeCodec<float[]>() {
+			@Override
+			public String encode(float[] value) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < value.length; i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(value[i]);
+				}
+				return sb.toString();
+			}
+
+			@Override
+			public float[] decode(String string) {
+				String[] parts = split(string);
+				float[] value = new float[parts.length];
+				for (int i = 0; i < parts.length; i++) {
+					value[i] = Float.parseFloat(parts[i]);
+				}
+				return value;
+			}
+		});
+		register(short[].class, new AttributeCodec<short[]>() {
+			@Override
+			public String encode(short[] value) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < value.length; i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(value[i]);
+				}
+				return sb.toString();
+			}
+
+			@Override
+			public short[] decode(String string) {
+				String[] parts = split(string);
+				short[] value = new short[parts.length];
+				for (int i = 0; i < parts.length; i++) {
+					value[i] = Short.parseShort(parts[i]);
+				}
+				return value;
+			}
+		});
+		register(byte[].class, new AttributeCodec<byte[]>() {
+			@Override
+			public String encode(byte[] value) {
+				return new String(Base64Coder.encode(value));
+			}
+
+			@Override
+			public byte[] decode(String string) {
+				return Base64Coder.decode(string.trim());
+			}
+		});
+		register(boolean[].class, new AttributeCodec<boolean[]>() {
+			@Override
+			public String encode(boolean[] value) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < value.length; i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(value[i]);
+				}
+				return sb.toString();
+			}
+
+			@Override
+			public boolean[] decode(String string) {
+				String[] parts = split(string);
+				boolean[] value = new boolean[parts.length];
+				for (int i = 0; i < parts.length; i++) {
+					value[i] = Boolean.parseBoolean(parts[i]);
+				}
+				return value;
+			}
+		});
+
+		register(ParameterRange.class, new AttributeCodec<ParameterRange>() {
+			@Override
+			public String encode(ParameterRange value) {
+				return value.toString();
+			}
+
+			@Override
+			public ParameterRange decode(String string) {
+				String[] parts = splitParameter(string, 4);
+				return Parameters.range(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+						Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+			}
+		});
+		register(ParameterRangeDiscrete.class, new AttributeCodec<ParameterRangeDiscrete>() {
+			@Override
+			public String encode(ParameterRangeDiscrete value) {
+				return value.toString();
+			}
+
+			@Override
+			public ParameterRangeDiscrete decode(String string) {
+				String[] parts = splitParameter(string, 3);
+				return Parameters.range(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+						Integer.parseInt(parts[2]));
+			}
+		});
+		register(ParameterUniqueID.class, new AttributeCodec<ParameterUniqueID>() {
+			@Override
+			public String encode(ParameterUniqueID value) {
+				return value.toString();
+			}
+
+			@Override
+			public ParameterUniqueID decode(String string) {
+				int start = string.indexOf("[UID:");
+				int end = string.lastIndexOf(']');
+				if (start < 0 || end < start) {
+					throw new IllegalArgumentException("Invalid unique ID: " + string);
+				}
+				int value = Integer.parseInt(string.substring(0, start).trim());
+				String identifier = string.substring(start + 5, end).trim();
+				return Parameters.uniqueID(value, identifier);
+			}
+		});
+	}
+
+	/**
+	 * Registers a codec for the given class. The class is written with the
+	 * type name given by {@link Common#getType(Class)}.
+	 *
+	 * @param <T>
+	 *            the type of the attribute values
+	 * @param clazz
+	 *            the class
+	 * @param codec
+	 *            the codec
+	 */
+	public static <T> void register(Class<T> clazz, AttributeCodec<T> codec) {
+		codecs.put(clazz, codec);
+		types.put(Common.getType(clazz), clazz);
+	}
+
+	/**
+	 * Returns the codec for the given class or {@code null} if no codec is
+	 * available. The codecs for enums are created on demand.
+	 *
+	 * @param <T>
+	 *            the type of the attribute values
+	 * @param clazz
+	 *            the class
+	 * @return the codec or {@code null}
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> AttributeCodec<T> get(Class<T> clazz) {
+		AttributeCodec<T> codec = (AttributeCodec<T>) codecs.get(clazz);
+		if (codec == null && clazz.isEnum()) {
+			codec = new EnumCodec(clazz);
+			codecs.put(clazz, codec);
+		}
+		return codec;
+	}
+
+	/**
+	 * Returns the codec for {@link ParameterSelect} parameters with a value and
+	 * elements of the given class.
+	 *
+	 * @param clazz
+	 *            the class of the value and the elements
+	 * @return the codec
+	 */
+	public static AttributeCodec<ParameterSelect> getSelectCodec(Class<?> clazz) {
+		return new SelectCodec(clazz);
+	}
+
+	/**
+	 * Returns {@code true} if a codec is available for the given class.
+	 *
+	 * @param clazz
+	 *            the class
+	 * @return {@code true} if a codec is available
+	 */
+	public static boolean contains(Class<?> clazz) {
+		return clazz.isEnum() || codecs.containsKey(clazz);
+	}
+
+	/**
+	 * Returns the registered class for a type name that cannot be resolved
+	 * with {@link Class#forName(String)}, e.g., {@code int[]}.
+	 *
+	 * @param type
+	 *            the type name
+	 * @return the class or {@code null}
+	 */
+	public static Class<?> getClass(String type) {
+		return types.get(type);
+	}
+
+	/**
+	 * Encodes the value with the codec of its class.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the string
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static String encode(Object value) {
+		AttributeCodec codec = get(value.getClass());
+		if (codec == null) {
+			throw new IllegalArgumentException("No codec for " + value.getClass());
+		}
+		return codec.encode(value);
+	}
+
+	/**
+	 * Decodes the value with the codec of the given class.
+	 *
+	 * @param <T>
+	 *            the type of the attribute value
+	 * @param string
+	 *            the string
+	 * @param clazz
+	 *            the class
+	 * @return the value
+	 */
+	public static <T> T decode(String string, Class<T> clazz) {
+		AttributeCodec<T> codec = get(clazz);
+		if (codec == null) {
+			throw new IllegalArgumentException("No codec for " + clazz);
+		}
+		return codec.decode(string);
+	}
+
+	/**
+	 * Constructs an empty collection. The common collection classes are
+	 * instantiated directly, all other classes with their default constructor.
+	 *
+	 * @param clazz
+	 *            the class of the collection
+	 * @return the empty collection
+	 * @throws InstantiationException
+	 *             thrown if the collection cannot be instantiated
+	 * @throws IllegalAccessException
+	 *             thrown if the constructor is not accessible
+	 * @throws InvocationTargetException
+	 *             thrown if the constructor fails
+	 * @throws NoSuchMethodException
+	 *             thrown if there is no default constructor
+	 */
+	@SuppressWarnings("rawtypes")
+	public static Collection newCollection(Class<?> clazz) throws InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+		if (clazz == HashSet.class) {
+			return new HashSet<Object>();
+		} else if (clazz == ArrayList.class) {
+			return new ArrayList<Object>();
+		} else if (clazz == LinkedList.class) {
+			return new LinkedList<Object>();
+		} else if (clazz == LinkedHashSet.class) {
+			return new LinkedHashSet<Object>();
+		} else if (clazz == TreeSet.class) {
+			return new TreeSet<Object>();
+		} else {
+			return (Collection) clazz.getConstructor().newInstance();
+		}
+	}
+
+	protected static String[] split(String string) {
+		string = string.trim();
+		if (string.isEmpty()) {
+			return new String[0];
+		}
+		String[] parts = string.split(",");
+		for (int i = 0; i < parts.length; i++) {
+			parts[i] = parts[i].trim();
+		}
+		return parts;
+	}
+
+	/**
+	 * Splits a parameter string of the form {@code value (a,b,...)}.
+	 *
+	 * @param string
+	 *            the string
+	 * @param n
+	 *            the expected number of values
+	 * @return the values
+	 */
+	protected static String[] splitParameter(String string, int n) {
+		String[] parts = new String[n];
+		int open = string.indexOf('(');
+		int close = string.lastIndexOf(')');
+		if (open < 0 || close < open) {
+			throw new IllegalArgumentException("Invalid parameter: " + string);
+		}
+		parts[0] = string.substring(0, open).trim();
+		int start = open + 1;
+		for (int i = 1; i < n; i++) {
+			int end = (i == n - 1) ? close : string.indexOf(',', start);
+			if (end < 0 || end > close) {
+				throw new IllegalArgumentException("Invalid parameter: " + string);
+			}
+			parts[i] = string.substring(start, end).trim();
+			start = end + 1;
+		}
+		return parts;
+	}
+
+	/**
+	 * The {@code EnumCodec} encodes enums by their name. The decoding prefers
+	 * the exact name and otherwise ignores the case of the name as the
+	 * {@link Common#toInstance(String, Class)} if this is unambiguous. Unknown
+	 * names are rejected.
+	 *
+	 * @param <E>
+	 *            the type of the enum
+	 */
+	protected static class EnumCodec<E extends Enum<E>> implements AttributeCodec<E> {
+
+		protected final Class<E> clazz;
+		protected final Map<String, E> constants = new HashMap<String, E>();
+		protected final Map<String, E> constantsIgnoringCase = new HashMap<String, E>();
+
+		public EnumCodec(Class<E> clazz) {
+			this.clazz = clazz;
+			Set<String> ambiguous = new HashSet<String>();
+			for (E e : clazz.getEnumConstants()) {
+				constants.put(e.name(), e);
+				String key = e.name().toLowerCase(Locale.ENGLISH);
+				if (constantsIgnoringCase.put(key, e) != null) {
+					ambiguous.add(key);
+				}
+			}
+			constantsIgnoringCase.keySet().removeAll(ambiguous);
+		}
+
+		@Override
+		public String encode(E value) {
+			return value.name();
+		}
+
+		@Override
+		public E decode(String string) {
+			String name = string.trim();
+			E value = constants.get(name);
+			if (value == null) {
+				value = constantsIgnoringCase.get(name.toLowerCase(Locale.ENGLISH));
+			}
+			if (value == null) {
+				throw new IllegalArgumentException("No constant " + name + " in enum " + clazz.getName());
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * The {@code SelectCodec} encodes a {@link ParameterSelect} in the format
+	 * {@code value [element, ...] reference} of
+	 * {@link ParameterSelect#toString()}. The value and the elements are
+	 * encoded with the codec of their class or, if there is none, by their
+	 * string representation that is decoded with the constructor of the class.
+	 * The encoded elements must not contain commas or square brackets.
+	 */
+	protected static class SelectCodec implements AttributeCodec<ParameterSelect> {
+
+		protected final Class<?> clazz;
+
+		public SelectCodec(Class<?> clazz) {
+			this.clazz = clazz;
+		}
+
+		@Override
+		public String encode(ParameterSelect value) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(encodeElement(value.getValue())).append(" [");
+			Object[] elements = value.getElements();
+			for (int i = 0; i < elements.length; i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(encodeElement(elements[i]));
+			}
+			sb.append(']');
+			if (value.getReference() != null) {
+				sb.append(' ').append(value.getReference());
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public ParameterSelect decode(String string) {
+			int open = string.indexOf('[');
+			int close = string.lastIndexOf(']');
+			if (open < 0 || close < open) {
+				throw new IllegalArgumentException("Invalid select parameter: " + string);
+			}
+
+			Object value = decodeElement(string.substring(0, open));
+			List<Object> elements = new ArrayList<Object>();
+			for (String part : split(string.substring(open + 1, close))) {
+				elements.add(decodeElement(part));
+			}
+
+			String reference = string.substring(close + 1).trim();
+			if (reference.isEmpty()) {
+				reference = null;
+			}
+			return Parameters.selectRefList(reference, value, elements);
+		}
+
+		protected String encodeElement(Object element) {
+			return contains(element.getClass()) ? AttributeCodecs.encode(element) : element.toString();
+		}
+
+		protected Object decodeElement(String string) {
+			if (contains(clazz)) {
+				return AttributeCodecs.decode(string.trim(), clazz);
+			}
+			try {
+				return Common.toInstance(string, clazz);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalArgumentException("Cannot decode " + string.trim() + " as " + clazz.getName(), e);
+			}
+		}
+	}
+
+}
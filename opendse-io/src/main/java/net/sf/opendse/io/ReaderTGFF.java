@@ -13,7 +13,13 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Communication;
@@ -37,6 +43,11 @@ import net.sf.opendse.model.Task;
  * Benchmarks Suite (E3S). See <a href=
  * "http://ziyang.eecs.umich.edu/~dickrp/e3s/">http://ziyang.eecs.umich.edu/~dickrp/e3s/</a>
  * 
+ * The lines are split into tokens without regular expressions. The
+ * independent {@code @TASK_GRAPH} and {@code @PROC}/{@code @CORE} blocks are
+ * parsed in parallel and merged in the order of the file such that the
+ * resulting specification does not depend on the number of threads.
+ * 
  * @author Valentina Richthammer
  * 
  */
@@ -79,6 +90,26 @@ public class ReaderTGFF {
 
 	protected Map<String, List<Task>> tgffTypeMap = new HashMap<String, List<Task>>();
 
+	protected final int threads;
+
+	/**
+	 * Constructs a {@link ReaderTGFF} that uses one thread per available
+	 * processor.
+	 */
+	public ReaderTGFF() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a {@link ReaderTGFF}.
+	 * 
+	 * @param threads
+	 *            the number of threads for parsing the blocks of a tgff-file
+	 */
+	public ReaderTGFF(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
 	/**
 	 * Reads a {@link SpecificationTypeBased} from a tgff-file.
 	 * 
@@ -155,13 +186,16 @@ public class ReaderTGFF {
 	 *            the list of lines contained in the tgff-file
 	 * @return the application
 	 */
-	protected Application<Task, Dependency> toApplication(List<String> in) {
+	protected Application<Task, Dependency> toApplication(final List<String> in) {
 
 		Application<Task, Dependency> application = new Application<Task, Dependency>();
 
-		Iterator<String> it = in.iterator();
+		ListIterator<String> it = in.listIterator();
 		String currentLine;
+		List<Integer> taskGraphs = new ArrayList<Integer>();
 
+		// the message sizes are required by all task graphs, thus, they are
+		// imported first
 		while (it.hasNext()) {
 			currentLine = it.next();
 
@@ -175,11 +209,29 @@ public class ReaderTGFF {
 				this.messageSizes = importMessageSizes(it);
 			}
 
-			// import application graphs
+			// remember application graphs
 			else if (currentLine.contains(TASK_GRAPH)) {
-				importTaskGraph(currentLine, it, application);
+				taskGraphs.add(it.previousIndex());
 			}
 		}
+
+		// import application graphs
+		List<Callable<TaskGraph>> calls = new ArrayList<Callable<TaskGraph>>();
+		for (final int start : taskGraphs) {
+			calls.add(new Callable<TaskGraph>() {
+				@Override
+				public TaskGraph call() {
+					TaskGraph taskGraph = new TaskGraph();
+					importTaskGraph(in.get(start), in.listIterator(start + 1), taskGraph.application,
+							taskGraph.typeMap);
+					return taskGraph;
+				}
+			});
+		}
+
+		for (TaskGraph taskGraph : invokeAll(calls)) {
+			taskGraph.mergeInto(application, tgffTypeMap);
+		}
 		return application;
 	}
 
@@ -190,22 +242,26 @@ public class ReaderTGFF {
 	 *            the list of lines contained in the tgff-file
 	 * @return the resource types
 	 */
-	protected ResourceTypes<Resource> toResourceTypes(List<String> in) {
+	protected ResourceTypes<Resource> toResourceTypes(final List<String> in) {
 
 		ResourceTypes<Resource> resourceTypes = new ResourceTypes<Resource>();
 
-		Iterator<String> it = in.iterator();
-		String currentLine;
-
-		while (it.hasNext()) {
-			currentLine = it.next();
+		// import resources (only mappings to valid resource types are
+		// created)
+		List<Callable<ResourceTypes<Resource>>> calls = new ArrayList<Callable<ResourceTypes<Resource>>>();
+		for (final int start : getCores(in)) {
+			calls.add(new Callable<ResourceTypes<Resource>>() {
+				@Override
+				public ResourceTypes<Resource> call() {
+					ResourceTypes<Resource> types = new ResourceTypes<Resource>();
+					importCore(in.get(start), in.listIterator(start + 1), types);
+					return types;
+				}
+			});
+		}
 
-			// import resources and mappings (only mappings to valid
-			// resource types are created)
-			if (currentLine.contains(CORE) || currentLine.contains(PROC) || currentLine.contains(CLIENT_PE)
-					|| currentLine.contains(SERVER_PE)) {
-				importCore(currentLine, it, resourceTypes);
-			}
+		for (ResourceTypes<Resource> types : invokeAll(calls)) {
+			resourceTypes.putAll(types);
 		}
 		return resourceTypes;
 	}
@@ -219,20 +275,26 @@ public class ReaderTGFF {
 	 *            the resource types
 	 * @return the mappings
 	 */
-	protected Mappings<Task, Resource> toMappings(List<String> in, ResourceTypes<Resource> resourceTypes) {
+	protected Mappings<Task, Resource> toMappings(final List<String> in, final ResourceTypes<Resource> resourceTypes) {
 
 		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
 
-		Iterator<String> it = in.iterator();
-		String currentLine;
-
-		while (it.hasNext()) {
-			currentLine = it.next();
+		// import mappings (to valid resource types)
+		List<Callable<Mappings<Task, Resource>>> calls = new ArrayList<Callable<Mappings<Task, Resource>>>();
+		for (final int start : getCores(in)) {
+			calls.add(new Callable<Mappings<Task, Resource>>() {
+				@Override
+				public Mappings<Task, Resource> call() {
+					Mappings<Task, Resource> local = new Mappings<Task, Resource>();
+					importMappings(in.get(start), in.listIterator(start + 1), resourceTypes, local);
+					return local;
+				}
+			});
+		}
 
-			// import mappings (to valid resource types)
-			if (currentLine.contains(CORE) || currentLine.contains(PROC) || currentLine.contains(CLIENT_PE)
-					|| currentLine.contains(SERVER_PE)) {
-				importMappings(currentLine, it, resourceTypes, mappings);
+		for (Mappings<Task, Resource> local : invokeAll(calls)) {
+			for (Mapping<Task, Resource> mapping : local) {
+				mappings.add(mapping);
 			}
 		}
 		return mappings;
@@ -273,8 +335,25 @@ public class ReaderTGFF {
 	 *            the application
 	 */
 	protected void importTaskGraph(String name, Iterator<String> it, Application<Task, Dependency> application) {
+		importTaskGraph(name, it, application, tgffTypeMap);
+	}
+
+	/**
+	 * Imports a task graph.
+	 * 
+	 * @param name
+	 *            the tgff-line containing the id of the task graph
+	 * @param it
+	 *            an iterator on the list of lines containing the task graph
+	 * @param application
+	 *            the application
+	 * @param typeMap
+	 *            the map of the tgff-types to the tasks
+	 */
+	protected void importTaskGraph(String name, Iterator<String> it, Application<Task, Dependency> application,
+			Map<String, List<Task>> typeMap) {
 
-		String id = CONNECTOR + name.split(SEPARATOR)[1];
+		String id = CONNECTOR + tokens(name)[1];
 
 		String line = "";
 		double period = -1;
@@ -285,11 +364,11 @@ public class ReaderTGFF {
 			if (!isComment(line)) {
 
 				if (line.contains(PERIOD)) {
-					period = Double.parseDouble(line.replace(PERIOD, "").replaceAll(SEPARATOR, ""));
+					period = Double.parseDouble(concat(tokens(line.replace(PERIOD, ""))));
 				}
 
 				else if (line.contains(TASK)) {
-					addTask(line, id, period, application);
+					addTask(line, id, period, application, typeMap);
 				}
 
 				else if (line.contains(ARC)) {
@@ -318,8 +397,27 @@ public class ReaderTGFF {
 	 *            the application
 	 */
 	protected void addTask(String line, String suffix, double period, Application<Task, Dependency> application) {
+		addTask(line, suffix, period, application, tgffTypeMap);
+	}
 
-		String[] entries = line.trim().split(SEPARATOR);
+	/**
+	 * Adds a {@link Task} node to the {@link Application}.
+	 * 
+	 * @param line
+	 *            the tgff-line containing the arc between two connected tasks
+	 * @param suffix
+	 *            the suffix of the task name
+	 * @param period
+	 *            the period of the communication
+	 * @param application
+	 *            the application
+	 * @param typeMap
+	 *            the map of the tgff-types to the tasks
+	 */
+	protected void addTask(String line, String suffix, double period, Application<Task, Dependency> application,
+			Map<String, List<Task>> typeMap) {
+
+		String[] entries = tokens(line);
 		assert entries.length >= 4 : "tgff-file \"" + TASK + "\": wrong number of entries";
 
 		String id = entries[1] + suffix;
@@ -330,14 +428,14 @@ public class ReaderTGFF {
 		task.setAttribute(TGFF_TYPE, type);
 
 		// for more efficient generation of resource type mappings
-		if (tgffTypeMap.containsKey(type)) {
-			List<Task> taskList = tgffTypeMap.get(type);
+		if (typeMap.containsKey(type)) {
+			List<Task> taskList = typeMap.get(type);
 			taskList.add(task);
 		} else {
 			LinkedList<Task> taskList = new LinkedList<Task>();
 			taskList.add(task);
 
-			tgffTypeMap.put(type, taskList);
+			typeMap.put(type, taskList);
 		}
 		application.addVertex(task);
 	}
@@ -358,7 +456,7 @@ public class ReaderTGFF {
 	protected void addCommunication(String line, String suffix, double period,
 			Application<Task, Dependency> application) {
 
-		String[] entries = line.trim().split(SEPARATOR);
+		String[] entries = tokens(line);
 		assert entries.length == 8 : "tgff-file \"ARC\": wrong number of entries in line";
 
 		String id = entries[1];
@@ -395,7 +493,7 @@ public class ReaderTGFF {
 	protected void addDeadline(String line, String suffix, Application<Task, Dependency> application,
 			String deadlineType) {
 
-		String[] entries = line.trim().split(SEPARATOR);
+		String[] entries = tokens(line);
 		assert entries.length == 6 : "tgff-file \"" + deadlineType + "\": wrong number of entries";
 
 		Task t = application.getVertex(entries[3] + suffix);
@@ -418,16 +516,16 @@ public class ReaderTGFF {
 	protected void importCore(String name, Iterator<String> it, ResourceTypes<Resource> resourceTypes) {
 
 		// create resource (type)
-		String id = "r" + name.split(SEPARATOR)[1];
+		String id = "r" + tokens(name)[1];
 		Resource res = new Resource(id);
 
 		// first line contains attributes of resources
 		String[] resAttributes;
 
-		resAttributes = (it.next()).replace(COMMENT, "").trim().split(SEPARATOR);
+		resAttributes = tokens((it.next()).replace(COMMENT, ""));
 
 		// second line contains attribute values
-		String[] resValues = it.next().trim().split(SEPARATOR);
+		String[] resValues = tokens(it.next());
 
 		assert resAttributes.length == resValues.length : "tgff-file \"" + CORE + "\": number of values is not "
 				+ "equal to required number of resource attributes";
@@ -454,7 +552,7 @@ public class ReaderTGFF {
 			Mappings<Task, Resource> mappings) {
 
 		// create resource (type)
-		String id = "r" + name.split(SEPARATOR)[1];
+		String id = "r" + tokens(name)[1];
 		Resource res = resourceTypes.get(id);
 
 		// skip resource type information (already imported in
@@ -470,12 +568,12 @@ public class ReaderTGFF {
 
 			// extract attributes of resource type
 			if (line.contains(TYPE)) {
-				attributes = new LinkedList<String>(Arrays.asList(line.replace(COMMENT, "").trim().split(SEPARATOR)));
+				attributes = new ArrayList<String>(Arrays.asList(tokens(line.replace(COMMENT, ""))));
 			}
 			// extract values for each attribute
 			else if (!isComment(line) && line.length() > 0) {
 
-				String[] values = line.trim().split(SEPARATOR);
+				String[] values = tokens(line);
 
 				assert values.length == attributes.size() : "tgff-file \"" + CORE + "\": number of values is not "
 						+ "equal to required number of attributes";
@@ -522,7 +620,7 @@ public class ReaderTGFF {
 
 		while (!isClosing(line = it.next())) {
 			if (!isComment(line)) {
-				String[] entries = line.trim().split(SEPARATOR);
+				String[] entries = tokens(line);
 				assert entries.length >= 2 : "tgff-file \"" + COMMUN_QUANT + "\": wrong number of entries";
 
 				sizes.put(entries[0], Double.valueOf(entries[1]));
@@ -575,4 +673,136 @@ public class ReaderTGFF {
 	protected boolean skip(String line) {
 		return !(line.contains(HEADER));
 	}
+
+	/**
+	 * Returns the indices of the lines that start a resource type block.
+	 * 
+	 * @param in
+	 *            the list of lines contained in the tgff-file
+	 * @return the indices of the first lines of the resource type blocks
+	 */
+	protected List<Integer> getCores(List<String> in) {
+		List<Integer> cores = new ArrayList<Integer>();
+		int index = 0;
+		for (String line : in) {
+			if (line.contains(CORE) || line.contains(PROC) || line.contains(CLIENT_PE) || line.contains(SERVER_PE)) {
+				cores.add(index);
+			}
+			index++;
+		}
+		return cores;
+	}
+
+	/**
+	 * Executes the calls (in parallel if more than one thread is available)
+	 * and returns the results in the order of the calls.
+	 * 
+	 * @param calls
+	 *            the calls
+	 * @return the results
+	 */
+	protected <T> List<T> invokeAll(List<Callable<T>> calls) {
+		List<T> results = new ArrayList<T>(calls.size());
+		try {
+			if (threads == 1 || calls.size() < 2) {
+				for (Callable<T> call : calls) {
+					results.add(call.call());
+				}
+			} else {
+				ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, calls.size()));
+				try {
+					for (Future<T> future : executor.invokeAll(calls)) {
+						results.add(future.get());
+					}
+				} finally {
+					executor.shutdownNow();
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		return results;
+	}
+
+	/**
+	 * Splits a line into its whitespace-separated tokens. Leading and trailing
+	 * whitespace is ignored.
+	 * 
+	 * @param line
+	 *            the line
+	 * @return the tokens
+	 */
+	protected static String[] tokens(String line) {
+		int n = line.length();
+		int count = 0;
+		boolean token = false;
+		for (int i = 0; i < n; i++) {
+			boolean whitespace = Character.isWhitespace(line.charAt(i));
+			if (!whitespace && !token) {
+				count++;
+			}
+			token = !whitespace;
+		}
+
+		String[] tokens = new String[count];
+		int k = 0;
+		int start = -1;
+		for (int i = 0; i <= n; i++) {
+			boolean whitespace = i == n || Character.isWhitespace(line.charAt(i));
+			if (whitespace && start >= 0) {
+				tokens[k++] = line.substring(start, i);
+				start = -1;
+			} else if (!whitespace && start < 0) {
+				start = i;
+			}
+		}
+		return tokens;
+	}
+
+	protected static String concat(String[] tokens) {
+		if (tokens.length == 1) {
+			return tokens[0];
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String token : tokens) {
+			sb.append(token);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The {@code TaskGraph} is the result of importing a single task graph.
+	 */
+	protected static class TaskGraph {
+
+		protected final Application<Task, Dependency> application = new Application<Task, Dependency>();
+		protected final Map<String, List<Task>> typeMap = new HashMap<String, List<Task>>();
+
+		protected void mergeInto(Application<Task, Dependency> target, Map<String, List<Task>> targetTypeMap) {
+			for (Task task : application.getVertices()) {
+				target.addVertex(task);
+			}
+			for (Dependency dependency : application.getEdges()) {
+				target.addEdge(dependency, application.getSource(dependency), application.getDest(dependency));
+			}
+			for (Map.Entry<String, List<Task>> entry : typeMap.entrySet()) {
+				List<Task> tasks = targetTypeMap.get(entry.getKey());
+				if (tasks == null) {
+					tasks = new LinkedList<Task>();
+					targetTypeMap.put(entry.getKey(), tasks);
+				}
+				tasks.addAll(entry.getValue());
+			}
+		}
+	}
 }
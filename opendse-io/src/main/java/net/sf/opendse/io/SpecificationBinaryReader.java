@@ -0,0 +1,470 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.SpecificationBinaryWriter.MAGIC;
+import static net.sf.opendse.io.SpecificationBinaryWriter.NONE;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_BOOL;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_BYTE;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_CHAR;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_CODEC;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_COLLECTION;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_DISCRETERANGE;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_DOUBLE;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_ELEMENT;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_ENUM;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_FLOAT;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_INT;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_LONG;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_NULL;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_RANGE;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_SELECT;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_SERIALIZABLE;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_SHORT;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_STRING;
+import static net.sf.opendse.io.SpecificationBinaryWriter.T_UID;
+import static net.sf.opendse.io.SpecificationBinaryWriter.UTF8;
+import static net.sf.opendse.io.SpecificationBinaryWriter.VERSION;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.CompressedRoutings;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Graph;
+import net.sf.opendse.model.IAttributes;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameters;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * The {@code SpecificationBinaryReader} reads a {@code Specification} that was
+ * written by the {@link SpecificationBinaryWriter}. Files are read through a
+ * memory-mapped {@link FileChannel}.
+ */
+public class SpecificationBinaryReader {
+
+	protected Map<String, Element> knownElements = new HashMap<String, Element>();
+
+	protected final Map<Class<?>, Constructor<?>> idConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> parentConstructors = new HashMap<Class<?>, Constructor<?>>();
+
+	protected String[] strings;
+	protected Class<?>[] classes;
+
+	/**
+	 * Read specification from a file.
+	 *
+	 * @param filename
+	 *            the file name
+	 * @return the specification
+	 */
+	public Specification read(String filename) {
+		return read(new File(filename));
+	}
+
+	/**
+	 * Read specification from a file. The file is mapped into memory.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the specification
+	 */
+	public Specification read(File file) {
+		try {
+			RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = raf.getChannel();
+				ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+				return read(buffer);
+			} finally {
+				raf.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Read specification from a buffer.
+	 *
+	 * @param in
+	 *            the buffer
+	 * @return the specification
+	 */
+	public Specification read(ByteBuffer in) {
+		try {
+			if (in.getInt() != MAGIC) {
+				throw new IllegalArgumentException("No binary specification");
+			}
+			int version = in.getInt();
+			if (version != VERSION) {
+				throw new IllegalArgumentException("Unsupported version of binary specification: " + version);
+			}
+
+			strings = new String[in.getInt()];
+			classes = new Class<?>[strings.length];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[in.getInt()];
+				in.get(bytes);
+				strings[i] = new String(bytes, UTF8);
+			}
+
+			return toSpecification(in);
+		} catch (IllegalArgumentException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalArgumentException(ex);
+		}
+	}
+
+	protected Specification toSpecification(ByteBuffer in) throws Exception {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		List<Link> links = new ArrayList<Link>();
+		List<Resource> resources = toGraph(in, architecture, links);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		List<Task> tasks = toGraph(in, application, new ArrayList<Dependency>());
+
+		int functions = in.getInt();
+		for (int i = 0; i < functions; i++) {
+			Task anchor = tasks.get(in.getInt());
+			toAttributes(in, application.getFunction(anchor));
+		}
+
+		Mappings<Task, Resource> mappings = toMappings(in, tasks, resources);
+
+		Specification specification;
+		if (in.get() != 0) {
+			Routings<Task, Resource, Link> routings = toRoutings(in, architecture, tasks, resources, links);
+			specification = new Specification(application, architecture, mappings, routings);
+		} else {
+			specification = new Specification(application, architecture, mappings);
+		}
+		toAttributes(in, specification);
+
+		return specification;
+	}
+
+	protected <V extends Node, E extends Edge> List<V> toGraph(ByteBuffer in, Graph<V, E> graph, List<E> edges)
+			throws Exception {
+		int n = in.getInt();
+		List<V> vertices = new ArrayList<V>(n);
+		for (int i = 0; i < n; i++) {
+			V v = toNode(in);
+			graph.addVertex(v);
+			vertices.add(v);
+		}
+
+		int m = in.getInt();
+		int[] sources = toIntArray(in, m);
+		int[] destinations = toIntArray(in, m);
+		byte[] directed = new byte[m];
+		in.get(directed);
+
+		for (int i = 0; i < m; i++) {
+			E e = toEdge(in);
+			EdgeType edgeType = directed[i] != 0 ? EdgeType.DIRECTED : EdgeType.UNDIRECTED;
+			graph.addEdge(e, vertices.get(sources[i]), vertices.get(destinations[i]), edgeType);
+			edges.add(e);
+		}
+		return vertices;
+	}
+
+	protected Mappings<Task, Resource> toMappings(ByteBuffer in, List<Task> tasks, List<Resource> resources)
+			throws Exception {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		int n = in.getInt();
+		for (int i = 0; i < n; i++) {
+			String id = strings[in.getInt()];
+			Class<?> type = toClass(in.getInt());
+			Task source = tasks.get(in.getInt());
+			Resource target = resources.get(in.getInt());
+			Mapping<Task, Resource> mapping = newMapping(type, id, source, target);
+			toAttributes(in, mapping);
+			mappings.add(mapping);
+		}
+		return mappings;
+	}
+
+	protected Routings<Task, Resource, Link> toRoutings(ByteBuffer in, Architecture<Resource, Link> architecture,
+			List<Task> tasks, List<Resource> resources, List<Link> links) throws Exception {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		int n = in.getInt();
+		for (int i = 0; i < n; i++) {
+			Task task = tasks.get(in.getInt());
+			Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+
+			int nv = in.getInt();
+			List<Resource> vertices = new ArrayList<Resource>(nv);
+			for (int j = 0; j < nv; j++) {
+				Resource resource = toRoutingElement(in, resources);
+				routing.addVertex(resource);
+				vertices.add(resource);
+			}
+
+			int ne = in.getInt();
+			int[] sources = toIntArray(in, ne);
+			int[] destinations = toIntArray(in, ne);
+			byte[] directed = new byte[ne];
+			in.get(directed);
+			for (int j = 0; j < ne; j++) {
+				Link link = toRoutingElement(in, links);
+				EdgeType edgeType = directed[j] != 0 ? EdgeType.DIRECTED : EdgeType.UNDIRECTED;
+				routing.addEdge(link, vertices.get(sources[j]), vertices.get(destinations[j]), edgeType);
+			}
+
+			routings.setCompressed(task, routing);
+		}
+		return routings;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <E extends Element> E toRoutingElement(ByteBuffer in, List<E> elements) throws Exception {
+		int index = in.getInt();
+		if (index == NONE) {
+			String id = strings[in.getInt()];
+			Class<?> type = toClass(in.getInt());
+			E element = (E) newElement(type, id, null);
+			toAttributes(in, element);
+			return element;
+		}
+		E parent = elements.get(index);
+		E element = (E) newElement(parent.getClass(), null, parent);
+		toAttributes(in, element);
+		return element;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <N extends Node> N toNode(ByteBuffer in) throws Exception {
+		String id = strings[in.getInt()];
+		Class<?> type = toClass(in.getInt());
+
+		N node;
+		if (knownElements.containsKey(id)) {
+			node = (N) knownElements.get(id);
+		} else {
+			node = (N) newElement(type, id, null);
+			knownElements.put(id, node);
+		}
+		toAttributes(in, node);
+		return node;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <E extends Edge> E toEdge(ByteBuffer in) throws Exception {
+		String id = strings[in.getInt()];
+		Class<?> type = toClass(in.getInt());
+		E edge = (E) newElement(type, id, null);
+		toAttributes(in, edge);
+		return edge;
+	}
+
+	protected void toAttributes(ByteBuffer in, IAttributes attributes) throws Exception {
+		int n = in.getInt();
+		for (int i = 0; i < n; i++) {
+			String name = strings[in.getInt()];
+			attributes.setAttribute(name, toValue(in));
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected Object toValue(ByteBuffer in) throws Exception {
+		byte tag = in.get();
+		switch (tag) {
+		case T_NULL:
+			return null;
+		case T_INT:
+			return in.getInt();
+		case T_LONG:
+			return in.getLong();
+		case T_DOUBLE:
+			return in.getDouble();
+		case T_FLOAT:
+			return in.getFloat();
+		case T_SHORT:
+			return in.getShort();
+		case T_BYTE:
+			return in.get();
+		case T_CHAR:
+			return in.getChar();
+		case T_BOOL:
+			return in.get() != 0;
+		case T_STRING:
+			return strings[in.getInt()];
+		case T_ENUM: {
+			Class<? extends Enum> type = toClass(in.getInt()).asSubclass(Enum.class);
+			return Enum.valueOf(type, strings[in.getInt()]);
+		}
+		case T_ELEMENT: {
+			Class<?> type = toClass(in.getInt());
+			String id = strings[in.getInt()];
+			Element element = knownElements.get(id);
+			if (element == null) {
+				element = newElement(type, id, null);
+				knownElements.put(id, element);
+			}
+			return element;
+		}
+		case T_COLLECTION: {
+			Collection collection = AttributeCodecs.newCollection(toClass(in.getInt()));
+			int n = in.getInt();
+			for (int i = 0; i < n; i++) {
+				collection.add(toValue(in));
+			}
+			return collection;
+		}
+		case T_RANGE:
+			return Parameters.range(in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble());
+		case T_DISCRETERANGE:
+			return Parameters.range(in.getInt(), in.getInt(), in.getInt());
+		case T_UID:
+			return Parameters.uniqueID(in.getInt(), strings[in.getInt()]);
+		case T_SELECT: {
+			int reference = in.getInt();
+			Object value = toValue(in);
+			int n = in.getInt();
+			List<Object> elements = new ArrayList<Object>(n);
+			for (int i = 0; i < n; i++) {
+				elements.add(toValue(in));
+			}
+			return Parameters.selectRefList(reference == NONE ? null : strings[reference], value, elements);
+		}
+		case T_SERIALIZABLE: {
+			byte[] bytes = new byte[in.getInt()];
+			in.get(bytes);
+			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+			Object o = ois.readObject();
+			ois.close();
+			return o;
+		}
+		case T_CODEC: {
+			Class<?> type = toClass(in.getInt());
+			return AttributeCodecs.decode(strings[in.getInt()], type);
+		}
+		default:
+			throw new IllegalArgumentException("Unknown attribute type tag: " + tag);
+		}
+	}
+
+	protected Class<?> toClass(int index) throws ClassNotFoundException {
+		Class<?> type = classes[index];
+		if (type == null) {
+			String name = strings[index];
+			type = Common.classMap.containsKey(name) ? Common.classMap.get(name) : Class.forName(name);
+			classes[index] = type;
+		}
+		return type;
+	}
+
+	/**
+	 * Constructs a new element either with an id or from a parent. The common
+	 * element types are instantiated directly, all other types are
+	 * instantiated with their (cached) constructor.
+	 *
+	 * @param type
+	 *            the type of the element
+	 * @param id
+	 *            the id (if the parent is {@code null})
+	 * @param parent
+	 *            the parent or {@code null}
+	 * @return the new element
+	 * @throws Exception
+	 *             thrown if the element cannot be instantiated
+	 */
+	protected Element newElement(Class<?> type, String id, Element parent) throws Exception {
+		if (parent == null) {
+			if (type == Resource.class) {
+				return new Resource(id);
+			} else if (type == Link.class) {
+				return new Link(id);
+			} else if (type == Task.class) {
+				return new Task(id);
+			} else if (type == Communication.class) {
+				return new Communication(id);
+			} else if (type == Dependency.class) {
+				return new Dependency(id);
+			}
+			return (Element) getConstructor(idConstructors, type, String.class).newInstance(id);
+		} else {
+			if (type == Resource.class) {
+				return new Resource(parent);
+			} else if (type == Link.class) {
+				return new Link(parent);
+			}
+			return (Element) getConstructor(parentConstructors, type, Element.class).newInstance(parent);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected Mapping<Task, Resource> newMapping(Class<?> type, String id, Task source, Resource target)
+			throws Exception {
+		if (type == Mapping.class) {
+			return new Mapping<Task, Resource>(id, source, target);
+		}
+		return (Mapping<Task, Resource>) type.getConstructor(String.class, Task.class, Resource.class).newInstance(
+				id, source, target);
+	}
+
+	protected static Constructor<?> getConstructor(Map<Class<?>, Constructor<?>> cache, Class<?> type,
+			Class<?> parameter) throws NoSuchMethodException {
+		Constructor<?> constructor = cache.get(type);
+		if (constructor == null) {
+			constructor = type.getConstructor(parameter);
+			cache.put(type, constructor);
+		}
+		return constructor;
+	}
+
+	protected static int[] toIntArray(ByteBuffer in, int n) {
+		int[] array = new int[n];
+		in.asIntBuffer().get(array);
+		in.position(in.position() + 4 * n);
+		return array;
+	}
+
+}
@@ -0,0 +1,468 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Graph;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * The {@code SpecificationBinaryWriter} writes a {@code Specification} in a
+ * compact binary format that is read by the {@link SpecificationBinaryReader}.
+ * <p>
+ * The format starts with a string table that contains all ids, class names,
+ * attribute names, and string values. All other sections refer to strings by
+ * their index in this table. Each graph (the {@link Architecture}, the
+ * {@link Application}, and each routing of the {@link Routings}) is stored as
+ * a list of vertices followed by the adjacency arrays of the edges, i.e., the
+ * source indices, the destination indices, and the edge types. Attribute
+ * values are stored with a type tag and a typed encoding. Values with an
+ * {@link AttributeCodec} are stored as encoded strings, values of other types
+ * fall back to the Java serialization.
+ */
+public class SpecificationBinaryWriter {
+
+	/**
+	 * The file suffix of binary specifications.
+	 */
+	public static final String SUFFIX = ".odsb";
+
+	public static final int MAGIC = 0x4F445342;
+	public static final int VERSION = 1;
+
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	static final byte T_NULL = 0;
+	static final byte T_INT = 1;
+	static final byte T_LONG = 2;
+	static final byte T_DOUBLE = 3;
+	static final byte T_FLOAT = 4;
+	static final byte T_SHORT = 5;
+	static final byte T_BYTE = 6;
+	static final byte T_CHAR = 7;
+	static final byte T_BOOL = 8;
+	static final byte T_STRING = 9;
+	static final byte T_ENUM = 10;
+	static final byte T_ELEMENT = 11;
+	static final byte T_COLLECTION = 12;
+	static final byte T_RANGE = 13;
+	static final byte T_DISCRETERANGE = 14;
+	static final byte T_SELECT = 15;
+	static final byte T_UID = 16;
+	static final byte T_SERIALIZABLE = 17;
+	static final byte T_CODEC = 18;
+
+	static final int NONE = -1;
+
+	protected final Map<String, Integer> strings = new HashMap<String, Integer>();
+	protected final List<String> stringTable = new ArrayList<String>();
+
+	/**
+	 * Write the specification to a file.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param filename
+	 *            the name of the target file
+	 */
+	public void write(Specification specification, String filename) {
+		write(specification, new File(filename));
+	}
+
+	/**
+	 * Write the specification to a file.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param file
+	 *            the file
+	 */
+	public void write(Specification specification, File file) {
+		try {
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+			try {
+				write(specification, out);
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Write the specification to an output stream.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Specification specification, OutputStream out) throws IOException {
+		strings.clear();
+		stringTable.clear();
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DataOutputStream dBody = new DataOutputStream(body);
+		writeSpecification(dBody, specification);
+		dBody.flush();
+
+		DataOutputStream dOut = new DataOutputStream(out);
+		dOut.writeInt(MAGIC);
+		dOut.writeInt(VERSION);
+		dOut.writeInt(stringTable.size());
+		for (String string : stringTable) {
+			byte[] bytes = string.getBytes(UTF8);
+			dOut.writeInt(bytes.length);
+			dOut.write(bytes);
+		}
+		body.writeTo(dOut);
+		dOut.flush();
+	}
+
+	protected void writeSpecification(DataOutputStream out, Specification specification) throws IOException {
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Application<Task, Dependency> application = specification.getApplication();
+
+		Map<Resource, Integer> resources = writeGraph(out, architecture);
+		Map<Link, Integer> links = new HashMap<Link, Integer>();
+		for (Link link : architecture.getEdges()) {
+			links.put(link, links.size());
+		}
+		Map<Task, Integer> tasks = writeGraph(out, application);
+		writeFunctions(out, application, tasks);
+		writeMappings(out, specification.getMappings(), tasks, resources);
+
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		if (routings != null) {
+			out.writeBoolean(true);
+			writeRoutings(out, routings, architecture, tasks, resources, links);
+		} else {
+			out.writeBoolean(false);
+		}
+
+		writeAttributes(out, specification.getAttributes());
+	}
+
+	protected <V extends Node, E extends Edge> Map<V, Integer> writeGraph(DataOutputStream out,
+			Graph<V, E> graph) throws IOException {
+		Map<V, Integer> index = new HashMap<V, Integer>();
+
+		out.writeInt(graph.getVertexCount());
+		for (V v : graph) {
+			index.put(v, index.size());
+			writeElement(out, v, v.getAttributes());
+		}
+
+		Collection<E> edges = graph.getEdges();
+		out.writeInt(edges.size());
+		for (E e : edges) {
+			out.writeInt(index.get(graph.getEndpoints(e).getFirst()));
+		}
+		for (E e : edges) {
+			out.writeInt(index.get(graph.getEndpoints(e).getSecond()));
+		}
+		for (E e : edges) {
+			out.writeBoolean(graph.getEdgeType(e) == EdgeType.DIRECTED);
+		}
+		for (E e : edges) {
+			writeElement(out, e, e.getAttributes());
+		}
+		return index;
+	}
+
+	protected void writeFunctions(DataOutputStream out, Application<Task, Dependency> application,
+			Map<Task, Integer> tasks) throws IOException {
+		Collection<Function<Task, Dependency>> functions = application.getFunctions();
+		out.writeInt(functions.size());
+		for (Function<Task, Dependency> function : functions) {
+			Task anchor = function.iterator().next();
+			out.writeInt(tasks.get(anchor));
+			writeAttributes(out, function.getAttributes());
+		}
+	}
+
+	protected void writeMappings(DataOutputStream out, Mappings<Task, Resource> mappings, Map<Task, Integer> tasks,
+			Map<Resource, Integer> resources) throws IOException {
+		out.writeInt(mappings.size());
+		for (Mapping<Task, Resource> mapping : mappings) {
+			out.writeInt(string(mapping.getId()));
+			out.writeInt(string(typeName(mapping.getClass())));
+			out.writeInt(tasks.get(mapping.getSource()));
+			out.writeInt(resources.get(mapping.getTarget()));
+			writeAttributes(out, mapping.getAttributes());
+		}
+	}
+
+	protected void writeRoutings(DataOutputStream out, Routings<Task, Resource, Link> routings,
+			Architecture<Resource, Link> architecture, Map<Task, Integer> tasks, Map<Resource, Integer> resources,
+			Map<Link, Integer> links) throws IOException {
+		List<Resource> vertices = new ArrayList<Resource>(architecture.getVertices());
+		List<Link> edges = new ArrayList<Link>(architecture.getEdges());
+
+		out.writeInt(routings.getTasks().size());
+		for (Task task : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(task);
+			out.writeInt(tasks.get(task));
+
+			Map<Resource, Integer> index = new HashMap<Resource, Integer>();
+			out.writeInt(routing.getVertexCount());
+			for (Resource resource : routing) {
+				index.put(resource, index.size());
+				Integer i = resources.get(resource);
+				writeRoutingElement(out, resource, i, i == null ? null : vertices.get(i));
+			}
+
+			Collection<Link> routingLinks = routing.getEdges();
+			out.writeInt(routingLinks.size());
+			for (Link link : routingLinks) {
+				out.writeInt(index.get(routing.getEndpoints(link).getFirst()));
+			}
+			for (Link link : routingLinks) {
+				out.writeInt(index.get(routing.getEndpoints(link).getSecond()));
+			}
+			for (Link link : routingLinks) {
+				out.writeBoolean(routing.getEdgeType(link) == EdgeType.DIRECTED);
+			}
+			for (Link link : routingLinks) {
+				Integer i = links.get(link);
+				writeRoutingElement(out, link, i, i == null ? null : edges.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Writes an element of a routing. If the parent of the element is the
+	 * corresponding element of the architecture, only the index and the local
+	 * attributes are written. Otherwise, the element is written without
+	 * attributes, as it is the case for the XML format.
+	 *
+	 * @param out
+	 *            the output
+	 * @param element
+	 *            the routing element
+	 * @param index
+	 *            the index of the element in the architecture or {@code null}
+	 * @param architectureElement
+	 *            the element of the architecture or {@code null}
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	protected void writeRoutingElement(DataOutputStream out, Element element, Integer index,
+			Element architectureElement) throws IOException {
+		if (index == null) {
+			out.writeInt(NONE);
+			writeElement(out, element, new Attributes());
+		} else {
+			out.writeInt(index);
+			boolean local = element.getParent() != null && element.getParent() == architectureElement;
+			writeAttributes(out, local ? element.getLocalAttributes() : new Attributes());
+		}
+	}
+
+	protected void writeElement(DataOutputStream out, Element element, Attributes attributes) throws IOException {
+		out.writeInt(string(element.getId()));
+		out.writeInt(string(typeName(element.getClass())));
+		writeAttributes(out, attributes);
+	}
+
+	protected void writeAttributes(DataOutputStream out, Attributes attributes) throws IOException {
+		int size = 0;
+		for (Object value : attributes.values()) {
+			if (value != null) {
+				size++;
+			}
+		}
+		out.writeInt(size);
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			if (entry.getValue() != null) {
+				out.writeInt(string(entry.getKey()));
+				writeValue(out, entry.getValue());
+			}
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	protected void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(T_NULL);
+			return;
+		}
+		Class<?> cls = value.getClass();
+
+		if (cls.equals(Integer.class)) {
+			out.writeByte(T_INT);
+			out.writeInt((Integer) value);
+		} else if (cls.equals(Double.class)) {
+			out.writeByte(T_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (cls.equals(String.class)) {
+			out.writeByte(T_STRING);
+			out.writeInt(string((String) value));
+		} else if (cls.equals(Boolean.class)) {
+			out.writeByte(T_BOOL);
+			out.writeBoolean((Boolean) value);
+		} else if (cls.equals(Long.class)) {
+			out.writeByte(T_LONG);
+			out.writeLong((Long) value);
+		} else if (cls.equals(Float.class)) {
+			out.writeByte(T_FLOAT);
+			out.writeFloat((Float) value);
+		} else if (cls.equals(Short.class)) {
+			out.writeByte(T_SHORT);
+			out.writeShort((Short) value);
+		} else if (cls.equals(Byte.class)) {
+			out.writeByte(T_BYTE);
+			out.writeByte((Byte) value);
+		} else if (cls.equals(Character.class)) {
+			out.writeByte(T_CHAR);
+			out.writeChar((Character) value);
+		} else if (value instanceof ParameterRange) {
+			ParameterRange range = (ParameterRange) value;
+			out.writeByte(T_RANGE);
+			out.writeDouble(range.getValue());
+			out.writeDouble(range.getLowerBound());
+			out.writeDouble(range.getUpperBound());
+			out.writeDouble(range.getGranularity());
+		} else if (value instanceof ParameterRangeDiscrete) {
+			ParameterRangeDiscrete range = (ParameterRangeDiscrete) value;
+			out.writeByte(T_DISCRETERANGE);
+			out.writeInt(range.getValue());
+			out.writeInt(range.getLowerBound());
+			out.writeInt(range.getUpperBound());
+		} else if (value instanceof ParameterUniqueID) {
+			ParameterUniqueID uid = (ParameterUniqueID) value;
+			out.writeByte(T_UID);
+			out.writeInt((Integer) uid.getValue());
+			out.writeInt(string(uid.getIdentifier()));
+		} else if (value instanceof ParameterSelect) {
+			ParameterSelect select = (ParameterSelect) value;
+			out.writeByte(T_SELECT);
+			out.writeInt(select.getReference() == null ? NONE : string(select.getReference()));
+			writeValue(out, select.getValue());
+			out.writeInt(select.getElements().length);
+			for (Object element : select.getElements()) {
+				writeValue(out, element);
+			}
+		} else if (value instanceof Element) {
+			out.writeByte(T_ELEMENT);
+			out.writeInt(string(typeName(cls)));
+			out.writeInt(string(((Element) value).getId()));
+		} else if (cls.isEnum()) {
+			out.writeByte(T_ENUM);
+			out.writeInt(string(typeName(cls)));
+			out.writeInt(string(((Enum) value).name()));
+		} else if (value instanceof Collection && hasDefaultConstructor(cls)) {
+			Collection collection = (Collection) value;
+			out.writeByte(T_COLLECTION);
+			out.writeInt(string(typeName(cls)));
+			out.writeInt(collection.size());
+			for (Object o : collection) {
+				writeValue(out, o);
+			}
+		} else if (AttributeCodecs.contains(cls)) {
+			out.writeByte(T_CODEC);
+			out.writeInt(string(typeName(cls)));
+			out.writeInt(string(AttributeCodecs.encode(value)));
+		} else if (value instanceof Serializable) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream oos = new ObjectOutputStream(bytes);
+			oos.writeObject(value);
+			oos.close();
+			out.writeByte(T_SERIALIZABLE);
+			out.writeInt(bytes.size());
+			bytes.writeTo(out);
+		} else {
+			throw new IllegalArgumentException("Failed to write attribute " + value);
+		}
+	}
+
+	protected static boolean hasDefaultConstructor(Class<?> cls) {
+		try {
+			cls.getConstructor();
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the name of the class as used in the string table, i.e., the
+	 * short name from the {@link Common#classMap} or the binary class name
+	 * that can be resolved with {@link Class#forName(String)}.
+	 *
+	 * @param cls
+	 *            the class
+	 * @return the name of the class
+	 */
+	protected static String typeName(Class<?> cls) {
+		String name = Common.classMap.getKey(cls);
+		return name != null ? name : cls.getName();
+	}
+
+	protected int string(String string) {
+		Integer index = strings.get(string);
+		if (index == null) {
+			index = stringTable.size();
+			strings.put(string, index);
+			stringTable.add(string);
+		}
+		return index;
+	}
+
+}
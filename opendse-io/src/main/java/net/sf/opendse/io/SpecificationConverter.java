@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.File;
+
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@code SpecificationConverter} converts specifications between the XML
+ * format and the binary format. Binary files are identified by the suffix
+ * {@link SpecificationBinaryWriter#SUFFIX}.
+ * <p>
+ * Usage: {@code SpecificationConverter <input> <output>}
+ */
+public class SpecificationConverter {
+
+	/**
+	 * Converts an XML specification into a binary specification.
+	 *
+	 * @param xml
+	 *            the XML file
+	 * @param binary
+	 *            the binary file
+	 */
+	public static void toBinary(File xml, File binary) {
+		Specification specification = new SpecificationReader().read(xml);
+		new SpecificationBinaryWriter().write(specification, binary);
+	}
+
+	/**
+	 * Converts a binary specification into an XML specification.
+	 *
+	 * @param binary
+	 *            the binary file
+	 * @param xml
+	 *            the XML file
+	 */
+	public static void toXML(File binary, File xml) {
+		Specification specification = new SpecificationBinaryReader().read(binary);
+		new SpecificationStreamWriter().write(specification, xml);
+	}
+
+	/**
+	 * Reads a specification from a file in the XML or binary format depending
+	 * on the suffix of the file.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the specification
+	 */
+	public static Specification read(File file) {
+		if (isBinary(file)) {
+			return new SpecificationBinaryReader().read(file);
+		} else {
+			return new SpecificationReader().read(file);
+		}
+	}
+
+	protected static boolean isBinary(File file) {
+		return file.getName().endsWith(SpecificationBinaryWriter.SUFFIX);
+	}
+
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: SpecificationConverter <input> <output>");
+			System.exit(1);
+		}
+		File in = new File(args[0]);
+		File out = new File(args[1]);
+
+		Specification specification = read(in);
+		if (isBinary(out)) {
+			new SpecificationBinaryWriter().write(specification, out);
+		} else {
+			new SpecificationStreamWriter().write(specification, out);
+		}
+	}
+}
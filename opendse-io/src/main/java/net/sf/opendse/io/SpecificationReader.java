@@ -28,19 +28,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.regex.MatchResult;
 
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Attributes;
 import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.CompressedRoutings;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Edge;
 import net.sf.opendse.model.Element;
@@ -57,7 +54,6 @@ import net.sf.opendse.model.parameter.ParameterRange;
 import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
 import net.sf.opendse.model.parameter.ParameterSelect;
 import net.sf.opendse.model.parameter.ParameterUniqueID;
-import net.sf.opendse.model.parameter.Parameters;
 import nu.xom.Elements;
 
 /**
@@ -69,6 +65,7 @@ import nu.xom.Elements;
 public class SpecificationReader {
 
 	protected Map<String, Element> knownElements = new HashMap<String, Element>();
+	protected Map<String, Class<?>> knownClasses = new HashMap<String, Class<?>>();
 
 	/**
 	 * Read specification from a file.
@@ -163,7 +160,7 @@ public class SpecificationReader {
 			Architecture<Resource, Link> architecture, Application<Task, Dependency> application)
 			throws IllegalArgumentException, SecurityException, ClassNotFoundException, InstantiationException,
 			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
-		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
 
 		nu.xom.Elements eRoutingList = eRoutings.getChildElements("routing", SpecificationWriter.NS);
 		for (nu.xom.Element eRouting : iterable(eRoutingList)) {
@@ -171,7 +168,7 @@ public class SpecificationReader {
 			Task source = application.getVertex(sourceId);
 
 			Architecture<Resource, Link> routing = toRouting(eRouting, architecture, application);
-			routings.set(source, routing);
+			routings.setCompressed(source, routing);
 		}
 
 		return routings;
@@ -350,10 +347,44 @@ public class SpecificationReader {
 	}
 
 	protected Class<?> getClass(String name) throws ClassNotFoundException {
-		if (classMap.containsKey(name)) {
-			return classMap.get(name);
-		} else {
+		Class<?> clazz = knownClasses.get(name);
+		if (clazz == null) {
+			if (classMap.containsKey(name)) {
+				clazz = classMap.get(name);
+			} else {
+				clazz = AttributeCodecs.getClass(name);
+				if (clazz == null) {
+					clazz = forName(name);
+				}
+			}
+			knownClasses.put(name, clazz);
+		}
+		return clazz;
+	}
+
+	/**
+	 * Returns the class for a binary or canonical class name. The types of attributes are written with their
+	 * canonical names such that nested classes are resolved by replacing the trailing dots with {@code $}.
+	 * 
+	 * @param name
+	 *            the class name
+	 * @return the class
+	 * @throws ClassNotFoundException
+	 *             thrown if the class does not exist
+	 */
+	protected static Class<?> forName(String name) throws ClassNotFoundException {
+		try {
 			return Class.forName(name);
+		} catch (ClassNotFoundException e) {
+			int index = name.lastIndexOf('.');
+			if (index < 0) {
+				throw e;
+			}
+			try {
+				return forName(name.substring(0, index) + '$' + name.substring(index + 1));
+			} catch (ClassNotFoundException e2) {
+				throw e;
+			}
 		}
 	}
 
@@ -498,7 +529,7 @@ public class SpecificationReader {
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	protected Object toAttributeCollection(nu.xom.Element eAttribute, Class<?> clazz) throws InstantiationException,
 			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
-		Collection collectionAttribute = (Collection) clazz.getConstructor().newInstance();
+		Collection collectionAttribute = AttributeCodecs.newCollection(clazz);
 		for (nu.xom.Element childElement : iterable(eAttribute.getChildElements())) {
 			Object actualEntry = toAttribute(childElement);
 			collectionAttribute.add(actualEntry);
@@ -507,7 +538,8 @@ public class SpecificationReader {
 	}
 
 	/**
-	 * Constructs an instance of the passed class that contains the passed value.
+	 * Constructs an instance of the passed class that contains the passed value. Values of classes with an
+	 * {@link AttributeCodec} are decoded directly, all other values are constructed by reflection.
 	 *
 	 * @param value
 	 *            the value of the object that is to create
@@ -521,6 +553,8 @@ public class SpecificationReader {
 
 		if (Element.class.isAssignableFrom(clazz) && knownElements.containsKey(value)) {
 			object = knownElements.get(value);
+		} else if (AttributeCodecs.contains(clazz)) {
+			object = AttributeCodecs.decode(value.trim(), clazz);
 		} else {
 			object = toInstance(value, clazz);
 			if (object instanceof Element) {
@@ -549,17 +583,7 @@ public class SpecificationReader {
 	 * @return the corresponding parameter
 	 */
 	protected ParameterRange getRange(String value) {
-		Scanner scanner = new Scanner(value);
-		scanner.useDelimiter("[\\s+,()]+");
-
-		double v = new Double(scanner.next());
-		double lb = new Double(scanner.next());
-		double ub = new Double(scanner.next());
-		double gr = new Double(scanner.next());
-
-		scanner.close();
-
-		return Parameters.range(v, lb, ub, gr);
+		return AttributeCodecs.decode(value, ParameterRange.class);
 	}
 
 	/**
@@ -570,51 +594,21 @@ public class SpecificationReader {
 	 * @return the corresponding parameter
 	 */
 	protected ParameterRangeDiscrete getRangeInt(String value) {
-		Scanner scanner = new Scanner(value);
-		scanner.useDelimiter("[\\s+,()]+");
-
-		int v = new Integer(scanner.next());
-		int lb = new Integer(scanner.next());
-		int ub = new Integer(scanner.next());
-
-		scanner.close();
-
-		return Parameters.range(v, lb, ub);
+		return AttributeCodecs.decode(value, ParameterRangeDiscrete.class);
 	}
 
 	/**
 	 * Parse the {@link ParameterSelect}.
 	 * 
+	 * @param type
+	 *            the type of the value and the elements
 	 * @param value
 	 *            the string to parse
 	 * @return the corresponding parameter
 	 */
 	protected ParameterSelect getSelectRefList(String type, String value) throws ClassNotFoundException,
 			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
-		value = value.replace("[", "(").replace("]", ")");
-
-		Scanner scanner = new Scanner(value);
-		scanner.useDelimiter("[()]+");
-
-		Class<?> clazz = getClass(type);
-
-		Object def = toInstance(scanner.next(), clazz);
-		List<Object> select = new ArrayList<Object>();
-		for (String part : scanner.next().split(",")) {
-			select.add(toInstance(part, clazz));
-		}
-
-		String reference = null;
-		if (scanner.hasNext()) {
-			String next = scanner.next().trim();
-			if (!next.equals("")) {
-				reference = next;
-			}
-		}
-
-		scanner.close();
-
-		return Parameters.selectRefList(reference, def, select);
+		return AttributeCodecs.getSelectCodec(getClass(type)).decode(value);
 	}
 
 	/**
@@ -625,15 +619,6 @@ public class SpecificationReader {
 	 * @return the corresponding parameter
 	 */
 	protected ParameterUniqueID getUniqueID(String value) {
-		Scanner scanner = new Scanner(value);
-		scanner.findInLine("(\\w+) \\[UID:(\\w+)\\]");
-
-		MatchResult result = scanner.match();
-		int def = new Integer(result.group(1));
-		String identifier = result.group(2);
-
-		scanner.close();
-
-		return Parameters.uniqueID(def, identifier);
+		return AttributeCodecs.decode(value, ParameterUniqueID.class);
 	}
 }
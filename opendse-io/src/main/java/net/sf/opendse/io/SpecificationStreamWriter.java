@@ -0,0 +1,518 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.getType;
+import static net.sf.opendse.io.SpecificationWriter.NS;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameter;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code SpecificationStreamWriter} writes {@code Specification}s to an
+ * {@code OutputStream} or {@code File} based on an {@link XMLStreamWriter}.
+ * <p>
+ * In contrast to the {@link SpecificationWriter}, no XML tree is built in
+ * memory. Each specification is serialized as soon as it is delivered by the
+ * given {@code Iterable} such that large archives of implementations can be
+ * written with constant memory. The output format is the same as the one of
+ * the {@link SpecificationWriter}. Files that end with {@code .gz} are
+ * compressed with gzip.
+ * <p>
+ * Optionally, only the differences to the specification are written: Each
+ * element that has a parent element (as it is the case for the elements of an
+ * implementation) is written with its local attributes only, i.e., the
+ * attributes that are inherited from the specification are omitted.
+ */
+public class SpecificationStreamWriter {
+
+	/**
+	 * The file suffix that enables the gzip compression.
+	 */
+	public static final String GZIP_SUFFIX = ".gz";
+
+	protected static final String INDENT = "  ";
+
+	protected final boolean writeRoutings;
+	protected final boolean differencesOnly;
+
+	/**
+	 * Constructs a new {@link SpecificationStreamWriter} that will always
+	 * export {@link Routings} and all attributes.
+	 */
+	public SpecificationStreamWriter() {
+		this(true, false);
+	}
+
+	/**
+	 * Constructs a new {@link SpecificationStreamWriter} instance.
+	 *
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 * @param differencesOnly
+	 *            true if only the local attributes of elements with a parent
+	 *            shall be exported
+	 */
+	public SpecificationStreamWriter(boolean writeRoutings, boolean differencesOnly) {
+		this.writeRoutings = writeRoutings;
+		this.differencesOnly = differencesOnly;
+	}
+
+	/**
+	 * Write the specification to a file.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param file
+	 *            the file
+	 */
+	public void write(Specification specification, File file) {
+		write(Collections.singleton(specification), file, false);
+	}
+
+	/**
+	 * Write the specification to an output stream.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param out
+	 *            the output stream
+	 */
+	public void write(Specification specification, OutputStream out) {
+		write(Collections.singleton(specification), out, false);
+	}
+
+	/**
+	 * Write the specifications to a file.
+	 *
+	 * @param specifications
+	 *            the specifications
+	 * @param filename
+	 *            the name of the target file
+	 */
+	public void write(Iterable<? extends Specification> specifications, String filename) {
+		write(specifications, new File(filename));
+	}
+
+	/**
+	 * Write the specifications to a file. The file is compressed with gzip if
+	 * its name ends with {@link #GZIP_SUFFIX}.
+	 *
+	 * @param specifications
+	 *            the specifications
+	 * @param file
+	 *            the file
+	 */
+	public void write(Iterable<? extends Specification> specifications, File file) {
+		write(specifications, file, true);
+	}
+
+	protected void write(Iterable<? extends Specification> specifications, File file, boolean multiple) {
+		try {
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+			boolean gzip = file.getName().endsWith(GZIP_SUFFIX);
+			if (gzip) {
+				// buffer the XML writer output since small writes are expensive for
+				// the deflater
+				out = new BufferedOutputStream(new GZIPOutputStream(out));
+			}
+			try {
+				write(specifications, out, multiple);
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Write the specifications to an output stream. The stream is flushed but
+	 * not closed.
+	 *
+	 * @param specifications
+	 *            the specifications
+	 * @param out
+	 *            the output stream
+	 */
+	public void write(Iterable<? extends Specification> specifications, OutputStream out) {
+		write(specifications, out, true);
+	}
+
+	protected void write(Iterable<? extends Specification> specifications, OutputStream out, boolean multiple) {
+		try {
+			XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			Indenter indenter = new Indenter(writer);
+
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.setDefaultNamespace(NS);
+			if (multiple) {
+				indenter.start("specifications");
+				writer.writeDefaultNamespace(NS);
+			}
+			for (Specification specification : specifications) {
+				writeSpecification(indenter, specification, !multiple);
+				writer.flush();
+			}
+			if (multiple) {
+				indenter.end();
+			}
+			writer.writeCharacters("\n");
+			writer.writeEndDocument();
+			writer.close();
+			out.flush();
+		} catch (XMLStreamException ex) {
+			System.err.println(ex + " " + out);
+		} catch (IOException ex) {
+			System.err.println(ex + " " + out);
+		}
+	}
+
+	protected void writeSpecification(Indenter out, Specification specification, boolean root)
+			throws XMLStreamException {
+		out.start("specification");
+		if (root) {
+			out.writer.writeDefaultNamespace(NS);
+			out.writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+			out.writer.writeAttribute("http://www.w3.org/2001/XMLSchema-instance", "schemaLocation",
+					"http://opendse.sourceforge.net http://opendse.sourceforge.net/schema.xsd");
+		}
+
+		writeArchitecture(out, specification.getArchitecture());
+		writeApplication(out, specification.getApplication());
+		writeMappings(out, specification.getMappings());
+		if (specification.getRoutings() != null && writeRoutings) {
+			writeRoutings(out, specification.getRoutings(), specification.getArchitecture());
+		}
+		if (specification.getAttributes().size() > 0) {
+			writeAttributes(out, specification.getAttributes());
+		}
+
+		out.end();
+	}
+
+	protected void writeArchitecture(Indenter out, Architecture<Resource, Link> architecture)
+			throws XMLStreamException {
+		out.start("architecture");
+		for (Resource resource : architecture) {
+			writeNode(out, resource, "resource", getAttributes(resource));
+			out.end();
+		}
+		for (Link link : architecture.getEdges()) {
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			writeEdge(out, link, "link", endpoints.getFirst(), endpoints.getSecond(), architecture.getEdgeType(link),
+					getAttributes(link));
+		}
+		out.end();
+	}
+
+	protected void writeApplication(Indenter out, Application<Task, Dependency> application)
+			throws XMLStreamException {
+		out.start("application");
+		for (Task task : application) {
+			if (Models.isProcess(task)) {
+				writeNode(out, task, "task", getAttributes(task));
+				out.end();
+			}
+		}
+		for (Task task : application) {
+			if (!Models.isProcess(task)) {
+				writeNode(out, task, "communication", getAttributes(task));
+				out.end();
+			}
+		}
+		for (Dependency dependency : application.getEdges()) {
+			Pair<Task> endpoints = application.getEndpoints(dependency);
+			writeEdge(out, dependency, "dependency", endpoints.getFirst(), endpoints.getSecond(),
+					application.getEdgeType(dependency), getAttributes(dependency));
+		}
+		out.start("functions");
+		for (Function<Task, Dependency> function : application.getFunctions()) {
+			out.start("function");
+			Task t = function.getVertices().iterator().next();
+			out.writer.writeAttribute("anchor", t.getId());
+			writeAttributes(out, function.getAttributes());
+			out.end();
+		}
+		out.end();
+		out.end();
+	}
+
+	protected void writeMappings(Indenter out, Mappings<Task, Resource> mappings) throws XMLStreamException {
+		out.start("mappings");
+		for (Mapping<Task, Resource> mapping : mappings) {
+			out.start("mapping");
+			out.writer.writeAttribute("id", mapping.getId());
+			if (!getType(mapping.getClass()).equals("mapping")) {
+				out.writer.writeAttribute("class", getType(mapping.getClass()));
+			}
+			out.writer.writeAttribute("source", mapping.getSource().getId());
+			out.writer.writeAttribute("target", mapping.getTarget().getId());
+			writeNonEmptyAttributes(out, getAttributes(mapping));
+			out.end();
+		}
+		out.end();
+	}
+
+	protected void writeRoutings(Indenter out, Routings<Task, Resource, Link> routings,
+			Architecture<Resource, Link> architecture) throws XMLStreamException {
+		Map<String, Element> elements = new HashMap<String, Element>();
+		for (Resource resource : architecture) {
+			elements.put(resource.getId(), resource);
+		}
+		for (Link link : architecture.getEdges()) {
+			elements.put(link.getId(), link);
+		}
+
+		out.start("routings");
+		for (Task task : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(task);
+			out.start("routing");
+			out.writer.writeAttribute("source", task.getId());
+
+			for (Resource resource : routing) {
+				Attributes attributes = resource.getParent() != elements.get(resource.getId()) ? null
+						: resource.getLocalAttributes();
+				writeNode(out, resource, "resource", attributes);
+				out.end();
+			}
+			for (Link link : routing.getEdges()) {
+				Pair<Resource> endpoints = routing.getEndpoints(link);
+				Attributes attributes = link.getParent() != elements.get(link.getId()) ? null
+						: link.getLocalAttributes();
+				writeEdge(out, link, "link", endpoints.getFirst(), endpoints.getSecond(), routing.getEdgeType(link),
+						attributes);
+			}
+
+			out.end();
+		}
+		out.end();
+	}
+
+	protected void writeNode(Indenter out, Element node, String name, Attributes attributes) throws XMLStreamException {
+		out.start(name);
+		out.writer.writeAttribute("id", node.getId());
+		if (!getType(node.getClass()).equals(name)) {
+			out.writer.writeAttribute("class", getType(node.getClass()));
+		}
+		writeNonEmptyAttributes(out, attributes);
+	}
+
+	protected void writeEdge(Indenter out, Edge edge, String name, Node source, Node dest, EdgeType edgeType,
+			Attributes attributes) throws XMLStreamException {
+		writeNode(out, edge, name, null);
+		out.writer.writeAttribute("source", source.getId());
+		out.writer.writeAttribute("destination", dest.getId());
+		out.writer.writeAttribute("orientation", edgeType.toString());
+		writeNonEmptyAttributes(out, attributes);
+		out.end();
+	}
+
+	/**
+	 * Returns the attributes of an element that are to be written, i.e., all
+	 * attributes or only the local attributes that differ from the parent.
+	 *
+	 * @param element
+	 *            the element
+	 * @return the attributes to be written
+	 */
+	protected Attributes getAttributes(Element element) {
+		Element parent = element.getParent();
+		if (!differencesOnly || parent == null) {
+			return element.getAttributes();
+		}
+		Attributes attributes = new Attributes();
+		Attributes parentAttributes = parent.getAttributes();
+		for (Map.Entry<String, Object> entry : element.getLocalAttributes().entrySet()) {
+			Object value = entry.getValue();
+			if (value != null && !value.equals(parentAttributes.get(entry.getKey()))) {
+				attributes.put(entry.getKey(), value);
+			}
+		}
+		return attributes;
+	}
+
+	protected void writeNonEmptyAttributes(Indenter out, Attributes attributes) throws XMLStreamException {
+		if (attributes == null) {
+			return;
+		}
+		for (Object value : attributes.values()) {
+			if (value != null) {
+				writeAttributes(out, attributes);
+				return;
+			}
+		}
+	}
+
+	protected void writeAttributes(Indenter out, Attributes attributes) throws XMLStreamException {
+		out.start("attributes");
+		for (String attributeName : attributes.getAttributeNames()) {
+			Object value = attributes.get(attributeName);
+			if (value != null) {
+				writeAttribute(out, attributeName, value);
+			}
+		}
+		out.end();
+	}
+
+	/**
+	 * Writes a single attribute value in the same representation as
+	 * {@link SpecificationWriter#toElement(String, Object)}.
+	 *
+	 * @param out
+	 *            the indenting writer
+	 * @param attributeName
+	 *            the name of the attribute
+	 * @param attribute
+	 *            the attribute value
+	 * @throws XMLStreamException
+	 *             thrown in case of an XML error
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void writeAttribute(Indenter out, String attributeName, Object attribute) throws XMLStreamException {
+		out.start("attribute");
+		out.writer.writeAttribute("name", attributeName);
+		Class<?> cls = attribute.getClass();
+
+		if (attribute instanceof ParameterSelect) {
+			ParameterSelect select = (ParameterSelect) attribute;
+			Class<?> type = select.getValue().getClass();
+			out.writer.writeAttribute("type", getType(type));
+			out.writer.writeAttribute("parameter", getType(ParameterSelect.class));
+			out.text(AttributeCodecs.getSelectCodec(type).encode(select));
+		} else if (attribute instanceof Parameter) {
+			out.writer.writeAttribute("type", getType(cls));
+			out.writer.writeAttribute("parameter", getType(attribute.getClass()));
+			out.text(attribute.toString());
+		} else if (Common.isPrimitive(cls) || cls.equals(String.class)) {
+			out.writer.writeAttribute("type", getType(cls));
+			out.text(attribute.toString());
+		} else if (attribute instanceof Element) {
+			out.writer.writeAttribute("type", getType(cls));
+			out.text(((Element) attribute).getId());
+		} else if (Collection.class.isAssignableFrom(cls)) {
+			out.writer.writeAttribute("type", getType(cls));
+			for (Object o : (Collection) attribute) {
+				writeAttribute(out, "entry", o);
+			}
+		} else if (cls.isEnum()) {
+			out.writer.writeAttribute("type", getType(cls));
+			out.text(((Enum) attribute).name());
+		} else if (AttributeCodecs.contains(cls)) {
+			out.writer.writeAttribute("type", getType(cls));
+			out.text(AttributeCodecs.encode(attribute));
+		} else if (attribute instanceof Serializable) {
+			out.writer.writeAttribute("type", Serializable.class.getName());
+			try {
+				out.text(Common.toString((Serializable) attribute));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		} else {
+			System.err.println("Failed to write attribute " + attribute);
+		}
+		out.end();
+	}
+
+	/**
+	 * The {@code Indenter} wraps the {@link XMLStreamWriter} and indents nested
+	 * elements. Elements that contain text are written on a single line. The
+	 * methods are public such that subclasses in other packages can write
+	 * additional content.
+	 */
+	protected static class Indenter {
+
+		protected final XMLStreamWriter writer;
+		protected int depth = 0;
+		protected boolean hasChildren = false;
+
+		protected Indenter(XMLStreamWriter writer) {
+			this.writer = writer;
+		}
+
+		public void start(String name) throws XMLStreamException {
+			newline(depth);
+			writer.writeStartElement(NS, name);
+			depth++;
+			hasChildren = false;
+		}
+
+		public void attribute(String name, String value) throws XMLStreamException {
+			writer.writeAttribute(name, value);
+		}
+
+		public void text(String text) throws XMLStreamException {
+			writer.writeCharacters(text);
+		}
+
+		public void end() throws XMLStreamException {
+			depth--;
+			if (hasChildren) {
+				newline(depth);
+			}
+			writer.writeEndElement();
+			hasChildren = true;
+		}
+
+		protected void newline(int indent) throws XMLStreamException {
+			StringBuilder sb = new StringBuilder("\n");
+			for (int i = 0; i < indent; i++) {
+				sb.append(INDENT);
+			}
+			writer.writeCharacters(sb.toString());
+		}
+	}
+}
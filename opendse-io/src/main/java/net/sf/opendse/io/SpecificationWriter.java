@@ -48,6 +48,7 @@ import net.sf.opendse.model.Routings;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.parameter.Parameter;
+import net.sf.opendse.model.parameter.ParameterSelect;
 import nu.xom.Serializer;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.graph.util.Pair;
@@ -360,7 +361,15 @@ public class SpecificationWriter {
 		if (attribute != null) {
 			Class<?> cls = attribute.getClass();
 
-			if (attribute instanceof Parameter) {
+			if (attribute instanceof ParameterSelect) {
+
+				ParameterSelect select = (ParameterSelect) attribute;
+				Class<?> type = select.getValue().getClass();
+				eAttr.appendChild(AttributeCodecs.getSelectCodec(type).encode(select));
+				eAttr.addAttribute(new nu.xom.Attribute("type", getType(type)));
+				eAttr.addAttribute(new nu.xom.Attribute("parameter", getType(ParameterSelect.class)));
+
+			} else if (attribute instanceof Parameter) {
 
 				Parameter parameter = (Parameter) attribute;
 				eAttr.appendChild(parameter.toString());
@@ -385,6 +394,9 @@ public class SpecificationWriter {
 			} else if (cls.isEnum()) {
 				eAttr.addAttribute(new nu.xom.Attribute("type", getType(cls)));
 				eAttr.appendChild(((Enum) attribute).name());
+			} else if (AttributeCodecs.contains(cls)) {
+				eAttr.addAttribute(new nu.xom.Attribute("type", getType(cls)));
+				eAttr.appendChild(AttributeCodecs.encode(attribute));
 			} else if (attribute instanceof Serializable) {
 				Serializable s = (Serializable) attribute;
 				eAttr.addAttribute(new nu.xom.Attribute("type", Serializable.class.getName()));
@@ -0,0 +1,137 @@
+package net.sf.opendse.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.io.CommonTest.E1;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+import net.sf.opendse.model.parameter.Parameters;
+
+public class AttributeCodecsTest {
+
+	@Test
+	public void decodePrimitives() {
+		Assert.assertEquals(Integer.valueOf(3), AttributeCodecs.decode(" 3 ", Integer.class));
+		Assert.assertEquals(Long.valueOf(3L), AttributeCodecs.decode("3", Long.class));
+		Assert.assertEquals(Character.valueOf('x'), AttributeCodecs.decode("x", Character.class));
+		Assert.assertEquals("INT", Common.getType(Integer.class));
+		Assert.assertSame(Integer.class, AttributeCodecs.getClass("INT"));
+	}
+
+	@Test
+	public void encodeAndDecodeArrays() {
+		int[] ints = { 1, -2, 3 };
+		Assert.assertEquals("1,-2,3", AttributeCodecs.encode(ints));
+		Assert.assertArrayEquals(ints, AttributeCodecs.decode("1,-2,3", int[].class));
+		Assert.assertEquals(0, AttributeCodecs.decode("", double[].class).length);
+
+		double[] doubles = { 0.1, 1e-20 };
+		Assert.assertArrayEquals(doubles, AttributeCodecs.decode(AttributeCodecs.encode(doubles), double[].class),
+				0.0);
+		Assert.assertSame(int[].class, AttributeCodecs.getClass("int[]"));
+	}
+
+	@Test
+	public void encodeAndDecodeParameters() {
+		ParameterRange range = Parameters.range(1.5, 1.0, 2.0, 0.5);
+		ParameterRange r = AttributeCodecs.decode(AttributeCodecs.encode(range), ParameterRange.class);
+		Assert.assertEquals(1.5, r.getValue(), 0.0);
+		Assert.assertEquals(1.0, r.getLowerBound(), 0.0);
+		Assert.assertEquals(2.0, r.getUpperBound(), 0.0);
+		Assert.assertEquals(0.5, r.getGranularity(), 0.0);
+
+		ParameterRangeDiscrete discrete = AttributeCodecs.decode("2 (1,4)", ParameterRangeDiscrete.class);
+		Assert.assertEquals(2, discrete.getValue().intValue());
+		Assert.assertEquals(4, discrete.getUpperBound());
+
+		ParameterUniqueID uid = AttributeCodecs.decode("7 [UID:core]", ParameterUniqueID.class);
+		Assert.assertEquals(7, uid.getValue());
+		Assert.assertEquals("core", uid.getIdentifier());
+	}
+
+	@Test
+	public void encodeAndDecodeSelect() {
+		AttributeCodec<ParameterSelect> codec = AttributeCodecs.getSelectCodec(Double.class);
+		ParameterSelect select = Parameters.selectRef("voltage", 1.2, 1.0, 1.2, 1.4);
+		Assert.assertEquals(select.toString(), codec.encode(select));
+		ParameterSelect s = codec.decode(codec.encode(select));
+		Assert.assertEquals(1.2, s.getValue());
+		Assert.assertArrayEquals(select.getElements(), s.getElements());
+		Assert.assertEquals("voltage", s.getReference());
+
+		AttributeCodec<ParameterSelect> enums = AttributeCodecs.getSelectCodec(E1.class);
+		s = enums.decode(enums.encode(Parameters.select(E1.b, E1.a, E1.b)));
+		Assert.assertEquals(E1.b, s.getValue());
+		Assert.assertEquals(E1.a, s.getElements()[0]);
+		Assert.assertNull(s.getReference());
+
+		Assert.assertEquals(0, codec.decode("1.0 []").getElements().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void decodeSelectInvalid() {
+		AttributeCodecs.getSelectCodec(Integer.class).decode("1 (1, 2)");
+	}
+
+	@Test
+	public void decodeEnumIgnoringCase() {
+		Assert.assertEquals(E1.b, AttributeCodecs.decode("B", E1.class));
+		Assert.assertEquals("a", AttributeCodecs.encode(E1.a));
+	}
+
+	public enum E2 {
+		x, X, y;
+	}
+
+	@Test
+	public void decodeEnumExactCaseFirst() {
+		Assert.assertEquals(E2.x, AttributeCodecs.decode("x", E2.class));
+		Assert.assertEquals(E2.X, AttributeCodecs.decode("X", E2.class));
+		Assert.assertEquals(E2.y, AttributeCodecs.decode("Y", E2.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void decodeEnumUnknown() {
+		AttributeCodecs.decode("c", E1.class);
+	}
+
+	@Test
+	public void writeAndReadAttributes() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		list.add(new long[] { 1L, 2L });
+		list.add(E1.a);
+
+		SpecificationWriter writer = new SpecificationWriter();
+		SpecificationReader reader = new SpecificationReader();
+
+		Assert.assertEquals("int[]", writer.toElement("a", new int[] { 4, 5 }).getAttributeValue("type"));
+		int[] ints = (int[]) reader.toAttribute(writer.toElement("a", new int[] { 4, 5 }));
+		Assert.assertArrayEquals(new int[] { 4, 5 }, ints);
+
+		@SuppressWarnings("unchecked")
+		List<Object> l = (List<Object>) reader.toAttribute(writer.toElement("l", list));
+		Assert.assertArrayEquals(new long[] { 1L, 2L }, (long[]) l.get(0));
+		Assert.assertEquals(E1.a, l.get(1));
+
+		ParameterSelect select = reader.getSelectRefList("STRING", "alpha [alpha, beta, gamma] variant");
+		Assert.assertEquals("alpha", select.getValue());
+		Assert.assertEquals("beta", select.getElements()[1]);
+		Assert.assertEquals("variant", select.getReference());
+
+		nu.xom.Element eSelect = writer.toElement("s", Parameters.select(2, 1, 2, 3));
+		Assert.assertEquals("INT", eSelect.getAttributeValue("type"));
+		select = (ParameterSelect) reader.toAttribute(eSelect);
+		Assert.assertEquals(2, select.getValue());
+		Assert.assertEquals(3, select.getElements()[2]);
+
+		Resource r = new Resource("r");
+		Assert.assertEquals(r, reader.toAttribute(writer.toElement("r", r)));
+	}
+}
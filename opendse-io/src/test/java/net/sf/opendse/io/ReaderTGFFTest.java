@@ -612,4 +612,43 @@ public class ReaderTGFFTest {
 		Assert.assertTrue(reader.skip("line to be skipped"));
 		Assert.assertFalse(reader.skip(ReaderTGFF.HEADER));
 	}
+
+	/**
+	 * Test method for
+	 * {@link net.sf.opendse.io.ReaderTGFF#tokens(java.lang.String)}.
+	 */
+	@Test
+	public void testTokens() {
+
+		Assert.assertArrayEquals(new String[] { "ARC", "a0_0", "FROM", "t0_0" },
+				ReaderTGFF.tokens("\t ARC a0_0 \tFROM  t0_0 "));
+		Assert.assertEquals(0, ReaderTGFF.tokens("  ").length);
+	}
+
+	/**
+	 * Test that the parallel import results in the same specification as the
+	 * sequential import.
+	 */
+	@Test
+	public void testReadParallel() {
+
+		SpecificationTypeBased sequential = new ReaderTGFF(1).read(testFile);
+		SpecificationTypeBased parallel = new ReaderTGFF(4).read(testFile);
+
+		Assert.assertEquals(new ArrayList<Task>(sequential.getApplication().getVertices()),
+				new ArrayList<Task>(parallel.getApplication().getVertices()));
+		Assert.assertEquals(new ArrayList<Dependency>(sequential.getApplication().getEdges()),
+				new ArrayList<Dependency>(parallel.getApplication().getEdges()));
+		Assert.assertEquals(sequential.getResourceTypes().keySet(), parallel.getResourceTypes().keySet());
+
+		List<String> sequentialMappings = new ArrayList<String>();
+		for (Mapping<Task, Resource> mapping : sequential.getMappings()) {
+			sequentialMappings.add(mapping.getId());
+		}
+		List<String> parallelMappings = new ArrayList<String>();
+		for (Mapping<Task, Resource> mapping : parallel.getMappings()) {
+			parallelMappings.add(mapping.getId());
+		}
+		Assert.assertEquals(sequentialMappings, parallelMappings);
+	}
 }
@@ -0,0 +1,84 @@
+package net.sf.opendse.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.io.CommonTest.E1;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.Parameters;
+
+public class SpecificationBinaryTest {
+
+	@Test
+	public void writeAndReadSpecification() throws IOException {
+		File file = File.createTempFile("specification", SpecificationBinaryWriter.SUFFIX);
+		file.deleteOnExit();
+
+		Specification written = TestSpecifications.getSpecification();
+		written.getArchitecture().getVertex("r2").setAttribute("voltage", Parameters.select(1.2, 1.0, 1.2, 1.4));
+		new SpecificationBinaryWriter().write(written, file);
+		Specification specification = new SpecificationBinaryReader().read(file);
+
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Assert.assertEquals(2, architecture.getVertexCount());
+		Assert.assertEquals(1, architecture.getEdgeCount());
+		Assert.assertEquals(3, specification.getApplication().getVertexCount());
+		Assert.assertEquals(2, specification.getApplication().getEdgeCount());
+		Assert.assertEquals(2, specification.getMappings().size());
+		Assert.assertEquals(42, specification.getAttribute("seed"));
+
+		Resource r1 = architecture.getVertex("r1");
+		Resource r2 = architecture.getVertex("r2");
+		Assert.assertEquals(10, r1.getAttribute("cost"));
+		Assert.assertEquals(E1.b, r1.getAttribute("enum"));
+		ParameterRange range = (ParameterRange) r1.getAttributeParameter("frequency");
+		Assert.assertEquals(10.0, range.getGranularity(), 0.0);
+		Assert.assertEquals(200.0, range.getUpperBound(), 0.0);
+		Assert.assertEquals("bus <1>", r2.getAttribute("name"));
+		ParameterSelect select = (ParameterSelect) r2.getAttributeParameter("voltage");
+		Assert.assertEquals(1.2, select.getValue());
+		Assert.assertEquals(3, select.getElements().length);
+		List<Object> list = r2.getAttribute("list");
+		Assert.assertEquals(1L, list.get(0));
+		Assert.assertEquals("a", list.get(1));
+
+		Task t1 = specification.getApplication().getVertex("t1");
+		Assert.assertSame(r1, t1.getAttribute("resource"));
+		Assert.assertEquals(0.5, specification.getApplication().getFunction(t1).getAttribute("period"));
+
+		Set<String> targets = new HashSet<String>();
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			targets.add(mapping.getTarget().getId());
+			Assert.assertSame(architecture.getVertex(mapping.getTarget().getId()), mapping.getTarget());
+		}
+		Assert.assertEquals(2, targets.size());
+
+		Task c1 = specification.getApplication().getVertex("c1");
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c1);
+		Assert.assertEquals(2, routing.getVertexCount());
+		Assert.assertEquals(1, routing.getEdgeCount());
+		Resource routingResource = routing.getVertex("r1");
+		Assert.assertSame(r1, routingResource.getParent());
+		Assert.assertEquals(true, routingResource.getAttribute("local"));
+		Assert.assertEquals(10, routingResource.getAttribute("cost"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void readInvalidFile() {
+		new SpecificationBinaryReader().read(ByteBuffer.wrap(new byte[] { 0, 0, 0, 0, 0, 0, 0, 1 }));
+	}
+}
@@ -0,0 +1,80 @@
+package net.sf.opendse.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.parameter.Parameters;
+
+public class SpecificationConverterTest {
+
+	protected static File createTempFile(String suffix) throws IOException {
+		File file = File.createTempFile("specification", suffix);
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Returns the sorted lines of a file such that XML files can be compared
+	 * independent of the order of their elements.
+	 */
+	protected static List<String> getLines(File file) throws IOException {
+		List<String> lines = new ArrayList<String>();
+		InputStream in = new FileInputStream(file);
+		try {
+			Scanner scanner = new Scanner(in, "UTF-8");
+			while (scanner.hasNextLine()) {
+				lines.add(scanner.nextLine().trim());
+			}
+		} finally {
+			in.close();
+		}
+		Collections.sort(lines);
+		return lines;
+	}
+
+	@Test
+	public void convertRoundTrip() throws IOException {
+		File xml = createTempFile(".xml");
+		File binary = createTempFile(SpecificationBinaryWriter.SUFFIX);
+		File converted = createTempFile(".xml");
+
+		Specification specification = TestSpecifications.getSpecification();
+		specification.getArchitecture().getVertex("r2").setAttribute("voltage", Parameters.select(1.2, 1.0, 1.2, 1.4));
+		new SpecificationStreamWriter().write(specification, xml);
+		SpecificationConverter.toBinary(xml, binary);
+		SpecificationConverter.toXML(binary, converted);
+
+		// the XML file as it is written after reading it without conversion
+		File expected = createTempFile(".xml");
+		new SpecificationStreamWriter().write(new SpecificationReader().read(xml), expected);
+
+		Assert.assertEquals(getLines(expected), getLines(converted));
+		Assert.assertEquals(getLines(xml), getLines(converted));
+	}
+
+	@Test
+	public void readBySuffix() throws IOException {
+		File xml = createTempFile(".xml");
+		File binary = createTempFile(SpecificationBinaryWriter.SUFFIX);
+		new SpecificationStreamWriter().write(TestSpecifications.getSpecification(), xml);
+		SpecificationConverter.toBinary(xml, binary);
+
+		Specification fromXML = SpecificationConverter.read(xml);
+		Specification fromBinary = SpecificationConverter.read(binary);
+		Assert.assertEquals(fromXML.getArchitecture().getVertexCount(), fromBinary.getArchitecture()
+				.getVertexCount());
+		Assert.assertEquals(fromXML.getApplication().getVertexCount(), fromBinary.getApplication().getVertexCount());
+		Assert.assertEquals(fromXML.getMappings().size(), fromBinary.getMappings().size());
+		Assert.assertEquals(42, fromBinary.getAttribute("seed"));
+	}
+}
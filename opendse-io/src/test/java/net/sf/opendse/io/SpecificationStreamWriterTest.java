@@ -0,0 +1,95 @@
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import nu.xom.Builder;
+import nu.xom.Document;
+import nu.xom.ParsingException;
+
+public class SpecificationStreamWriterTest {
+
+	@Test
+	public void writeAndReadSpecification() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter().write(TestSpecifications.getSpecification(), out);
+
+		SpecificationReader reader = new SpecificationReader();
+		Specification specification = reader.read(new ByteArrayInputStream(out.toByteArray()));
+
+		Assert.assertEquals(2, specification.getArchitecture().getVertexCount());
+		Assert.assertEquals(1, specification.getArchitecture().getEdgeCount());
+		Assert.assertEquals(3, specification.getApplication().getVertexCount());
+		Assert.assertEquals(2, specification.getMappings().size());
+		Assert.assertEquals(1, specification.getRoutings().getTasks().size());
+		Assert.assertEquals(10, specification.getArchitecture().getVertex("r1").getAttribute("cost"));
+		Assert.assertEquals("bus <1>", specification.getArchitecture().getVertex("r2").getAttribute("name"));
+		Assert.assertEquals(42, specification.getAttribute("seed"));
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			if (mapping.getId().equals("m1")) {
+				Assert.assertEquals(2.5, mapping.getAttribute("latency"));
+			}
+		}
+	}
+
+	@Test
+	public void writeMultipleGzip() throws IOException, ParsingException {
+		File file = File.createTempFile("specifications", SpecificationStreamWriter.GZIP_SUFFIX);
+		file.deleteOnExit();
+
+		new SpecificationStreamWriter().write(Arrays.asList(TestSpecifications.getSpecification(), TestSpecifications.getSpecification()), file);
+
+		GZIPInputStream in = new GZIPInputStream(new FileInputStream(file));
+		Document document = new Builder().build(in);
+		in.close();
+
+		nu.xom.Element root = document.getRootElement();
+		Assert.assertEquals("specifications", root.getLocalName());
+		Assert.assertEquals(2, root.getChildElements("specification", SpecificationWriter.NS).size());
+	}
+
+	@Test
+	public void writeDifferencesOnly() throws IOException, ParsingException {
+		Resource parent = new Resource("r");
+		parent.setAttribute("cost", 10);
+		parent.setAttribute("area", 3);
+		Resource child = new Resource(parent);
+		child.setAttribute("area", 3);
+		child.setAttribute("utilization", 0.5);
+
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		architecture.addVertex(child);
+		Specification implementation = new Specification(new Application<Task, Dependency>(), architecture,
+				new Mappings<Task, Resource>());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter(true, true).write(implementation, out);
+
+		Document document = new Builder().build(new ByteArrayInputStream(out.toByteArray()));
+		nu.xom.Element eResource = document.getRootElement()
+				.getFirstChildElement("architecture", SpecificationWriter.NS)
+				.getFirstChildElement("resource", SpecificationWriter.NS);
+		nu.xom.Element eAttributes = eResource.getFirstChildElement("attributes", SpecificationWriter.NS);
+
+		Assert.assertEquals(1, eAttributes.getChildElements().size());
+		Assert.assertEquals("utilization",
+				eAttributes.getFirstChildElement("attribute", SpecificationWriter.NS).getAttributeValue("name"));
+	}
+}
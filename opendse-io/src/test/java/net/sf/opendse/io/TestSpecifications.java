@@ -0,0 +1,70 @@
+package net.sf.opendse.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.io.CommonTest.E1;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameters;
+
+/**
+ * The specification that is shared by the reader and writer tests.
+ */
+public class TestSpecifications {
+
+	private TestSpecifications() {
+	}
+
+	/**
+	 * Returns a specification with the resources {@code r1} and {@code r2},
+	 * the function {@code t1 -> c1 -> t2}, and two mappings. The elements, the
+	 * function, a routing, and the specification have attributes of different
+	 * types.
+	 *
+	 * @return the specification
+	 */
+	public static Specification getSpecification() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute("cost", 10);
+		r1.setAttribute("frequency", Parameters.range(100.0, 50.0, 200.0, 10.0));
+		r1.setAttribute("enum", E1.b);
+		Resource r2 = new Resource("r2");
+		r2.setAttribute("name", "bus <1>");
+		List<Object> list = new ArrayList<Object>();
+		list.add(1L);
+		list.add("a");
+		r2.setAttribute("list", list);
+		architecture.addEdge(new Link("l"), r1, r2, EdgeType.UNDIRECTED);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t1 = new Task("t1");
+		t1.setAttribute("resource", r1);
+		Communication c1 = new Communication("c1");
+		Task t2 = new Task("t2");
+		application.addEdge(new Dependency("d1"), t1, c1);
+		application.addEdge(new Dependency("d2"), c1, t2);
+		application.getFunction(t1).setAttribute("period", 0.5);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Mapping<Task, Resource> m1 = new Mapping<Task, Resource>("m1", t1, r1);
+		m1.setAttribute("latency", 2.5);
+		mappings.add(m1);
+		mappings.add(new Mapping<Task, Resource>("m2", t2, r2));
+
+		Specification specification = new Specification(application, architecture, mappings);
+		specification.getRoutings().get(c1).getVertex("r1").setAttribute("local", true);
+		specification.setAttribute("seed", 42);
+		return specification;
+	}
+}
@@ -28,13 +28,17 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import edu.uci.ics.jung.algorithms.cluster.WeakComponentClusterer;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.graph.util.Pair;
 
 /**
  * The {@code Application} is the default implementation of the application
  * graph.
+ * <p>
+ * The functions are the weakly connected components of the application. The
+ * {@code Application} maintains a union-find index of the functions that is
+ * updated when tasks and dependencies are added and rebuilt lazily after
+ * tasks or dependencies are removed.
  * 
  * @author Martin Lukasiewycz
  * 
@@ -49,6 +53,25 @@ public class Application<T extends Task, D extends Dependency> extends Graph<T,
 
 	protected final Map<String, Attributes> fmap = new HashMap<String, Attributes>();
 
+	/**
+	 * The parent of each task in the union-find forest or {@code null} if the
+	 * index has to be rebuilt.
+	 */
+	protected transient Map<T, T> parents = null;
+	/**
+	 * The tasks of each function, given by its root task.
+	 */
+	protected transient Map<T, Set<T>> components = null;
+	/**
+	 * The attributes of each function, given by its root task.
+	 */
+	protected transient Map<T, Attributes> componentAttributes = null;
+	/**
+	 * The tasks by their ids.
+	 */
+	protected transient Map<String, T> ids = null;
+	protected transient int nextFunctionIndex = 0;
+
 	public void add(Function<T, D> function) {
 		for (T t : function) {
 			if (containsVertex(t)) {
@@ -68,10 +91,31 @@ public class Application<T extends Task, D extends Dependency> extends Graph<T,
 		}
 		T t = function.iterator().next();
 		fmap.put(t.getId(), function.getAttributes());
+		if (componentAttributes != null) {
+			componentAttributes.clear();
+		}
+	}
+
+	@Override
+	public synchronized boolean addVertex(T t) {
+		boolean b = super.addVertex(t);
+		if (b && parents != null) {
+			makeSet(t);
+		}
+		return b;
+	}
+
+	@Override
+	public synchronized boolean addEdge(D dependency, Pair<? extends T> endpoints, EdgeType edgeType) {
+		boolean b = super.addEdge(dependency, endpoints, edgeType);
+		if (b && parents != null) {
+			union(endpoints.getFirst(), endpoints.getSecond());
+		}
+		return b;
 	}
 
 	@Override
-	public boolean removeVertex(T t) {
+	public synchronized boolean removeVertex(T t) {
 		if (fmap.containsKey(t.getId())) {
 			Attributes attributes = fmap.remove(t.getId());
 
@@ -81,55 +125,178 @@ public class Application<T extends Task, D extends Dependency> extends Graph<T,
 			}
 		}
 
-		return super.removeVertex(t);
+		boolean b = super.removeVertex(t);
+		if (b) {
+			invalidate();
+		}
+		return b;
 	}
 
-	public Function<T, D> getFunction(T task) {
-		Set<T> tasks = getReachable(task);
-		return buildFunction(tasks);
+	@Override
+	public synchronized boolean removeEdge(D dependency) {
+		boolean b = super.removeEdge(dependency);
+		if (b) {
+			invalidate();
+		}
+		return b;
+	}
+
+	public synchronized Function<T, D> getFunction(T task) {
+		return buildFunction(getFunctionTasks(task));
 	}
 
 	public Function<T, D> getFunction(D dependency) {
 		return getFunction(this.getSource(dependency));
 	}
 
-	public Function<T, D> getFunction(String id) {
+	public synchronized Function<T, D> getFunction(String id) {
 		for (Entry<String, Attributes> entry : fmap.entrySet()) {
 			if (id.equals(entry.getValue().getAttribute("ID"))) {
-				return getFunction(getVertex(entry.getKey()));
+				ensureIndex();
+				return getFunction(ids.get(entry.getKey()));
 			}
 		}
 		return null;
 	}
 
-	public Set<Function<T, D>> getFunctions() {
-		WeakComponentClusterer<T, D> wcc = new WeakComponentClusterer<T, D>();
-		Set<Set<T>> cluster = wcc.transform(this);
-
+	public synchronized Set<Function<T, D>> getFunctions() {
+		ensureIndex();
 		Set<Function<T, D>> functions = new HashSet<Function<T, D>>();
-		for (Set<T> tasks : cluster) {
+		for (Set<T> tasks : components.values()) {
 			Function<T, D> function = buildFunction(tasks);
 			functions.add(function);
 		}
 		return functions;
 	}
 
+	/**
+	 * Returns the attributes of the function of the task without building the
+	 * function graph.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the attributes of the function
+	 */
+	public synchronized Attributes getFunctionAttributes(T task) {
+		T root = getRoot(task);
+		Attributes attributes = componentAttributes.get(root);
+		if (attributes == null) {
+			attributes = getAttributes(components.get(root));
+			if (attributes.getAttribute("ID") == null) {
+				attributes.setAttribute("ID", nextFunctionId());
+			}
+			componentAttributes.put(root, attributes);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Returns the tasks of the function of the task. The returned set must not
+	 * be modified.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the tasks of the function
+	 */
+	protected Set<T> getFunctionTasks(T task) {
+		T root = getRoot(task);
+		return components.get(root);
+	}
+
+	protected T getRoot(T task) {
+		ensureIndex();
+		T root = find(task);
+		if (root == null) {
+			throw new IllegalArgumentException("Application does not contain " + task);
+		}
+		return root;
+	}
+
+	protected void ensureIndex() {
+		if (parents == null) {
+			parents = new HashMap<T, T>();
+			components = new HashMap<T, Set<T>>();
+			componentAttributes = new HashMap<T, Attributes>();
+			ids = new HashMap<String, T>();
+			for (T t : getVertices()) {
+				makeSet(t);
+			}
+			for (D d : getEdges()) {
+				Pair<T> endpoints = getEndpoints(d);
+				union(endpoints.getFirst(), endpoints.getSecond());
+			}
+		}
+	}
+
+	protected void invalidate() {
+		parents = null;
+		components = null;
+		componentAttributes = null;
+		ids = null;
+	}
+
+	protected void makeSet(T t) {
+		parents.put(t, t);
+		Set<T> tasks = new HashSet<T>();
+		tasks.add(t);
+		components.put(t, tasks);
+		ids.put(t.getId(), t);
+	}
+
+	protected T find(T t) {
+		T root = parents.get(t);
+		if (root == null) {
+			return null;
+		}
+		T current = t;
+		while (!root.equals(current)) {
+			current = root;
+			root = parents.get(current);
+		}
+		// path compression
+		current = t;
+		while (!root.equals(current)) {
+			T next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	protected void union(T t0, T t1) {
+		T r0 = find(t0);
+		T r1 = find(t1);
+		if (r0 == r1) {
+			return;
+		}
+		Set<T> s0 = components.get(r0);
+		Set<T> s1 = components.get(r1);
+		if (s0.size() < s1.size()) {
+			T r = r0;
+			r0 = r1;
+			r1 = r;
+			Set<T> s = s0;
+			s0 = s1;
+			s1 = s;
+		}
+		parents.put(r1, r0);
+		s0.addAll(s1);
+		components.remove(r1);
+		componentAttributes.remove(r0);
+		componentAttributes.remove(r1);
+	}
+
 	protected String nextFunctionId() {
-		int i = 0;
+		Set<Object> existing = new HashSet<Object>();
+		for (Attributes attributes : fmap.values()) {
+			existing.add(attributes.getAttribute("ID"));
+		}
 		while (true) {
-			String id = "func" + i;
-			i++;
-
-			boolean exists = false;
-			for (Attributes attributes : fmap.values()) {
-				if (id.equals(attributes.getAttribute("ID"))) {
-					exists = true;
-				}
-			}
-			if (!exists) {
+			String id = "func" + nextFunctionIndex;
+			nextFunctionIndex++;
+			if (!existing.contains(id)) {
 				return id;
 			}
-
 		}
 	}
 
@@ -166,21 +333,15 @@ public class Application<T extends Task, D extends Dependency> extends Graph<T,
 		return attributes;
 	}
 
-	protected Set<T> getReachable(T task) {
-		Set<T> reachable = new HashSet<T>();
-		Set<T> current = new HashSet<T>();
-		current.add(task);
-		while (!current.isEmpty()) {
-			reachable.addAll(current);
-			Set<T> next = new HashSet<T>();
-			for (T t : current) {
-				Collection<T> neighbors = new HashSet<T>(getNeighbors(t));
-				neighbors.removeAll(reachable);
-				next.addAll(neighbors);
-			}
-			current = next;
-		}
-		return reachable;
+	/**
+	 * Returns the tasks that are (weakly) reachable from the task.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the reachable tasks
+	 */
+	protected synchronized Set<T> getReachable(T task) {
+		return new HashSet<T>(getFunctionTasks(task));
 	}
 
 	/*
@@ -0,0 +1,683 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code CompiledSpecification} is an immutable snapshot of a
+ * {@link Specification} with dense integer indices.
+ * <p>
+ * The tasks, resources, links, dependencies, and mappings are numbered in the
+ * iteration order of the specification. The messages are the communication
+ * tasks and are numbered separately. The adjacency of the architecture, the
+ * application, the mappings, and the routing of each message is given in the
+ * compressed sparse row (CSR) format: the entries of row {@code i} are the
+ * values at the positions {@code offsets[i]} (inclusive) to
+ * {@code offsets[i+1]} (exclusive). Attributes are available as columns over
+ * the indices.
+ * <p>
+ * The arrays that are returned by the getters are not copied and must not be
+ * modified. The snapshot is not updated if the specification is modified.
+ */
+public class CompiledSpecification {
+
+	protected final Specification specification;
+
+	protected final Task[] tasks;
+	protected final Resource[] resources;
+	protected final Link[] links;
+	protected final Dependency[] dependencies;
+	protected final Mapping<Task, Resource>[] mappings;
+
+	protected final Map<Task, Integer> taskIndices = new HashMap<Task, Integer>();
+	protected final Map<Resource, Integer> resourceIndices = new HashMap<Resource, Integer>();
+	protected final Map<Link, Integer> linkIndices = new HashMap<Link, Integer>();
+	protected final Map<Dependency, Integer> dependencyIndices = new HashMap<Dependency, Integer>();
+	protected final Map<Mapping<Task, Resource>, Integer> mappingIndices = new HashMap<Mapping<Task, Resource>, Integer>();
+
+	protected final int[] messages;
+	protected final int[] messageIndices;
+
+	protected final int[] linkSources;
+	protected final int[] linkDestinations;
+	protected final boolean[] linkDirected;
+	protected final int[] incidentLinkOffsets;
+	protected final int[] incidentLinks;
+
+	protected final int[] dependencySources;
+	protected final int[] dependencyDestinations;
+	protected final int[] outDependencyOffsets;
+	protected final int[] outDependencies;
+	protected final int[] inDependencyOffsets;
+	protected final int[] inDependencies;
+
+	protected final int[] mappingSources;
+	protected final int[] mappingTargets;
+	protected final int[] taskMappingOffsets;
+	protected final int[] taskMappings;
+	protected final int[] resourceMappingOffsets;
+	protected final int[] resourceMappings;
+
+	protected final int[] routingResourceOffsets;
+	protected final int[] routingResources;
+	protected final int[] routingLinkOffsets;
+	protected final int[] routingLinks;
+	protected final int[] routingLinkSources;
+	protected final int[] routingLinkDestinations;
+
+	protected final ConcurrentMap<String, Object[]> columns = new ConcurrentHashMap<String, Object[]>();
+	protected final ConcurrentMap<String, double[]> doubleColumns = new ConcurrentHashMap<String, double[]>();
+
+	/**
+	 * Constructs a {@code CompiledSpecification}.
+	 * 
+	 * @param specification
+	 *            the specification
+	 */
+	public CompiledSpecification(Specification specification) {
+		this.specification = specification;
+		Application<Task, Dependency> application = specification.getApplication();
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+
+		tasks = index(application.getVertices(), taskIndices, new Task[application.getVertexCount()]);
+		resources = index(architecture.getVertices(), resourceIndices, new Resource[architecture.getVertexCount()]);
+		links = index(architecture.getEdges(), linkIndices, new Link[architecture.getEdgeCount()]);
+		dependencies = index(application.getEdges(), dependencyIndices, new Dependency[application.getEdgeCount()]);
+		mappings = index(specification.getMappings().getAll(), mappingIndices, newMappingArray(specification
+				.getMappings().size()));
+
+		// architecture
+		linkSources = new int[links.length];
+		linkDestinations = new int[links.length];
+		linkDirected = new boolean[links.length];
+		for (int i = 0; i < links.length; i++) {
+			Pair<Resource> endpoints = architecture.getEndpoints(links[i]);
+			linkSources[i] = resourceIndices.get(endpoints.getFirst());
+			linkDestinations[i] = resourceIndices.get(endpoints.getSecond());
+			linkDirected[i] = architecture.getEdgeType(links[i]) == EdgeType.DIRECTED;
+		}
+		int[] incident = new int[2 * links.length];
+		int[] incidentKeys = new int[2 * links.length];
+		int n = 0;
+		for (int i = 0; i < links.length; i++) {
+			incident[n] = i;
+			incidentKeys[n++] = linkSources[i];
+			if (linkDestinations[i] != linkSources[i]) {
+				incident[n] = i;
+				incidentKeys[n++] = linkDestinations[i];
+			}
+		}
+		incident = Arrays.copyOf(incident, n);
+		incidentKeys = Arrays.copyOf(incidentKeys, n);
+		incidentLinkOffsets = offsets(resources.length, incidentKeys);
+		incidentLinks = values(incidentLinkOffsets, incidentKeys, incident);
+
+		// application
+		dependencySources = new int[dependencies.length];
+		dependencyDestinations = new int[dependencies.length];
+		int[] dependencyIds = new int[dependencies.length];
+		for (int i = 0; i < dependencies.length; i++) {
+			dependencySources[i] = taskIndices.get(application.getSource(dependencies[i]));
+			dependencyDestinations[i] = taskIndices.get(application.getDest(dependencies[i]));
+			dependencyIds[i] = i;
+		}
+		outDependencyOffsets = offsets(tasks.length, dependencySources);
+		outDependencies = values(outDependencyOffsets, dependencySources, dependencyIds);
+		inDependencyOffsets = offsets(tasks.length, dependencyDestinations);
+		inDependencies = values(inDependencyOffsets, dependencyDestinations, dependencyIds);
+
+		// messages
+		List<Integer> messageList = new ArrayList<Integer>();
+		messageIndices = new int[tasks.length];
+		for (int i = 0; i < tasks.length; i++) {
+			if (Models.isCommunication(tasks[i])) {
+				messageIndices[i] = messageList.size();
+				messageList.add(i);
+			} else {
+				messageIndices[i] = -1;
+			}
+		}
+		messages = new int[messageList.size()];
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = messageList.get(i);
+		}
+
+		// mappings
+		mappingSources = new int[mappings.length];
+		mappingTargets = new int[mappings.length];
+		int[] mappingIds = new int[mappings.length];
+		for (int i = 0; i < mappings.length; i++) {
+			mappingSources[i] = require(taskIndices, mappings[i].getSource(), mappings[i]);
+			mappingTargets[i] = require(resourceIndices, mappings[i].getTarget(), mappings[i]);
+			mappingIds[i] = i;
+		}
+		taskMappingOffsets = offsets(tasks.length, mappingSources);
+		taskMappings = values(taskMappingOffsets, mappingSources, mappingIds);
+		resourceMappingOffsets = offsets(resources.length, mappingTargets);
+		resourceMappings = values(resourceMappingOffsets, mappingTargets, mappingIds);
+
+		// routings
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		routingResourceOffsets = new int[messages.length + 1];
+		routingLinkOffsets = new int[messages.length + 1];
+		int[] rr = new int[0];
+		int[] rl = new int[0];
+		int[] rs = new int[0];
+		int[] rd = new int[0];
+		int nr = 0;
+		int nl = 0;
+		for (int m = 0; m < messages.length; m++) {
+			Task c = tasks[messages[m]];
+			if (routings != null && routings.getTasks().contains(c)) {
+				Architecture<Resource, Link> routing = routings.get(c);
+				if (nr + routing.getVertexCount() > rr.length) {
+					rr = Arrays.copyOf(rr, Math.max(2 * rr.length, nr + routing.getVertexCount()));
+				}
+				for (Resource r : routing) {
+					rr[nr++] = require(resourceIndices, r, c);
+				}
+				if (nl + routing.getEdgeCount() > rl.length) {
+					int length = Math.max(2 * rl.length, nl + routing.getEdgeCount());
+					rl = Arrays.copyOf(rl, length);
+					rs = Arrays.copyOf(rs, length);
+					rd = Arrays.copyOf(rd, length);
+				}
+				for (Link l : routing.getEdges()) {
+					Pair<Resource> endpoints = routing.getEndpoints(l);
+					rl[nl] = require(linkIndices, l, c);
+					rs[nl] = require(resourceIndices, endpoints.getFirst(), c);
+					rd[nl++] = require(resourceIndices, endpoints.getSecond(), c);
+				}
+			}
+			routingResourceOffsets[m + 1] = nr;
+			routingLinkOffsets[m + 1] = nl;
+		}
+		routingResources = Arrays.copyOf(rr, nr);
+		routingLinks = Arrays.copyOf(rl, nl);
+		routingLinkSources = Arrays.copyOf(rs, nl);
+		routingLinkDestinations = Arrays.copyOf(rd, nl);
+	}
+
+	/**
+	 * Returns the specification of this snapshot.
+	 * 
+	 * @return the specification
+	 */
+	public Specification getSpecification() {
+		return specification;
+	}
+
+	public int getTaskCount() {
+		return tasks.length;
+	}
+
+	public int getResourceCount() {
+		return resources.length;
+	}
+
+	public int getLinkCount() {
+		return links.length;
+	}
+
+	public int getDependencyCount() {
+		return dependencies.length;
+	}
+
+	public int getMappingCount() {
+		return mappings.length;
+	}
+
+	public int getMessageCount() {
+		return messages.length;
+	}
+
+	public Task getTask(int i) {
+		return tasks[i];
+	}
+
+	public Resource getResource(int i) {
+		return resources[i];
+	}
+
+	public Link getLink(int i) {
+		return links[i];
+	}
+
+	public Dependency getDependency(int i) {
+		return dependencies[i];
+	}
+
+	public Mapping<Task, Resource> getMapping(int i) {
+		return mappings[i];
+	}
+
+	/**
+	 * Returns the index of the task or {@code -1} if the task is not in the
+	 * application.
+	 * 
+	 * @param task
+	 *            the task (or a task with the same id)
+	 * @return the index or {@code -1}
+	 */
+	public int getTaskIndex(Task task) {
+		return indexOf(taskIndices, task);
+	}
+
+	/**
+	 * Returns the index of the resource or {@code -1} if the resource is not
+	 * in the architecture.
+	 * 
+	 * @param resource
+	 *            the resource (or a resource with the same id)
+	 * @return the index or {@code -1}
+	 */
+	public int getResourceIndex(Resource resource) {
+		return indexOf(resourceIndices, resource);
+	}
+
+	/**
+	 * Returns the index of the link or {@code -1} if the link is not in the
+	 * architecture.
+	 * 
+	 * @param link
+	 *            the link (or a link with the same id)
+	 * @return the index or {@code -1}
+	 */
+	public int getLinkIndex(Link link) {
+		return indexOf(linkIndices, link);
+	}
+
+	/**
+	 * Returns the index of the dependency or {@code -1} if the dependency is
+	 * not in the application.
+	 * 
+	 * @param dependency
+	 *            the dependency (or a dependency with the same id)
+	 * @return the index or {@code -1}
+	 */
+	public int getDependencyIndex(Dependency dependency) {
+		return indexOf(dependencyIndices, dependency);
+	}
+
+	/**
+	 * Returns the index of the mapping or {@code -1} if the mapping is not in
+	 * the mappings.
+	 * 
+	 * @param mapping
+	 *            the mapping (or a mapping with the same id)
+	 * @return the index or {@code -1}
+	 */
+	public int getMappingIndex(Mapping<Task, Resource> mapping) {
+		return indexOf(mappingIndices, mapping);
+	}
+
+	/**
+	 * Returns the task index of a message.
+	 * 
+	 * @param message
+	 *            the message index
+	 * @return the task index
+	 */
+	public int getMessageTask(int message) {
+		return messages[message];
+	}
+
+	/**
+	 * Returns the message index of a task or {@code -1} if the task is no
+	 * communication.
+	 * 
+	 * @param task
+	 *            the task index
+	 * @return the message index or {@code -1}
+	 */
+	public int getMessageIndex(int task) {
+		return messageIndices[task];
+	}
+
+	public int getLinkSource(int link) {
+		return linkSources[link];
+	}
+
+	public int getLinkDestination(int link) {
+		return linkDestinations[link];
+	}
+
+	public boolean isLinkDirected(int link) {
+		return linkDirected[link];
+	}
+
+	/**
+	 * Returns the offsets of the incident links of the resources.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getIncidentLinkOffsets() {
+		return incidentLinkOffsets;
+	}
+
+	/**
+	 * Returns the incident links of the resources.
+	 * 
+	 * @return the link indices
+	 */
+	public int[] getIncidentLinks() {
+		return incidentLinks;
+	}
+
+	/**
+	 * Returns a link that connects two resources or {@code -1}. A directed
+	 * link has to start at the first resource.
+	 * 
+	 * @param r0
+	 *            the first resource index
+	 * @param r1
+	 *            the second resource index
+	 * @return the link index or {@code -1}
+	 */
+	public int findLink(int r0, int r1) {
+		for (int i = incidentLinkOffsets[r0]; i < incidentLinkOffsets[r0 + 1]; i++) {
+			int l = incidentLinks[i];
+			if (linkSources[l] == r0 && linkDestinations[l] == r1) {
+				return l;
+			} else if (!linkDirected[l] && linkDestinations[l] == r0 && linkSources[l] == r1) {
+				return l;
+			}
+		}
+		return -1;
+	}
+
+	public int getDependencySource(int dependency) {
+		return dependencySources[dependency];
+	}
+
+	public int getDependencyDestination(int dependency) {
+		return dependencyDestinations[dependency];
+	}
+
+	/**
+	 * Returns the offsets of the outgoing dependencies of the tasks.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getOutDependencyOffsets() {
+		return outDependencyOffsets;
+	}
+
+	/**
+	 * Returns the outgoing dependencies of the tasks.
+	 * 
+	 * @return the dependency indices
+	 */
+	public int[] getOutDependencies() {
+		return outDependencies;
+	}
+
+	/**
+	 * Returns the offsets of the incoming dependencies of the tasks.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getInDependencyOffsets() {
+		return inDependencyOffsets;
+	}
+
+	/**
+	 * Returns the incoming dependencies of the tasks.
+	 * 
+	 * @return the dependency indices
+	 */
+	public int[] getInDependencies() {
+		return inDependencies;
+	}
+
+	public int getMappingSource(int mapping) {
+		return mappingSources[mapping];
+	}
+
+	public int getMappingTarget(int mapping) {
+		return mappingTargets[mapping];
+	}
+
+	/**
+	 * Returns the offsets of the mappings of the tasks.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getTaskMappingOffsets() {
+		return taskMappingOffsets;
+	}
+
+	/**
+	 * Returns the mappings of the tasks.
+	 * 
+	 * @return the mapping indices
+	 */
+	public int[] getTaskMappings() {
+		return taskMappings;
+	}
+
+	/**
+	 * Returns the offsets of the mappings of the resources.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getResourceMappingOffsets() {
+		return resourceMappingOffsets;
+	}
+
+	/**
+	 * Returns the mappings of the resources.
+	 * 
+	 * @return the mapping indices
+	 */
+	public int[] getResourceMappings() {
+		return resourceMappings;
+	}
+
+	/**
+	 * Returns the offsets of the routing resources of the messages.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getRoutingResourceOffsets() {
+		return routingResourceOffsets;
+	}
+
+	/**
+	 * Returns the routing resources of the messages.
+	 * 
+	 * @return the resource indices
+	 */
+	public int[] getRoutingResources() {
+		return routingResources;
+	}
+
+	/**
+	 * Returns the offsets of the routing links of the messages.
+	 * 
+	 * @return the offsets
+	 */
+	public int[] getRoutingLinkOffsets() {
+		return routingLinkOffsets;
+	}
+
+	/**
+	 * Returns the routing links of the messages.
+	 * 
+	 * @return the link indices
+	 */
+	public int[] getRoutingLinks() {
+		return routingLinks;
+	}
+
+	/**
+	 * Returns the sources of the routing links of the messages (as given by
+	 * the routing).
+	 * 
+	 * @return the resource indices
+	 */
+	public int[] getRoutingLinkSources() {
+		return routingLinkSources;
+	}
+
+	/**
+	 * Returns the destinations of the routing links of the messages (as given
+	 * by the routing).
+	 * 
+	 * @return the resource indices
+	 */
+	public int[] getRoutingLinkDestinations() {
+		return routingLinkDestinations;
+	}
+
+	/**
+	 * Returns the values of an attribute of all elements of the given type.
+	 * The column is created on the first call.
+	 * 
+	 * @param type
+	 *            the type ({@link Task}, {@link Resource}, {@link Link},
+	 *            {@link Dependency}, or {@link Mapping})
+	 * @param attribute
+	 *            the attribute name
+	 * @return the values (or {@code null} if an element has no such attribute)
+	 */
+	public Object[] getColumn(Class<? extends Element> type, String attribute) {
+		String key = type.getName() + ":" + attribute;
+		Object[] column = columns.get(key);
+		if (column == null) {
+			Element[] elements = getElements(type);
+			column = new Object[elements.length];
+			for (int i = 0; i < elements.length; i++) {
+				column[i] = elements[i].getAttribute(attribute);
+			}
+			columns.putIfAbsent(key, column);
+		}
+		return column;
+	}
+
+	/**
+	 * Returns the numeric values of an attribute of all elements of the given
+	 * type. The column is created on the first call.
+	 * 
+	 * @param type
+	 *            the type ({@link Task}, {@link Resource}, {@link Link},
+	 *            {@link Dependency}, or {@link Mapping})
+	 * @param attribute
+	 *            the attribute name
+	 * @return the values (or {@code NaN} if an element has no numeric
+	 *         attribute)
+	 */
+	public double[] getDoubleColumn(Class<? extends Element> type, String attribute) {
+		String key = type.getName() + ":" + attribute;
+		double[] column = doubleColumns.get(key);
+		if (column == null) {
+			Object[] values = getColumn(type, attribute);
+			column = new double[values.length];
+			for (int i = 0; i < values.length; i++) {
+				column[i] = (values[i] instanceof Number) ? ((Number) values[i]).doubleValue() : Double.NaN;
+			}
+			doubleColumns.putIfAbsent(key, column);
+		}
+		return column;
+	}
+
+	protected Element[] getElements(Class<? extends Element> type) {
+		if (type == Task.class) {
+			return tasks;
+		} else if (type == Resource.class) {
+			return resources;
+		} else if (type == Link.class) {
+			return links;
+		} else if (type == Dependency.class) {
+			return dependencies;
+		} else if (type == Mapping.class) {
+			return mappings;
+		}
+		throw new IllegalArgumentException("Unsupported element type " + type.getName());
+	}
+
+	/**
+	 * Returns a new array of mappings.
+	 * 
+	 * @param size
+	 *            the size of the array
+	 * @return the new array
+	 */
+	@SuppressWarnings("unchecked")
+	protected static Mapping<Task, Resource>[] newMappingArray(int size) {
+		return (Mapping<Task, Resource>[]) new Mapping<?, ?>[size];
+	}
+
+	protected static <E> E[] index(Iterable<? extends E> elements, Map<E, Integer> indices, E[] array) {
+		int i = 0;
+		for (E element : elements) {
+			indices.put(element, i);
+			array[i++] = element;
+		}
+		return array;
+	}
+
+	protected static <E> int indexOf(Map<E, Integer> indices, E element) {
+		Integer i = indices.get(element);
+		return (i != null) ? i : -1;
+	}
+
+	protected static <E> int require(Map<E, Integer> indices, E element, Element context) {
+		Integer i = indices.get(element);
+		if (i == null) {
+			throw new IllegalArgumentException("The element " + element + " of " + context
+					+ " is not part of the specification");
+		}
+		return i;
+	}
+
+	protected static int[] offsets(int n, int[] keys) {
+		int[] offsets = new int[n + 1];
+		for (int key : keys) {
+			offsets[key + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		return offsets;
+	}
+
+	protected static int[] values(int[] offsets, int[] keys, int[] items) {
+		int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+		int[] values = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			values[positions[keys[i]]++] = items[i];
+		}
+		return values;
+	}
+
+}
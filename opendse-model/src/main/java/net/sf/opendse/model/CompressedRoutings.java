@@ -0,0 +1,648 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.model;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code CompressedRoutings} store each routing as a set of vertex and
+ * edge indices of a reference {@code Architecture}. Identical routings share
+ * the same {@link Template}.
+ * <p>
+ * A routing is compressed by {@link #setCompressed(Task, Architecture)} if it
+ * is a subgraph of the reference architecture, i.e., each resource and link
+ * is a copy (with the architecture element as parent and without local
+ * attributes) of an architecture element and each link has the endpoints and
+ * the edge type of the architecture. Otherwise, the routing is stored as it
+ * is. The method {@link #set(Task, Architecture)} stores the given routing as
+ * it is, such that the caller may keep modifying it.
+ * <p>
+ * The method {@link #get(Task)} materializes a compressed routing as an
+ * {@code Architecture} view with copies of the architecture elements while
+ * the template stays in place, i.e., reading a routing does not expand it
+ * permanently. The view of a task is returned again as long as it is
+ * referenced. Once the view is structurally modified, it replaces the
+ * template. An unmodified view with local attributes on its elements
+ * replaces the template as soon as the view is collected or before the
+ * template is shared by {@link #set(Task, CompressedRoutings, Task)}. Thus,
+ * attributes that are set on an element after its view was collected are
+ * not kept.
+ * 
+ * @param <T>
+ *            the type of task
+ * @param <R>
+ *            the type of resource
+ * @param <L>
+ *            the type of edge (in the architecture)
+ */
+public class CompressedRoutings<T extends Task, R extends Resource, L extends Link> extends Routings<T, R, L> {
+
+	protected final Architecture<R, L> architecture;
+	protected final List<R> vertices = new ArrayList<R>();
+	protected final List<L> edges = new ArrayList<L>();
+	protected final Map<R, Integer> vertexIndices = new HashMap<R, Integer>();
+	protected final Map<L, Integer> edgeIndices = new HashMap<L, Integer>();
+	protected final int[][] endpoints;
+
+	protected final Map<T, Object> routings = new HashMap<T, Object>();
+	protected final Map<Template, WeakReference<Template>> templates = new WeakHashMap<Template, WeakReference<Template>>();
+	protected final Map<T, ViewReference<T, R, L>> views = new HashMap<T, ViewReference<T, R, L>>();
+	protected final ReferenceQueue<View<T, R, L>> queue = new ReferenceQueue<View<T, R, L>>();
+
+	/**
+	 * Constructs {@code CompressedRoutings} for the given architecture.
+	 * 
+	 * @param architecture
+	 *            the reference architecture
+	 */
+	public CompressedRoutings(Architecture<R, L> architecture) {
+		super();
+		this.architecture = architecture;
+		for (R r : architecture) {
+			vertexIndices.put(r, vertices.size());
+			vertices.add(r);
+		}
+		endpoints = new int[architecture.getEdgeCount()][];
+		for (L l : architecture.getEdges()) {
+			Pair<R> pair = architecture.getEndpoints(l);
+			endpoints[edges.size()] = new int[] { vertexIndices.get(pair.getFirst()),
+					vertexIndices.get(pair.getSecond()) };
+			edgeIndices.put(l, edges.size());
+			edges.add(l);
+		}
+	}
+
+	/**
+	 * Constructs {@code CompressedRoutings} for a copy of the reference
+	 * architecture of the given routings. The vertices and edges are indexed
+	 * in the order of the given routings such that the templates can be
+	 * shared by {@link #set(Task, CompressedRoutings, Task)}.
+	 * 
+	 * @param architecture
+	 *            the copy of the reference architecture
+	 * @param routings
+	 *            the routings
+	 */
+	public CompressedRoutings(Architecture<R, L> architecture, CompressedRoutings<?, ?, ?> routings) {
+		super();
+		if (!routings.isReference(architecture)) {
+			throw new IllegalArgumentException("The architecture is no copy of the reference architecture.");
+		}
+		this.architecture = architecture;
+		Map<String, R> rs = new HashMap<String, R>();
+		for (R r : architecture) {
+			rs.put(r.getId(), r);
+		}
+		Map<String, L> ls = new HashMap<String, L>();
+		for (L l : architecture.getEdges()) {
+			ls.put(l.getId(), l);
+		}
+		for (Resource r : routings.vertices) {
+			R v = rs.get(r.getId());
+			vertexIndices.put(v, vertices.size());
+			vertices.add(v);
+		}
+		for (Link l : routings.edges) {
+			L e = ls.get(l.getId());
+			edgeIndices.put(e, edges.size());
+			edges.add(e);
+		}
+		endpoints = routings.endpoints;
+	}
+
+	/**
+	 * Returns {@code true} if the given architecture has the same vertices,
+	 * edges, endpoints, and edge types (compared by their ids) as the
+	 * reference architecture, i.e., if it can be indexed like the reference
+	 * architecture.
+	 * 
+	 * @param other
+	 *            the architecture
+	 * @return {@code true} if the architecture matches the reference
+	 *         architecture
+	 */
+	public boolean isReference(Architecture<?, ?> other) {
+		@SuppressWarnings("unchecked")
+		Architecture<Resource, Link> architecture = (Architecture<Resource, Link>) other;
+		if (architecture.getVertexCount() != vertices.size() || architecture.getEdgeCount() != edges.size()) {
+			return false;
+		}
+		Map<String, Resource> rs = new HashMap<String, Resource>();
+		for (Resource r : architecture.getVertices()) {
+			rs.put(r.getId(), r);
+		}
+		for (R r : vertices) {
+			if (!r.equals(rs.get(r.getId()))) {
+				return false;
+			}
+		}
+		Map<String, Link> ls = new HashMap<String, Link>();
+		for (Link l : architecture.getEdges()) {
+			ls.put(l.getId(), l);
+		}
+		for (int i = 0; i < edges.size(); i++) {
+			L reference = edges.get(i);
+			Link l = ls.get(reference.getId());
+			if (!reference.equals(l)) {
+				return false;
+			}
+			Pair<Resource> pair = architecture.getEndpoints(l);
+			if (!pair.getFirst().equals(vertices.get(endpoints[i][0]))
+					|| !pair.getSecond().equals(vertices.get(endpoints[i][1]))
+					|| architecture.getEdgeType(l) != this.architecture.getEdgeType(reference)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the reference architecture.
+	 * 
+	 * @return the reference architecture
+	 */
+	public Architecture<R, L> getArchitecture() {
+		return architecture;
+	}
+
+	/**
+	 * Sets the routing for a task. The routing is stored as it is.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param routing
+	 *            the routing
+	 */
+	@Override
+	public synchronized void set(T task, Architecture<R, L> routing) {
+		views.remove(task);
+		routings.put(task, routing);
+	}
+
+	/**
+	 * Sets the routing for a task. The routing is compressed if it is a
+	 * subgraph of the reference architecture. In this case, the given routing
+	 * is not stored and later modifications of it are not reflected, i.e., the
+	 * caller has to pass a routing that is not used otherwise.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param routing
+	 *            the routing
+	 */
+	public synchronized void setCompressed(T task, Architecture<R, L> routing) {
+		views.remove(task);
+		Template template = compress(routing);
+		if (template != null) {
+			routings.put(task, template);
+		} else {
+			routings.put(task, routing);
+		}
+	}
+
+	/**
+	 * Sets the routing for a task to the compressed routing of a task of the
+	 * given routings, i.e., the template is shared and no routing is copied.
+	 * This is only feasible if these routings were constructed for a copy of
+	 * the reference architecture of the given routings, see
+	 * {@link #CompressedRoutings(Architecture, CompressedRoutings)}.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param routings
+	 *            the routings
+	 * @param reference
+	 *            the task of the given routings
+	 * @return {@code true} if the routing was set, {@code false} if the
+	 *         indices differ or the routing of the reference task is not
+	 *         compressed
+	 */
+	public boolean set(T task, CompressedRoutings<?, ?, ?> routings, Task reference) {
+		if (routings.endpoints != endpoints) {
+			return false;
+		}
+		Template template = routings.getTemplate(reference);
+		if (template == null) {
+			return false;
+		}
+		synchronized (this) {
+			views.remove(task);
+			this.routings.put(task, intern(template));
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a routing for a task. An empty routing is created if the task has
+	 * no routing. A compressed routing is returned as a view that keeps the
+	 * template in place until the view is modified.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the routing
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized Architecture<R, L> get(T task) {
+		Object value = lookup(task);
+		if (value == null) {
+			value = new Architecture<R, L>();
+			routings.put(task, value);
+		} else if (value instanceof Template) {
+			ViewReference<T, R, L> reference = views.get(task);
+			View<T, R, L> view = (reference != null) ? reference.get() : null;
+			if (view == null) {
+				view = materialize(task, (Template) value);
+				views.put(task, new ViewReference<T, R, L>(view, queue));
+			}
+			return view;
+		}
+		return (Architecture<R, L>) value;
+	}
+
+	/**
+	 * Removes the routing.
+	 * 
+	 * @param task
+	 *            the communication task
+	 * @return the routing
+	 */
+	@Override
+	public synchronized Architecture<R, L> remove(T task) {
+		Architecture<R, L> routing = routings.containsKey(task) ? get(task) : null;
+		routings.remove(task);
+		views.remove(task);
+		return routing;
+	}
+
+	/**
+	 * Returns all tasks that have a routing.
+	 * 
+	 * @return all tasks
+	 */
+	@Override
+	public synchronized Set<T> getTasks() {
+		return routings.keySet();
+	}
+
+	/**
+	 * Returns all routings. The compressed routings are returned as views, see
+	 * {@link #get(Task)}.
+	 * 
+	 * @return all routings
+	 */
+	@Override
+	public synchronized Collection<Architecture<R, L>> getRoutings() {
+		List<Architecture<R, L>> list = new ArrayList<Architecture<R, L>>();
+		for (T task : routings.keySet()) {
+			list.add(get(task));
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the number of distinct templates of the compressed routings.
+	 * 
+	 * @return the number of templates
+	 */
+	public synchronized int getTemplateCount() {
+		return templates.size();
+	}
+
+	/**
+	 * Returns {@code true} if the routing of the task is compressed.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return {@code true} if the routing is compressed
+	 */
+	public synchronized boolean isCompressed(T task) {
+		return lookup(task) instanceof Template;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected synchronized Template getTemplate(Task task) {
+		Object value = lookup((T) task);
+		ViewReference<T, R, L> reference = views.get(task);
+		View<T, R, L> view = (reference != null) ? reference.get() : null;
+		if (view != null && reference.hasLocalAttributes()) {
+			modified(view);
+			return null;
+		}
+		return (value instanceof Template) ? (Template) value : null;
+	}
+
+	/**
+	 * Returns the stored routing or template of a task. Beforehand, the
+	 * collected views with local attributes replace their templates.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the routing, the template, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	protected Object lookup(T task) {
+		Reference<? extends View<T, R, L>> polled;
+		while ((polled = queue.poll()) != null) {
+			ViewReference<T, R, L> reference = (ViewReference<T, R, L>) polled;
+			if (views.get(reference.task) == reference) {
+				views.remove(reference.task);
+				restore(reference);
+			}
+		}
+		ViewReference<T, R, L> reference = views.get(task);
+		if (reference != null && reference.get() == null) {
+			views.remove(task);
+			restore(reference);
+		}
+		return routings.get(task);
+	}
+
+	/**
+	 * Replaces the template of a view by a routing with the elements of the
+	 * view if any of them has local attributes.
+	 * 
+	 * @param reference
+	 *            the reference of the view
+	 */
+	protected void restore(ViewReference<T, R, L> reference) {
+		if (routings.get(reference.task) == reference.template && reference.hasLocalAttributes()) {
+			Architecture<R, L> routing = new Architecture<R, L>();
+			build(routing, reference.template, reference.resources, reference.links);
+			routings.put(reference.task, routing);
+		}
+	}
+
+	protected synchronized void modified(View<T, R, L> view) {
+		ViewReference<T, R, L> reference = views.get(view.task);
+		if (reference != null && reference.get() == view && routings.get(view.task) == view.template) {
+			view.attached = false;
+			routings.put(view.task, view);
+			views.remove(view.task);
+		}
+	}
+
+	/**
+	 * Returns the template of a routing or {@code null} if the routing is not
+	 * a subgraph of the reference architecture.
+	 * 
+	 * @param routing
+	 *            the routing
+	 * @return the template or {@code null}
+	 */
+	protected Template compress(Architecture<R, L> routing) {
+		BitSet vs = new BitSet(vertices.size());
+		for (R r : routing) {
+			Integer i = vertexIndices.get(r);
+			if (i == null || !isCopy(r, vertices.get(i))) {
+				return null;
+			}
+			vs.set(i);
+		}
+		BitSet es = new BitSet(edges.size());
+		for (L l : routing.getEdges()) {
+			Integer i = edgeIndices.get(l);
+			if (i == null || !isCopy(l, edges.get(i))) {
+				return null;
+			}
+			Pair<R> pair = routing.getEndpoints(l);
+			if (!pair.getFirst().equals(vertices.get(endpoints[i][0]))
+					|| !pair.getSecond().equals(vertices.get(endpoints[i][1]))
+					|| routing.getEdgeType(l) != architecture.getEdgeType(edges.get(i))) {
+				return null;
+			}
+			es.set(i);
+		}
+		return intern(new Template(vs, es));
+	}
+
+	protected boolean isCopy(Element element, Element reference) {
+		return element.getParent() == reference && element.getClass() == reference.getClass()
+				&& element.getLocalAttributes().isEmpty();
+	}
+
+	protected Template intern(Template template) {
+		WeakReference<Template> reference = templates.get(template);
+		Template interned = (reference != null) ? reference.get() : null;
+		if (interned == null) {
+			templates.put(template, new WeakReference<Template>(template));
+			interned = template;
+		}
+		return interned;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected View<T, R, L> materialize(T task, Template template) {
+		List<R> resources = new ArrayList<R>(template.vertices.cardinality());
+		for (int i = template.vertices.nextSetBit(0); i >= 0; i = template.vertices.nextSetBit(i + 1)) {
+			resources.add((R) Models.copy(vertices.get(i)));
+		}
+		List<L> links = new ArrayList<L>(template.edges.cardinality());
+		for (int i = template.edges.nextSetBit(0); i >= 0; i = template.edges.nextSetBit(i + 1)) {
+			links.add((L) Models.copy(edges.get(i)));
+		}
+		View<T, R, L> view = new View<T, R, L>(this, task, template, resources, links);
+		build(view, template, resources, links);
+		view.attached = true;
+		return view;
+	}
+
+	/**
+	 * Adds the copies of the vertices and edges of a template to the routing.
+	 * 
+	 * @param routing
+	 *            the routing
+	 * @param template
+	 *            the template
+	 * @param resources
+	 *            the copies of the vertices in the order of the template
+	 * @param links
+	 *            the copies of the edges in the order of the template
+	 */
+	protected void build(Architecture<R, L> routing, Template template, List<R> resources, List<L> links) {
+		Map<Integer, R> copies = new HashMap<Integer, R>();
+		int k = 0;
+		for (int i = template.vertices.nextSetBit(0); i >= 0; i = template.vertices.nextSetBit(i + 1)) {
+			R copy = resources.get(k++);
+			copies.put(i, copy);
+			routing.addVertex(copy);
+		}
+		k = 0;
+		for (int i = template.edges.nextSetBit(0); i >= 0; i = template.edges.nextSetBit(i + 1)) {
+			routing.addEdge(links.get(k++), copies.get(endpoints[i][0]), copies.get(endpoints[i][1]),
+					architecture.getEdgeType(edges.get(i)));
+		}
+	}
+
+	/**
+	 * The {@code Template} is an immutable routing given as the indices of the
+	 * vertices and edges of the reference architecture.
+	 */
+	protected static class Template {
+
+		protected final BitSet vertices;
+		protected final BitSet edges;
+		protected final int hash;
+
+		protected Template(BitSet vertices, BitSet edges) {
+			this.vertices = vertices;
+			this.edges = edges;
+			this.hash = 31 * vertices.hashCode() + edges.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Template)) {
+				return false;
+			}
+			Template other = (Template) obj;
+			return hash == other.hash && vertices.equals(other.vertices) && edges.equals(other.edges);
+		}
+	}
+
+	/**
+	 * The {@code View} is a materialized compressed routing. It replaces the
+	 * template once it is structurally modified.
+	 */
+	protected static class View<T extends Task, R extends Resource, L extends Link> extends Architecture<R, L> {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final transient CompressedRoutings<T, R, L> owner;
+		protected final transient T task;
+		protected final transient Template template;
+		protected final transient List<R> resources;
+		protected final transient List<L> links;
+		protected transient boolean attached = false;
+
+		protected View(CompressedRoutings<T, R, L> owner, T task, Template template, List<R> resources,
+				List<L> links) {
+			super();
+			this.owner = owner;
+			this.task = task;
+			this.template = template;
+			this.resources = resources;
+			this.links = links;
+		}
+
+		protected void modified() {
+			if (attached) {
+				attached = false;
+				owner.modified(this);
+			}
+		}
+
+		@Override
+		public boolean addVertex(R vertex) {
+			boolean b = super.addVertex(vertex);
+			if (b) {
+				modified();
+			}
+			return b;
+		}
+
+		@Override
+		public boolean addEdge(L edge, Pair<? extends R> endpoints, EdgeType edgeType) {
+			boolean b = super.addEdge(edge, endpoints, edgeType);
+			if (b) {
+				modified();
+			}
+			return b;
+		}
+
+		@Override
+		public boolean removeVertex(R vertex) {
+			boolean b = super.removeVertex(vertex);
+			if (b) {
+				modified();
+			}
+			return b;
+		}
+
+		@Override
+		public boolean removeEdge(L edge) {
+			boolean b = super.removeEdge(edge);
+			if (b) {
+				modified();
+			}
+			return b;
+		}
+	}
+
+	/**
+	 * The {@code ViewReference} weakly references a view and keeps the copied
+	 * elements of the view such that their local attributes can be restored
+	 * once the view is collected.
+	 */
+	protected static class ViewReference<T extends Task, R extends Resource, L extends Link>
+			extends WeakReference<View<T, R, L>> {
+
+		protected final T task;
+		protected final Template template;
+		protected final List<R> resources;
+		protected final List<L> links;
+
+		protected ViewReference(View<T, R, L> view, ReferenceQueue<View<T, R, L>> queue) {
+			super(view, queue);
+			this.task = view.task;
+			this.template = view.template;
+			this.resources = view.resources;
+			this.links = view.links;
+		}
+
+		protected boolean hasLocalAttributes() {
+			for (R r : resources) {
+				if (!r.getLocalAttributes().isEmpty()) {
+					return true;
+				}
+			}
+			for (L l : links) {
+				if (!l.getLocalAttributes().isEmpty()) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+}
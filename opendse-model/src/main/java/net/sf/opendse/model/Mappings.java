@@ -21,6 +21,7 @@
  *******************************************************************************/
 package net.sf.opendse.model;
 
+import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,13 +30,18 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.collections15.Bag;
-import org.apache.commons.collections15.bag.HashBag;
-import org.apache.commons.collections15.functors.InstantiateFactory;
-import org.apache.commons.collections15.map.LazyMap;
-
 /**
  * The {@code Mappings} represent a set of {@link Mapping} elements.
+ * <p>
+ * The mappings are indexed by their sources, their targets, and the pairs of
+ * source and target. The sets that are returned by the query methods are
+ * cached unmodifiable views, i.e., the queries neither allocate new sets nor
+ * modify the index. The views of a source, a target, or a pair reflect later
+ * changes as long as it has mappings. The index of a source, a target, or a
+ * pair is removed with its last mapping and a view of it stays empty, while
+ * the queries for a key without mappings return a shared empty set. Thus, a
+ * view has to be queried again once all its mappings were removed. The view
+ * {@link #getAll()} reflects all changes.
  * 
  * @author Martin Lukasiewycz
  * 
@@ -44,19 +50,100 @@ import org.apache.commons.collections15.map.LazyMap;
  * @param <R>
  *            the type of resources
  */
-@SuppressWarnings({ "unchecked", "rawtypes" })
 public class Mappings<T extends Task, R extends Resource> implements Iterable<Mapping<T, R>> {
 
 	protected Set<Mapping<T, R>> mappings = new HashSet<Mapping<T, R>>();
+	protected final Set<Mapping<T, R>> mappingsView = new AbstractSet<Mapping<T, R>>() {
+		@Override
+		public Iterator<Mapping<T, R>> iterator() {
+			return Collections.unmodifiableSet(mappings).iterator();
+		}
+
+		@Override
+		public int size() {
+			return mappings.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return mappings.contains(o);
+		}
+	};
 
-	protected Map<T, Set<Mapping<T, R>>> taskMappings = LazyMap.decorate(new HashMap<T, Set<Mapping<T, R>>>(),
-			new InstantiateFactory(HashSet.class));
-	protected Map<R, Set<Mapping<T, R>>> resourceMappings = LazyMap.decorate(new HashMap<R, Set<Mapping<T, R>>>(),
-			new InstantiateFactory(HashSet.class));
-	protected Map<T, Bag<R>> targets = LazyMap
-			.decorate(new HashMap<T, Bag<R>>(), new InstantiateFactory(HashBag.class));
-	protected Map<R, Bag<T>> sources = LazyMap
-			.decorate(new HashMap<R, Bag<T>>(), new InstantiateFactory(HashBag.class));
+	protected final Map<T, Group<T, R, R>> taskMappings = new HashMap<T, Group<T, R, R>>();
+	protected final Map<R, Group<T, R, T>> resourceMappings = new HashMap<R, Group<T, R, T>>();
+
+	/**
+	 * The {@code Group} contains the mappings of a single source (target) and
+	 * the mappings for each target (source).
+	 * 
+	 * @param <T>
+	 *            the type of tasks
+	 * @param <R>
+	 *            the type of resources
+	 * @param <K>
+	 *            the type of the opposite endpoint
+	 */
+	protected static class Group<T extends Task, R extends Resource, K> {
+
+		protected final Set<Mapping<T, R>> mappings = new HashSet<Mapping<T, R>>();
+		protected final Set<Mapping<T, R>> mappingsView = Collections.unmodifiableSet(mappings);
+		protected final Map<K, Pair<T, R>> pairs = new HashMap<K, Pair<T, R>>();
+		protected final Set<K> keysView = Collections.unmodifiableSet(pairs.keySet());
+	}
+
+	/**
+	 * The {@code Pair} is the unmodifiable view of the mappings of a source
+	 * and a target. It is shared by the groups of the source and the target
+	 * and holds an immutable set that is replaced on each change, such that
+	 * a pair with a single mapping keeps only a singleton set.
+	 * 
+	 * @param <T>
+	 *            the type of tasks
+	 * @param <R>
+	 *            the type of resources
+	 */
+	protected static class Pair<T extends Task, R extends Resource> extends AbstractSet<Mapping<T, R>> {
+
+		protected Set<Mapping<T, R>> mappings = Collections.emptySet();
+
+		protected void put(Mapping<T, R> mapping) {
+			if (mappings.isEmpty()) {
+				mappings = Collections.singleton(mapping);
+			} else {
+				Set<Mapping<T, R>> set = new HashSet<Mapping<T, R>>(mappings);
+				set.add(mapping);
+				mappings = Collections.unmodifiableSet(set);
+			}
+		}
+
+		protected void delete(Mapping<T, R> mapping) {
+			Set<Mapping<T, R>> set = new HashSet<Mapping<T, R>>(mappings);
+			set.remove(mapping);
+			if (set.isEmpty()) {
+				mappings = Collections.emptySet();
+			} else if (set.size() == 1) {
+				mappings = Collections.singleton(set.iterator().next());
+			} else {
+				mappings = Collections.unmodifiableSet(set);
+			}
+		}
+
+		@Override
+		public Iterator<Mapping<T, R>> iterator() {
+			return mappings.iterator();
+		}
+
+		@Override
+		public int size() {
+			return mappings.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return mappings.contains(o);
+		}
+	}
 
 	/**
 	 * Adds a mapping.
@@ -65,21 +152,52 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 *            the mapping to be added
 	 */
 	public void add(Mapping<T, R> mapping) {
-		mappings.add(mapping);
+		if (!mappings.add(mapping)) {
+			return;
+		}
 		T source = mapping.getSource();
 		R target = mapping.getTarget();
 
-		Set<Mapping<T, R>> s0 = taskMappings.get(source);
-		Set<Mapping<T, R>> s1 = resourceMappings.get(target);
+		Group<T, R, R> taskGroup = taskMappings.get(source);
+		if (taskGroup == null) {
+			taskGroup = new Group<T, R, R>();
+			taskMappings.put(source, taskGroup);
+		}
+		Group<T, R, T> resourceGroup = resourceMappings.get(target);
+		if (resourceGroup == null) {
+			resourceGroup = new Group<T, R, T>();
+			resourceMappings.put(target, resourceGroup);
+		}
 
-		s0.add(mapping);
-		s1.add(mapping);
+		taskGroup.mappings.add(mapping);
+		resourceGroup.mappings.add(mapping);
 
-		Bag<R> ts = targets.get(source);
-		Bag<T> ss = sources.get(target);
+		Pair<T, R> pair = taskGroup.pairs.get(target);
+		if (pair == null) {
+			pair = new Pair<T, R>();
+			taskGroup.pairs.put(target, pair);
+			resourceGroup.pairs.put(source, pair);
+		}
+		pair.put(mapping);
+	}
 
-		ts.add(target);
-		ss.add(source);
+	/**
+	 * Adds all mappings.
+	 * 
+	 * @param mappings
+	 *            the mappings to be added
+	 */
+	public void addAll(Collection<? extends Mapping<T, R>> mappings) {
+		if (mappings.size() > 16 && mappings.size() > this.mappings.size()) {
+			// avoid the repeated rehashing of the set of all mappings, the
+			// view of all mappings delegates to the new set
+			Set<Mapping<T, R>> set = new HashSet<Mapping<T, R>>(2 * (this.mappings.size() + mappings.size()));
+			set.addAll(this.mappings);
+			this.mappings = set;
+		}
+		for (Mapping<T, R> mapping : mappings) {
+			add(mapping);
+		}
 	}
 
 	/**
@@ -95,17 +213,24 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 			T source = mapping.getSource();
 			R target = mapping.getTarget();
 
-			Set<Mapping<T, R>> s0 = taskMappings.get(source);
-			Set<Mapping<T, R>> s1 = resourceMappings.get(target);
-
-			s0.remove(mapping);
-			s1.remove(mapping);
+			Group<T, R, R> taskGroup = taskMappings.get(source);
+			Group<T, R, T> resourceGroup = resourceMappings.get(target);
 
-			Bag<R> ts = targets.get(source);
-			Bag<T> ss = sources.get(target);
+			taskGroup.mappings.remove(mapping);
+			resourceGroup.mappings.remove(mapping);
 
-			ts.remove(target);
-			ss.remove(source);
+			Pair<T, R> pair = taskGroup.pairs.get(target);
+			pair.delete(mapping);
+			if (pair.isEmpty()) {
+				taskGroup.pairs.remove(target);
+				resourceGroup.pairs.remove(source);
+			}
+			if (taskGroup.mappings.isEmpty()) {
+				taskMappings.remove(source);
+			}
+			if (resourceGroup.mappings.isEmpty()) {
+				resourceMappings.remove(target);
+			}
 		}
 		return exist;
 	}
@@ -145,7 +270,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all mappings with the specified source
 	 */
 	public Set<Mapping<T, R>> get(T source) {
-		return Collections.unmodifiableSet(taskMappings.get(source));
+		Group<T, R, R> group = taskMappings.get(source);
+		return (group != null) ? group.mappingsView : Collections.<Mapping<T, R>> emptySet();
 	}
 
 	/**
@@ -156,7 +282,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all targets
 	 */
 	public Set<R> getTargets(T source) {
-		return targets.get(source).uniqueSet();
+		Group<T, R, R> group = taskMappings.get(source);
+		return (group != null) ? group.keysView : Collections.<R> emptySet();
 	}
 
 	/**
@@ -167,7 +294,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all mappings with the specified target
 	 */
 	public Set<Mapping<T, R>> get(R target) {
-		return Collections.unmodifiableSet(resourceMappings.get(target));
+		Group<T, R, T> group = resourceMappings.get(target);
+		return (group != null) ? group.mappingsView : Collections.<Mapping<T, R>> emptySet();
 	}
 
 	/**
@@ -178,7 +306,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all sources
 	 */
 	public Set<T> getSources(R target) {
-		return sources.get(target).uniqueSet();
+		Group<T, R, T> group = resourceMappings.get(target);
+		return (group != null) ? group.keysView : Collections.<T> emptySet();
 	}
 
 	/**
@@ -191,9 +320,15 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return the mappings with the specified source and target
 	 */
 	public Set<Mapping<T, R>> get(T source, R target) {
-		Set<Mapping<T, R>> set = new HashSet<Mapping<T, R>>(get(source));
-		set.retainAll(get(target));
-		return Collections.unmodifiableSet(set);
+		Group<T, R, R> group = taskMappings.get(source);
+		if (group == null) {
+			return Collections.emptySet();
+		}
+		Pair<T, R> pair = group.pairs.get(target);
+		if (pair == null) {
+			return Collections.emptySet();
+		}
+		return pair;
 	}
 
 	/**
@@ -202,7 +337,7 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all mappings as a set
 	 */
 	public Set<Mapping<T, R>> getAll() {
-		return Collections.unmodifiableSet(mappings);
+		return mappingsView;
 	}
 
 }
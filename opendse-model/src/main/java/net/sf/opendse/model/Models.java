@@ -18,6 +18,7 @@ package net.sf.opendse.model;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,6 +26,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections15.Predicate;
 import org.apache.commons.collections15.iterators.FilterIterator;
@@ -435,6 +437,17 @@ public class Models {
 	/**
 	 * Creates a copy of the given {@link Specification} using
 	 * {@link #copy(Element)}, i.e., create new instances for all {@link Element}s.
+	 * <p>
+	 * The copy shares the structures of the specification that are not
+	 * modified in place: The copied elements have the original elements as
+	 * parents and, thus, share their attributes. If the routings are
+	 * {@link CompressedRoutings}, the compressed routings are shared (see
+	 * {@link #copyRoutings(Application, Routings, Application, Architecture)}).
+	 * Reading a shared routing of the copy keeps the template shared, see
+	 * {@link CompressedRoutings#get(Task)}. Modifying an attribute or a
+	 * routing of the copy only affects the copy. The application and the
+	 * architecture are still copied element by element, i.e., the copy takes
+	 * time linear in their size.
 	 * 
 	 * @param specification
 	 * @return a copy of the specification
@@ -453,27 +466,62 @@ public class Models {
 		return new Specification(iApplication, iArchitecture, iMappings, iRoutings);
 	}
 
+	/**
+	 * Copies the routings of the communications. If the routings are
+	 * {@link CompressedRoutings} and the given architecture is a copy of their
+	 * reference architecture, the compressed routings are not copied but
+	 * their templates are shared. Only the routings that are not compressed
+	 * are copied element by element.
+	 * 
+	 * @param sApplication
+	 *            the application of the routings
+	 * @param sRoutings
+	 *            the routings
+	 * @param iApplication
+	 *            the copy of the application
+	 * @param iArchitecture
+	 *            the copy of the architecture
+	 * @return the copy of the routings
+	 */
 	public static Routings<Task, Resource, Link> copyRoutings(Application<Task, Dependency> sApplication,
 			Routings<Task, Resource, Link> sRoutings, Application<Task, Dependency> iApplication,
 			Architecture<Resource, Link> iArchitecture) {
-		Routings<Task, Resource, Link> iRoutings = new Routings<Task, Resource, Link>();
+		CompressedRoutings<Task, Resource, Link> iRoutings;
+		if (sRoutings instanceof CompressedRoutings
+				&& ((CompressedRoutings<?, ?, ?>) sRoutings).isReference(iArchitecture)) {
+			iRoutings = new CompressedRoutings<Task, Resource, Link>(iArchitecture,
+					(CompressedRoutings<?, ?, ?>) sRoutings);
+		} else {
+			iRoutings = new CompressedRoutings<Task, Resource, Link>(iArchitecture);
+		}
+
+		Map<String, Resource> iResources = getVertexMap(iArchitecture);
+		Map<String, Task> iTasks = getVertexMap(iApplication);
 
 		for (Task c : filterCommunications(sApplication)) {
+			Task iTask = iTasks.get(c.getId());
+			if (sRoutings instanceof CompressedRoutings
+					&& iRoutings.set(iTask, (CompressedRoutings<?, ?, ?>) sRoutings, c)) {
+				continue;
+			}
+
 			Architecture<Resource, Link> sRouting = sRoutings.get(c);
 			Architecture<Resource, Link> iRouting = new Architecture<Resource, Link>();
 
+			Map<String, Resource> copies = new HashMap<String, Resource>();
 			for (Resource r : sRouting) {
-				r = iArchitecture.getVertex(r);
-				iRouting.addVertex((Resource) copy(r));
+				Resource copy = copy(iResources.get(r.getId()));
+				copies.put(copy.getId(), copy);
+				iRouting.addVertex(copy);
 			}
 			for (Link l : sRouting.getEdges()) {
 				Pair<Resource> endpoints = sRouting.getEndpoints(l);
-				Resource r0 = iRouting.getVertex(endpoints.getFirst());
-				Resource r1 = iRouting.getVertex(endpoints.getSecond());
+				Resource r0 = copies.get(endpoints.getFirst().getId());
+				Resource r1 = copies.get(endpoints.getSecond().getId());
 				iRouting.addEdge((Link) copy(l), r0, r1, sRouting.getEdgeType(l));
 			}
 
-			iRoutings.set(iApplication.getVertex(c), iRouting);
+			iRoutings.setCompressed(iTask, iRouting);
 		}
 		return iRoutings;
 	}
@@ -481,11 +529,13 @@ public class Models {
 	public static Mappings<Task, Resource> copyMappings(Mappings<Task, Resource> sMappings,
 			Architecture<Resource, Link> iArchitecture, Application<Task, Dependency> iApplication) {
 		Mappings<Task, Resource> iMappings = new Mappings<Task, Resource>();
+		Map<String, Resource> iResources = getVertexMap(iArchitecture);
+		Map<String, Task> iTasks = getVertexMap(iApplication);
 
 		for (Mapping<Task, Resource> m : sMappings) {
 			Mapping<Task, Resource> copy = copy(m);
-			copy.setSource(iApplication.getVertex(m.getSource()));
-			copy.setTarget(iArchitecture.getVertex(m.getTarget()));
+			copy.setSource(iTasks.get(m.getSource().getId()));
+			copy.setTarget(iResources.get(m.getTarget().getId()));
 			iMappings.add(copy);
 		}
 		return iMappings;
@@ -493,44 +543,57 @@ public class Models {
 
 	public static Application<Task, Dependency> copy(Application<Task, Dependency> sApplication) {
 		Application<Task, Dependency> iApplication = new Application<Task, Dependency>();
+		Map<String, Task> iTasks = new HashMap<String, Task>();
 
 		// copy application (including function attributes)
 		for (Task t : sApplication) {
-			iApplication.addVertex((Task) copy(t));
+			Task copy = copy(t);
+			iTasks.put(copy.getId(), copy);
+			iApplication.addVertex(copy);
 		}
 		for (Dependency e : sApplication.getEdges()) {
 			Pair<Task> endpoints = sApplication.getEndpoints(e);
-			Task source = iApplication.getVertex(endpoints.getFirst());
-			Task dest = iApplication.getVertex(sApplication.getVertex(endpoints.getSecond()));
+			Task source = iTasks.get(endpoints.getFirst().getId());
+			Task dest = iTasks.get(endpoints.getSecond().getId());
 			iApplication.addEdge((Dependency) copy(e), source, dest, sApplication.getEdgeType(e));
 		}
 
 		for (Function<Task, Dependency> function : iApplication.getFunctions()) {
 			Task t = function.iterator().next();
-			setAttributes(function, sApplication.getFunction(t).getAttributes());
+			setAttributes(function, sApplication.getFunctionAttributes(t));
 		}
 		return iApplication;
 	}
 
 	public static Architecture<Resource, Link> copy(Architecture<Resource, Link> sArchitecture) {
 		Architecture<Resource, Link> iArchitecture = new Architecture<Resource, Link>();
+		Map<String, Resource> iResources = new HashMap<String, Resource>();
 		for (Resource r : sArchitecture) {
-			iArchitecture.addVertex((Resource) copy(r));
+			Resource copy = copy(r);
+			iResources.put(copy.getId(), copy);
+			iArchitecture.addVertex(copy);
 		}
 		for (Link l : sArchitecture.getEdges()) {
 			Pair<Resource> endpoints = sArchitecture.getEndpoints(l);
-			Resource source = iArchitecture.getVertex(endpoints.getFirst());
-			Resource dest = iArchitecture.getVertex(endpoints.getSecond());
+			Resource source = iResources.get(endpoints.getFirst().getId());
+			Resource dest = iResources.get(endpoints.getSecond().getId());
 			iArchitecture.addEdge((Link) copy(l), source, dest, sArchitecture.getEdgeType(l));
 		}
 		return iArchitecture;
 	}
 
+	protected static <V extends Node> Map<String, V> getVertexMap(Graph<V, ?> graph) {
+		Map<String, V> map = new HashMap<String, V>();
+		for (V v : graph) {
+			map.put(v.getId(), v);
+		}
+		return map;
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <E extends Element> E copy(Element element) {
 		try {
-			Constructor<? extends Element> cstr = element.getClass().getConstructor(Element.class);
-			Element copy = cstr.newInstance(element);
+			Element copy = getConstructor(element.getClass(), Element.class).newInstance(element);
 			return (E) copy;
 		} catch (Exception e) {
 			throw new RuntimeException("could not copy element " + element, e);
@@ -540,15 +603,33 @@ public class Models {
 	@SuppressWarnings("unchecked")
 	public static <M extends Mapping<?, ?>> M copy(Mapping<?, ?> mapping) {
 		try {
-			Constructor<? extends Element> cstr = mapping.getClass().getConstructor(Element.class, Task.class,
-					Resource.class);
-			Element copy = cstr.newInstance(mapping, mapping.getSource(), mapping.getTarget());
+			Element copy = getConstructor(mapping.getClass(), Element.class, Task.class, Resource.class)
+					.newInstance(mapping, mapping.getSource(), mapping.getTarget());
 			return (M) copy;
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * The copy constructors of the element classes. The lookup of a
+	 * constructor by reflection is slow compared to the copy of an element.
+	 */
+	protected static final Map<List<Class<?>>, Constructor<? extends Element>> constructors = new ConcurrentHashMap<List<Class<?>>, Constructor<? extends Element>>();
+
+	protected static Constructor<? extends Element> getConstructor(Class<? extends Element> clazz,
+			Class<?>... parameterTypes) throws NoSuchMethodException {
+		List<Class<?>> key = new ArrayList<Class<?>>();
+		key.add(clazz);
+		key.addAll(Arrays.asList(parameterTypes));
+		Constructor<? extends Element> cstr = constructors.get(key);
+		if (cstr == null) {
+			cstr = clazz.getConstructor(parameterTypes);
+			constructors.put(key, cstr);
+		}
+		return cstr;
+	}
+
 	public static void setAttributes(IAttributes e, Attributes attributes) {
 		for (String name : attributes.keySet()) {
 			e.setAttribute(name, attributes.get(name));
@@ -603,7 +684,7 @@ public class Models {
 
 		for (Function<T, D> function : iApplication.getFunctions()) {
 			T t = function.iterator().next();
-			setAttributes(function, sApplication.getFunction(t).getAttributes());
+			setAttributes(function, sApplication.getFunctionAttributes(t));
 		}
 		return iApplication;
 	}
@@ -42,7 +42,7 @@ public class Specification extends Element {
 
 	/**
 	 * Constructs the specification. The routings are the architecture for each
-	 * task.
+	 * task. The routings share a single {@link CompressedRoutings} template.
 	 * 
 	 * @param application
 	 *            the application
@@ -56,21 +56,24 @@ public class Specification extends Element {
 	}
 
 	protected static Routings<?, ?, ?> fill(Application<?, ?> application, Architecture<?, ?> architecture) {
-		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
 		@SuppressWarnings("unchecked")
 		Architecture<Resource, Link> arch = (Architecture<Resource, Link>) architecture;
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(arch);
 
+		Architecture<Resource, Link> routing = null;
 		for (Task task : application) {
 			if (task instanceof ICommunication) {
-				Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
-
-				for (Resource resource : architecture.getVertices()) {
-					routing.addVertex(new Resource(resource));
-				}
-				for (Link link : architecture.getEdges()) {
-					routing.addEdge(new Link(link), arch.getEndpoints(link), arch.getEdgeType(link));
+				if (routing == null) {
+					routing = new Architecture<Resource, Link>();
+					for (Resource resource : architecture.getVertices()) {
+						routing.addVertex(new Resource(resource));
+					}
+					for (Link link : architecture.getEdges()) {
+						routing.addEdge(new Link(link), arch.getEndpoints(link), arch.getEdgeType(link));
+					}
 				}
-				routings.set(task, routing);
+				// the routing is compressed and each task gets its own copy
+				routings.setCompressed(task, routing);
 			}
 		}
 
@@ -87,6 +87,15 @@ public class ParameterRange implements Parameter {
 		return ub;
 	}
 
+	/**
+	 * Returns the granularity.
+	 *
+	 * @return the granularity (step-size)
+	 */
+	public double getGranularity() {
+		return granularity;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1,5 +1,75 @@
 package net.sf.opendse.model;
 
+import org.junit.Assert;
+import org.junit.Test;
+
 public class ApplicationTest {
 
+	@Test
+	public void testGetFunctions() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		Task t2 = new Task("t2");
+		Task t3 = new Task("t3");
+		application.addEdge(new Dependency("d0"), t0, t1);
+		application.addVertex(t2);
+		application.addVertex(t3);
+		Assert.assertEquals(3, application.getFunctions().size());
+
+		application.addEdge(new Dependency("d1"), t2, t1);
+		Assert.assertEquals(2, application.getFunctions().size());
+		Function<Task, Dependency> function = application.getFunction(t0);
+		Assert.assertEquals(3, function.getVertexCount());
+		Assert.assertEquals(2, function.getEdgeCount());
+		Assert.assertTrue(function.containsVertex(t2));
+		Assert.assertFalse(function.containsVertex(t3));
+	}
+
+	@Test
+	public void testRemove() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		Task t2 = new Task("t2");
+		Dependency d1 = new Dependency("d1");
+		application.addEdge(new Dependency("d0"), t0, t1);
+		application.addEdge(d1, t1, t2);
+		Assert.assertEquals(1, application.getFunctions().size());
+
+		application.removeEdge(d1);
+		Assert.assertEquals(2, application.getFunctions().size());
+		Assert.assertEquals(1, application.getFunction(t2).getVertexCount());
+
+		application.removeVertex(t1);
+		Assert.assertEquals(2, application.getFunctions().size());
+		Assert.assertEquals(1, application.getFunction(t0).getVertexCount());
+	}
+
+	@Test
+	public void testFunctionAttributes() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Function<Task, Dependency> function = new Function<Task, Dependency>("f");
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		function.addEdge(new Dependency("d0"), t0, t1);
+		function.setAttribute("period", 10);
+		application.add(function);
+
+		Assert.assertEquals(10, application.getFunctionAttributes(new Task("t1")).getAttribute("period"));
+		Assert.assertEquals("f", application.getFunction("f").getId());
+		Assert.assertEquals(2, application.getFunction("f").getVertexCount());
+		Assert.assertNull(application.getFunction("g"));
+
+		application.addEdge(new Dependency("d1"), t1, new Task("t2"));
+		Assert.assertEquals(10, application.getFunction(new Task("t2")).getAttribute("period"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetFunctionMissing() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		application.addVertex(new Task("t0"));
+		application.getFunction(new Task("t1"));
+	}
+
 }
@@ -0,0 +1,102 @@
+package net.sf.opendse.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledSpecificationTest {
+
+	@Test
+	public void testIndices() {
+		Specification specification = TestSpecifications.getSpecification();
+		CompiledSpecification cs = new CompiledSpecification(specification);
+
+		Assert.assertSame(specification, cs.getSpecification());
+		Assert.assertEquals(3, cs.getTaskCount());
+		Assert.assertEquals(3, cs.getResourceCount());
+		Assert.assertEquals(2, cs.getLinkCount());
+		Assert.assertEquals(2, cs.getDependencyCount());
+		Assert.assertEquals(3, cs.getMappingCount());
+		Assert.assertEquals(1, cs.getMessageCount());
+
+		for (int i = 0; i < cs.getTaskCount(); i++) {
+			Assert.assertEquals(i, cs.getTaskIndex(cs.getTask(i)));
+		}
+		Assert.assertEquals(-1, cs.getTaskIndex(new Task("t2")));
+
+		int c = cs.getTaskIndex(new Communication("c"));
+		Assert.assertEquals(0, cs.getMessageIndex(c));
+		Assert.assertEquals(c, cs.getMessageTask(0));
+		Assert.assertEquals(-1, cs.getMessageIndex(cs.getTaskIndex(new Task("t0"))));
+	}
+
+	@Test
+	public void testAdjacency() {
+		CompiledSpecification cs = new CompiledSpecification(TestSpecifications.getSpecification());
+		int r0 = cs.getResourceIndex(new Resource("r0"));
+		int r1 = cs.getResourceIndex(new Resource("r1"));
+		int r2 = cs.getResourceIndex(new Resource("r2"));
+		int l0 = cs.getLinkIndex(new Link("l0"));
+		int l1 = cs.getLinkIndex(new Link("l1"));
+
+		int[] offsets = cs.getIncidentLinkOffsets();
+		Assert.assertEquals(1, offsets[r0 + 1] - offsets[r0]);
+		Assert.assertEquals(2, offsets[r1 + 1] - offsets[r1]);
+		Assert.assertEquals(1, offsets[r2 + 1] - offsets[r2]);
+
+		Assert.assertEquals(l0, cs.findLink(r0, r1));
+		Assert.assertEquals(l0, cs.findLink(r1, r0));
+		Assert.assertEquals(l1, cs.findLink(r1, r2));
+		Assert.assertEquals(-1, cs.findLink(r2, r1));
+		Assert.assertEquals(-1, cs.findLink(r0, r2));
+
+		int t0 = cs.getTaskIndex(new Task("t0"));
+		int c = cs.getTaskIndex(new Communication("c"));
+		int[] out = cs.getOutDependencyOffsets();
+		Assert.assertEquals(1, out[t0 + 1] - out[t0]);
+		Assert.assertEquals(c, cs.getDependencyDestination(cs.getOutDependencies()[out[t0]]));
+		int[] in = cs.getInDependencyOffsets();
+		Assert.assertEquals(0, in[t0 + 1] - in[t0]);
+		Assert.assertEquals(t0, cs.getDependencySource(cs.getInDependencies()[in[c]]));
+
+		int t1 = cs.getTaskIndex(new Task("t1"));
+		int[] mappings = cs.getTaskMappingOffsets();
+		Assert.assertEquals(2, mappings[t1 + 1] - mappings[t1]);
+		for (int i = mappings[t1]; i < mappings[t1 + 1]; i++) {
+			Assert.assertEquals(t1, cs.getMappingSource(cs.getTaskMappings()[i]));
+		}
+	}
+
+	@Test
+	public void testRoutings() {
+		CompiledSpecification cs = new CompiledSpecification(TestSpecifications.getSpecification());
+		int[] resources = cs.getRoutingResourceOffsets();
+		int[] links = cs.getRoutingLinkOffsets();
+		Assert.assertEquals(3, resources[1] - resources[0]);
+		Assert.assertEquals(2, links[1] - links[0]);
+		Assert.assertEquals(2, cs.getRoutingLinks().length);
+
+		for (int i = links[0]; i < links[1]; i++) {
+			int l = cs.getRoutingLinks()[i];
+			int s = cs.getRoutingLinkSources()[i];
+			int d = cs.getRoutingLinkDestinations()[i];
+			Assert.assertTrue(cs.findLink(s, d) == l || cs.findLink(d, s) == l);
+		}
+	}
+
+	@Test
+	public void testColumns() {
+		CompiledSpecification cs = new CompiledSpecification(TestSpecifications.getSpecification());
+		double[] cost = cs.getDoubleColumn(Resource.class, "cost");
+		Assert.assertEquals(3.0, cost[cs.getResourceIndex(new Resource("r0"))], 0.0);
+		Assert.assertEquals(4.5, cost[cs.getResourceIndex(new Resource("r1"))], 0.0);
+		Assert.assertTrue(Double.isNaN(cost[cs.getResourceIndex(new Resource("r2"))]));
+		Assert.assertSame(cost, cs.getDoubleColumn(Resource.class, "cost"));
+		Assert.assertNull(cs.getColumn(Task.class, "cost")[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedColumn() {
+		new CompiledSpecification(TestSpecifications.getSpecification()).getColumn(Element.class, "cost");
+	}
+
+}
@@ -0,0 +1,188 @@
+package net.sf.opendse.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedRoutingsTest {
+
+	protected Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+	protected Resource r0 = new Resource("r0");
+	protected Resource r1 = new Resource("r1");
+	protected Resource r2 = new Resource("r2");
+	protected Link l0 = new Link("l0");
+	protected Link l1 = new Link("l1");
+
+	public CompressedRoutingsTest() {
+		architecture.addVertex(r0);
+		architecture.addVertex(r1);
+		architecture.addVertex(r2);
+		architecture.addEdge(l0, r0, r1);
+		architecture.addEdge(l1, r1, r2);
+	}
+
+	protected Architecture<Resource, Link> copy(Architecture<Resource, Link> architecture) {
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		for (Resource r : architecture) {
+			routing.addVertex(new Resource(r));
+		}
+		for (Link l : architecture.getEdges()) {
+			Resource source = routing.getVertex(architecture.getEndpoints(l).getFirst());
+			Resource dest = routing.getVertex(architecture.getEndpoints(l).getSecond());
+			routing.addEdge(new Link(l), source, dest, architecture.getEdgeType(l));
+		}
+		return routing;
+	}
+
+	/**
+	 * Tests that identical routings share the same template and are
+	 * materialized as distinct views.
+	 */
+	@Test
+	public void testSharedTemplate() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+		Task c1 = new Communication("c1");
+		routings.setCompressed(c0, copy(architecture));
+		routings.setCompressed(c1, copy(architecture));
+
+		Assert.assertTrue(routings.isCompressed(c0));
+		Assert.assertTrue(routings.isCompressed(c1));
+		Assert.assertEquals(1, routings.getTemplateCount());
+
+		Architecture<Resource, Link> routing0 = routings.get(c0);
+		Architecture<Resource, Link> routing1 = routings.get(c1);
+		Assert.assertNotSame(routing0, routing1);
+		Assert.assertSame(routing0, routings.get(c0));
+		Assert.assertEquals(3, routing0.getVertexCount());
+		Assert.assertEquals(2, routing0.getEdgeCount());
+		Assert.assertSame(r1, routing0.getVertex(r1).getParent());
+		Assert.assertNotNull(routing0.findEdge(routing0.getVertex(r0), routing0.getVertex(r1)));
+	}
+
+	/**
+	 * Tests that reading a routing keeps the template in place.
+	 */
+	@Test
+	public void testRead() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+		routings.setCompressed(c0, copy(architecture));
+
+		Architecture<Resource, Link> routing = routings.get(c0);
+		Assert.assertEquals(3, routing.getVertexCount());
+		Assert.assertTrue(routings.isCompressed(c0));
+		Assert.assertEquals(1, routings.getTemplateCount());
+		Assert.assertEquals(1, routings.getRoutings().size());
+		Assert.assertTrue(routings.isCompressed(c0));
+	}
+
+	/**
+	 * Tests that a modified view replaces the compressed routing such that
+	 * modifications of the routing and its elements are kept.
+	 */
+	@Test
+	public void testModification() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+		Task c1 = new Communication("c1");
+		routings.setCompressed(c0, copy(architecture));
+		routings.setCompressed(c1, copy(architecture));
+
+		Architecture<Resource, Link> routing = routings.get(c0);
+		routing.getVertex(r0).setAttribute("a", 1);
+		routing.removeVertex(routing.getVertex(r2));
+		Assert.assertFalse(routings.isCompressed(c0));
+		Assert.assertTrue(routings.isCompressed(c1));
+
+		Assert.assertSame(routing, routings.get(c0));
+		Assert.assertEquals(1, (int) routings.get(c0).getVertex(r0).<Integer> getAttribute("a"));
+		Assert.assertEquals(2, routings.get(c0).getVertexCount());
+		Assert.assertEquals(3, routings.get(c1).getVertexCount());
+		Assert.assertNull(routings.get(c1).getVertex(r0).getAttribute("a"));
+	}
+
+	/**
+	 * Tests that the local attributes of an unmodified view are kept once the
+	 * view is collected.
+	 */
+	@Test
+	public void testCollectedView() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+		Task c1 = new Communication("c1");
+		routings.setCompressed(c0, copy(architecture));
+		routings.setCompressed(c1, copy(architecture));
+
+		routings.get(c0).getVertex(r0).setAttribute("a", 1);
+		routings.get(c1).getVertex(r0);
+		// simulate the collection of the views
+		routings.views.get(c0).clear();
+		routings.views.get(c1).clear();
+
+		Assert.assertFalse(routings.isCompressed(c0));
+		Assert.assertTrue(routings.isCompressed(c1));
+		Assert.assertEquals(1, (int) routings.get(c0).getVertex(r0).<Integer> getAttribute("a"));
+		Assert.assertEquals(2, routings.get(c0).getEdgeCount());
+		Assert.assertNull(routings.get(c1).getVertex(r0).getAttribute("a"));
+	}
+
+	/**
+	 * Tests that {@link CompressedRoutings#set(Task, Architecture)} stores the
+	 * given routing as it is.
+	 */
+	@Test
+	public void testSet() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+
+		Architecture<Resource, Link> routing = copy(architecture);
+		routings.set(c0, routing);
+		routing.removeVertex(routing.getVertex(r2));
+
+		Assert.assertFalse(routings.isCompressed(c0));
+		Assert.assertSame(routing, routings.get(c0));
+		Assert.assertEquals(2, routings.get(c0).getVertexCount());
+	}
+
+	/**
+	 * Tests that routings with local attributes or unknown elements are not
+	 * compressed.
+	 */
+	@Test
+	public void testUncompressed() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+		Task c1 = new Communication("c1");
+
+		Architecture<Resource, Link> routing0 = copy(architecture);
+		routing0.getVertex(r0).setAttribute("a", 1);
+		routings.setCompressed(c0, routing0);
+
+		Architecture<Resource, Link> routing1 = new Architecture<Resource, Link>();
+		routing1.addVertex(new Resource("r3"));
+		routings.setCompressed(c1, routing1);
+
+		Assert.assertFalse(routings.isCompressed(c0));
+		Assert.assertFalse(routings.isCompressed(c1));
+		Assert.assertSame(routing0, routings.get(c0));
+		Assert.assertSame(routing1, routings.get(c1));
+	}
+
+	/**
+	 * Tests that a missing routing is created empty.
+	 */
+	@Test
+	public void testGetMissing() {
+		CompressedRoutings<Task, Resource, Link> routings = new CompressedRoutings<Task, Resource, Link>(architecture);
+		Task c0 = new Communication("c0");
+
+		Architecture<Resource, Link> routing = routings.get(c0);
+		Assert.assertEquals(0, routing.getVertexCount());
+		Assert.assertTrue(routings.getTasks().contains(c0));
+
+		routing.addVertex(new Resource(r0));
+		Assert.assertSame(routing, routings.get(c0));
+		Assert.assertEquals(1, routings.get(c0).getVertexCount());
+	}
+
+}
@@ -1,6 +1,9 @@
 package net.sf.opendse.model;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -74,4 +77,110 @@ public class MappingsTest {
 
 		Assert.assertEquals(Collections.singleton(mapping), mappings.getAll());
 	}
+
+	@Test
+	public void testGetPairs() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Mapping<Task, Resource> m0 = new Mapping<Task, Resource>("m0", t, r0);
+		Mapping<Task, Resource> m1 = new Mapping<Task, Resource>("m1", t, r0);
+		Mapping<Task, Resource> m2 = new Mapping<Task, Resource>("m2", t, r1);
+		mappings.addAll(Arrays.asList(m0, m1, m2));
+
+		Assert.assertEquals(new HashSet<Mapping<Task, Resource>>(Arrays.asList(m0, m1)), mappings.get(t, r0));
+		Assert.assertEquals(Collections.singleton(m2), mappings.get(t, r1));
+		Assert.assertEquals(new HashSet<Resource>(Arrays.asList(r0, r1)), mappings.getTargets(t));
+
+		mappings.remove(m0);
+		Assert.assertEquals(Collections.singleton(m1), mappings.get(t, r0));
+		mappings.remove(m1);
+		Assert.assertTrue(mappings.get(t, r0).isEmpty());
+		Assert.assertTrue(mappings.get(r0).isEmpty());
+		Assert.assertEquals(Collections.singleton(r1), mappings.getTargets(t));
+	}
+
+	@Test
+	public void testGetMissing() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r = new Resource("r");
+
+		Assert.assertTrue(mappings.get(t).isEmpty());
+		Assert.assertTrue(mappings.get(r).isEmpty());
+		Assert.assertTrue(mappings.get(t, r).isEmpty());
+		Assert.assertTrue(mappings.getSources(r).isEmpty());
+		Assert.assertTrue(mappings.getTargets(t).isEmpty());
+		Assert.assertTrue(mappings.taskMappings.isEmpty());
+		Assert.assertTrue(mappings.resourceMappings.isEmpty());
+	}
+
+	@Test
+	public void testViews() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r = new Resource("r");
+		mappings.add(new Mapping<Task, Resource>("m0", t, r));
+
+		Set<Mapping<Task, Resource>> view = mappings.get(t);
+		Set<Mapping<Task, Resource>> pair = mappings.get(t, r);
+		Assert.assertSame(view, mappings.get(t));
+		Assert.assertSame(pair, mappings.get(t, r));
+		mappings.add(new Mapping<Task, Resource>("m1", t, new Resource("r1")));
+		mappings.add(new Mapping<Task, Resource>("m2", t, r));
+		Assert.assertEquals(3, view.size());
+		Assert.assertEquals(2, pair.size());
+	}
+
+	@Test
+	public void testViewsRemoved() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r = new Resource("r");
+		Mapping<Task, Resource> mapping = new Mapping<Task, Resource>("m", t, r);
+		mappings.add(mapping);
+
+		Set<Mapping<Task, Resource>> taskView = mappings.get(t);
+		Set<Mapping<Task, Resource>> resourceView = mappings.get(r);
+		Set<Resource> targets = mappings.getTargets(t);
+		Set<Mapping<Task, Resource>> pair = mappings.get(t, r);
+		mappings.remove(mapping);
+		Assert.assertTrue(taskView.isEmpty());
+		Assert.assertTrue(resourceView.isEmpty());
+		Assert.assertTrue(targets.isEmpty());
+		Assert.assertTrue(pair.isEmpty());
+		Assert.assertTrue(mappings.taskMappings.isEmpty());
+		Assert.assertTrue(mappings.resourceMappings.isEmpty());
+
+		// the views of removed keys are queried again
+		mappings.add(mapping);
+		Assert.assertEquals(Collections.singleton(mapping), mappings.get(t));
+		Assert.assertEquals(Collections.singleton(mapping), mappings.get(r));
+		Assert.assertEquals(Collections.singleton(r), mappings.getTargets(t));
+		Assert.assertEquals(Collections.singleton(mapping), mappings.get(t, r));
+	}
+
+	@Test
+	public void testViewsAddAll() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Set<Mapping<Task, Resource>> all = mappings.getAll();
+		Task t = new Task("t");
+		Set<Mapping<Task, Resource>> added = new HashSet<Mapping<Task, Resource>>();
+		for (int i = 0; i < 32; i++) {
+			added.add(new Mapping<Task, Resource>("m" + i, t, new Resource("r" + i)));
+		}
+		mappings.addAll(added);
+		Assert.assertEquals(added, all);
+		Assert.assertEquals(32, mappings.get(t).size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnmodifiable() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r = new Resource("r");
+		mappings.add(new Mapping<Task, Resource>("m0", t, r));
+		mappings.get(t, r).clear();
+	}
 }
@@ -154,4 +154,106 @@ public class ModelsTest {
 		Assert.assertTrue(app2.getOutEdges(task1).iterator().hasNext());
 		Assert.assertTrue(app2.getOutEdges(task1).iterator().next() == dependency);
 	}
+
+	@Test
+	public void copySharesRoutings() {
+		Application<Task, Dependency> app = new Application<Task, Dependency>();
+		Task t1 = new Task("t1");
+		Task t2 = new Task("t2");
+		Communication c = new Communication("c");
+		app.addVertex(t1);
+		app.addVertex(t2);
+		app.addVertex(c);
+		app.addEdge(new Dependency("d1"), t1, c);
+		app.addEdge(new Dependency("d2"), c, t2);
+
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Resource r3 = new Resource("r3");
+		arch.addVertex(r1);
+		arch.addVertex(r2);
+		arch.addVertex(r3);
+		arch.addEdge(new Link("l1"), r1, r2);
+		arch.addEdge(new Link("l2"), r2, r3);
+
+		Specification spec = new Specification(app, arch, new Mappings<Task, Resource>());
+		Specification spec2 = Models.copy(spec);
+		CompressedRoutings<Task, Resource, Link> routings2 = spec2.getRoutings();
+
+		Task c2 = spec2.getApplication().getVertex(c);
+		Assert.assertNotSame(c, c2);
+		Assert.assertTrue(routings2.isCompressed(c2));
+		Assert.assertSame(routings2.getTasks().iterator().next(), c2);
+
+		Architecture<Resource, Link> routing2 = routings2.get(c2);
+		Assert.assertEquals(3, routing2.getVertexCount());
+		Assert.assertEquals(2, routing2.getEdgeCount());
+		Assert.assertSame(spec2.getArchitecture().getVertex(r1), routing2.getVertex(r1).getParent());
+
+		routing2.removeVertex(routing2.getVertex(r3));
+		Assert.assertEquals(2, routings2.get(c2).getVertexCount());
+		Assert.assertEquals(3, spec.getRoutings().get(c).getVertexCount());
+
+		Specification spec3 = Models.copy(spec2);
+		Task c3 = spec3.getApplication().getVertex(c);
+		Assert.assertEquals(2, spec3.getRoutings().get(c3).getVertexCount());
+		Assert.assertEquals(1, spec3.getRoutings().get(c3).getEdgeCount());
+	}
+
+	@Test
+	public void copyReadKeepsSharedRouting() {
+		Application<Task, Dependency> app = new Application<Task, Dependency>();
+		Communication c = new Communication("c");
+		app.addEdge(new Dependency("d1"), new Task("t1"), c);
+
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		arch.addEdge(new Link("l1"), r1, new Resource("r2"));
+
+		Specification spec = new Specification(app, arch, new Mappings<Task, Resource>());
+		Specification spec2 = Models.copy(spec);
+		CompressedRoutings<Task, Resource, Link> routings = spec.getRoutings();
+		CompressedRoutings<Task, Resource, Link> routings2 = spec2.getRoutings();
+		Task c2 = spec2.getApplication().getVertex(c);
+
+		Architecture<Resource, Link> routing2 = routings2.get(c2);
+		Assert.assertEquals(2, routing2.getVertexCount());
+		Assert.assertNotNull(routing2.getVertex(r1));
+
+		Assert.assertTrue(routings2.isCompressed(c2));
+		Assert.assertNotNull(routings2.getTemplate(c2));
+		Assert.assertSame(routings.getTemplate(c), routings2.getTemplate(c2));
+	}
+
+	@Test
+	public void copySharesAttributes() {
+		Application<Task, Dependency> app = new Application<Task, Dependency>();
+		Task task = new Task("t");
+		task.setAttribute("a", 1);
+		app.addVertex(task);
+
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource resource = new Resource("r");
+		arch.addVertex(resource);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(new Mapping<Task, Resource>("m", task, resource));
+
+		Specification spec = new Specification(app, arch, mappings);
+		Specification spec2 = Models.copy(spec);
+
+		Task task2 = spec2.getApplication().getVertex(task);
+		Assert.assertSame(task, task2.getParent());
+		Assert.assertTrue(task2.getLocalAttributes().isEmpty());
+		Assert.assertEquals(1, (int) task2.<Integer> getAttribute("a"));
+
+		task2.setAttribute("a", 2);
+		Assert.assertEquals(2, (int) task2.<Integer> getAttribute("a"));
+		Assert.assertEquals(1, (int) task.<Integer> getAttribute("a"));
+
+		Mapping<Task, Resource> mapping2 = spec2.getMappings().iterator().next();
+		Assert.assertSame(task2, mapping2.getSource());
+		Assert.assertSame(spec2.getArchitecture().getVertex(resource), mapping2.getTarget());
+	}
 }
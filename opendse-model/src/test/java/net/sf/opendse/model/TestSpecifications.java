@@ -0,0 +1,44 @@
+package net.sf.opendse.model;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * The specification that is shared by the model tests.
+ */
+public class TestSpecifications {
+
+	private TestSpecifications() {
+	}
+
+	/**
+	 * Returns a specification with the function {@code t0 -> c -> t1} and the
+	 * resources {@code r0 - r1 -> r2}. The task {@code t0} can be bound to
+	 * {@code r0}, the task {@code t1} to {@code r1} and {@code r2}.
+	 *
+	 * @return the specification
+	 */
+	public static Specification getSpecification() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Communication c = new Communication("c");
+		Task t1 = new Task("t1");
+		application.addEdge(new Dependency("d0"), t0, c, EdgeType.DIRECTED);
+		application.addEdge(new Dependency("d1"), c, t1, EdgeType.DIRECTED);
+
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		r0.setAttribute("cost", 3);
+		r1.setAttribute("cost", 4.5);
+		architecture.addEdge(new Link("l0"), r0, r1, EdgeType.UNDIRECTED);
+		architecture.addEdge(new Link("l1"), r1, r2, EdgeType.DIRECTED);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(new Mapping<Task, Resource>("m0", t0, r0));
+		mappings.add(new Mapping<Task, Resource>("m1", t1, r1));
+		mappings.add(new Mapping<Task, Resource>("m2", t1, r2));
+
+		return new Specification(application, architecture, mappings);
+	}
+}
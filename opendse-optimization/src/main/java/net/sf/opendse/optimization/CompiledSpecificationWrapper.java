@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import net.sf.opendse.model.CompiledSpecification;
+import net.sf.opendse.model.Specification;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * The {@code CompiledSpecificationWrapper} compiles the specification of the
+ * {@link SpecificationWrapper} once into a {@link CompiledSpecification}.
+ */
+@Singleton
+public class CompiledSpecificationWrapper {
+
+	protected final SpecificationWrapper specificationWrapper;
+	protected CompiledSpecification compiledSpecification = null;
+
+	@Inject
+	public CompiledSpecificationWrapper(SpecificationWrapper specificationWrapper) {
+		super();
+		this.specificationWrapper = specificationWrapper;
+	}
+
+	/**
+	 * Returns the compiled specification. The specification is compiled again
+	 * if the wrapper returns another specification.
+	 * 
+	 * @return the compiled specification
+	 */
+	public synchronized CompiledSpecification getCompiledSpecification() {
+		Specification specification = specificationWrapper.getSpecification();
+		if (compiledSpecification == null || compiledSpecification.getSpecification() != specification) {
+			compiledSpecification = new CompiledSpecification(specification);
+		}
+		return compiledSpecification;
+	}
+
+}
@@ -21,6 +21,7 @@
  *******************************************************************************/
 package net.sf.opendse.optimization;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -28,9 +29,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
 import net.sf.opendse.model.parameter.Parameter;
 import net.sf.opendse.model.parameter.ParameterReference;
 import net.sf.opendse.model.parameter.ParameterSelect;
@@ -42,15 +48,35 @@ import org.opt4j.satdecoding.ContradictionException;
 
 import com.google.inject.Inject;
 
+/**
+ * The {@code DesignSpaceExplorationDecoder} decodes the SAT genotype to an
+ * implementation and sets the decoded {@link Parameter}s as attributes of
+ * its elements.
+ * <p>
+ * The binding of the parameters is compiled once from the specification:
+ * Each {@link ParameterReference} gets a slot and each parameterized element
+ * id gets its {@link Binding}s (slot and attribute, or the referenced
+ * attribute for {@link ParameterSelect}s with a reference). For each
+ * implementation, the decoded values are written into an array by slot and
+ * only the kinds of elements that have parameters are visited once.
+ */
 public class DesignSpaceExplorationDecoder implements
 		Decoder<CompositeGenotype<String, Genotype>, ImplementationWrapper> {
 
+	protected static final Object UNSET = new Object();
+
 	protected final SATCreatorDecoder satDecoder;
 	protected final ParameterDecoder parameterDecoder;
 	protected final Specification specification;
 
-	protected final Map<ParameterReference, ParameterReference> selectParameterRef = new HashMap<ParameterReference, ParameterReference>();
-	protected final Map<ParameterReference, List<Object>> selectParametersMap = new HashMap<ParameterReference, List<Object>>();
+	protected final Map<ParameterReference, Integer> slots = new HashMap<ParameterReference, Integer>();
+	protected final Map<String, Binding[]> bindings = new HashMap<String, Binding[]>();
+	protected boolean bindResources = false;
+	protected boolean bindLinks = false;
+	protected boolean bindTasks = false;
+	protected boolean bindDependencies = false;
+	protected boolean bindMappings = false;
+	protected boolean bindSpecification = false;
 
 	@Inject
 	public DesignSpaceExplorationDecoder(SATCreatorDecoder satDecoder, ParameterDecoder parameterDecoder,
@@ -61,22 +87,50 @@ public class DesignSpaceExplorationDecoder implements
 		this.specification = specWrapper.getSpecification();
 
 		for (Element element : Models.getElements(specification)) {
+			List<Binding> direct = new ArrayList<Binding>();
+			List<Binding> selects = new ArrayList<Binding>();
+
 			for (String name : element.getAttributeNames()) {
 				Parameter parameter = element.getAttributeParameter(name);
-				if (parameter != null && parameter instanceof ParameterSelect) {
-					ParameterSelect parameterSelect = (ParameterSelect) parameter;
+				if (parameter != null) {
+					ParameterReference ref = new ParameterReference(element, name);
+					int slot = slots.size();
+					slots.put(ref, slot);
+					direct.add(new Binding(slot, name));
 
-					String reference = parameterSelect.getReference();
+					if (parameter instanceof ParameterSelect) {
+						ParameterSelect parameterSelect = (ParameterSelect) parameter;
+						String reference = parameterSelect.getReference();
 
-					if (reference != null) {
-						ParameterReference pref = new ParameterReference(element, name);
-						ParameterReference prefref = new ParameterReference(element, reference);
-
-						selectParameterRef.put(pref, prefref);
-						selectParametersMap.put(pref, Arrays.asList(parameterSelect.getElements()));
+						if (reference != null) {
+							ParameterSelect referenced = (ParameterSelect) element.getAttributeParameter(reference);
+							selects.add(new Binding(name, reference, referenced,
+									Arrays.asList(parameterSelect.getElements())));
+						}
 					}
 				}
 			}
+
+			if (!direct.isEmpty()) {
+				// the selects with references are resolved after all values
+				// are set
+				direct.addAll(selects);
+				bindings.put(element.getId(), direct.toArray(new Binding[direct.size()]));
+
+				if (element instanceof Resource) {
+					bindResources = true;
+				} else if (element instanceof Link) {
+					bindLinks = true;
+				} else if (element instanceof Task) {
+					bindTasks = true;
+				} else if (element instanceof Dependency) {
+					bindDependencies = true;
+				} else if (element instanceof Mapping) {
+					bindMappings = true;
+				} else if (element instanceof Specification) {
+					bindSpecification = true;
+				}
+			}
 		}
 	}
 
@@ -95,7 +149,7 @@ public class DesignSpaceExplorationDecoder implements
 
 		Specification implementation = wrapper.getImplementation();
 
-		if (implementation != null) {
+		if (implementation != null && !bindings.isEmpty()) {
 			decodeParameters(parameterGenotype, implementation);
 		}
 
@@ -113,38 +167,93 @@ public class DesignSpaceExplorationDecoder implements
 	private void decodeParameters(CompositeGenotype<String, Genotype> parameterGenotype, Specification implementation) {
 		ParameterMap parameterMap = parameterDecoder.decode(parameterGenotype);
 
-		Map<String, Element> elementMap = Models.getElementsMap(implementation);
+		Object[] values = new Object[slots.size()];
+		Arrays.fill(values, UNSET);
+		for (Entry<ParameterReference, Object> entry : parameterMap.entrySet()) {
+			Integer slot = slots.get(entry.getKey());
+			if (slot != null) {
+				values[slot] = entry.getValue();
+			}
+		}
 
-		if (!parameterMap.isEmpty()) {
-			for (Entry<ParameterReference, Object> entry : parameterMap.entrySet()) {
-				ParameterReference ref = entry.getKey();
-				String id = ref.getId();
-				String attribute = ref.getAttribute();
+		if (bindResources || bindLinks) {
+			for (Resource resource : implementation.getArchitecture()) {
+				bind(resource, values);
+			}
+			if (bindLinks) {
+				for (Link link : implementation.getArchitecture().getEdges()) {
+					bind(link, values);
+				}
+			}
+		}
+		if (bindTasks || bindDependencies) {
+			for (Task task : implementation.getApplication()) {
+				bind(task, values);
+			}
+			if (bindDependencies) {
+				for (Dependency dependency : implementation.getApplication().getEdges()) {
+					bind(dependency, values);
+				}
+			}
+		}
+		if (bindMappings) {
+			for (Mapping<Task, Resource> mapping : implementation.getMappings()) {
+				bind(mapping, values);
+			}
+		}
+		if (bindSpecification) {
+			bind(implementation, values);
+		}
+	}
 
-				if (elementMap.containsKey(id)) {
-					Element element = elementMap.get(id);
-					Object value = entry.getValue();
-					element.setAttribute(attribute, value);
+	protected void bind(Element element, Object[] values) {
+		Binding[] elementBindings = bindings.get(element.getId());
+		if (elementBindings == null) {
+			return;
+		}
+		for (Binding binding : elementBindings) {
+			if (binding.reference == null) {
+				Object value = values[binding.slot];
+				if (value != UNSET) {
+					element.setAttribute(binding.attribute, value);
 				}
+			} else {
+				Object o = element.getAttribute(binding.reference);
+				int index = binding.referenceParameter.indexOf(o);
+				element.setAttribute(binding.attribute, binding.elements.get(index));
 			}
 		}
+	}
 
-		for (Entry<ParameterReference, ParameterReference> entry : selectParameterRef.entrySet()) {
-			ParameterReference ref = entry.getKey();
-			ParameterReference refref = entry.getValue();
+	/**
+	 * The {@code Binding} of a parameter to an attribute of an element. The
+	 * value is either taken from a slot or, for a {@link ParameterSelect} with
+	 * a reference, selected by the index of the value of the referenced
+	 * attribute.
+	 */
+	protected static class Binding {
 
-			String id = ref.getId();
-			String refAttribute = ref.getAttribute();
-			String refrefAttribute = refref.getAttribute();
+		protected final int slot;
+		protected final String attribute;
+		protected final String reference;
+		protected final ParameterSelect referenceParameter;
+		protected final List<Object> elements;
 
-			Element element = elementMap.get(id);
-			if (element != null) {
-				Object o = element.getAttribute(refrefAttribute);
-				int index = ((ParameterSelect) (refref.getParameter())).indexOf(o);
+		protected Binding(int slot, String attribute) {
+			this.slot = slot;
+			this.attribute = attribute;
+			this.reference = null;
+			this.referenceParameter = null;
+			this.elements = null;
+		}
 
-				Object o2 = selectParametersMap.get(ref).get(index);
-				element.setAttribute(refAttribute, o2);
-			}
+		protected Binding(String attribute, String reference, ParameterSelect referenceParameter,
+				List<Object> elements) {
+			this.slot = -1;
+			this.attribute = attribute;
+			this.reference = reference;
+			this.referenceParameter = referenceParameter;
+			this.elements = elements;
 		}
 	}
 }
@@ -28,6 +28,8 @@ import java.util.List;
 import java.util.Set;
 
 import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.metrics.Metrics;
+import net.sf.opendse.optimization.metrics.Metrics.Sample;
 
 import org.opt4j.core.DoubleValue;
 import org.opt4j.core.IntegerValue;
@@ -42,6 +44,8 @@ public class DesignSpaceExplorationEvaluator implements Evaluator<Implementation
 
 	protected final List<ImplementationEvaluator> evaluators;
 	protected final Provider<Objectives> objectivesProvider;
+	protected final List<String> stages = new ArrayList<String>();
+	protected Metrics metrics = Metrics.DISABLED;
 
 	@Inject
 	public DesignSpaceExplorationEvaluator(Set<ImplementationEvaluator> evaluators, Provider<Objectives> objectivesProvider) {
@@ -56,14 +60,25 @@ public class DesignSpaceExplorationEvaluator implements Evaluator<Implementation
 				return i1.compareTo(i2);
 			}
 		});
+		for (ImplementationEvaluator evaluator : this.evaluators) {
+			stages.add("ImplementationEvaluator." + evaluator.getClass().getSimpleName());
+		}
+	}
+
+	@Inject(optional = true)
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
 	}
 
 	@Override
 	public Objectives evaluate(ImplementationWrapper wrapper) {
 
 		Objectives objectives = objectivesProvider.get();
-		for (ImplementationEvaluator evaluator : evaluators) {
+		for (int i = 0; i < evaluators.size(); i++) {
+			ImplementationEvaluator evaluator = evaluators.get(i);
+			Sample sample = metrics.start(stages.get(i));
 			Specification impl = evaluator.evaluate(wrapper.getImplementation(), objectives);
+			sample.stop();
 			if (impl != null) {
 				wrapper.setImplementation(impl);
 			}
@@ -27,8 +27,10 @@ import java.awt.Point;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 
+import net.sf.opendse.model.Node;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.visualization.SpecificationPanel;
+import net.sf.opendse.visualization.algorithm.ComponentLayoutCache;
 
 import org.opt4j.core.Individual;
 import org.opt4j.viewer.IndividualMouseListener;
@@ -41,6 +43,7 @@ import com.google.inject.Inject;
 public class ImplementationWidgetService implements IndividualMouseListener {
 
 	protected final Viewport viewport;
+	protected final ComponentLayoutCache<Node> layoutCache = new ComponentLayoutCache<Node>();
 
 	@Inject
 	public ImplementationWidgetService(Viewport viewport) {
@@ -59,7 +62,7 @@ public class ImplementationWidgetService implements IndividualMouseListener {
 		
 		@Override
 		public JPanel getPanel() {
-			SpecificationPanel panel = new SpecificationPanel(implementation);
+			SpecificationPanel panel = new SpecificationPanel(implementation, layoutCache);
 			return panel;
 		}
 
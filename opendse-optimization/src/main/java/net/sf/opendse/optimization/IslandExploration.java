@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.common.archive.UnboundedArchive;
+import org.opt4j.core.common.random.RandomModule;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.start.Opt4JModule;
+import org.opt4j.core.start.Opt4JTask;
+
+import com.google.inject.Guice;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@code IslandExploration} runs a number of independent explorations
+ * (islands) of the same problem in parallel. Each island is a separate
+ * {@link Opt4JTask} with its own injector, i.e., its own creator, decoder,
+ * and evaluator instances, and its own random seed. The specification is
+ * obtained once from the {@link SpecificationWrapper} of the given modules
+ * and each island works on its own copy of it (see
+ * {@link Models#copy(Specification)}). Thus, the components of an island do
+ * not need to be thread-safe. However, the copies share the attributes of
+ * the original elements, which must not be modified by the islands.
+ * <p>
+ * Every {@code migrationInterval} iterations, each island publishes copies
+ * of the genotypes of its best individuals and integrates the genotypes
+ * published by its predecessor in a ring topology (see
+ * {@link IslandMigration}). The archives of all islands are merged into a
+ * global Pareto archive.
+ */
+public class IslandExploration {
+
+	protected final List<Module> modules = new ArrayList<Module>();
+	protected final int islands;
+
+	protected int migrationInterval = 10;
+	protected int migrants = 5;
+	protected long seed = 0;
+
+	protected Specification specification = null;
+
+	protected final Archive archive = new UnboundedArchive();
+	protected final List<List<Genotype>> published = new ArrayList<List<Genotype>>();
+
+	/**
+	 * Constructs an {@code IslandExploration} with one island per available
+	 * processor.
+	 *
+	 * @param modules
+	 *            the modules that define a single exploration
+	 */
+	public IslandExploration(Collection<? extends Module> modules) {
+		this(modules, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs an {@code IslandExploration}.
+	 *
+	 * @param modules
+	 *            the modules that define a single exploration
+	 * @param islands
+	 *            the number of islands
+	 */
+	public IslandExploration(Collection<? extends Module> modules, int islands) {
+		if (islands < 1) {
+			throw new IllegalArgumentException("At least one island is required: " + islands);
+		}
+		for (Module module : modules) {
+			if (!(module instanceof RandomModule)) {
+				// each island binds its own seeded random
+				this.modules.add(module);
+			}
+		}
+		this.islands = islands;
+		for (int i = 0; i < islands; i++) {
+			published.add(Collections.<Genotype> emptyList());
+		}
+	}
+
+	public int getIslands() {
+		return islands;
+	}
+
+	public int getMigrationInterval() {
+		return migrationInterval;
+	}
+
+	public void setMigrationInterval(int migrationInterval) {
+		this.migrationInterval = migrationInterval;
+	}
+
+	public int getMigrants() {
+		return migrants;
+	}
+
+	public void setMigrants(int migrants) {
+		this.migrants = migrants;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the global Pareto archive that contains the non-dominated
+	 * individuals of all islands.
+	 *
+	 * @return the global archive
+	 */
+	public Archive getArchive() {
+		return archive;
+	}
+
+	/**
+	 * Runs all islands and returns the global Pareto archive.
+	 *
+	 * @return the global archive
+	 * @throws Exception
+	 *             if one of the islands failed
+	 */
+	public Archive explore() throws Exception {
+		getSpecification();
+		List<Opt4JTask> tasks = new ArrayList<Opt4JTask>();
+		for (int i = 0; i < islands; i++) {
+			tasks.add(createTask(i));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(islands);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (final Opt4JTask task : tasks) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						task.execute();
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof Exception) {
+						throw (Exception) cause;
+					}
+					throw e;
+				}
+			}
+			for (Opt4JTask task : tasks) {
+				update(task.getInstance(Archive.class));
+			}
+		} finally {
+			executor.shutdownNow();
+			for (Opt4JTask task : tasks) {
+				task.close();
+			}
+		}
+		return archive;
+	}
+
+	/**
+	 * Returns the specification of the given modules. It is obtained once
+	 * from a separate injector such that the {@link SpecificationWrapper} is
+	 * initialized by a single thread.
+	 *
+	 * @return the specification
+	 */
+	protected synchronized Specification getSpecification() {
+		if (specification == null) {
+			List<Module> modules = new ArrayList<Module>(this.modules);
+			modules.add(new RandomModule());
+			specification = Guice.createInjector(modules).getInstance(SpecificationWrapper.class).getSpecification();
+		}
+		return specification;
+	}
+
+	/**
+	 * Creates the task of an island.
+	 *
+	 * @param island
+	 *            the index of the island
+	 * @return the task
+	 */
+	protected Opt4JTask createTask(final int island) {
+		final Specification copy = Models.copy(getSpecification());
+		for (String name : specification.getAttributeNames()) {
+			copy.setAttribute(name, specification.getAttribute(name));
+		}
+		final SpecificationWrapper wrapper = new SpecificationWrapper() {
+			@Override
+			public Specification getSpecification() {
+				return copy;
+			}
+		};
+
+		List<Module> modules = new ArrayList<Module>();
+		modules.add(Modules.override(this.modules).with(new Opt4JModule() {
+			@Override
+			protected void config() {
+				bind(SpecificationWrapper.class).toInstance(wrapper);
+			}
+		}));
+
+		RandomModule random = new RandomModule();
+		random.setUsingSeed(true);
+		random.setSeed(seed + island);
+		modules.add(random);
+
+		modules.add(new Opt4JModule() {
+			@Override
+			protected void config() {
+				bind(IslandExploration.class).toInstance(IslandExploration.this);
+				bindConstant("island", IslandMigration.class).to(island);
+				addOptimizerIterationListener(IslandMigration.class);
+			}
+		});
+
+		Opt4JTask task = new Opt4JTask(false);
+		task.init(modules);
+		return task;
+	}
+
+	/**
+	 * Merges the given individuals into the global archive.
+	 *
+	 * @param individuals
+	 *            the individuals
+	 */
+	protected void update(Collection<Individual> individuals) {
+		synchronized (archive) {
+			archive.update(new HashSet<Individual>(individuals));
+		}
+	}
+
+	/**
+	 * Publishes the genotypes of the emigrants of an island. The previously
+	 * published genotypes of this island are replaced.
+	 *
+	 * @param island
+	 *            the index of the island
+	 * @param genotypes
+	 *            the genotypes (already copied)
+	 */
+	protected void publish(int island, List<Genotype> genotypes) {
+		synchronized (published) {
+			published.set(island, Collections.unmodifiableList(new ArrayList<Genotype>(genotypes)));
+		}
+	}
+
+	/**
+	 * Takes the genotypes that were published by the predecessor of an
+	 * island. Each published set of genotypes is taken only once.
+	 *
+	 * @param island
+	 *            the index of the island
+	 * @return the genotypes
+	 */
+	protected List<Genotype> take(int island) {
+		int source = (island + islands - 1) % islands;
+		synchronized (published) {
+			List<Genotype> genotypes = published.get(source);
+			published.set(source, Collections.<Genotype> emptyList());
+			return genotypes;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.IndividualFactory;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.optimizer.IndividualCompleter;
+import org.opt4j.core.optimizer.OptimizerIterationListener;
+import org.opt4j.core.optimizer.Population;
+import org.opt4j.core.optimizer.TerminationException;
+import org.opt4j.core.start.Constant;
+import org.opt4j.operators.copy.Copy;
+
+import com.google.inject.Inject;
+
+import net.sf.opendse.optimization.genotype.SATVectorGenotype;
+import net.sf.opendse.optimization.genotype.SATVectorIndex;
+
+/**
+ * The {@code IslandMigration} exchanges individuals between the islands of an
+ * {@link IslandExploration}. Every {@code migrationInterval} iterations, the
+ * island publishes copies of the genotypes of up to {@code migrants} archive
+ * members, merges its archive into the global archive, and replaces dominated
+ * population members with new individuals created from the genotypes that
+ * were published by its predecessor. The immigrants are decoded and evaluated
+ * immediately by the components of this island such that the optimizer only
+ * encounters evaluated population members.
+ * <p>
+ * The {@link SATVectorGenotype}s of the immigrants refer to the
+ * {@link SATVectorIndex} of their island and are remapped into the index of
+ * this island by their variables (see {@link #remap(Genotype, Genotype)}).
+ */
+public class IslandMigration implements OptimizerIterationListener {
+
+	protected final IslandExploration exploration;
+	protected final int island;
+	protected final Population population;
+	protected final Archive archive;
+	protected final IndividualFactory individualFactory;
+	protected final IndividualCompleter completer;
+	protected final Copy<Genotype> copy;
+	protected final Map<SATVectorIndex, int[]> positions = new IdentityHashMap<SATVectorIndex, int[]>();
+
+	@Inject
+	public IslandMigration(IslandExploration exploration,
+			@Constant(value = "island", namespace = IslandMigration.class) int island, Population population,
+			Archive archive, IndividualFactory individualFactory, IndividualCompleter completer, Copy<Genotype> copy) {
+		this.exploration = exploration;
+		this.island = island;
+		this.population = population;
+		this.archive = archive;
+		this.individualFactory = individualFactory;
+		this.completer = completer;
+		this.copy = copy;
+	}
+
+	@Override
+	public void iterationComplete(int iteration) {
+		int interval = exploration.getMigrationInterval();
+		if (interval <= 0 || iteration % interval != 0) {
+			return;
+		}
+
+		exploration.update(archive);
+
+		if (exploration.getIslands() > 1) {
+			emigrate();
+			immigrate();
+		}
+	}
+
+	protected void emigrate() {
+		List<Genotype> genotypes = new ArrayList<Genotype>();
+		for (Individual individual : archive) {
+			if (genotypes.size() >= exploration.getMigrants()) {
+				break;
+			}
+			genotypes.add(copy.copy(individual.getGenotype()));
+		}
+		exploration.publish(island, genotypes);
+	}
+
+	protected void immigrate() {
+		List<Genotype> genotypes = exploration.take(island);
+		if (genotypes.isEmpty()) {
+			return;
+		}
+
+		// replace population members that are not in the archive
+		List<Individual> dominated = new ArrayList<Individual>();
+		for (Individual individual : population) {
+			if (!archive.contains(individual)) {
+				dominated.add(individual);
+			}
+		}
+
+		if (dominated.isEmpty()) {
+			return;
+		}
+		Genotype local = dominated.get(0).getGenotype();
+
+		List<Individual> immigrants = new ArrayList<Individual>();
+		for (Genotype genotype : genotypes) {
+			if (immigrants.size() >= dominated.size()) {
+				break;
+			}
+			immigrants.add(individualFactory.create(remap(copy.copy(genotype), local)));
+		}
+
+		try {
+			completer.complete(immigrants);
+		} catch (TerminationException e) {
+			return;
+		}
+
+		population.removeAll(dominated.subList(0, immigrants.size()));
+		population.addAll(immigrants);
+	}
+
+	/**
+	 * Remaps the {@link SATVectorGenotype}s of an immigrant genotype into the
+	 * {@link SATVectorIndex} of the corresponding genotypes of a local
+	 * genotype. The {@link CompositeGenotype}s are remapped per key. The
+	 * positions of the variables are computed once per foreign index.
+	 *
+	 * @param genotype
+	 *            the copy of the immigrant genotype
+	 * @param local
+	 *            a genotype of this island
+	 * @return the remapped genotype
+	 */
+	@SuppressWarnings("unchecked")
+	protected Genotype remap(Genotype genotype, Genotype local) {
+		if (genotype instanceof SATVectorGenotype && local instanceof SATVectorGenotype) {
+			SATVectorGenotype satGenotype = (SATVectorGenotype) genotype;
+			SATVectorIndex index = ((SATVectorGenotype) local).getIndex();
+			if (satGenotype.getIndex() != index) {
+				int[] p = positions.get(satGenotype.getIndex());
+				if (p == null) {
+					p = index.getPositions(satGenotype.getIndex());
+					positions.put(satGenotype.getIndex(), p);
+				}
+				return new SATVectorGenotype(satGenotype, index, p);
+			}
+		} else if (genotype instanceof CompositeGenotype && local instanceof CompositeGenotype) {
+			CompositeGenotype<Object, Genotype> composite = (CompositeGenotype<Object, Genotype>) genotype;
+			CompositeGenotype<Object, Genotype> localComposite = (CompositeGenotype<Object, Genotype>) local;
+			for (Object key : new ArrayList<Object>(composite.keySet())) {
+				Genotype localGenotype = localComposite.get(key);
+				if (localGenotype != null) {
+					Genotype value = composite.get(key);
+					composite.put(key, remap(value, localGenotype));
+				}
+			}
+		}
+		return genotype;
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.Collection;
+
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
+
+/**
+ * The {@code LazyConstraints} are constraints that are not part of the
+ * initial formula. Once the solver returned a model, the
+ * {@link SATCreatorDecoder} asks for the constraints that are violated by
+ * this model, adds them with {@link SATIncremental#add(Constraint)}, and
+ * solves again until no constraint is violated.
+ * <p>
+ * The lazy constraints are bound with a multibinder, see
+ * {@link OptimizationModule}.
+ */
+public interface LazyConstraints {
+
+	/**
+	 * Returns the constraints that are violated by the model. Constraints
+	 * that were returned before are not returned again, i.e., an empty
+	 * collection is returned if no further constraints have to be added.
+	 * 
+	 * @param model
+	 *            the model (including the variables that were removed by the
+	 *            preprocessing)
+	 * @return the violated constraints
+	 */
+	public Collection<Constraint> getViolatedConstraints(Model model);
+
+}
@@ -32,6 +32,7 @@ import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
 import net.sf.opendse.optimization.encoding.ImplementationEncoding;
 import net.sf.opendse.optimization.encoding.Interpreter;
 import net.sf.opendse.optimization.encoding.InterpreterSpecification;
+import net.sf.opendse.optimization.genotype.SATVectorOperatorModule;
 
 import org.opt4j.core.config.annotations.Parent;
 import org.opt4j.core.config.annotations.Required;
@@ -49,6 +50,12 @@ public class OptimizationModule extends ProblemModule {
 	@Constant(value = "preprocessing", namespace = SATConstraints.class)
 	protected boolean usePreprocessing = true;
 
+	@Constant(value = "symmetryBreaking", namespace = SATConstraints.class)
+	protected boolean useSymmetryBreaking = false;
+
+	@Constant(value = "partitions", namespace = SATConstraints.class)
+	protected int partitions = 1;
+
 	protected boolean stagnationRestartEnabled = true;
 
 	@Required(property = "stagnationRestartEnabled", elements = { "TRUE" })
@@ -74,6 +81,22 @@ public class OptimizationModule extends ProblemModule {
 		this.usePreprocessing = usePreprocessing;
 	}
 
+	public boolean isUseSymmetryBreaking() {
+		return useSymmetryBreaking;
+	}
+
+	public void setUseSymmetryBreaking(boolean useSymmetryBreaking) {
+		this.useSymmetryBreaking = useSymmetryBreaking;
+	}
+
+	public int getPartitions() {
+		return partitions;
+	}
+
+	public void setPartitions(int partitions) {
+		this.partitions = partitions;
+	}
+
 	public boolean isUseVariableOrder() {
 		return useVariableOrder;
 	}
@@ -102,6 +125,7 @@ public class OptimizationModule extends ProblemModule {
 	protected void config() {
 		bindProblem(DesignSpaceExplorationCreator.class, DesignSpaceExplorationDecoder.class,
 				DesignSpaceExplorationEvaluator.class);
+		install(new SATVectorOperatorModule());
 
 		VisualizationModule.addIndividualMouseListener(binder(), ImplementationWidgetService.class);
 		VisualizationModule.addToolBarService(binder(), SpecificationToolBarService.class);
@@ -115,6 +139,7 @@ public class OptimizationModule extends ProblemModule {
 		scmulti.addBinding().to(SpecificationRouterConstraints.class);
 
 		Multibinder.newSetBinder(binder(), ImplementationEvaluator.class);
+		Multibinder.newSetBinder(binder(), LazyConstraints.class);
 
 		if (stagnationRestartEnabled) {
 			addOptimizerIterationListener(StagnationRestart.class);
@@ -30,9 +30,14 @@ import java.util.Set;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.optimization.encoding.CommunicationLearn;
 import net.sf.opendse.optimization.encoding.Encoding;
+import net.sf.opendse.optimization.encoding.FunctionPartitioning;
 import net.sf.opendse.optimization.encoding.ImplementationEncoding;
+import net.sf.opendse.optimization.encoding.PartitionedEncoding;
 import net.sf.opendse.optimization.encoding.RoutingFilter;
+import net.sf.opendse.optimization.encoding.SymmetryBreaking;
 import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
+import net.sf.opendse.optimization.metrics.Metrics;
+import net.sf.opendse.optimization.metrics.Metrics.Sample;
 
 import org.opt4j.core.start.Constant;
 import org.opt4j.satdecoding.Constraint;
@@ -44,7 +49,10 @@ import com.google.inject.Singleton;
 
 /**
  * The {@code SATConstraints} objects initializes constraints and applies the
- * preprocessing.
+ * preprocessing. The functions may be encoded and preprocessed in
+ * partitions. Optionally, lexicographic constraints that break the
+ * symmetries of interchangeable resources are added (see
+ * {@link SymmetryBreaking}).
  * 
  * @author martin.lukasiewycz
  *
@@ -59,6 +67,11 @@ public class SATConstraints {
 	protected final boolean usePreprocessing;
 	protected boolean isInit = false;
 	protected ImplementationEncoding encoding;
+	protected Metrics metrics = Metrics.DISABLED;
+	protected boolean useSymmetryBreaking = false;
+	protected SymmetryBreaking symmetryBreaking = null;
+	protected int partitions = 1;
+	protected int threads = Runtime.getRuntime().availableProcessors();
 
 	@Inject
 	public SATConstraints(SpecificationWrapper specificationWrapper, ImplementationEncoding encoding, @Constant(value = "preprocessing", namespace = SATConstraints.class) boolean usePreprocessing) {
@@ -75,6 +88,44 @@ public class SATConstraints {
 		this.usePreprocessing = usePreprocessing;
 	}
 
+	@Inject(optional = true)
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Inject(optional = true)
+	public void setSymmetryBreaking(
+			@Constant(value = "symmetryBreaking", namespace = SATConstraints.class) boolean useSymmetryBreaking) {
+		this.useSymmetryBreaking = useSymmetryBreaking;
+	}
+
+	/**
+	 * Sets the number of partitions of the functions. If the encoding is a
+	 * {@link PartitionedEncoding} and more than one partition is requested,
+	 * the partitions are encoded and preprocessed in parallel (see
+	 * {@link FunctionPartitioning}).
+	 * 
+	 * @param partitions
+	 *            the number of partitions
+	 */
+	@Inject(optional = true)
+	public void setPartitions(@Constant(value = "partitions", namespace = SATConstraints.class) int partitions) {
+		this.partitions = partitions;
+	}
+
+	/**
+	 * Returns the {@link SymmetryBreaking} or {@code null} if the symmetry
+	 * breaking is disabled.
+	 * 
+	 * @return the symmetry breaking or {@code null}
+	 */
+	public synchronized SymmetryBreaking getSymmetryBreaking() {
+		if (!isInit) {
+			init();
+		}
+		return symmetryBreaking;
+	}
+
 	public synchronized List<Constraint> getConstraints() {
 		if (!isInit) {
 			init();
@@ -93,17 +144,62 @@ public class SATConstraints {
 		if (!isInit) {
 			// TODO rewrite this
 			Specification specification = specificationWrapper.getSpecification();
-			RoutingFilter.filter(specification);
+			Sample sample = metrics.start("RoutingFilter");
+			RoutingFilter.Report report = RoutingFilter.filter(specification);
+			sample.stop();
+			metrics.setValue("routings.resources.removed", report.getRemovedVertices());
+			metrics.setValue("routings.links.removed", report.getRemovedEdges());
 
-			Collection<Constraint> constraints = encoding.toConstraints();
+			// with partitions, the constraints are the shared constraints
+			sample = metrics.start("Encoding.toConstraints");
+			Collection<Constraint> constraints;
+			List<List<Constraint>> partitionConstraints = null;
+			if (partitions > 1 && encoding instanceof PartitionedEncoding) {
+				PartitionedEncoding partitionedEncoding = (PartitionedEncoding) encoding;
+				List<Specification> parts = FunctionPartitioning.partition(specification, partitions);
+				partitionConstraints = FunctionPartitioning.encode(partitionedEncoding, parts, threads);
+				constraints = new ArrayList<Constraint>(partitionedEncoding.toSharedConstraints());
+				metrics.setValue("partitions", parts.size());
+			} else {
+				constraints = encoding.toConstraints();
+			}
+			sample.stop();
+
+			Collection<Constraint> all = constraints;
+			if (partitionConstraints != null) {
+				all = new ArrayList<Constraint>(constraints);
+				for (List<Constraint> list : partitionConstraints) {
+					all.addAll(list);
+				}
+			}
+			metrics.setValue("constraints.encoding", all.size());
 
+			sample = metrics.start("CommunicationLearn");
 			CommunicationLearn clearn = new CommunicationLearn();
-			Set<Literal> learned = clearn.learn(constraints);
+			Set<Literal> learned = clearn.learn(all);
 			for (Literal literal : learned) {
 				Constraint constraint = new Constraint("=", 1);
 				constraint.add(literal);
 				constraints.add(constraint);
 			}
+			sample.stop();
+			metrics.setValue("constraints.learned", learned.size());
+
+			if (useSymmetryBreaking) {
+				sample = metrics.start("SymmetryBreaking");
+				Set<Object> variables = new HashSet<Object>();
+				for (Constraint constraint : all) {
+					for (Literal literal : constraint.getLiterals()) {
+						variables.add(literal.variable());
+					}
+				}
+				symmetryBreaking = new SymmetryBreaking(specification);
+				List<Constraint> symmetries = symmetryBreaking.toConstraints(variables);
+				constraints.addAll(symmetries);
+				sample.stop();
+				metrics.setValue("symmetry.classes", symmetryBreaking.getClasses().size());
+				metrics.setValue("constraints.symmetry", symmetries.size());
+			}
 			/*
 			 * for (Constraint constraint : constraints) {
 			 * System.out.println(constraint); }
@@ -111,8 +207,22 @@ public class SATConstraints {
 			// this.constraints.addAll(constraints);
 			
 			if(usePreprocessing){
+				if (partitionConstraints != null) {
+					sample = metrics.start("ConstraintPreprocessing.partitions");
+					List<Constraint> preprocessed = FunctionPartitioning.preprocess(partitionConstraints, threads);
+					sample.stop();
+					preprocessed.addAll(constraints);
+					constraints = preprocessed;
+				}
+				sample = metrics.start("ConstraintPreprocessing");
 				this.constraints.addAll(pp.process(constraints));
+				sample.stop();
 			} else {
+				if (partitionConstraints != null) {
+					for (List<Constraint> list : partitionConstraints) {
+						this.constraints.addAll(list);
+					}
+				}
 				this.constraints.addAll(constraints);
 			}
 
@@ -124,6 +234,9 @@ public class SATConstraints {
 			}
 			this.variables.addAll(variables);
 
+			metrics.setValue("constraints", this.constraints.size());
+			metrics.setValue("variables", this.variables.size());
+
 			isInit = true;
 		}
 	}
@@ -22,22 +22,34 @@
 package net.sf.opendse.optimization;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.optimization.encoding.Interpreter;
+import net.sf.opendse.optimization.encoding.SymmetryBreaking;
+import net.sf.opendse.optimization.genotype.SATVectorGenotype;
+import net.sf.opendse.optimization.genotype.SATVectorIndex;
+import net.sf.opendse.optimization.metrics.Metrics;
+import net.sf.opendse.optimization.metrics.Metrics.Sample;
 import org.opt4j.core.Genotype;
 import org.opt4j.core.common.random.Rand;
 import org.opt4j.core.optimizer.Control;
 import org.opt4j.core.start.Constant;
 import org.opt4j.satdecoding.AbstractSATDecoder;
 import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.ContradictionException;
 import org.opt4j.satdecoding.Model;
 import org.opt4j.satdecoding.SATManager;
+import org.opt4j.satdecoding.TimeoutException;
+import org.opt4j.satdecoding.VarOrder;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -53,6 +65,26 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 	protected final SpecificationWrapper specificationWrapper;
 	protected final Interpreter interpreter;
 	protected final Control control;
+	protected Metrics metrics = Metrics.DISABLED;
+	protected SATVectorIndex index = null;
+	protected Set<LazyConstraints> lazyConstraints = Collections.emptySet();
+	protected SATIncremental incremental = null;
+	protected final AtomicLong lazyCount = new AtomicLong();
+	protected final Map<Long, Long> canonicalHashes = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+			return size() > CANONICAL_HASHES_CAPACITY;
+		}
+	};
+	protected final AtomicLong symmetricCount = new AtomicLong();
+
+	/**
+	 * The maximal number of canonical hashes of recently decoded
+	 * implementations that are kept for counting symmetric duplicates.
+	 */
+	protected static final int CANONICAL_HASHES_CAPACITY = 4096;
 
 	@Inject
 	public SATCreatorDecoder(VariableClassOrder order, SATManager manager, Rand random, SATConstraints constraints,
@@ -66,6 +98,141 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 		this.control = control;
 	}
 
+	@Inject(optional = true)
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the {@link LazyConstraints} that are checked for each model.
+	 * 
+	 * @param lazyConstraints
+	 *            the lazy constraints
+	 * @param incremental
+	 *            the incremental solver interface used to add the violated
+	 *            constraints
+	 */
+	@Inject(optional = true)
+	public void setLazyConstraints(Set<LazyConstraints> lazyConstraints, SATIncremental incremental) {
+		this.lazyConstraints = lazyConstraints;
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Returns the index of the variables of the {@link SATVectorGenotype}. The
+	 * index is created once with the position of the class of each variable
+	 * in the {@link VariableClassOrder} and the resulting priority bounds.
+	 * 
+	 * @return the index of the variables
+	 */
+	public synchronized SATVectorIndex getIndex() {
+		if (index == null) {
+			if (!isInit) {
+				init();
+			}
+			List<Object> variables = getVariables();
+			int[] classes = new int[variables.size()];
+			for (int i = 0; i < classes.length; i++) {
+				classes[i] = order.indexOf(variables.get(i));
+			}
+			int orderSize = order.getOrderSize();
+			double[] lowerBounds = new double[orderSize];
+			double[] upperBounds = new double[orderSize];
+			for (int i = 0; i < orderSize; i++) {
+				lowerBounds[i] = getLowerOrderBound(orderSize, i);
+				upperBounds[i] = getUpperOrderBound(orderSize, i);
+			}
+			index = new SATVectorIndex(variables, classes, lowerBounds, upperBounds);
+		}
+		return index;
+	}
+
+	@Override
+	protected Genotype createSATGenotype() {
+		SATVectorGenotype genotype = new SATVectorGenotype(getIndex());
+		randomize(genotype);
+		return genotype;
+	}
+
+	@Override
+	protected Model decodeSATGenotype(Genotype genotype) {
+		Sample sample = metrics.start("SAT");
+		try {
+			Model model = solveSATGenotype(genotype);
+			while (model != null && addViolatedConstraints(model)) {
+				model = solveSATGenotype(genotype);
+			}
+			return model;
+		} finally {
+			sample.stop();
+		}
+	}
+
+	protected Model solveSATGenotype(Genotype genotype) {
+		if (genotype instanceof SATVectorGenotype) {
+			return solve((SATVectorGenotype) genotype);
+		}
+		return super.decodeSATGenotype(genotype);
+	}
+
+	/**
+	 * Adds the {@link LazyConstraints} that are violated by the model to the
+	 * solver.
+	 * 
+	 * @param model
+	 *            the model
+	 * @return {@code true} if constraints were added and the model has to be
+	 *         solved again
+	 */
+	protected boolean addViolatedConstraints(Model model) {
+		if (lazyConstraints.isEmpty()) {
+			return false;
+		}
+		Model decorated = constraints.decorate(model);
+		int count = 0;
+		for (LazyConstraints lazy : lazyConstraints) {
+			for (Constraint constraint : lazy.getViolatedConstraints(decorated)) {
+				incremental.add(constraint);
+				count++;
+			}
+		}
+		if (count > 0) {
+			metrics.setValue("constraints.lazy", lazyCount.addAndGet(count));
+		}
+		return count > 0;
+	}
+
+	/**
+	 * Solves the constraints with the phases and priorities of the given
+	 * genotype. The variable order is set up as by the {@code MixedSATManager}
+	 * of opt4j.
+	 * 
+	 * @param genotype
+	 *            the genotype
+	 * @return the model or {@code null} in case of a timeout
+	 */
+	protected Model solve(SATVectorGenotype genotype) {
+		SATVectorIndex index = genotype.getIndex();
+		VarOrder varOrder = new VarOrder();
+		for (int i = 0; i < index.size(); i++) {
+			Object variable = index.getVariable(i);
+			varOrder.setActivity(variable, genotype.getPriority(i));
+			varOrder.setPhase(variable, genotype.getPhase(i));
+		}
+		varOrder.setVarInc(1.0 / (2.0 * index.size()));
+		varOrder.setVarDecay(1.0 / 0.95);
+		try {
+			Model model = manager.getSolver().solve(varOrder);
+			if (model == null) {
+				throw new ContradictionException("no satisfying solution left");
+			}
+			return model;
+		} catch (TimeoutException e) {
+			System.err.println("timeout");
+			return null;
+		}
+	}
+
 	@Override
 	public ImplementationWrapper convertModel(Model model) {
 		if (model == null) {
@@ -75,25 +242,63 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 		}
 		model = constraints.decorate(model);
 		Specification specification = specificationWrapper.getSpecification();
+		Sample sample = metrics.start("Interpreter.toImplementation");
 		Specification implementation = interpreter.toImplementation(specification, model);
+		sample.stop();
+		SymmetryBreaking symmetryBreaking = constraints.getSymmetryBreaking();
+		if (implementation != null && symmetryBreaking != null && !symmetryBreaking.getClasses().isEmpty()) {
+			countSymmetricDuplicates(symmetryBreaking, implementation);
+		}
 		ImplementationWrapper wrapper = new ImplementationWrapper(implementation);
 		return wrapper;
 	}
 
+	/**
+	 * Counts the implementations that are symmetric duplicates of a recently
+	 * decoded implementation, i.e., that only differ by a permutation of
+	 * interchangeable resources. Only the {@link #CANONICAL_HASHES_CAPACITY}
+	 * most recently seen canonical hashes are kept. The count is reported as
+	 * the value {@code implementations.symmetric} of the {@link Metrics}.
+	 * 
+	 * @param symmetryBreaking
+	 *            the symmetry breaking
+	 * @param implementation
+	 *            the implementation
+	 * @return {@code true} if the implementation is a symmetric duplicate
+	 */
+	protected boolean countSymmetricDuplicates(SymmetryBreaking symmetryBreaking, Specification implementation) {
+		Long canonical = symmetryBreaking.getCanonicalHash(implementation);
+		Long hash = symmetryBreaking.getHash(implementation);
+		Long previous;
+		synchronized (canonicalHashes) {
+			previous = canonicalHashes.get(canonical);
+			if (previous == null) {
+				canonicalHashes.put(canonical, hash);
+			}
+		}
+		if (previous != null && !previous.equals(hash)) {
+			metrics.setValue("implementations.symmetric", symmetricCount.incrementAndGet());
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	public Set<Constraint> createConstraints() {
 		Set<Constraint> constraints = new HashSet<Constraint>(this.constraints.getConstraints());
 		return constraints;
 	}
 
-	@Override
-	public void randomize(Collection<Object> variables, Map<Object, Double> lowerBounds,
-			Map<Object, Double> upperBounds, Map<Object, Double> priorities, Map<Object, Boolean> phases) {
-		// Iterates the encoding variables. Without preprocessing, these are the
-		// variables used for the formulation of the SAT constraints. With
-		// activated constraint preprocessing, the set of variables iterated
-		// here is potentially smaller and may consists of simplified variables.
-		for (Object variable : variables) {
+	/**
+	 * Randomizes the phases and priorities of the given genotype.
+	 * 
+	 * @param genotype
+	 *            the genotype
+	 */
+	protected void randomize(SATVectorGenotype genotype) {
+		SATVectorIndex index = genotype.getIndex();
+		for (int i = 0; i < index.size(); i++) {
+			Object variable = index.getVariable(i);
 			// Sets the phases of the SAT-chromosomes during the randomized
 			// individual creation. If the phase is set to true, the
 			// corresponding variable will first be assigned to 1 during the
@@ -101,11 +306,11 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 			if (variable instanceof Resource) {
 				// The phase of a resource variable is initially set to 1 in 20
 				// % of all cases
-				phases.put(variable, random.nextDouble() < 0.2);
+				genotype.setPhase(i, random.nextDouble() < 0.2);
 			} else {
 				// All other variables are set randomly, i.e., they are set to 1
 				// in 50 % of all cases
-				phases.put(variable, random.nextDouble() < 0.5);
+				genotype.setPhase(i, random.nextDouble() < 0.5);
 			}
 			// The order genes of the SAT-genotypes correspond to the activity
 			// that the SAT-solver assigns to the variables during the
@@ -131,10 +336,25 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 			// class at list position 1 is assigned the activity interval
 			// between
 			// .2 and .4
-			double lbv = getLowerOrderBound(order.getOrderSize(), order.indexOf(variable));
-			double ubv = getUpperOrderBound(order.getOrderSize(), order.indexOf(variable));
+			double lbv = index.getLowerBound(i);
+			double ubv = index.getUpperBound(i);
 			double prio = lbv + random.nextDouble() * (ubv - lbv);
-			priorities.put(variable, prio);
+			genotype.setPriority(i, prio);
+		}
+	}
+
+	@Override
+	public void randomize(Collection<Object> variables, Map<Object, Double> lowerBounds,
+			Map<Object, Double> upperBounds, Map<Object, Double> priorities, Map<Object, Boolean> phases) {
+		// Same as randomize(SATVectorGenotype) for the map-based SAT genotype
+		// of opt4j.
+		int orderSize = order.getOrderSize();
+		for (Object variable : variables) {
+			phases.put(variable, random.nextDouble() < (variable instanceof Resource ? 0.2 : 0.5));
+			int orderIndex = order.indexOf(variable);
+			double lbv = getLowerOrderBound(orderSize, orderIndex);
+			double ubv = getUpperOrderBound(orderSize, orderIndex);
+			priorities.put(variable, lbv + random.nextDouble() * (ubv - lbv));
 		}
 	}
 
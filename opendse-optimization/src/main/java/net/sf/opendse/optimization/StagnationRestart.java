@@ -21,11 +21,14 @@
  *******************************************************************************/
 package net.sf.opendse.optimization;
 
+import java.util.List;
+
+import net.sf.opendse.optimization.archive.NDTreeArchive;
+import net.sf.opendse.optimization.archive.NDTreeArchive.DominanceListener;
+
 import org.opt4j.core.Individual;
 import org.opt4j.core.IndividualSet;
 import org.opt4j.core.IndividualSetListener;
-import org.opt4j.core.common.archive.CrowdingArchive;
-import org.opt4j.core.optimizer.Archive;
 import org.opt4j.core.optimizer.OptimizerIterationListener;
 import org.opt4j.core.optimizer.Population;
 import org.opt4j.core.start.Constant;
@@ -39,13 +42,17 @@ import com.google.inject.Inject;
  * individuals are generated for a defined period of time is considered as a
  * stagnation. The population is then cleared and new individuals are created
  * from scratch to prevent being stuck in a local optimum.
+ * <p>
+ * New individuals are detected by the {@link NDTreeArchive}: It reports each
+ * insertion of an individual that dominates archive members such that no
+ * pairwise comparison of the population and the archive is required.
  * 
  * @author lukasiewycz
  *
  */
-public class StagnationRestart implements IndividualSetListener, OptimizerIterationListener {
+public class StagnationRestart implements IndividualSetListener, OptimizerIterationListener, DominanceListener {
 
-	protected final Archive archive = new CrowdingArchive(100);
+	protected final NDTreeArchive archive = new NDTreeArchive(100);
 	protected final Population population;
 
 	protected int iteration = 0;
@@ -57,21 +64,13 @@ public class StagnationRestart implements IndividualSetListener, OptimizerIterat
 			@Constant(value = "maximalNumberStagnatingGenerations", namespace = StagnationRestart.class) int diff) {
 		this.population = population;
 		this.diff = diff;
+		archive.addDominanceListener(this);
 	}
 
 	@Override
 	public void iterationComplete(int iteration) {
 		this.iteration = iteration;
 
-		for (Individual in0 : population) {
-			for (Individual in1 : archive) {
-				if (in0.getObjectives().dominates(in1.getObjectives())) {
-					// new individuals are found
-					lastUpdate = iteration;
-				}
-			}
-		}
-
 		archive.update(population);
 
 		if (iteration - lastUpdate > diff) {
@@ -85,6 +84,12 @@ public class StagnationRestart implements IndividualSetListener, OptimizerIterat
 
 	}
 
+	@Override
+	public void individualDominates(Individual individual, List<Individual> dominated) {
+		// new individuals are found
+		lastUpdate = iteration;
+	}
+
 	@Override
 	public void individualAdded(IndividualSet collection, Individual individual) {
 		// No reaction needed
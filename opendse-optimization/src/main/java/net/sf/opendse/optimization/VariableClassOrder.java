@@ -1,6 +1,8 @@
 package net.sf.opendse.optimization;
 
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -25,6 +27,7 @@ import com.google.inject.Singleton;
 public class VariableClassOrder {
 
 	private final ArrayList<Class<?>> order = new ArrayList<Class<?>>();
+	private final Map<Class<?>, Integer> indices = new ConcurrentHashMap<Class<?>, Integer>();
 
 	/**
 	 * In the default case, the {@link Object} class is the only entry of the {@link VariableClassOrder}.
@@ -48,18 +51,26 @@ public class VariableClassOrder {
 
 	/**
 	 * Returns the lowest index of a class from which the given object is assignable. Returns a -1 if the given object
-	 * is not assignable from any of the classes that can be found in the order list.
+	 * is not assignable from any of the classes that can be found in the order list. The index is determined once per
+	 * class of the given objects.
 	 * 
 	 * @param object
 	 * @return lowest index that is assignable or -1 if not assignable
 	 */
 	public int indexOf(Object object) {
-		for (int i = 0; i < this.order.size(); i++) {
-			if (this.order.get(i).isAssignableFrom(object.getClass())) {
-				return i;
+		Class<?> objectClass = object.getClass();
+		Integer index = indices.get(objectClass);
+		if (index == null) {
+			index = -1;
+			for (int i = 0; i < this.order.size(); i++) {
+				if (this.order.get(i).isAssignableFrom(objectClass)) {
+					index = i;
+					break;
+				}
 			}
+			indices.put(objectClass, index);
 		}
-		return -1;
+		return index;
 	}
 
 	/**
@@ -75,6 +86,7 @@ public class VariableClassOrder {
 	 *            be set after variableClass
 	 */
 	public void add(Class<?> variableClass, Class<?>... beforeVariableClasses) {
+		indices.clear();
 		// remove the Object.class if it is in the list
 		if (order.contains(Object.class)) {
 			order.remove(Object.class);
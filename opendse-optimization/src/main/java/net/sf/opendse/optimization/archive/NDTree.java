@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.archive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code NDTree} is a spatial index of mutually non-dominated points
+ * (minimization) for fast dominance queries as proposed in "ND-Tree-based
+ * update: a fast algorithm for the dynamic non-dominance problem"
+ * (Jaszkiewicz and Lust, 2018).
+ * <p>
+ * Each node keeps the ideal point (the component-wise minimum) and the nadir
+ * point (the component-wise maximum) of the points in its subtree. A query
+ * only descends into a node if the bounds admit a dominance relation with
+ * the query point, and whole subtrees are decided at once if the bounds
+ * already imply the answer. Leafs are split into {@code dimension + 1}
+ * children once they exceed a maximal size.
+ * <p>
+ * The index itself does not check for dominance on insertion, i.e., the
+ * caller has to ensure that the inserted points are mutually non-dominated
+ * (otherwise, the queries remain correct but the pruning is less effective).
+ *
+ * @param <T>
+ *            the type of the indexed elements
+ */
+public class NDTree<T> {
+
+	protected static final int MAX_LEAF_SIZE = 20;
+
+	protected Node<T> root = null;
+	protected final Map<T, Node<T>> leafs = new HashMap<T, Node<T>>();
+
+	/**
+	 * Returns the number of indexed elements.
+	 *
+	 * @return the number of indexed elements
+	 */
+	public int size() {
+		return leafs.size();
+	}
+
+	/**
+	 * Returns {@code true} if the element is indexed.
+	 *
+	 * @param element
+	 *            the element
+	 * @return {@code true} if the element is indexed
+	 */
+	public boolean contains(T element) {
+		return leafs.containsKey(element);
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public void clear() {
+		root = null;
+		leafs.clear();
+	}
+
+	/**
+	 * Adds an element with its point.
+	 *
+	 * @param element
+	 *            the element
+	 * @param point
+	 *            the point (minimization)
+	 */
+	public void add(T element, double[] point) {
+		if (leafs.containsKey(element)) {
+			return;
+		}
+		if (root == null) {
+			root = new Node<T>(null, point.length);
+		}
+		Node<T> node = root;
+		while (!node.isLeaf()) {
+			node.extend(point);
+			node = node.getClosestChild(point);
+		}
+		node.extend(point);
+		node.elements.add(element);
+		node.points.add(point);
+		leafs.put(element, node);
+
+		if (node.elements.size() > MAX_LEAF_SIZE) {
+			split(node);
+		}
+	}
+
+	/**
+	 * Removes an element.
+	 *
+	 * @param element
+	 *            the element
+	 * @return {@code true} if the element was indexed
+	 */
+	public boolean remove(T element) {
+		Node<T> leaf = leafs.remove(element);
+		if (leaf == null) {
+			return false;
+		}
+		int i = leaf.elements.indexOf(element);
+		leaf.elements.remove(i);
+		leaf.points.remove(i);
+
+		Node<T> node = leaf;
+		while (node != null) {
+			Node<T> parent = node.parent;
+			if (node.isEmpty()) {
+				if (parent == null) {
+					root = null;
+				} else {
+					parent.children.remove(node);
+				}
+			} else {
+				node.updateBounds();
+			}
+			node = parent;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if an indexed point weakly dominates the given
+	 * point, i.e., is less or equal in each component.
+	 *
+	 * @param point
+	 *            the point
+	 * @return {@code true} if the point is weakly dominated
+	 */
+	public boolean isWeaklyDominated(double[] point) {
+		return root != null && isWeaklyDominated(root, point);
+	}
+
+	protected boolean isWeaklyDominated(Node<T> node, double[] point) {
+		if (!weaklyDominates(node.ideal, point)) {
+			return false;
+		} else if (weaklyDominates(node.nadir, point)) {
+			return true;
+		} else if (node.isLeaf()) {
+			for (double[] p : node.points) {
+				if (weaklyDominates(p, point)) {
+					return true;
+				}
+			}
+			return false;
+		} else {
+			for (Node<T> child : node.children) {
+				if (isWeaklyDominated(child, point)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the elements whose points are dominated by the given point.
+	 *
+	 * @param point
+	 *            the point
+	 * @return the dominated elements
+	 */
+	public List<T> getDominated(double[] point) {
+		List<T> dominated = new ArrayList<T>();
+		if (root != null) {
+			collectDominated(root, point, dominated);
+		}
+		return dominated;
+	}
+
+	protected void collectDominated(Node<T> node, double[] point, Collection<T> dominated) {
+		if (!weaklyDominates(point, node.nadir)) {
+			return;
+		} else if (dominates(point, node.ideal)) {
+			collectAll(node, dominated);
+		} else if (node.isLeaf()) {
+			for (int i = 0; i < node.points.size(); i++) {
+				if (dominates(point, node.points.get(i))) {
+					dominated.add(node.elements.get(i));
+				}
+			}
+		} else {
+			for (Node<T> child : node.children) {
+				collectDominated(child, point, dominated);
+			}
+		}
+	}
+
+	protected void collectAll(Node<T> node, Collection<T> elements) {
+		if (node.isLeaf()) {
+			elements.addAll(node.elements);
+		} else {
+			for (Node<T> child : node.children) {
+				collectAll(child, elements);
+			}
+		}
+	}
+
+	/**
+	 * Splits an overfull leaf into {@code dimension + 1} leafs. The first seed
+	 * is the point with the largest average distance to the other points,
+	 * each further seed is the point with the largest distance to the
+	 * previous seeds. The remaining points are assigned to the closest leaf.
+	 *
+	 * @param leaf
+	 *            the overfull leaf
+	 */
+	protected void split(Node<T> leaf) {
+		List<T> elements = leaf.elements;
+		List<double[]> points = leaf.points;
+		int n = points.size();
+		int branches = Math.min(n, leaf.ideal.length + 1);
+
+		double[] average = new double[n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				double d = distance(points.get(i), points.get(j));
+				average[i] += d;
+				average[j] += d;
+			}
+		}
+		int first = 0;
+		for (int i = 1; i < n; i++) {
+			if (average[i] > average[first]) {
+				first = i;
+			}
+		}
+
+		leaf.elements = new ArrayList<T>();
+		leaf.points = new ArrayList<double[]>();
+		leaf.children = new ArrayList<Node<T>>();
+
+		boolean[] assigned = new boolean[n];
+		double[] minDistance = new double[n];
+		Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+		int seed = first;
+		for (int b = 0; b < branches; b++) {
+			Node<T> child = new Node<T>(leaf, leaf.ideal.length);
+			leaf.children.add(child);
+			assign(child, elements.get(seed), points.get(seed));
+			assigned[seed] = true;
+
+			int next = -1;
+			for (int i = 0; i < n; i++) {
+				if (!assigned[i]) {
+					minDistance[i] = Math.min(minDistance[i], distance(points.get(i), points.get(seed)));
+					if (next < 0 || minDistance[i] > minDistance[next]) {
+						next = i;
+					}
+				}
+			}
+			seed = next;
+		}
+
+		for (int i = 0; i < n; i++) {
+			if (!assigned[i]) {
+				assign(leaf.getClosestChild(points.get(i)), elements.get(i), points.get(i));
+			}
+		}
+	}
+
+	protected void assign(Node<T> leaf, T element, double[] point) {
+		leaf.extend(point);
+		leaf.elements.add(element);
+		leaf.points.add(point);
+		leafs.put(element, leaf);
+	}
+
+	protected static boolean weaklyDominates(double[] a, double[] b) {
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] > b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static boolean dominates(double[] a, double[] b) {
+		boolean strict = false;
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] > b[i]) {
+				return false;
+			} else if (a[i] < b[i]) {
+				strict = true;
+			}
+		}
+		return strict;
+	}
+
+	protected static double distance(double[] a, double[] b) {
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			double d = a[i] - b[i];
+			sum += d * d;
+		}
+		return sum;
+	}
+
+	/**
+	 * A node of the tree. A leaf contains elements, an inner node contains
+	 * children.
+	 *
+	 * @param <T>
+	 *            the type of the indexed elements
+	 */
+	protected static class Node<T> {
+
+		protected final Node<T> parent;
+		protected final double[] ideal;
+		protected final double[] nadir;
+		protected List<Node<T>> children = null;
+		protected List<T> elements = new ArrayList<T>();
+		protected List<double[]> points = new ArrayList<double[]>();
+
+		protected Node(Node<T> parent, int dimension) {
+			this.parent = parent;
+			this.ideal = new double[dimension];
+			this.nadir = new double[dimension];
+			Arrays.fill(ideal, Double.POSITIVE_INFINITY);
+			Arrays.fill(nadir, Double.NEGATIVE_INFINITY);
+		}
+
+		protected boolean isLeaf() {
+			return children == null;
+		}
+
+		protected boolean isEmpty() {
+			return isLeaf() ? elements.isEmpty() : children.isEmpty();
+		}
+
+		protected void extend(double[] point) {
+			for (int i = 0; i < point.length; i++) {
+				ideal[i] = Math.min(ideal[i], point[i]);
+				nadir[i] = Math.max(nadir[i], point[i]);
+			}
+		}
+
+		protected void updateBounds() {
+			Arrays.fill(ideal, Double.POSITIVE_INFINITY);
+			Arrays.fill(nadir, Double.NEGATIVE_INFINITY);
+			if (isLeaf()) {
+				for (double[] point : points) {
+					extend(point);
+				}
+			} else {
+				for (Node<T> child : children) {
+					extend(child.ideal);
+					extend(child.nadir);
+				}
+			}
+		}
+
+		protected Node<T> getClosestChild(double[] point) {
+			Node<T> closest = null;
+			double min = Double.POSITIVE_INFINITY;
+			for (Node<T> child : children) {
+				double d = 0;
+				for (int i = 0; i < point.length; i++) {
+					double c = point[i] - (child.ideal[i] + child.nadir[i]) / 2;
+					d += c * c;
+				}
+				if (closest == null || d < min) {
+					closest = child;
+					min = d;
+				}
+			}
+			return closest;
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.archive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.opt4j.core.Individual;
+import org.opt4j.core.IndividualSet;
+import org.opt4j.core.IndividualSetListener;
+import org.opt4j.core.common.archive.Crowding;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code NDTreeArchive} is a Pareto archive that uses an {@link NDTree}
+ * for the dominance checks. While the archives of opt4j compare each
+ * candidate with each archive member, a candidate is checked here with a
+ * number of comparisons that is roughly logarithmic in the archive size
+ * which pays off for many objectives and large archives.
+ * <p>
+ * The archive is unbounded if the capacity is not positive. Otherwise, the
+ * individuals with the lowest crowding distances are removed if the capacity
+ * is exceeded (as in the {@code CrowdingArchive}).
+ * <p>
+ * Each insertion of a candidate that dominates archive members is reported
+ * to the registered {@link DominanceListener}s such that progress can be
+ * detected without comparing populations and archives.
+ */
+public class NDTreeArchive extends Archive {
+
+	/**
+	 * The {@code DominanceListener} is notified if an individual that
+	 * dominates archive members is added to the archive.
+	 */
+	public interface DominanceListener {
+
+		/**
+		 * Called if an individual that dominates archive members is added.
+		 *
+		 * @param individual
+		 *            the added individual
+		 * @param dominated
+		 *            the removed archive members
+		 */
+		public void individualDominates(Individual individual, List<Individual> dominated);
+	}
+
+	protected final int capacity;
+	protected final NDTree<Individual> tree = new NDTree<Individual>();
+	protected final List<DominanceListener> dominanceListeners = new CopyOnWriteArrayList<DominanceListener>();
+
+	/**
+	 * Constructs an unbounded {@code NDTreeArchive}.
+	 */
+	public NDTreeArchive() {
+		this(0);
+	}
+
+	/**
+	 * Constructs an {@code NDTreeArchive}.
+	 *
+	 * @param capacity
+	 *            the capacity (unbounded if not positive)
+	 */
+	@Inject
+	public NDTreeArchive(@Constant(value = "capacity", namespace = NDTreeArchive.class) int capacity) {
+		this.capacity = capacity;
+		// keeps the index consistent for all modifications of the set
+		addListener(new IndividualSetListener() {
+			@Override
+			public void individualAdded(IndividualSet collection, Individual individual) {
+				tree.add(individual, individual.getObjectives().array());
+			}
+
+			@Override
+			public void individualRemoved(IndividualSet collection, Individual individual) {
+				tree.remove(individual);
+			}
+		});
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void addDominanceListener(DominanceListener listener) {
+		dominanceListeners.add(listener);
+	}
+
+	public void removeDominanceListener(DominanceListener listener) {
+		dominanceListeners.remove(listener);
+	}
+
+	@Override
+	public boolean update(Set<? extends Individual> candidates) {
+		boolean changed = false;
+		for (Individual candidate : candidates) {
+			if (contains(candidate)) {
+				continue;
+			}
+			double[] point = candidate.getObjectives().array();
+			if (tree.isWeaklyDominated(point)) {
+				continue;
+			}
+			List<Individual> dominated = tree.getDominated(point);
+			for (Individual individual : dominated) {
+				remove(individual);
+			}
+			addCheckedIndividual(candidate);
+			changed = true;
+
+			if (!dominated.isEmpty()) {
+				for (DominanceListener listener : dominanceListeners) {
+					listener.individualDominates(candidate, dominated);
+				}
+			}
+		}
+		if (capacity > 0 && size() > capacity) {
+			truncate();
+		}
+		return changed;
+	}
+
+	/**
+	 * Removes the individuals with the lowest crowding distances such that
+	 * the capacity is met.
+	 */
+	protected void truncate() {
+		Crowding crowding = new Crowding();
+		Map<Individual, Double> values = crowding.getDensityValues(new ArrayList<Individual>(this));
+		List<Individual> order = crowding.order(values);
+		removeAll(new ArrayList<Individual>(order.subList(capacity, order.size())));
+	}
+
+}
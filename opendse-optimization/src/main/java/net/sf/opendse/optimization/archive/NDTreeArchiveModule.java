@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.archive;
+
+import net.sf.opendse.optimization.DesignSpaceExplorationModule;
+
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Singleton;
+
+/**
+ * The {@code NDTreeArchiveModule} binds the {@link NDTreeArchive} as the
+ * archive of the optimizer. It replaces the {@code ArchiveModule} of opt4j.
+ */
+@Info("An archive with an ND-tree index for fast dominance checks.")
+public class NDTreeArchiveModule extends DesignSpaceExplorationModule {
+
+	@Order(0)
+	@Info("The capacity of the archive (unbounded if not positive).")
+	@Constant(value = "capacity", namespace = NDTreeArchive.class)
+	protected int capacity = 100;
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	protected void config() {
+		bind(Archive.class).to(NDTreeArchive.class).in(Singleton.class);
+	}
+
+}
@@ -72,7 +72,6 @@ public class SpecificationCapacityConstraints extends AbstractSpecificationConst
 
 	protected void initConstraints() {
 		Architecture<Resource, Link> architecture = specification.getArchitecture();
-		Routings<Task, Resource, Link> routings = specification.getRoutings();
 
 		for (CapacityConstraint<?> capacityConstraint : capacityConstraints) {
 			Element element = capacityConstraint.getElement();
@@ -93,7 +92,11 @@ public class SpecificationCapacityConstraints extends AbstractSpecificationConst
 			}
 
 			List<Term> terms = new ArrayList<Term>();
+			List<DirectedLink> links = (element instanceof Link) ? getLinks(architecture, (Link) element)
+					: new ArrayList<DirectedLink>();
 
+			// the communications are only contained if their routings contain
+			// the element
 			for (Entry<Element, Integer> entry : elements.entrySet()) {
 				Element e = entry.getKey();
 				int value = entry.getValue();
@@ -103,12 +106,11 @@ public class SpecificationCapacityConstraints extends AbstractSpecificationConst
 				} else if (e instanceof Task) { // assume its a
 												// communication task
 					Task task = (Task) e;
-					Architecture<Resource, Link> routing = routings.get(task);
-					if (element instanceof Resource && routing.containsVertex((Resource) element)) {
+					if (element instanceof Resource) {
 						Term term = new Term(value, p(var(task, (Resource) element)));
 						terms.add(term);
-					} else if (element instanceof Link && routing.containsEdge((Link) element)) {
-						for (DirectedLink lrr : getLinks(architecture, (Link) element)) {
+					} else {
+						for (DirectedLink lrr : links) {
 							Term term = new Term(value, p(var(task, lrr)));
 							terms.add(term);
 						}
@@ -166,9 +168,8 @@ public class SpecificationCapacityConstraints extends AbstractSpecificationConst
 		Set<CapacityConstraint<?>> capacityConstraints = new HashSet<CapacityConstraint<?>>();
 
 		Architecture<Resource, Link> architecture = specification.getArchitecture();
-		Application<Task, Dependency> application = specification.getApplication();
 		Mappings<Task, Resource> mappings = specification.getMappings();
-		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		Map<Element, List<Task>> routedCommunications = null;
 
 		Set<Element> allElements = new HashSet<Element>();
 		allElements.addAll(architecture.getVertices());
@@ -210,24 +211,18 @@ public class SpecificationCapacityConstraints extends AbstractSpecificationConst
 						}
 
 						if (bC) {
-							for (Task communication : filterCommunications(application)) {
-								Integer v = communication.getAttribute(name);
-
-								if (v != null && v != 0) {
-									Architecture<Resource, Link> routing = routings.get(communication);
-
-									boolean isIn = false;
-									if (e instanceof Resource && routing.containsVertex((Resource) e)) {
-										isIn = true;
-									} else if (e instanceof Link && routing.containsEdge((Link) e)) {
-										isIn = true;
-									}
+							if (routedCommunications == null) {
+								routedCommunications = getRoutedCommunications(specification);
+							}
+							List<Task> communications = routedCommunications.get(e);
+							if (communications != null) {
+								for (Task communication : communications) {
+									Integer v = communication.getAttribute(name);
 
-									if (isIn) {
+									if (v != null && v != 0) {
 										elements.put(communication, v);
 									}
 								}
-
 							}
 						}
 
@@ -247,6 +242,45 @@ public class SpecificationCapacityConstraints extends AbstractSpecificationConst
 		return capacityConstraints;
 	}
 
+	/**
+	 * Returns the communications that are routed over each resource and link,
+	 * i.e., the communications whose routings contain the respective element.
+	 * The index is created in a single pass over the routings.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @return the communications for each resource and link
+	 */
+	protected static Map<Element, List<Task>> getRoutedCommunications(Specification specification) {
+		Application<Task, Dependency> application = specification.getApplication();
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		Set<Task> routed = routings.getTasks();
+
+		Map<Element, List<Task>> routedCommunications = new HashMap<Element, List<Task>>();
+		for (Task communication : filterCommunications(application)) {
+			// avoid the creation of empty routings by the lazy map
+			if (routed.contains(communication)) {
+				Architecture<Resource, Link> routing = routings.get(communication);
+				for (Resource resource : routing) {
+					add(routedCommunications, resource, communication);
+				}
+				for (Link link : routing.getEdges()) {
+					add(routedCommunications, link, communication);
+				}
+			}
+		}
+		return routedCommunications;
+	}
+
+	private static void add(Map<Element, List<Task>> map, Element element, Task communication) {
+		List<Task> communications = map.get(element);
+		if (communications == null) {
+			communications = new ArrayList<Task>();
+			map.put(element, communications);
+		}
+		communications.add(communication);
+	}
+
 	private static class CapacityConstraint<E extends Element> {
 
 		protected final E element;
@@ -34,13 +34,16 @@ import static net.sf.opendse.optimization.encoding.variables.Variables.var;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.CompiledSpecification;
 import net.sf.opendse.model.Dependency;
-import net.sf.opendse.model.Edge;
 import net.sf.opendse.model.Link;
 import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Mappings;
@@ -49,6 +52,7 @@ import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Routings;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.CompiledSpecificationWrapper;
 import net.sf.opendse.optimization.SpecificationWrapper;
 import net.sf.opendse.optimization.constraints.SpecificationConstraints;
 import net.sf.opendse.optimization.encoding.variables.CLRR;
@@ -63,11 +67,17 @@ import edu.uci.ics.jung.graph.util.Pair;
 /**
  * The {@code Encoding} transforms the exploration problem into a set of
  * constraints.
+ * <p>
+ * The constraints of the mappings and routings of the functions only share
+ * the resource and link variables and are encoded by
+ * {@link #toConstraints(Specification)} for any partition of the functions.
+ * The constraints of the allocation and the {@link SpecificationConstraints}
+ * are encoded by {@link #toSharedConstraints()}.
  * 
  * @author Martin Lukasiewycz
  * 
  */
-public class Encoding implements ImplementationEncoding{
+public class Encoding implements PartitionedEncoding {
 
 	public static List<Class<?>> order = Arrays.<Class<?>>asList(Resource.class, Link.class, Mapping.class, CR.class,
 			CLRR.class);
@@ -101,12 +111,42 @@ public class Encoding implements ImplementationEncoding{
 	protected final SpecificationConstraints specificationConstraints;
 	protected final RoutingEncoding routingEncoding;
 	protected final Specification specification;
+	protected final CompiledSpecificationWrapper compiledSpecificationWrapper;
+	protected final Map<Specification, CompiledSpecification> compiledPartitions = Collections
+			.synchronizedMap(new IdentityHashMap<Specification, CompiledSpecification>());
 
 	@Inject
-	public Encoding(SpecificationConstraints specificationConstraints, RoutingEncoding routingEncoding, SpecificationWrapper specificationWrapper) {
+	public Encoding(SpecificationConstraints specificationConstraints, RoutingEncoding routingEncoding,
+			SpecificationWrapper specificationWrapper, CompiledSpecificationWrapper compiledSpecificationWrapper) {
 		this.specificationConstraints = specificationConstraints;
 		this.routingEncoding = routingEncoding;
 		this.specification = specificationWrapper.getSpecification();
+		this.compiledSpecificationWrapper = compiledSpecificationWrapper;
+	}
+
+	/**
+	 * Returns the compiled specification. The shared compiled specification is
+	 * used if it belongs to the given specification. A partition is compiled
+	 * once while its constraints are generated.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @return the compiled specification
+	 */
+	protected CompiledSpecification compile(Specification specification) {
+		if (specification != this.specification) {
+			CompiledSpecification compiled = compiledPartitions.get(specification);
+			if (compiled == null) {
+				compiled = new CompiledSpecification(specification);
+				compiledPartitions.put(specification, compiled);
+			}
+			return compiled;
+		}
+		CompiledSpecification compiled = compiledSpecificationWrapper.getCompiledSpecification();
+		if (compiled.getSpecification() != specification) {
+			compiled = new CompiledSpecification(specification);
+		}
+		return compiled;
 	}
 
 	/**
@@ -117,12 +157,17 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ1(List<Constraint> constraints, Specification specification) {
-		for (Task task : filterProcesses(specification.getApplication())) {
-			Constraint constraint = new Constraint("=", 1);
-			for (Mapping<Task, Resource> m : specification.getMappings().get(task)) {
-				constraint.add(p(m));
+		CompiledSpecification cs = compile(specification);
+		int[] offsets = cs.getTaskMappingOffsets();
+		int[] taskMappings = cs.getTaskMappings();
+		for (int t = 0; t < cs.getTaskCount(); t++) {
+			if (isProcess(cs.getTask(t))) {
+				Constraint constraint = new Constraint("=", 1);
+				for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+					constraint.add(p(cs.getMapping(taskMappings[i])));
+				}
+				constraints.add(constraint);
 			}
-			constraints.add(constraint);
 		}
 	}
 
@@ -134,11 +179,11 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ2(List<Constraint> constraints, Specification specification) {
-		for (Mapping<Task, Resource> m : specification.getMappings()) {
+		CompiledSpecification cs = compile(specification);
+		for (int m = 0; m < cs.getMappingCount(); m++) {
 			Constraint constraint = new Constraint(">=", 0);
-			Resource r = m.getTarget();
-			constraint.add(p(r));
-			constraint.add(-1, p(m));
+			constraint.add(p(cs.getMapping(m).getTarget()));
+			constraint.add(-1, p(cs.getMapping(m)));
 			constraints.add(constraint);
 		}
 	}
@@ -151,20 +196,26 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ3EQ4(List<Constraint> constraints, Specification specification) {
-		for (Dependency dependency : specification.getApplication().getEdges()) {
-			Task p0 = specification.getApplication().getSource(dependency);
-			Task p1 = specification.getApplication().getDest(dependency);
-
-			if (isProcess(p0) && isProcess(p1)) {
+		CompiledSpecification cs = compile(specification);
+		int[] offsets = cs.getTaskMappingOffsets();
+		int[] taskMappings = cs.getTaskMappings();
+		for (int d = 0; d < cs.getDependencyCount(); d++) {
+			int t0 = cs.getDependencySource(d);
+			int t1 = cs.getDependencyDestination(d);
+
+			if (isProcess(cs.getTask(t0)) && isProcess(cs.getTask(t1))) {
 				// both tasks are processes
-				for (Mapping<Task, Resource> m0 : specification.getMappings().get(p0)) {
-					for (Mapping<Task, Resource> m1 : specification.getMappings().get(p1)) {
-						Resource r0 = m0.getTarget();
-						Resource r1 = m1.getTarget();
+				for (int i0 = offsets[t0]; i0 < offsets[t0 + 1]; i0++) {
+					for (int i1 = offsets[t1]; i1 < offsets[t1 + 1]; i1++) {
+						Mapping<Task, Resource> m0 = cs.getMapping(taskMappings[i0]);
+						Mapping<Task, Resource> m1 = cs.getMapping(taskMappings[i1]);
+						int r0 = cs.getMappingTarget(taskMappings[i0]);
+						int r1 = cs.getMappingTarget(taskMappings[i1]);
 
-						Edge l = specification.getArchitecture().findEdge(r0, r1);
+						int link = cs.findLink(r0, r1);
 
-						if (l != null) {
+						if (link >= 0) {
+							Link l = cs.getLink(link);
 							// case where there is a link connecting the mapping
 							// targets of both processes
 							Constraint constraint = new Constraint(">=", -1); // EQ3
@@ -172,7 +223,7 @@ public class Encoding implements ImplementationEncoding{
 							constraint.add(-1, p(m0));
 							constraint.add(-1, p(m1));
 							constraints.add(constraint);
-						} else if (!r0.equals(r1)) {
+						} else if (r0 != r1) {
 							// the processes are mapped to two different
 							// resources that are not connected by a link => at
 							// most one of the considered mapping edges may be
@@ -196,13 +247,13 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ5(List<Constraint> constraints, Specification specification) {
-		for (Link l : specification.getArchitecture().getEdges()) {
-			Pair<Resource> pair = specification.getArchitecture().getEndpoints(l);
-			Resource r0 = pair.getFirst();
-			Resource r1 = pair.getSecond();
+		CompiledSpecification cs = compile(specification);
+		for (int l = 0; l < cs.getLinkCount(); l++) {
+			Resource r0 = cs.getResource(cs.getLinkSource(l));
+			Resource r1 = cs.getResource(cs.getLinkDestination(l));
 
 			Constraint constraint = new Constraint(">=", 0);
-			constraint.add(-2, p(l));
+			constraint.add(-2, p(cs.getLink(l)));
 			constraint.add(p(r0));
 			constraint.add(p(r1));
 			constraints.add(constraint);
@@ -217,9 +268,13 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ6(List<Constraint> constraints, Specification specification) {
-		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-			for (Resource r : routing) {
+		CompiledSpecification cs = compile(specification);
+		int[] offsets = cs.getRoutingResourceOffsets();
+		int[] routingResources = cs.getRoutingResources();
+		for (int m = 0; m < cs.getMessageCount(); m++) {
+			Task c = cs.getTask(cs.getMessageTask(m));
+			for (int i = offsets[m]; i < offsets[m + 1]; i++) {
+				Resource r = cs.getResource(routingResources[i]);
 				Constraint constraint = new Constraint(">=", 0);
 				constraint.add(p(r));
 				constraint.add(-1, p(var(c, r)));
@@ -703,6 +758,21 @@ public class Encoding implements ImplementationEncoding{
 
 	@Override
 	public List<Constraint> toConstraints() {
+		List<Constraint> constraints = toConstraints(specification);
+		constraints.addAll(toSharedConstraints());
+		return constraints;
+	}
+
+	@Override
+	public List<Constraint> toConstraints(Specification specification) {
+		try {
+			return encode(specification);
+		} finally {
+			compiledPartitions.remove(specification);
+		}
+	}
+
+	protected List<Constraint> encode(Specification specification) {
 		List<Constraint> constraints = new ArrayList<Constraint>();
 
 		Application<Task, Dependency> application = specification.getApplication();
@@ -712,7 +782,6 @@ public class Encoding implements ImplementationEncoding{
 		EQ1(constraints, specification);
 		EQ2(constraints, specification);
 		EQ3EQ4(constraints, specification);
-		EQ5(constraints, specification);
 		EQ6(constraints, specification);
 
 		EQ7(constraints, specification);
@@ -843,6 +912,14 @@ public class Encoding implements ImplementationEncoding{
 			}
 		}
 
+		return constraints;
+	}
+
+	@Override
+	public List<Constraint> toSharedConstraints() {
+		List<Constraint> constraints = new ArrayList<Constraint>();
+
+		EQ5(constraints, specification);
 		EQ30(constraints, specification);
 
 		specificationConstraints.doEncoding(constraints);
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.encoding;
+
+import static net.sf.opendse.model.Models.isCommunication;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
+
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+
+/**
+ * The {@code FunctionPartitioning} splits the functions of a specification
+ * into partitions that are encoded and preprocessed separately.
+ * <p>
+ * The functions are coupled only by the resources that they may use. Two
+ * functions are independent if their mapping targets and routing resources
+ * are disjoint. The independent groups of functions are kept together and
+ * large groups are split into partitions of functions that use similar
+ * resources. The partitions have about the same size, measured by the
+ * number of tasks, mappings, and routing resources.
+ * <p>
+ * Each partition is a {@link Specification} with the application, mappings,
+ * and routings of its functions and the architecture of the specification.
+ * The constraints of the partitions are generated by a
+ * {@link PartitionedEncoding} and preprocessed in parallel. The units and
+ * equalities learned for a partition are valid for the complete problem and
+ * are added as constraints such that the final preprocessing of all
+ * constraints applies them to the shared constraints as well.
+ */
+public class FunctionPartitioning {
+
+	/**
+	 * Splits the functions of the specification into partitions.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param partitions
+	 *            the desired number of partitions
+	 * @return the partitions
+	 */
+	public static List<Specification> partition(Specification specification, int partitions) {
+		Application<Task, Dependency> application = specification.getApplication();
+		Mappings<Task, Resource> mappings = specification.getMappings();
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+
+		final List<Function<Task, Dependency>> functions = new ArrayList<Function<Task, Dependency>>(
+				application.getFunctions());
+		final Map<Function<Task, Dependency>, String> firstTask = new HashMap<Function<Task, Dependency>, String>();
+		for (Function<Task, Dependency> function : functions) {
+			String id = null;
+			for (Task task : function) {
+				if (id == null || task.getId().compareTo(id) < 0) {
+					id = task.getId();
+				}
+			}
+			firstTask.put(function, id);
+		}
+		Collections.sort(functions, new Comparator<Function<Task, Dependency>>() {
+			@Override
+			public int compare(Function<Task, Dependency> f0, Function<Task, Dependency> f1) {
+				return firstTask.get(f0).compareTo(firstTask.get(f1));
+			}
+		});
+
+		// the resources and the size of each function
+		int n = functions.size();
+		final String[] firstResource = new String[n];
+		int[] weights = new int[n];
+		int[] parents = new int[n];
+		Map<Resource, Integer> owners = new HashMap<Resource, Integer>();
+		int total = 0;
+		for (int f = 0; f < n; f++) {
+			parents[f] = f;
+			List<Resource> resources = new ArrayList<Resource>();
+			for (Task task : functions.get(f)) {
+				weights[f]++;
+				if (isCommunication(task)) {
+					Architecture<Resource, Link> routing = routings.get(task);
+					if (routing != null) {
+						for (Resource resource : routing) {
+							resources.add(resource);
+						}
+					}
+				} else {
+					resources.addAll(mappings.getTargets(task));
+				}
+			}
+			weights[f] += resources.size();
+			total += weights[f];
+
+			for (Resource resource : resources) {
+				if (firstResource[f] == null || resource.getId().compareTo(firstResource[f]) < 0) {
+					firstResource[f] = resource.getId();
+				}
+				Integer owner = owners.get(resource);
+				if (owner == null) {
+					owners.put(resource, f);
+				} else {
+					union(parents, owner, f);
+				}
+			}
+		}
+
+		// independent groups of functions, ordered by their first function
+		Map<Integer, List<Integer>> groups = new LinkedHashMap<Integer, List<Integer>>();
+		for (int f = 0; f < n; f++) {
+			int root = find(parents, f);
+			List<Integer> group = groups.get(root);
+			if (group == null) {
+				group = new ArrayList<Integer>();
+				groups.put(root, group);
+			}
+			group.add(f);
+		}
+
+		int target = Math.max(1, (total + Math.max(1, partitions) - 1) / Math.max(1, partitions));
+		List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+		List<Integer> chunk = new ArrayList<Integer>();
+		int weight = 0;
+		for (List<Integer> group : groups.values()) {
+			// functions that use similar resources are next to each other
+			Collections.sort(group, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer f0, Integer f1) {
+					String r0 = firstResource[f0];
+					String r1 = firstResource[f1];
+					if (r0 == null || r1 == null) {
+						return r0 == r1 ? f0.compareTo(f1) : (r0 == null ? -1 : 1);
+					}
+					int c = r0.compareTo(r1);
+					return c != 0 ? c : f0.compareTo(f1);
+				}
+			});
+			for (int f : group) {
+				if (weight >= target && !chunk.isEmpty()) {
+					chunks.add(chunk);
+					chunk = new ArrayList<Integer>();
+					weight = 0;
+				}
+				chunk.add(f);
+				weight += weights[f];
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+
+		List<Specification> result = new ArrayList<Specification>();
+		for (List<Integer> c : chunks) {
+			List<Function<Task, Dependency>> list = new ArrayList<Function<Task, Dependency>>();
+			for (int f : c) {
+				list.add(functions.get(f));
+			}
+			result.add(toSpecification(specification, list));
+		}
+		return result;
+	}
+
+	protected static int find(int[] parents, int f) {
+		while (parents[f] != f) {
+			parents[f] = parents[parents[f]];
+			f = parents[f];
+		}
+		return f;
+	}
+
+	protected static void union(int[] parents, int f0, int f1) {
+		int r0 = find(parents, f0);
+		int r1 = find(parents, f1);
+		if (r0 != r1) {
+			// the smaller index is the root such that groups keep their order
+			parents[Math.max(r0, r1)] = Math.min(r0, r1);
+		}
+	}
+
+	/**
+	 * Creates the specification of a partition.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param functions
+	 *            the functions of the partition
+	 * @return the specification of the partition
+	 */
+	protected static Specification toSpecification(Specification specification,
+			List<Function<Task, Dependency>> functions) {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+
+		Mappings<Task, Resource> sMappings = specification.getMappings();
+		Routings<Task, Resource, Link> sRoutings = specification.getRoutings();
+
+		for (Function<Task, Dependency> function : functions) {
+			for (Task task : function) {
+				application.addVertex(task);
+				for (Mapping<Task, Resource> mapping : sMappings.get(task)) {
+					mappings.add(mapping);
+				}
+				if (isCommunication(task)) {
+					Architecture<Resource, Link> routing = sRoutings.get(task);
+					if (routing != null) {
+						routings.set(task, routing);
+					}
+				}
+			}
+			for (Dependency dependency : function.getEdges()) {
+				application.addEdge(dependency, function.getSource(dependency), function.getDest(dependency));
+			}
+		}
+		return new Specification(application, specification.getArchitecture(), mappings, routings);
+	}
+
+	/**
+	 * Generates the constraints of the partitions in parallel.
+	 *
+	 * @param encoding
+	 *            the encoding
+	 * @param partitions
+	 *            the partitions
+	 * @param threads
+	 *            the number of threads
+	 * @return the constraints of each partition
+	 */
+	public static List<List<Constraint>> encode(final PartitionedEncoding encoding, List<Specification> partitions,
+			int threads) {
+		List<Callable<List<Constraint>>> tasks = new ArrayList<Callable<List<Constraint>>>();
+		for (final Specification partition : partitions) {
+			tasks.add(new Callable<List<Constraint>>() {
+				@Override
+				public List<Constraint> call() throws Exception {
+					return new ArrayList<Constraint>(encoding.toConstraints(partition));
+				}
+			});
+		}
+		return run(tasks, threads);
+	}
+
+	/**
+	 * Preprocesses the constraints of each partition in parallel. The result
+	 * contains the preprocessed constraints of all partitions and the learned
+	 * units and equalities as constraints.
+	 *
+	 * @param partitions
+	 *            the constraints of each partition
+	 * @param threads
+	 *            the number of threads
+	 * @return the preprocessed constraints
+	 */
+	public static List<Constraint> preprocess(List<List<Constraint>> partitions, int threads) {
+		List<Callable<List<Constraint>>> tasks = new ArrayList<Callable<List<Constraint>>>();
+		for (final List<Constraint> partition : partitions) {
+			tasks.add(new Callable<List<Constraint>>() {
+				@Override
+				public List<Constraint> call() throws Exception {
+					return preprocess(partition);
+				}
+			});
+		}
+		List<Constraint> constraints = new ArrayList<Constraint>();
+		for (List<Constraint> list : run(tasks, threads)) {
+			constraints.addAll(list);
+		}
+		return constraints;
+	}
+
+	protected static List<Constraint> preprocess(Collection<Constraint> partition) {
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, new Encoding.VariableComparator(), null,
+				false);
+		List<Constraint> constraints = new ArrayList<Constraint>(pp.process(partition));
+		for (Literal unit : pp.getUnits()) {
+			Constraint constraint = new Constraint(">=", 1);
+			constraint.add(unit);
+			constraints.add(constraint);
+		}
+		for (Entry<Object, Literal> entry : pp.getEqualities().entrySet()) {
+			Constraint constraint = new Constraint("=", 0);
+			constraint.add(1, new Literal(entry.getKey(), true));
+			constraint.add(-1, entry.getValue());
+			constraints.add(constraint);
+		}
+		return constraints;
+	}
+
+	protected static <T> List<T> run(List<Callable<T>> tasks, int threads) {
+		List<T> results = new ArrayList<T>();
+		threads = Math.min(threads, tasks.size());
+		try {
+			if (threads <= 1) {
+				for (Callable<T> task : tasks) {
+					results.add(task.call());
+				}
+			} else {
+				ExecutorService executor = Executors.newFixedThreadPool(threads);
+				try {
+					for (Future<T> future : executor.invokeAll(tasks)) {
+						results.add(future.get());
+					}
+				} finally {
+					executor.shutdownNow();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while processing the partitions", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		return results;
+	}
+
+}
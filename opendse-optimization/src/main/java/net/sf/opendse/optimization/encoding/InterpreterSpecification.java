@@ -147,7 +147,7 @@ public class InterpreterSpecification implements Interpreter {
 
 		for (Function<Task, Dependency> function : iApplication.getFunctions()) {
 			Task t = function.iterator().next();
-			setAttributes(function, sApplication.getFunction(t).getAttributes());
+			setAttributes(function, sApplication.getFunctionAttributes(t));
 		}
 
 		for (Mapping<Task, Resource> m : sMappings) {
@@ -0,0 +1,40 @@
+package net.sf.opendse.optimization.encoding;
+
+import java.util.Collection;
+
+import org.opt4j.satdecoding.Constraint;
+
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@link PartitionedEncoding} is an {@link ImplementationEncoding} that
+ * encodes the functions of the {@link Specification} separately. The
+ * constraints of a partition of the functions only share the allocation
+ * variables with other partitions. The union of the constraints of all
+ * partitions and the shared constraints equals the constraints returned by
+ * {@link #toConstraints()}.
+ */
+public interface PartitionedEncoding extends ImplementationEncoding {
+
+	/**
+	 * Generates the {@link Constraint}s of the mappings and routings of the
+	 * functions of a partition. The partition is a {@link Specification} with
+	 * the application, mappings, and routings of its functions and the
+	 * architecture of the specification. This method may be called
+	 * concurrently for different partitions.
+	 *
+	 * @param partition
+	 *            the partition
+	 * @return the constraints of the partition
+	 */
+	public Collection<Constraint> toConstraints(Specification partition);
+
+	/**
+	 * Generates the {@link Constraint}s that are shared by all partitions,
+	 * i.e., the allocation and capacity constraints.
+	 *
+	 * @return the shared constraints
+	 */
+	public Collection<Constraint> toSharedConstraints();
+
+}
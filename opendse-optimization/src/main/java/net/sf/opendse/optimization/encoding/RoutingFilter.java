@@ -23,12 +23,27 @@ package net.sf.opendse.optimization.encoding;
 
 import static net.sf.opendse.model.Models.filterCommunications;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.CompressedRoutings;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Link;
 import net.sf.opendse.model.Mappings;
@@ -41,76 +56,305 @@ import net.sf.opendse.optimization.constraints.SpecificationRouterConstraints;
 /**
  * The {@code RoutingFilter} uses a simple graph-based approach to remove
  * unreachable vertices from routings.
+ * <p>
+ * For each communication, the resources that are not targets of the
+ * predecessor or successor tasks are removed if the communication has at
+ * most one such target or if the resource must not route the communication.
+ * Afterwards, dead ends are pruned: a resource that is no target and has no
+ * predecessors, no successors, or a single neighbor is removed. The pruning
+ * keeps the number of distinct predecessors and successors of each resource
+ * and only rechecks the neighbors of removed resources.
+ * <p>
+ * The routings of the communications are independent and are filtered in
+ * parallel. Communications that share the same routing instance are filtered
+ * one after another. The routings are filtered in place. Afterwards, the
+ * filtered routings that were compressed by {@link CompressedRoutings} are
+ * compressed again such that the filter does not expand them permanently.
  * 
  * @author Martin Lukasiewycz
  * 
  */
 public class RoutingFilter {
 
-	public static void filter(Specification specification) {
+	/**
+	 * Filters the routings of the specification with one thread per
+	 * available processor.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @return the report with the sizes of the routings
+	 */
+	public static Report filter(Specification specification) {
+		return filter(specification, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Filters the routings of the specification.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param threads
+	 *            the number of threads
+	 * @return the report with the sizes of the routings
+	 */
+	@SuppressWarnings("unchecked")
+	public static Report filter(Specification specification, int threads) {
 		Application<Task, Dependency> application = specification.getApplication();
 		Routings<Task, Resource, Link> routings = specification.getRoutings();
 		Mappings<Task, Resource> mappings = specification.getMappings();
 
-		
+		// the lookups in the mappings and routings are not thread-safe and are
+		// done upfront
+		final Map<Architecture<Resource, Link>, List<Task>> groups = new IdentityHashMap<Architecture<Resource, Link>, List<Task>>();
+		final List<Architecture<Resource, Link>> order = new ArrayList<Architecture<Resource, Link>>();
+		final Map<Task, Set<Resource>> terminals = new HashMap<Task, Set<Resource>>();
+		final Report report = new Report();
+		final Set<Task> compressed = new HashSet<Task>();
+		CompressedRoutings<Task, Resource, Link> compressedRoutings = (routings instanceof CompressedRoutings)
+				? (CompressedRoutings<Task, Resource, Link>) routings : null;
+
 		for (Task c : filterCommunications(application)) {
-			Collection<Task> neighborTasks = application.getNeighbors(c);
+			Set<Resource> resources = new HashSet<Resource>();
+			for (Task pred : application.getPredecessors(c)) {
+				resources.addAll(mappings.getTargets(pred));
+			}
+			for (Task succ : application.getSuccessors(c)) {
+				resources.addAll(mappings.getTargets(succ));
+			}
+			terminals.put(c, resources);
 
-			Set<Resource> incidentResources = new HashSet<Resource>();
-			for(Task inTask: neighborTasks){
-				incidentResources.addAll(mappings.getTargets(inTask));
+			if (compressedRoutings != null && compressedRoutings.isCompressed(c)) {
+				compressed.add(c);
 			}
-			
 			Architecture<Resource, Link> routing = routings.get(c);
-			Set<Resource> toRemove = new HashSet<Resource>();
-			
-			for(Resource resource: routing){
-				if(!incidentResources.contains(resource)){
-					if(incidentResources.size() <= 1){
-						toRemove.add(resource);		
-					} else if(!SpecificationRouterConstraints.isRouted(resource, c)){
-						toRemove.add(resource);
+			List<Task> group = groups.get(routing);
+			if (group == null) {
+				group = new ArrayList<Task>();
+				groups.put(routing, group);
+				order.add(routing);
+			}
+			group.add(c);
+			report.put(c, new Pruning(c));
+		}
+
+		final AtomicInteger next = new AtomicInteger();
+		Runnable worker = new Runnable() {
+			@Override
+			public void run() {
+				for (int i = next.getAndIncrement(); i < order.size(); i = next.getAndIncrement()) {
+					Architecture<Resource, Link> routing = order.get(i);
+					for (Task c : groups.get(routing)) {
+						int vertices = routing.getVertexCount();
+						int edges = routing.getEdgeCount();
+						filter(c, routing, terminals.get(c));
+						report.get(c).set(vertices, edges, routing.getVertexCount(), routing.getEdgeCount());
 					}
 				}
 			}
-			routing.removeVertices(toRemove);
-			
-			
-			
+		};
+
+		threads = Math.min(threads, order.size());
+		if (threads <= 1) {
+			worker.run();
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				List<Future<?>> futures = new ArrayList<Future<?>>();
+				for (int i = 0; i < threads; i++) {
+					futures.add(executor.submit(worker));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while filtering the routings", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new RuntimeException(cause);
+			} finally {
+				executor.shutdownNow();
+			}
 		}
 
-		for (Task c : filterCommunications(application)) {
-			Architecture<Resource, Link> routing = routings.get(c);
+		// the filtered copies of compressed routings are compressed again
+		if (!compressed.isEmpty()) {
+			for (Architecture<Resource, Link> routing : order) {
+				for (Task c : groups.get(routing)) {
+					if (compressed.contains(c)) {
+						compressedRoutings.setCompressed(c, routing);
+					}
+				}
+			}
+		}
 
-			Set<Resource> resources = new HashSet<Resource>();
+		return report;
+	}
 
-			for (Task pred : application.getPredecessors(c)) {
-				resources.addAll(mappings.getTargets(pred));
+	/**
+	 * Filters the routing of a single communication.
+	 * 
+	 * @param c
+	 *            the communication
+	 * @param routing
+	 *            the routing
+	 * @param resources
+	 *            the targets of the predecessor and successor tasks
+	 */
+	protected static void filter(Task c, Architecture<Resource, Link> routing, Set<Resource> resources) {
+		Set<Resource> toRemove = new HashSet<Resource>();
+		for (Resource resource : routing) {
+			if (!resources.contains(resource)) {
+				if (resources.size() <= 1) {
+					toRemove.add(resource);
+				} else if (!SpecificationRouterConstraints.isRouted(resource, c)) {
+					toRemove.add(resource);
+				}
 			}
-			for (Task succ : application.getSuccessors(c)) {
-				resources.addAll(mappings.getTargets(succ));
+		}
+		routing.removeVertices(toRemove);
+
+		Map<Resource, int[]> degrees = new HashMap<Resource, int[]>();
+		Queue<Resource> queue = new ArrayDeque<Resource>();
+		for (Resource r : routing) {
+			degrees.put(r, new int[] { routing.getPredecessorCount(r), routing.getSuccessorCount(r) });
+			if (!resources.contains(r)) {
+				queue.add(r);
 			}
+		}
 
-			Set<Resource> remove = new HashSet<Resource>();
-			do {
-				remove.clear();
-				for (Resource r : routing) {
-					if (!resources.contains(r)) {
-						Set<Resource> preds = new HashSet<Resource>(routing.getPredecessors(r));
-						Set<Resource> succs = new HashSet<Resource>(routing.getSuccessors(r));
+		while (!queue.isEmpty()) {
+			Resource r = queue.poll();
+			int[] degree = degrees.get(r);
+			if (degree == null || !isDeadEnd(routing, r, degree)) {
+				continue;
+			}
+			Collection<Resource> preds = routing.getPredecessors(r);
+			Collection<Resource> succs = routing.getSuccessors(r);
+			for (Resource pred : preds) {
+				degrees.get(pred)[1]--;
+			}
+			for (Resource succ : succs) {
+				degrees.get(succ)[0]--;
+			}
+			for (Resource neighbor : routing.getNeighbors(r)) {
+				if (!resources.contains(neighbor)) {
+					queue.add(neighbor);
+				}
+			}
+			routing.removeVertex(r);
+			degrees.remove(r);
+		}
+	}
 
-						// System.out.println(preds+" "+succs);
+	protected static boolean isDeadEnd(Architecture<Resource, Link> routing, Resource r, int[] degree) {
+		if (degree[0] == 0 || degree[1] == 0) {
+			return true;
+		} else if (degree[0] == 1 && degree[1] == 1) {
+			Resource pred = routing.getPredecessors(r).iterator().next();
+			Resource succ = routing.getSuccessors(r).iterator().next();
+			return pred.equals(succ);
+		}
+		return false;
+	}
 
-						if (preds.isEmpty() || succs.isEmpty() || (preds.size() == 1 && preds.equals(succs))) {
-							remove.add(r);
-						}
-					}
-				}
-				for (Resource r : remove) {
-					routing.removeVertex(r);
-				}
+	/**
+	 * The {@code Pruning} contains the size of the routing of a communication
+	 * before and after the filtering.
+	 */
+	public static class Pruning {
+
+		protected final Task communication;
+		protected int vertices;
+		protected int edges;
+		protected int remainingVertices;
+		protected int remainingEdges;
+
+		public Pruning(Task communication) {
+			super();
+			this.communication = communication;
+		}
+
+		protected void set(int vertices, int edges, int remainingVertices, int remainingEdges) {
+			this.vertices = vertices;
+			this.edges = edges;
+			this.remainingVertices = remainingVertices;
+			this.remainingEdges = remainingEdges;
+		}
+
+		public Task getCommunication() {
+			return communication;
+		}
+
+		public int getVertices() {
+			return vertices;
+		}
 
-			} while (!remove.isEmpty());
+		public int getEdges() {
+			return edges;
+		}
+
+		public int getRemainingVertices() {
+			return remainingVertices;
+		}
+
+		public int getRemainingEdges() {
+			return remainingEdges;
+		}
+
+		@Override
+		public String toString() {
+			return communication + ": " + vertices + " -> " + remainingVertices + " resources, " + edges + " -> "
+					+ remainingEdges + " links";
+		}
+	}
+
+	/**
+	 * The {@code Report} contains the {@link Pruning} of each communication in
+	 * the order of the application.
+	 */
+	public static class Report {
+
+		protected final Map<Task, Pruning> prunings = new LinkedHashMap<Task, Pruning>();
+
+		protected void put(Task communication, Pruning pruning) {
+			prunings.put(communication, pruning);
+		}
+
+		public Pruning get(Task communication) {
+			return prunings.get(communication);
+		}
+
+		public Collection<Pruning> getPrunings() {
+			return Collections.unmodifiableCollection(prunings.values());
+		}
+
+		public int getRemovedVertices() {
+			int removed = 0;
+			for (Pruning pruning : prunings.values()) {
+				removed += pruning.getVertices() - pruning.getRemainingVertices();
+			}
+			return removed;
+		}
+
+		public int getRemovedEdges() {
+			int removed = 0;
+			for (Pruning pruning : prunings.values()) {
+				removed += pruning.getEdges() - pruning.getRemainingEdges();
+			}
+			return removed;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			for (Pruning pruning : prunings.values()) {
+				sb.append(pruning).append('\n');
+			}
+			return sb.toString();
 		}
 	}
 
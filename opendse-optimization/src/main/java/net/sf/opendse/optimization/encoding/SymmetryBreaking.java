@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.encoding;
+
+import static net.sf.opendse.optimization.encoding.variables.Variables.p;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.constraints.ElementList;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+
+import org.opt4j.satdecoding.Constraint;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * The {@code SymmetryBreaking} detects interchangeable resources of a
+ * specification and creates lexicographic constraints that exclude all but
+ * one of the symmetric allocations and bindings.
+ * <p>
+ * Two resources are interchangeable if they have the same class and
+ * attributes, the same neighbors connected by equal links, equal mappings
+ * of the same tasks, and the same position in each routing. Swapping such
+ * resources (together with their links and mappings) maps each
+ * implementation to an equivalent implementation. Resources with
+ * parameters or resources that are referenced by an {@link ElementList} are
+ * never interchangeable.
+ * <p>
+ * The resources of a class are ordered by their ids. For two consecutive
+ * resources {@code a} and {@code b}, the vector of the resource variable and
+ * the mapping variables of {@code a} has to be lexicographically greater or
+ * equal than the one of {@code b}. The vector is restricted to the first
+ * {@link #MAX_LENGTH} variables such that the coefficients of the
+ * pseudo-Boolean constraint remain small.
+ * <p>
+ * The constraints refer to the resource and mapping variables of the
+ * {@link Encoding}. If these variables are not part of the given encoding,
+ * no constraints are created.
+ */
+public class SymmetryBreaking {
+
+	/**
+	 * The maximal number of variables of a lexicographic constraint.
+	 */
+	public static final int MAX_LENGTH = 16;
+
+	protected final Specification specification;
+	protected final List<List<Resource>> classes = new ArrayList<List<Resource>>();
+	protected final Map<String, Integer> classIndex = new HashMap<String, Integer>();
+
+	/**
+	 * Constructs the {@code SymmetryBreaking} and detects the classes of
+	 * interchangeable resources.
+	 *
+	 * @param specification
+	 *            the specification
+	 */
+	public SymmetryBreaking(Specification specification) {
+		this.specification = specification;
+		detect();
+	}
+
+	/**
+	 * Returns the classes of interchangeable resources. Each class contains
+	 * at least two resources that are ordered by their ids.
+	 *
+	 * @return the classes of interchangeable resources
+	 */
+	public List<List<Resource>> getClasses() {
+		return Collections.unmodifiableList(classes);
+	}
+
+	/**
+	 * Returns {@code true} if the resource with the given id is
+	 * interchangeable with another resource.
+	 *
+	 * @param id
+	 *            the id of the resource
+	 * @return {@code true} if the resource is interchangeable
+	 */
+	public boolean isSymmetric(String id) {
+		return classIndex.containsKey(id);
+	}
+
+	protected void detect() {
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Mappings<Task, Resource> mappings = specification.getMappings();
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+
+		Set<String> excluded = getReferencedIds();
+		for (Resource resource : architecture) {
+			if (hasParameters(resource)) {
+				excluded.add(resource.getId());
+			}
+		}
+		for (Link link : architecture.getEdges()) {
+			if (hasParameters(link)) {
+				excluded.add(architecture.getEndpoints(link).getFirst().getId());
+				excluded.add(architecture.getEndpoints(link).getSecond().getId());
+			}
+		}
+		for (Mapping<Task, Resource> mapping : mappings) {
+			if (hasParameters(mapping)) {
+				excluded.add(mapping.getTarget().getId());
+			}
+		}
+
+		// the position of each resource in the routings
+		Map<Resource, Set<List<Object>>> routingKeys = new HashMap<Resource, Set<List<Object>>>();
+		for (Task communication : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(communication);
+			for (Resource resource : routing) {
+				Set<List<Object>> keys = routingKeys.get(resource);
+				if (keys == null) {
+					keys = new HashSet<List<Object>>();
+					routingKeys.put(resource, keys);
+				}
+				keys.add(Arrays.<Object> asList(communication, resource.getLocalAttributes(),
+						getLinkKeys(routing, resource, true)));
+			}
+		}
+
+		Map<List<Object>, List<Resource>> groups = new LinkedHashMap<List<Object>, List<Resource>>();
+		for (Resource resource : architecture) {
+			if (excluded.contains(resource.getId())) {
+				continue;
+			}
+			Set<List<Object>> mappingKeys = new HashSet<List<Object>>();
+			for (Mapping<Task, Resource> mapping : mappings.get(resource)) {
+				mappingKeys.add(Arrays.<Object> asList(mapping.getClass(), mapping.getSource(),
+						mapping.getAttributes()));
+			}
+			Set<List<Object>> routingKey = routingKeys.get(resource);
+			List<Object> key = Arrays.<Object> asList(resource.getClass(), resource.getAttributes(),
+					getLinkKeys(architecture, resource, false), mappingKeys,
+					routingKey == null ? Collections.emptySet() : routingKey);
+
+			List<Resource> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<Resource>();
+				groups.put(key, group);
+			}
+			group.add(resource);
+		}
+
+		for (List<Resource> group : groups.values()) {
+			if (group.size() > 1) {
+				Collections.sort(group, new Comparator<Resource>() {
+					@Override
+					public int compare(Resource r0, Resource r1) {
+						return r0.getId().compareTo(r1.getId());
+					}
+				});
+				for (Resource resource : group) {
+					classIndex.put(resource.getId(), classes.size());
+				}
+				classes.add(group);
+			}
+		}
+	}
+
+	/**
+	 * Returns the keys of the links of a resource. A key consists of the
+	 * opposite resource, the edge type, the direction, and the attributes of
+	 * the link.
+	 *
+	 * @param architecture
+	 *            the architecture or routing
+	 * @param resource
+	 *            the resource
+	 * @param local
+	 *            {@code true} if only the local attributes of the links are
+	 *            considered
+	 * @return the set of keys
+	 */
+	protected Set<List<Object>> getLinkKeys(Architecture<Resource, Link> architecture, Resource resource,
+			boolean local) {
+		Set<List<Object>> keys = new HashSet<List<Object>>();
+		for (Link link : architecture.getIncidentEdges(resource)) {
+			Resource opposite = architecture.getOpposite(resource, link);
+			EdgeType edgeType = architecture.getEdgeType(link);
+			Boolean outgoing = edgeType == EdgeType.DIRECTED ? architecture.getSource(link).equals(resource) : null;
+			keys.add(Arrays.<Object> asList(link.getClass(), opposite, edgeType, outgoing,
+					local ? link.getLocalAttributes() : link.getAttributes()));
+		}
+		return keys;
+	}
+
+	protected boolean hasParameters(Element element) {
+		for (String name : element.getAttributeNames()) {
+			if (element.getAttributeParameter(name) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected Set<String> getReferencedIds() {
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		List<Element> elements = new ArrayList<Element>();
+		elements.addAll(architecture.getVertices());
+		elements.addAll(architecture.getEdges());
+
+		Set<String> ids = new HashSet<String>();
+		for (Element element : elements) {
+			for (String name : element.getAttributeNames()) {
+				Object value = element.getAttribute(name);
+				if (value instanceof ElementList) {
+					ids.addAll((ElementList) value);
+				} else if (value instanceof String && (name.equals(SpecificationConstraints.ELEMENTS_EXCLUDE)
+						|| name.equals(SpecificationConstraints.ELEMENTS_REQUIRE))) {
+					ids.addAll(ElementList.parseElements((String) value));
+				}
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns the lexicographic symmetry breaking constraints.
+	 *
+	 * @param variables
+	 *            the variables of the encoding
+	 * @return the constraints
+	 */
+	public List<Constraint> toConstraints(Collection<Object> variables) {
+		Mappings<Task, Resource> mappings = specification.getMappings();
+		List<Constraint> constraints = new ArrayList<Constraint>();
+
+		for (List<Resource> group : classes) {
+			List<Task> tasks = new ArrayList<Task>(mappings.getSources(group.get(0)));
+			Collections.sort(tasks, new Comparator<Task>() {
+				@Override
+				public int compare(Task t0, Task t1) {
+					return t0.getId().compareTo(t1.getId());
+				}
+			});
+
+			for (int i = 0; i < group.size() - 1; i++) {
+				Resource a = group.get(i);
+				Resource b = group.get(i + 1);
+
+				List<Object> as = new ArrayList<Object>();
+				List<Object> bs = new ArrayList<Object>();
+				if (variables.contains(a) && variables.contains(b)) {
+					as.add(a);
+					bs.add(b);
+				}
+				for (Task task : tasks) {
+					if (as.size() == MAX_LENGTH) {
+						break;
+					}
+					Set<Mapping<Task, Resource>> ma = mappings.get(task, a);
+					Set<Mapping<Task, Resource>> mb = mappings.get(task, b);
+					if (ma.size() == 1 && mb.size() == 1) {
+						Mapping<Task, Resource> m0 = ma.iterator().next();
+						Mapping<Task, Resource> m1 = mb.iterator().next();
+						if (variables.contains(m0) && variables.contains(m1)) {
+							as.add(m0);
+							bs.add(m1);
+						}
+					}
+				}
+
+				if (!as.isEmpty()) {
+					Constraint constraint = new Constraint(">=", 0);
+					for (int j = 0; j < as.size(); j++) {
+						int coefficient = 1 << (as.size() - 1 - j);
+						constraint.add(coefficient, p(as.get(j)));
+						constraint.add(-coefficient, p(bs.get(j)));
+					}
+					constraints.add(constraint);
+				}
+			}
+		}
+		return constraints;
+	}
+
+	/**
+	 * Returns a hash of the implementation that is the same for all
+	 * implementations that only differ by a permutation of interchangeable
+	 * resources.
+	 *
+	 * @param implementation
+	 *            the implementation
+	 * @return the hash
+	 */
+	public long getCanonicalHash(Specification implementation) {
+		return hash(implementation, true);
+	}
+
+	/**
+	 * Returns a hash of the implementation.
+	 *
+	 * @param implementation
+	 *            the implementation
+	 * @return the hash
+	 */
+	public long getHash(Specification implementation) {
+		return hash(implementation, false);
+	}
+
+	protected long hash(Specification implementation, boolean canonical) {
+		List<String> tokens = new ArrayList<String>();
+		Map<String, List<String>> rows = new HashMap<String, List<String>>();
+
+		Architecture<Resource, Link> architecture = implementation.getArchitecture();
+		for (Resource resource : architecture) {
+			if (isSymmetric(resource.getId())) {
+				rows.put(resource.getId(), new ArrayList<String>());
+			} else {
+				tokens.add("R:" + resource.getId());
+			}
+		}
+		addLinks(architecture, "L:", tokens, rows, canonical);
+
+		for (Mapping<Task, Resource> mapping : implementation.getMappings()) {
+			List<String> row = rows.get(mapping.getTarget().getId());
+			if (row != null) {
+				row.add("M:" + mapping.getSource().getId());
+			} else {
+				tokens.add("M:" + mapping.getSource().getId() + ":" + mapping.getTarget().getId());
+			}
+		}
+
+		Routings<Task, Resource, Link> routings = implementation.getRoutings();
+		for (Task communication : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(communication);
+			String prefix = "C:" + communication.getId() + ":";
+			for (Resource resource : routing) {
+				List<String> row = rows.get(resource.getId());
+				if (row != null) {
+					row.add(prefix);
+				} else {
+					tokens.add(prefix + resource.getId());
+				}
+			}
+			addLinks(routing, prefix, tokens, rows, canonical);
+		}
+
+		for (Map.Entry<String, List<String>> entry : rows.entrySet()) {
+			List<String> row = entry.getValue();
+			Collections.sort(row);
+			tokens.add(getName(entry.getKey(), canonical) + row);
+		}
+		Collections.sort(tokens);
+
+		// FNV-1a
+		long hash = 0xcbf29ce484222325L;
+		for (String token : tokens) {
+			for (int i = 0; i < token.length(); i++) {
+				hash ^= token.charAt(i);
+				hash *= 0x100000001b3L;
+			}
+			hash ^= '\n';
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	protected void addLinks(Architecture<Resource, Link> architecture, String prefix, List<String> tokens,
+			Map<String, List<String>> rows, boolean canonical) {
+		for (Link link : architecture.getEdges()) {
+			Resource first = architecture.getEndpoints(link).getFirst();
+			Resource second = architecture.getEndpoints(link).getSecond();
+			boolean directed = architecture.getEdgeType(link) == EdgeType.DIRECTED;
+			List<String> row0 = rows.get(first.getId());
+			List<String> row1 = rows.get(second.getId());
+			if (row0 == null && row1 == null) {
+				tokens.add(prefix + link.getId());
+			}
+			if (row0 != null) {
+				row0.add(prefix + (directed ? ">" : "-") + getName(second.getId(), canonical));
+			}
+			if (row1 != null) {
+				row1.add(prefix + (directed ? "<" : "-") + getName(first.getId(), canonical));
+			}
+		}
+	}
+
+	protected String getName(String id, boolean canonical) {
+		Integer index = classIndex.get(id);
+		return canonical && index != null ? "#" + index : id;
+	}
+
+}
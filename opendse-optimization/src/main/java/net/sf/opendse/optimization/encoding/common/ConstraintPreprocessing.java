@@ -25,6 +25,7 @@ import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -634,6 +635,16 @@ public class ConstraintPreprocessing {
 		return list;
 	}
 
+	/**
+	 * Returns the learned equalities. Each variable is mapped to the literal
+	 * it equals.
+	 * 
+	 * @return the equalities
+	 */
+	public Map<Object, Literal> getEqualities() {
+		return Collections.unmodifiableMap(equalities);
+	}
+
 	class ModelDecorator extends Model {
 
 		final Model model;
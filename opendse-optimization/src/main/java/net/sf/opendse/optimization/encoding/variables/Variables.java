@@ -21,8 +21,8 @@
  *******************************************************************************/
 package net.sf.opendse.optimization.encoding.variables;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Edge;
@@ -43,29 +43,23 @@ import org.opt4j.satdecoding.Literal;
  */
 public class Variables {
 
-	static Map<Literal, Literal> cache = new HashMap<Literal, Literal>();
+	// the literals are created concurrently if partitions are encoded in
+	// parallel
+	static ConcurrentMap<Literal, Literal> cache = new ConcurrentHashMap<Literal, Literal>();
 
 	private Variables() {
 	}
 
 	public static Literal p(Object obj) {
 		Literal literal = new Literal(obj, true);
-		if (cache.containsKey(literal)) {
-			return cache.get(literal);
-		} else {
-			cache.put(literal, literal);
-			return literal;
-		}
+		Literal cached = cache.putIfAbsent(literal, literal);
+		return (cached != null) ? cached : literal;
 	}
 
 	public static Literal n(Object obj) {
 		Literal literal = new Literal(obj, false);
-		if (cache.containsKey(literal)) {
-			return cache.get(literal);
-		} else {
-			cache.put(literal, literal);
-			return literal;
-		}
+		Literal cached = cache.putIfAbsent(literal, literal);
+		return (cached != null) ? cached : literal;
 	}
 	
 	public static DM var(Dependency dep, Mapping<Task, Resource> mapping) {
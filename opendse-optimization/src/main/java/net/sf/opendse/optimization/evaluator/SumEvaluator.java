@@ -21,28 +21,52 @@
  *******************************************************************************/
 package net.sf.opendse.optimization.evaluator;
 
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Element;
 import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Mappings;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.optimization.ImplementationEvaluator;
+import net.sf.opendse.optimization.SpecificationWrapper;
 
 import org.opt4j.core.Objective;
 import org.opt4j.core.Objectives;
 
+import com.google.inject.Inject;
+
+/**
+ * The {@code SumEvaluator} sums up the attributes of the resources, links,
+ * and mappings of an implementation. An attribute {@code name} or
+ * {@code name.*} contributes to the objective {@code name}.
+ * <p>
+ * The elements of an implementation are derived from the elements of the
+ * specification (their ancestors). If the specification is set, the
+ * contributions of its resources, links, and mappings to all objectives are
+ * compiled once into a plan that is keyed by the ids of the elements. The
+ * evaluation of an implementation then sums up these contributions and only
+ * evaluates the attributes of elements that have local attributes (e.g.,
+ * decoded parameters) or that are not derived from an element of the plan.
+ * The plan is replaced with the specification and does not change otherwise,
+ * i.e., the attributes of the specification must not be changed afterwards.
+ */
 public class SumEvaluator implements ImplementationEvaluator {
 
 	protected final Map<String, Objective> map = new HashMap<String, Objective>();
 
+	protected final Objective[] objectiveArray;
+	protected final Map<String, Integer> objectiveIndex = new HashMap<String, Integer>();
+	protected Map<String, Contribution> resourcePlan = Collections.emptyMap();
+	protected Map<String, Contribution> linkPlan = Collections.emptyMap();
+	protected Map<String, Contribution> mappingPlan = Collections.emptyMap();
+
 	protected int priority;
 
 	public SumEvaluator(String sum, int priority, boolean min) {
@@ -52,6 +76,53 @@ public class SumEvaluator implements ImplementationEvaluator {
 			map.put(s, obj);
 		}
 		this.priority = priority;
+
+		objectiveArray = new Objective[map.size()];
+		int i = 0;
+		for (Entry<String, Objective> entry : map.entrySet()) {
+			objectiveIndex.put(entry.getKey(), i);
+			objectiveArray[i++] = entry.getValue();
+		}
+	}
+
+	/**
+	 * Sets the specification of the injected {@link SpecificationWrapper}.
+	 * 
+	 * @param wrapper
+	 *            the specification wrapper
+	 */
+	@Inject(optional = true)
+	public void setSpecificationWrapper(SpecificationWrapper wrapper) {
+		setSpecification(wrapper.getSpecification());
+	}
+
+	/**
+	 * Sets the specification and compiles the contributions of its
+	 * resources, links, and mappings.
+	 * 
+	 * @param specification
+	 *            the specification
+	 */
+	public void setSpecification(Specification specification) {
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Mappings<Task, Resource> mappings = specification.getMappings();
+
+		Map<String, Contribution> resourcePlan = new HashMap<String, Contribution>();
+		for (Resource resource : architecture.getVertices()) {
+			resourcePlan.put(resource.getId(), compile(resource));
+		}
+		Map<String, Contribution> linkPlan = new HashMap<String, Contribution>();
+		for (Link link : architecture.getEdges()) {
+			linkPlan.put(link.getId(), compile(link));
+		}
+		Map<String, Contribution> mappingPlan = new HashMap<String, Contribution>();
+		for (Mapping<Task, Resource> mapping : mappings) {
+			mappingPlan.put(mapping.getId(), compile(mapping));
+		}
+
+		this.resourcePlan = resourcePlan;
+		this.linkPlan = linkPlan;
+		this.mappingPlan = mappingPlan;
 	}
 
 	@Override
@@ -60,28 +131,20 @@ public class SumEvaluator implements ImplementationEvaluator {
 		Architecture<Resource, Link> architecture = implementation.getArchitecture();
 		Mappings<Task, Resource> mappings = implementation.getMappings();
 
-		Set<Element> elements = new HashSet<Element>();
-		elements.addAll(architecture.getVertices());
-		elements.addAll(architecture.getEdges());
-		elements.addAll(mappings.getAll());
+		double[] values = new double[objectiveArray.length];
 
-		for (Entry<String, Objective> entry : map.entrySet()) {
-			double value = 0;
-
-			String attribute = entry.getKey();
-			Objective objective = entry.getValue();
-
-			for (Element e : elements) {
-				for (String attributeName : e.getAttributeNames()) {
-					if ((attributeName.contains(".") && attributeName.substring(0, attributeName.indexOf(".")).equals(
-							attribute))
-							|| attributeName.equals(attribute)) {
-						value += ((Number) e.getAttribute(attributeName)).doubleValue();
-					}
-				}
-			}
+		for (Resource resource : architecture.getVertices()) {
+			add(resource, resourcePlan, values);
+		}
+		for (Link link : architecture.getEdges()) {
+			add(link, linkPlan, values);
+		}
+		for (Mapping<Task, Resource> mapping : mappings) {
+			add(mapping, mappingPlan, values);
+		}
 
-			objectives.add(objective, value);
+		for (int i = 0; i < objectiveArray.length; i++) {
+			objectives.add(objectiveArray[i], values[i]);
 		}
 
 		return null;
@@ -92,4 +155,118 @@ public class SumEvaluator implements ImplementationEvaluator {
 		return priority;
 	}
 
+	/**
+	 * Adds the contributions of an element to the values of the objectives.
+	 * The compiled contribution is used if the element is derived from the
+	 * element of the plan with the same id without local attributes.
+	 * 
+	 * @param element
+	 *            the element
+	 * @param plan
+	 *            the plan for the type of the element
+	 * @param values
+	 *            the values of the objectives
+	 */
+	protected void add(Element element, Map<String, Contribution> plan, double[] values) {
+		Contribution contribution = plan.get(element.getId());
+		if (contribution != null && !hasLocalAttributes(element, contribution.element)) {
+			contribution.addTo(values);
+		} else {
+			sum(element, values);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the element or one of its ancestors below the
+	 * given ancestor has local attributes or if the given ancestor is no
+	 * ancestor of the element.
+	 * 
+	 * @param element
+	 *            the element
+	 * @param ancestor
+	 *            the ancestor
+	 * @return {@code true} if there are local attributes
+	 */
+	protected boolean hasLocalAttributes(Element element, Element ancestor) {
+		for (Element e = element; e != ancestor; e = e.getParent()) {
+			if (e == null || !e.getLocalAttributes().isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles the contribution of an element of the specification.
+	 * 
+	 * @param element
+	 *            the element of the specification
+	 * @return the contribution
+	 */
+	protected Contribution compile(Element element) {
+		double[] values = new double[objectiveArray.length];
+		sum(element, values);
+		return new Contribution(element, values);
+	}
+
+	/**
+	 * Sums up the attributes of an element that contribute to the objectives.
+	 * 
+	 * @param element
+	 *            the element
+	 * @param values
+	 *            the values of the objectives
+	 */
+	protected void sum(Element element, double[] values) {
+		for (String attributeName : element.getAttributeNames()) {
+			int dot = attributeName.indexOf('.');
+			Integer prefix = dot >= 0 ? objectiveIndex.get(attributeName.substring(0, dot)) : null;
+			Integer name = objectiveIndex.get(attributeName);
+			if (prefix != null || name != null) {
+				double value = ((Number) element.getAttribute(attributeName)).doubleValue();
+				if (prefix != null) {
+					values[prefix] += value;
+				}
+				if (name != null && !name.equals(prefix)) {
+					values[name] += value;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code Contribution} of an element to each objective.
+	 */
+	protected static class Contribution {
+
+		protected final Element element;
+		protected final int[] indices;
+		protected final double[] values;
+
+		public Contribution(Element element, double[] values) {
+			this.element = element;
+			int n = 0;
+			for (double value : values) {
+				if (value != 0) {
+					n++;
+				}
+			}
+			this.indices = new int[n];
+			this.values = new double[n];
+			int k = 0;
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != 0) {
+					this.indices[k] = i;
+					this.values[k++] = values[i];
+				}
+			}
+		}
+
+		public void addTo(double[] sum) {
+			for (int i = 0; i < indices.length; i++) {
+				sum[indices[i]] += values[i];
+			}
+		}
+	}
+
 }
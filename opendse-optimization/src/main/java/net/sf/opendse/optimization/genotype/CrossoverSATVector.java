@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.genotype;
+
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.operators.crossover.Crossover;
+import org.opt4j.operators.crossover.Pair;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code CrossoverSATVector} performs a uniform crossover of two
+ * {@link SATVectorGenotype}s. The phase and the priority of each variable are
+ * exchanged together with a probability of 0.5. The random decisions are
+ * drawn 64 at a time.
+ */
+public class CrossoverSATVector implements Crossover<SATVectorGenotype> {
+
+	protected final Rand random;
+
+	@Inject
+	public CrossoverSATVector(Rand random) {
+		super();
+		this.random = random;
+	}
+
+	@Override
+	public Pair<SATVectorGenotype> crossover(SATVectorGenotype p1, SATVectorGenotype p2) {
+		SATVectorGenotype o1 = new SATVectorGenotype(p1);
+		SATVectorGenotype o2 = new SATVectorGenotype(p2);
+		int size = o1.size();
+		for (int i = 0; i < size; i += 64) {
+			long bits = random.nextLong();
+			int end = Math.min(size, i + 64);
+			for (int j = i; j < end; j++, bits >>>= 1) {
+				if ((bits & 1) != 0) {
+					o1.swap(o2, j);
+				}
+			}
+		}
+		return new Pair<SATVectorGenotype>(o1, o2);
+	}
+
+}
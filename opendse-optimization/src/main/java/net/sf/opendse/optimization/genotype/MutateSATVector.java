@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.genotype;
+
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.operators.mutate.Mutate;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code MutateSATVector} mutates a {@link SATVectorGenotype}. Each phase
+ * is flipped and each priority is changed by a polynomial mutation with the
+ * given rate. The priorities remain within the bounds of their variable
+ * class such that the variable class order is preserved.
+ * <p>
+ * Instead of drawing a random number for each variable, the distance to the
+ * next mutated variable is drawn from the geometric distribution. Thus, the
+ * costs of a mutation are proportional to the number of mutated variables.
+ */
+public class MutateSATVector implements Mutate<SATVectorGenotype> {
+
+	protected static final double ETA = 5;
+
+	protected final Rand random;
+
+	@Inject
+	public MutateSATVector(Rand random) {
+		super();
+		this.random = random;
+	}
+
+	@Override
+	public void mutate(SATVectorGenotype genotype, double p) {
+		int size = genotype.size();
+		for (int i = next(-1, p); i < size; i = next(i, p)) {
+			genotype.setPhase(i, !genotype.getPhase(i));
+		}
+		SATVectorIndex index = genotype.getIndex();
+		for (int i = next(-1, p); i < size; i = next(i, p)) {
+			double lb = index.getLowerBound(i);
+			double ub = index.getUpperBound(i);
+			genotype.setPriority(i, mutate(genotype.getPriority(i), lb, ub));
+		}
+	}
+
+	/**
+	 * Returns the index of the next mutated variable.
+	 *
+	 * @param i
+	 *            the index of the current variable
+	 * @param p
+	 *            the mutation rate
+	 * @return the index of the next variable (or a value not smaller than the
+	 *         size if no more variables are mutated)
+	 */
+	protected int next(int i, double p) {
+		if (p >= 1) {
+			return i + 1;
+		} else if (p <= 0) {
+			return Integer.MAX_VALUE;
+		}
+		double skip = Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+		return (int) Math.min(Integer.MAX_VALUE, i + 1 + skip);
+	}
+
+	/**
+	 * Performs the polynomial mutation of a priority.
+	 *
+	 * @param x
+	 *            the priority
+	 * @param lb
+	 *            the lower bound
+	 * @param ub
+	 *            the upper bound
+	 * @return the mutated priority
+	 */
+	protected double mutate(double x, double lb, double ub) {
+		double range = ub - lb;
+		if (range <= 0) {
+			return lb;
+		}
+		double u = random.nextDouble();
+		double power = 1.0 / (ETA + 1);
+		double delta;
+		if (u < 0.5) {
+			double xy = 1 - (x - lb) / range;
+			double value = 2 * u + (1 - 2 * u) * Math.pow(xy, ETA + 1);
+			delta = Math.pow(value, power) - 1;
+		} else {
+			double xy = 1 - (ub - x) / range;
+			double value = 2 * (1 - u) + 2 * (u - 0.5) * Math.pow(xy, ETA + 1);
+			delta = 1 - Math.pow(value, power);
+		}
+		return Math.min(ub, Math.max(lb, x + delta * range));
+	}
+
+}
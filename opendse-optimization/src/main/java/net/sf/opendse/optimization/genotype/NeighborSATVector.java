@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.genotype;
+
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.operators.neighbor.Neighbor;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code NeighborSATVector} changes a single variable of a
+ * {@link SATVectorGenotype}: its phase is flipped and its priority is drawn
+ * anew within the bounds of its variable class.
+ */
+public class NeighborSATVector implements Neighbor<SATVectorGenotype> {
+
+	protected final Rand random;
+
+	@Inject
+	public NeighborSATVector(Rand random) {
+		super();
+		this.random = random;
+	}
+
+	@Override
+	public void neighbor(SATVectorGenotype genotype) {
+		int size = genotype.size();
+		if (size == 0) {
+			return;
+		}
+		int i = random.nextInt(size);
+		SATVectorIndex index = genotype.getIndex();
+		double lb = index.getLowerBound(i);
+		double ub = index.getUpperBound(i);
+		genotype.setPhase(i, !genotype.getPhase(i));
+		genotype.setPriority(i, lb + random.nextDouble() * (ub - lb));
+	}
+
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.genotype;
+
+import java.util.BitSet;
+
+import org.opt4j.core.Genotype;
+
+/**
+ * The {@code SATVectorGenotype} is the genotype of the SAT decoding. For each
+ * variable of the {@link SATVectorIndex}, it contains the phase, i.e., the
+ * value the SAT solver tries first, and the priority, i.e., the initial
+ * activity of the variable.
+ * <p>
+ * The phases are stored in a {@link BitSet} and the priorities in a
+ * {@code double} array. Compared to the boxed maps and lists of the
+ * {@code SATGenotype} of opt4j, this reduces the memory and the time for
+ * creating and copying individuals considerably.
+ */
+public class SATVectorGenotype implements Genotype {
+
+	protected final SATVectorIndex index;
+	protected final BitSet phases;
+	protected final double[] priorities;
+
+	/**
+	 * Constructs a {@code SATVectorGenotype} with all phases {@code false} and
+	 * all priorities {@code 0}.
+	 *
+	 * @param index
+	 *            the index of the variables
+	 */
+	public SATVectorGenotype(SATVectorIndex index) {
+		super();
+		this.index = index;
+		this.phases = new BitSet(index.size());
+		this.priorities = new double[index.size()];
+	}
+
+	/**
+	 * Constructs a copy of the given {@code SATVectorGenotype}.
+	 *
+	 * @param genotype
+	 *            the genotype to copy
+	 */
+	public SATVectorGenotype(SATVectorGenotype genotype) {
+		super();
+		this.index = genotype.index;
+		this.phases = (BitSet) genotype.phases.clone();
+		this.priorities = genotype.priorities.clone();
+	}
+
+	/**
+	 * Constructs a copy of the given {@code SATVectorGenotype} for another
+	 * index. The phase and the priority of each variable are taken from the
+	 * given genotype at the position given by
+	 * {@link SATVectorIndex#getPositions(SATVectorIndex)}. Variables without
+	 * a position keep the phase {@code false} and the priority {@code 0}.
+	 *
+	 * @param genotype
+	 *            the genotype to copy
+	 * @param index
+	 *            the index of the copy
+	 * @param positions
+	 *            the position of each variable of the index in the index of
+	 *            the given genotype
+	 */
+	public SATVectorGenotype(SATVectorGenotype genotype, SATVectorIndex index, int[] positions) {
+		this(index);
+		for (int i = 0; i < positions.length; i++) {
+			int position = positions[i];
+			if (position >= 0) {
+				phases.set(i, genotype.phases.get(position));
+				priorities[i] = genotype.priorities[position];
+			}
+		}
+	}
+
+	public SATVectorIndex getIndex() {
+		return index;
+	}
+
+	public boolean getPhase(int i) {
+		return phases.get(i);
+	}
+
+	public void setPhase(int i, boolean phase) {
+		phases.set(i, phase);
+	}
+
+	public double getPriority(int i) {
+		return priorities[i];
+	}
+
+	public void setPriority(int i, double priority) {
+		priorities[i] = priority;
+	}
+
+	/**
+	 * Swaps the phase and the priority of the variable with the given index
+	 * with the given genotype.
+	 *
+	 * @param genotype
+	 *            the other genotype
+	 * @param i
+	 *            the index
+	 */
+	public void swap(SATVectorGenotype genotype, int i) {
+		boolean phase = phases.get(i);
+		phases.set(i, genotype.phases.get(i));
+		genotype.phases.set(i, phase);
+		double priority = priorities[i];
+		priorities[i] = genotype.priorities[i];
+		genotype.priorities[i] = priority;
+	}
+
+	@Override
+	public int size() {
+		return priorities.length;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <G extends Genotype> G newInstance() {
+		return (G) new SATVectorGenotype(index);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(index.getVariable(i)).append('=').append(getPhase(i)).append('/').append(getPriority(i));
+		}
+		return sb.append(']').toString();
+	}
+
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.genotype;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code SATVectorIndex} is the fixed index of the variables of a
+ * {@link SATVectorGenotype}. It is created once per decoder and shared by all
+ * genotypes.
+ * <p>
+ * For each variable, the position of its class in the variable class order is
+ * stored. The bounds of the priorities are precomputed per position such that
+ * the bounds of a variable are found by two array lookups.
+ */
+public class SATVectorIndex {
+
+	protected final List<Object> variables;
+	protected final int[] classes;
+	protected final double[] lowerBounds;
+	protected final double[] upperBounds;
+
+	/**
+	 * Constructs a {@code SATVectorIndex}.
+	 *
+	 * @param variables
+	 *            the variables
+	 * @param classes
+	 *            the position of the class of each variable in the variable
+	 *            class order
+	 * @param lowerBounds
+	 *            the lower bound of the priorities for each position
+	 * @param upperBounds
+	 *            the upper bound of the priorities for each position
+	 */
+	public SATVectorIndex(List<Object> variables, int[] classes, double[] lowerBounds, double[] upperBounds) {
+		super();
+		if (variables.size() != classes.length || lowerBounds.length != upperBounds.length) {
+			throw new IllegalArgumentException("The sizes of the variables and the bounds do not match.");
+		}
+		this.variables = Collections.unmodifiableList(variables);
+		this.classes = classes;
+		this.lowerBounds = lowerBounds;
+		this.upperBounds = upperBounds;
+	}
+
+	/**
+	 * Returns the number of variables.
+	 *
+	 * @return the number of variables
+	 */
+	public int size() {
+		return classes.length;
+	}
+
+	/**
+	 * Returns the variables in the order of the index.
+	 *
+	 * @return the variables
+	 */
+	public List<Object> getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Returns the variable with the given index.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the variable
+	 */
+	public Object getVariable(int i) {
+		return variables.get(i);
+	}
+
+	/**
+	 * Returns the position of the class of the variable with the given index
+	 * in the variable class order.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the position of the class
+	 */
+	public int getClassIndex(int i) {
+		return classes[i];
+	}
+
+	/**
+	 * Returns the lower bound of the priority of the variable with the given
+	 * index.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the lower bound
+	 */
+	public double getLowerBound(int i) {
+		return lowerBounds[classes[i]];
+	}
+
+	/**
+	 * Returns the upper bound of the priority of the variable with the given
+	 * index.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the upper bound
+	 */
+	public double getUpperBound(int i) {
+		return upperBounds[classes[i]];
+	}
+
+	/**
+	 * Returns for each variable of this index the position of the equal
+	 * variable in the given index or {@code -1} if the given index does not
+	 * contain it. Since the variables are compared by their elements, which
+	 * are compared by their ids, this relates the indices of the islands of
+	 * an {@code IslandExploration}.
+	 *
+	 * @param index
+	 *            the other index
+	 * @return the positions in the other index
+	 */
+	public int[] getPositions(SATVectorIndex index) {
+		Map<Object, Integer> positions = new HashMap<Object, Integer>(2 * index.size());
+		for (int i = 0; i < index.size(); i++) {
+			positions.put(index.getVariable(i), i);
+		}
+		int[] result = new int[size()];
+		for (int i = 0; i < result.length; i++) {
+			Integer position = positions.get(getVariable(i));
+			result[i] = (position != null) ? position : -1;
+		}
+		return result;
+	}
+
+}
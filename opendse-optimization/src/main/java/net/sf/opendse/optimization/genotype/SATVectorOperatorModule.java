@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.genotype;
+
+import org.opt4j.core.start.Opt4JModule;
+import org.opt4j.operators.copy.CopyModule;
+import org.opt4j.operators.crossover.CrossoverModule;
+import org.opt4j.operators.mutate.MutateModule;
+import org.opt4j.operators.neighbor.NeighborModule;
+
+/**
+ * The {@code SATVectorOperatorModule} binds the operators for the
+ * {@link SATVectorGenotype}.
+ */
+public class SATVectorOperatorModule extends Opt4JModule {
+
+	@Override
+	protected void config() {
+		install(new CopyModule() {
+			@Override
+			protected void config() {
+				addOperator(SATVectorGenotype.class, CopySATVector.class);
+			}
+		});
+		install(new CrossoverModule() {
+			@Override
+			protected void config() {
+				addOperator(SATVectorGenotype.class, CrossoverSATVector.class);
+			}
+		});
+		install(new MutateModule() {
+			@Override
+			protected void config() {
+				addOperator(SATVectorGenotype.class, MutateSATVector.class);
+			}
+		});
+		install(new NeighborModule() {
+			@Override
+			protected void config() {
+				addOperator(SATVectorGenotype.class, NeighborSATVector.class);
+			}
+		});
+	}
+
+}
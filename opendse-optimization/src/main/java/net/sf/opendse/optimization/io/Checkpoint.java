@@ -0,0 +1,622 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.opendse.optimization.genotype.SATVectorGenotype;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.IndividualFactory;
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.core.genotype.BooleanGenotype;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.genotype.DoubleGenotype;
+import org.opt4j.core.genotype.IntegerGenotype;
+import org.opt4j.core.genotype.PermutationGenotype;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.optimizer.IndividualCompleter;
+import org.opt4j.core.optimizer.Iteration;
+import org.opt4j.core.optimizer.Optimizer;
+import org.opt4j.core.optimizer.OptimizerIterationListener;
+import org.opt4j.core.optimizer.OptimizerStateListener;
+import org.opt4j.core.optimizer.Population;
+import org.opt4j.core.optimizer.TerminationException;
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code Checkpoint} periodically writes the state of the exploration to
+ * a binary file and restores it when the optimization is started again.
+ * <p>
+ * The state consists of the genotypes of the population and archive members,
+ * the iteration, and the state of the random number generator. The genotypes
+ * are written as plain values (SAT phases and priorities, parameter values). On
+ * resume, each genotype is created by the {@link IndividualFactory} and its
+ * values are overwritten such that the genotype structure always matches the
+ * current specification. Individuals that are both in the population and the
+ * archive are written once and decoded once on resume.
+ * <p>
+ * Writing a checkpoint does not draw from the random number generator such
+ * that an optimization yields the same results with and without checkpoints.
+ * The state of the generator is captured from its fields and restored on
+ * resume. If the fields cannot be accessed, the generator is reseeded with a
+ * seed drawn from itself and the seed is restored on resume instead, as in
+ * checkpoints of version 1 and 2.
+ */
+public class Checkpoint implements OptimizerStateListener, OptimizerIterationListener {
+
+	protected static final int MAGIC = 0x4F445343;
+	protected static final int VERSION = 3;
+
+	protected static final byte T_COMPOSITE = 0;
+	protected static final byte T_BOOLEAN = 1;
+	protected static final byte T_DOUBLE = 2;
+	protected static final byte T_INTEGER = 3;
+	protected static final byte T_PERMUTATION = 4;
+	protected static final byte T_SAT_VECTOR = 5;
+
+	protected final Population population;
+	protected final Archive archive;
+	protected final IndividualFactory individualFactory;
+	protected final IndividualCompleter completer;
+	protected final Iteration iteration;
+	protected final Rand random;
+	protected final String filename;
+	protected final int interval;
+	protected final boolean resume;
+
+	@Inject
+	public Checkpoint(Population population, Archive archive, IndividualFactory individualFactory,
+			IndividualCompleter completer, Iteration iteration, Rand random,
+			@Constant(namespace = Checkpoint.class, value = "filename") String filename,
+			@Constant(namespace = Checkpoint.class, value = "interval") int interval,
+			@Constant(namespace = Checkpoint.class, value = "resume") boolean resume) {
+		super();
+		this.population = population;
+		this.archive = archive;
+		this.individualFactory = individualFactory;
+		this.completer = completer;
+		this.iteration = iteration;
+		this.random = random;
+		this.filename = filename;
+		this.interval = interval;
+		this.resume = resume;
+	}
+
+	@Override
+	public void optimizationStarted(Optimizer optimizer) {
+		File file = new File(filename);
+		if (resume && file.exists()) {
+			try {
+				read(file);
+			} catch (IOException e) {
+				throw new RuntimeException("Failed to resume from checkpoint " + filename, e);
+			} catch (TerminationException e) {
+				// optimization was terminated while resuming
+			}
+		}
+	}
+
+	@Override
+	public void optimizationStopped(Optimizer optimizer) {
+		write();
+	}
+
+	@Override
+	public void iterationComplete(int iteration) {
+		if (interval > 0 && iteration % interval == 0) {
+			write();
+		}
+	}
+
+	/**
+	 * Writes the checkpoint. The file is replaced only after the checkpoint
+	 * was written completely. If the checkpoint cannot be written, the failure
+	 * is logged, the previous checkpoint is kept, and the optimization
+	 * continues.
+	 * 
+	 * @return {@code true} if the checkpoint was written
+	 */
+	public boolean write() {
+		File file = new File(filename);
+		File tmp = new File(filename + ".tmp");
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			try {
+				write(out);
+			} finally {
+				out.close();
+			}
+			if (!tmp.renameTo(file)) {
+				if (file.exists() && !file.delete()) {
+					throw new IOException("Cannot replace " + file);
+				}
+				if (!tmp.renameTo(file)) {
+					throw new IOException("Cannot rename " + tmp + " to " + file);
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			System.err.println("Failed to write checkpoint " + filename + ": " + e.getMessage());
+			tmp.delete();
+			return false;
+		}
+	}
+
+	protected void write(DataOutputStream out) throws IOException {
+		byte[] state;
+		try {
+			state = getState(random);
+		} catch (IOException e) {
+			state = null;
+		}
+
+		List<Individual> individuals = new ArrayList<Individual>(getIndividuals());
+		Map<Individual, Integer> index = new IdentityHashMap<Individual, Integer>();
+		for (int i = 0; i < individuals.size(); i++) {
+			index.put(individuals.get(i), i);
+		}
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(iteration.value());
+		out.writeBoolean(state != null);
+		if (state != null) {
+			out.writeInt(state.length);
+			out.write(state);
+		} else {
+			long seed = random.nextLong();
+			random.setSeed(seed);
+			out.writeLong(seed);
+		}
+
+		out.writeInt(individuals.size());
+		for (Individual individual : individuals) {
+			write(out, individual.getGenotype());
+		}
+		writeIndices(out, population, index);
+		writeIndices(out, archive, index);
+	}
+
+	protected Set<Individual> getIndividuals() {
+		Set<Individual> individuals = new LinkedHashSet<Individual>();
+		for (Individual individual : population) {
+			if (individual.getGenotype() != null) {
+				individuals.add(individual);
+			}
+		}
+		for (Individual individual : archive) {
+			if (individual.getGenotype() != null) {
+				individuals.add(individual);
+			}
+		}
+		return individuals;
+	}
+
+	protected void writeIndices(DataOutputStream out, Iterable<Individual> individuals, Map<Individual, Integer> index)
+			throws IOException {
+		List<Integer> indices = new ArrayList<Integer>();
+		for (Individual individual : individuals) {
+			Integer i = index.get(individual);
+			if (i != null) {
+				indices.add(i);
+			}
+		}
+		out.writeInt(indices.size());
+		for (int i : indices) {
+			out.writeInt(i);
+		}
+	}
+
+	/**
+	 * Reads the checkpoint and restores the population, the archive, the
+	 * iteration, and the random number generator.
+	 *
+	 * @param file
+	 *            the checkpoint file
+	 * @throws IOException
+	 *             if the checkpoint cannot be read or does not match the
+	 *             genotypes of the current problem
+	 * @throws TerminationException
+	 *             if the optimization is terminated while decoding
+	 */
+	public void read(File file) throws IOException, TerminationException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			read(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	protected void read(DataInputStream in) throws IOException, TerminationException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a checkpoint file");
+		}
+		int version = in.readInt();
+		// version 2 only added the SAT vector genotypes, version 3 added the
+		// state of the random number generator as an alternative to the seed
+		if (version < 1 || version > VERSION) {
+			throw new IOException("Unsupported checkpoint version " + version);
+		}
+		int value = in.readInt();
+		long seed = 0;
+		byte[] state = null;
+		if (version >= 3 && in.readBoolean()) {
+			state = new byte[in.readInt()];
+			in.readFully(state);
+		} else {
+			seed = in.readLong();
+		}
+
+		int n = in.readInt();
+		List<Individual> individuals = new ArrayList<Individual>(n);
+		for (int i = 0; i < n; i++) {
+			Individual individual = individualFactory.create();
+			read(in, individual.getGenotype());
+			individuals.add(individual);
+		}
+		List<Individual> populationMembers = readIndices(in, individuals);
+		List<Individual> archiveMembers = readIndices(in, individuals);
+
+		completer.complete(individuals);
+
+		population.clear();
+		population.addAll(populationMembers);
+		archive.clear();
+		archive.update(new HashSet<Individual>(archiveMembers));
+
+		while (iteration.value() < value) {
+			iteration.next();
+		}
+		if (state != null) {
+			setState(random, state);
+		} else {
+			random.setSeed(seed);
+		}
+	}
+
+	protected List<Individual> readIndices(DataInputStream in, List<Individual> individuals) throws IOException {
+		int n = in.readInt();
+		List<Individual> list = new ArrayList<Individual>(n);
+		for (int i = 0; i < n; i++) {
+			list.add(individuals.get(in.readInt()));
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the state of a random number generator without changing it. The
+	 * state consists of the values of the instance fields of the generator and
+	 * its superclasses up to {@link Random}. The fields are read directly since
+	 * the Mersenne Twister of opt4j keeps its state in transient fields that
+	 * are not serialized.
+	 *
+	 * @param random
+	 *            the random number generator
+	 * @return the serialized state
+	 * @throws IOException
+	 *             if the state cannot be read
+	 */
+	protected byte[] getState(Random random) throws IOException {
+		Map<String, Object> values = new LinkedHashMap<String, Object>();
+		try {
+			for (Field field : getStateFields(random)) {
+				Object value = field.get(random);
+				if (value instanceof AtomicLong) {
+					value = ((AtomicLong) value).get();
+				} else if (value instanceof int[]) {
+					value = ((int[]) value).clone();
+				}
+				values.put(getName(field), value);
+			}
+		} catch (IllegalAccessException e) {
+			throw new IOException("Cannot read the state of the random number generator", e);
+		} catch (RuntimeException e) {
+			throw new IOException("Cannot read the state of the random number generator", e);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		try {
+			out.writeUTF(random.getClass().getName());
+			out.writeObject(values);
+		} finally {
+			out.close();
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Restores the state of a random number generator.
+	 *
+	 * @param random
+	 *            the random number generator
+	 * @param state
+	 *            the state as returned by {@link #getState(Random)}
+	 * @throws IOException
+	 *             if the state does not match the random number generator
+	 */
+	@SuppressWarnings("unchecked")
+	protected void setState(Random random, byte[] state) throws IOException {
+		Map<String, Object> values;
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state));
+		try {
+			String type = in.readUTF();
+			if (!type.equals(random.getClass().getName())) {
+				throw new IOException("Checkpoint does not match the random number generator " + type);
+			}
+			values = (Map<String, Object>) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Cannot read the state of the random number generator", e);
+		} finally {
+			in.close();
+		}
+
+		try {
+			for (Field field : getStateFields(random)) {
+				String name = getName(field);
+				if (!values.containsKey(name)) {
+					throw new IOException("Checkpoint does not match the random number generator: missing " + name);
+				}
+				Object value = values.get(name);
+				Object current = field.get(random);
+				if (current instanceof AtomicLong) {
+					((AtomicLong) current).set((Long) value);
+				} else {
+					field.set(random, value);
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new IOException("Cannot restore the state of the random number generator", e);
+		} catch (RuntimeException e) {
+			throw new IOException("Cannot restore the state of the random number generator", e);
+		}
+	}
+
+	protected List<Field> getStateFields(Random random) {
+		List<Field> fields = new ArrayList<Field>();
+		for (Class<?> c = random.getClass(); Random.class.isAssignableFrom(c); c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					field.setAccessible(true);
+					fields.add(field);
+				}
+			}
+		}
+		return fields;
+	}
+
+	protected String getName(Field field) {
+		return field.getDeclaringClass().getName() + "." + field.getName();
+	}
+
+	/**
+	 * Writes the values of a genotype.
+	 *
+	 * @param out
+	 *            the output
+	 * @param genotype
+	 *            the genotype
+	 * @throws IOException
+	 *             if the genotype type is not supported
+	 */
+	protected void write(DataOutputStream out, Genotype genotype) throws IOException {
+		if (genotype instanceof CompositeGenotype<?, ?>) {
+			CompositeGenotype<?, ?> composite = (CompositeGenotype<?, ?>) genotype;
+			out.writeByte(T_COMPOSITE);
+			out.writeInt(composite.keySet().size());
+			for (Entry<?, ?> entry : composite) {
+				out.writeUTF(String.valueOf(entry.getKey()));
+				write(out, (Genotype) entry.getValue());
+			}
+		} else if (genotype instanceof BooleanGenotype) {
+			BooleanGenotype list = (BooleanGenotype) genotype;
+			out.writeByte(T_BOOLEAN);
+			out.writeInt(list.size());
+			for (boolean b : list) {
+				out.writeBoolean(b);
+			}
+		} else if (genotype instanceof DoubleGenotype) {
+			DoubleGenotype list = (DoubleGenotype) genotype;
+			out.writeByte(T_DOUBLE);
+			out.writeInt(list.size());
+			for (double d : list) {
+				out.writeDouble(d);
+			}
+		} else if (genotype instanceof IntegerGenotype) {
+			IntegerGenotype list = (IntegerGenotype) genotype;
+			out.writeByte(T_INTEGER);
+			out.writeInt(list.size());
+			for (int i : list) {
+				out.writeInt(i);
+			}
+		} else if (genotype instanceof PermutationGenotype<?>) {
+			PermutationGenotype<?> permutation = (PermutationGenotype<?>) genotype;
+			Map<Object, Integer> indices = getIndices(getOrder(permutation));
+			out.writeByte(T_PERMUTATION);
+			out.writeInt(permutation.size());
+			for (Object object : permutation) {
+				out.writeInt(indices.get(object));
+			}
+		} else if (genotype instanceof SATVectorGenotype) {
+			SATVectorGenotype vector = (SATVectorGenotype) genotype;
+			out.writeByte(T_SAT_VECTOR);
+			out.writeInt(vector.size());
+			for (int i = 0; i < vector.size(); i++) {
+				out.writeBoolean(vector.getPhase(i));
+				out.writeDouble(vector.getPriority(i));
+			}
+		} else {
+			throw new IOException("Unsupported genotype " + genotype.getClass().getName());
+		}
+	}
+
+	/**
+	 * Reads the values of a genotype into the given genotype.
+	 *
+	 * @param in
+	 *            the input
+	 * @param genotype
+	 *            the genotype (with the structure of the written genotype)
+	 * @throws IOException
+	 *             if the written genotype does not match the given genotype
+	 */
+	@SuppressWarnings("unchecked")
+	protected void read(DataInputStream in, Genotype genotype) throws IOException {
+		byte type = in.readByte();
+		int size = in.readInt();
+
+		if (type == T_COMPOSITE && genotype instanceof CompositeGenotype<?, ?>) {
+			CompositeGenotype<?, ?> composite = (CompositeGenotype<?, ?>) genotype;
+			checkSize(composite.keySet().size(), size);
+			for (int i = 0; i < size; i++) {
+				String key = in.readUTF();
+				Genotype child = null;
+				for (Entry<?, ?> entry : composite) {
+					if (key.equals(String.valueOf(entry.getKey()))) {
+						child = (Genotype) entry.getValue();
+					}
+				}
+				if (child == null) {
+					throw new IOException("Checkpoint does not match the genotype: unknown key " + key);
+				}
+				read(in, child);
+			}
+		} else if (type == T_BOOLEAN && genotype instanceof BooleanGenotype) {
+			BooleanGenotype list = (BooleanGenotype) genotype;
+			checkSize(list.size(), size);
+			for (int i = 0; i < size; i++) {
+				list.set(i, in.readBoolean());
+			}
+		} else if (type == T_DOUBLE && genotype instanceof DoubleGenotype) {
+			DoubleGenotype list = (DoubleGenotype) genotype;
+			checkSize(list.size(), size);
+			for (int i = 0; i < size; i++) {
+				list.set(i, in.readDouble());
+			}
+		} else if (type == T_INTEGER && genotype instanceof IntegerGenotype) {
+			IntegerGenotype list = (IntegerGenotype) genotype;
+			checkSize(list.size(), size);
+			for (int i = 0; i < size; i++) {
+				list.set(i, in.readInt());
+			}
+		} else if (type == T_PERMUTATION && genotype instanceof PermutationGenotype<?>) {
+			PermutationGenotype<Object> permutation = (PermutationGenotype<Object>) genotype;
+			checkSize(permutation.size(), size);
+			List<Object> order = getOrder(permutation);
+			for (int i = 0; i < size; i++) {
+				int index = in.readInt();
+				if (index < 0 || index >= size) {
+					throw new IOException("Checkpoint does not match the genotype: invalid permutation");
+				}
+				permutation.set(i, order.get(index));
+			}
+		} else if (type == T_SAT_VECTOR && genotype instanceof SATVectorGenotype) {
+			SATVectorGenotype vector = (SATVectorGenotype) genotype;
+			checkSize(vector.size(), size);
+			for (int i = 0; i < size; i++) {
+				vector.setPhase(i, in.readBoolean());
+				vector.setPriority(i, in.readDouble());
+			}
+		} else {
+			throw new IOException("Checkpoint does not match the genotype " + genotype.getClass().getName());
+		}
+	}
+
+	protected void checkSize(int expected, int size) throws IOException {
+		if (expected != size) {
+			throw new IOException("Checkpoint does not match the genotype: expected " + expected
+					+ " values but found " + size);
+		}
+	}
+
+	/**
+	 * Returns the elements of a permutation in a canonical order that does
+	 * not depend on the permutation itself.
+	 *
+	 * @param permutation
+	 *            the permutation
+	 * @return the elements in canonical order
+	 */
+	protected List<Object> getOrder(PermutationGenotype<?> permutation) {
+		List<Object> order = new ArrayList<Object>(permutation);
+		Collections.sort(order, new Comparator<Object>() {
+			@Override
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			public int compare(Object o1, Object o2) {
+				if (o1 instanceof Comparable && o1.getClass().equals(o2.getClass())) {
+					return ((Comparable) o1).compareTo(o2);
+				}
+				return o1.toString().compareTo(o2.toString());
+			}
+		});
+		return order;
+	}
+
+	/**
+	 * Returns the index of each element in the given order. Equal elements
+	 * get the index of their first occurrence.
+	 *
+	 * @param order
+	 *            the elements in canonical order
+	 * @return the map of the elements to their indices
+	 */
+	protected Map<Object, Integer> getIndices(List<Object> order) {
+		Map<Object, Integer> indices = new HashMap<Object, Integer>();
+		for (int i = order.size() - 1; i >= 0; i--) {
+			indices.put(order.get(i), i);
+		}
+		return indices;
+	}
+
+}
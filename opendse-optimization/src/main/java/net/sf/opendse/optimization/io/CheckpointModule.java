@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.io;
+
+import org.opt4j.core.config.annotations.File;
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+import org.opt4j.core.start.Constant;
+
+public class CheckpointModule extends IOModule {
+
+	@Order(0)
+	@File
+	@Info("The binary checkpoint file.")
+	@Constant(namespace = Checkpoint.class, value = "filename")
+	protected String filename = "checkpoint.bin";
+
+	@Order(1)
+	@Info("Write a checkpoint every given number of iterations.")
+	@Constant(namespace = Checkpoint.class, value = "interval")
+	protected int interval = 10;
+
+	@Order(2)
+	@Info("Resume from the checkpoint file if it exists.")
+	@Constant(namespace = Checkpoint.class, value = "resume")
+	protected boolean resume = true;
+
+	public String getFilename() {
+		return filename;
+	}
+
+	public void setFilename(String filename) {
+		this.filename = filename;
+	}
+
+	public int getInterval() {
+		return interval;
+	}
+
+	public void setInterval(int interval) {
+		this.interval = interval;
+	}
+
+	public boolean isResume() {
+		return resume;
+	}
+
+	public void setResume(boolean resume) {
+		this.resume = resume;
+	}
+
+	@Override
+	protected void config() {
+		bind(Checkpoint.class).in(SINGLETON);
+		addOptimizerStateListener(Checkpoint.class);
+		addOptimizerIterationListener(Checkpoint.class);
+	}
+
+}
@@ -21,14 +21,9 @@
  *******************************************************************************/
 package net.sf.opendse.optimization.io;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Iterator;
 
-import net.sf.opendse.io.SpecificationWriter;
+import net.sf.opendse.io.SpecificationStreamWriter;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.optimization.ImplementationWrapper;
 
@@ -40,17 +35,27 @@ import org.opt4j.core.start.Constant;
 
 import com.google.inject.Inject;
 
+/**
+ * The {@code ImplementationOutput} writes the implementations of the
+ * {@link Archive} to a file once the optimization has stopped. The
+ * implementations are streamed one by one by the
+ * {@link SpecificationStreamWriter}. The file is compressed with gzip if its
+ * name ends with {@code .gz}.
+ */
 public class ImplementationOutput implements OptimizerStateListener {
 
 	protected final Archive archive;
 	protected final String filename;
+	protected final boolean differencesOnly;
 
 	@Inject
 	public ImplementationOutput(Archive archive,
-			@Constant(namespace = ImplementationOutput.class, value = "filename") String filename) {
+			@Constant(namespace = ImplementationOutput.class, value = "filename") String filename,
+			@Constant(namespace = ImplementationOutput.class, value = "differencesOnly") boolean differencesOnly) {
 		super();
 		this.archive = archive;
 		this.filename = filename;
+		this.differencesOnly = differencesOnly;
 	}
 
 	@Override
@@ -61,25 +66,40 @@ public class ImplementationOutput implements OptimizerStateListener {
 
 	@Override
 	public void optimizationStopped(Optimizer optimizer) {
-		File file = new File(filename);
-		try {
-			FileOutputStream out = new FileOutputStream(file);
+		SpecificationStreamWriter writer = new SpecificationStreamWriter(true, differencesOnly);
+		writer.write(getImplementations(), filename);
+	}
 
-			Set<Specification> implementations = new HashSet<Specification>();
-			for (Individual individual : archive) {
-				ImplementationWrapper wrapper = (ImplementationWrapper) individual.getPhenotype();
-				implementations.add(wrapper.getImplementation());
-			}
-			SpecificationWriter writer = new SpecificationWriter();
-			writer.write(implementations, out);
-			out.close();
+	/**
+	 * Returns the implementations of the archive. The implementations are
+	 * obtained lazily from the phenotypes of the individuals.
+	 * 
+	 * @return the implementations of the archive
+	 */
+	protected Iterable<Specification> getImplementations() {
+		return new Iterable<Specification>() {
+			@Override
+			public Iterator<Specification> iterator() {
+				final Iterator<Individual> iterator = archive.iterator();
+				return new Iterator<Specification>() {
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
 
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+					@Override
+					public Specification next() {
+						ImplementationWrapper wrapper = (ImplementationWrapper) iterator.next().getPhenotype();
+						return wrapper.getImplementation();
+					}
 
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
 	}
 
 }
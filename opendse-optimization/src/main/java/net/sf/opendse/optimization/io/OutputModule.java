@@ -22,6 +22,7 @@
 package net.sf.opendse.optimization.io;
 
 import org.opt4j.core.config.annotations.File;
+import org.opt4j.core.config.annotations.Info;
 import org.opt4j.core.start.Constant;
 
 public class OutputModule extends IOModule {
@@ -30,6 +31,10 @@ public class OutputModule extends IOModule {
 	@Constant(namespace = ImplementationOutput.class, value = "filename")
 	protected String filename = "";
 
+	@Info("Write only the attributes that differ from the specification.")
+	@Constant(namespace = ImplementationOutput.class, value = "differencesOnly")
+	protected boolean differencesOnly = false;
+
 	public String getFilename() {
 		return filename;
 	}
@@ -38,6 +43,14 @@ public class OutputModule extends IOModule {
 		this.filename = filename;
 	}
 
+	public boolean isDifferencesOnly() {
+		return differencesOnly;
+	}
+
+	public void setDifferencesOnly(boolean differencesOnly) {
+		this.differencesOnly = differencesOnly;
+	}
+
 	@Override
 	protected void config() {
 		addOptimizerStateListener(ImplementationOutput.class);
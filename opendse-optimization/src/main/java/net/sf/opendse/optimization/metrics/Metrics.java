@@ -0,0 +1,426 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code Metrics} collect the latencies of the stages of the design space
+ * exploration (e.g., the encoding, the SAT solving, the interpretation, and
+ * the evaluation) and values such as the number of constraints and
+ * variables.
+ * <p>
+ * A stage is measured by {@link #start(String)} and {@link Sample#stop()}.
+ * For each stage, the number of samples, the total and maximal duration, and
+ * a histogram with power-of-two buckets in nanoseconds are kept. If
+ * allocation tracking is enabled and supported by the virtual machine, the
+ * bytes allocated by the current thread during a sample are added up as
+ * well.
+ * <p>
+ * The enabled {@code Metrics} are only bound by the {@link MetricsModule}.
+ * Otherwise, the components keep the {@link #DISABLED} metrics.
+ */
+public class Metrics implements MetricsMBean {
+
+	/**
+	 * The metrics that do not record anything. These are used if the
+	 * {@link MetricsModule} is not installed.
+	 */
+	public static final Metrics DISABLED = new Metrics(false);
+
+	protected static final Sample NONE = new Sample(null, null, 0, 0) {
+		@Override
+		public long stop() {
+			return 0;
+		}
+	};
+
+	protected final boolean enabled;
+	protected volatile boolean allocationTracking = false;
+
+	protected final ConcurrentMap<String, Stage> stages = new ConcurrentHashMap<String, Stage>();
+	protected final ConcurrentMap<String, AtomicLong> values = new ConcurrentHashMap<String, AtomicLong>();
+	protected final List<MetricsListener> listeners = new CopyOnWriteArrayList<MetricsListener>();
+
+	/**
+	 * Constructs {@code Metrics}.
+	 *
+	 * @param enabled
+	 *            {@code true} if samples and values are recorded
+	 */
+	public Metrics(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean isAllocationTracking() {
+		return allocationTracking;
+	}
+
+	/**
+	 * Enables or disables the allocation tracking. The tracking is only
+	 * enabled if the virtual machine supports the measurement of the thread
+	 * allocated bytes.
+	 *
+	 * @param allocationTracking
+	 *            {@code true} if allocations are tracked
+	 */
+	public void setAllocationTracking(boolean allocationTracking) {
+		try {
+			this.allocationTracking = allocationTracking && Allocation.isSupported();
+		} catch (LinkageError e) {
+			// the management extensions are not available
+			this.allocationTracking = false;
+		}
+	}
+
+	public void addListener(MetricsListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(MetricsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts a sample of a stage.
+	 *
+	 * @param stage
+	 *            the name of the stage
+	 * @return the sample that has to be stopped at the end of the stage
+	 */
+	public Sample start(String stage) {
+		if (!enabled) {
+			return NONE;
+		}
+		long bytes = allocationTracking ? Allocation.getAllocatedBytes() : 0;
+		return new Sample(this, stage, System.nanoTime(), bytes);
+	}
+
+	/**
+	 * Records a sample of a stage.
+	 *
+	 * @param stage
+	 *            the name of the stage
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 * @param bytes
+	 *            the allocated bytes
+	 */
+	public void record(String stage, long nanos, long bytes) {
+		if (!enabled) {
+			return;
+		}
+		getOrCreateStage(stage).add(nanos, bytes);
+		for (MetricsListener listener : listeners) {
+			listener.stageCompleted(stage, nanos, bytes);
+		}
+	}
+
+	/**
+	 * Sets a value.
+	 *
+	 * @param name
+	 *            the name of the value
+	 * @param value
+	 *            the value
+	 */
+	public void setValue(String name, long value) {
+		if (!enabled) {
+			return;
+		}
+		AtomicLong v = values.get(name);
+		if (v == null) {
+			values.putIfAbsent(name, new AtomicLong());
+			v = values.get(name);
+		}
+		v.set(value);
+		for (MetricsListener listener : listeners) {
+			listener.valueChanged(name, value);
+		}
+	}
+
+	/**
+	 * Returns the stage with the given name or {@code null}.
+	 *
+	 * @param stage
+	 *            the name of the stage
+	 * @return the stage or {@code null}
+	 */
+	public Stage getStage(String stage) {
+		return stages.get(stage);
+	}
+
+	protected Stage getOrCreateStage(String name) {
+		Stage stage = stages.get(name);
+		if (stage == null) {
+			stages.putIfAbsent(name, new Stage(name));
+			stage = stages.get(name);
+		}
+		return stage;
+	}
+
+	/**
+	 * Returns the stages sorted by their names.
+	 *
+	 * @return the stages
+	 */
+	public List<Stage> getStages() {
+		List<String> names = new ArrayList<String>(stages.keySet());
+		Collections.sort(names);
+		List<Stage> list = new ArrayList<Stage>();
+		for (String name : names) {
+			list.add(stages.get(name));
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the values sorted by their names.
+	 *
+	 * @return the values
+	 */
+	public Map<String, Long> getValues() {
+		Map<String, Long> map = new TreeMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : values.entrySet()) {
+			map.put(entry.getKey(), entry.getValue().get());
+		}
+		return map;
+	}
+
+	@Override
+	public String[] getStageNames() {
+		List<String> names = new ArrayList<String>(stages.keySet());
+		Collections.sort(names);
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return getValues().keySet().toArray(new String[0]);
+	}
+
+	@Override
+	public long getCount(String stage) {
+		Stage s = stages.get(stage);
+		return s == null ? 0 : s.getCount();
+	}
+
+	@Override
+	public double getTotalMillis(String stage) {
+		Stage s = stages.get(stage);
+		return s == null ? 0 : s.getTotalNanos() / 1e6;
+	}
+
+	@Override
+	public double getMeanMicros(String stage) {
+		Stage s = stages.get(stage);
+		return s == null ? 0 : s.getMeanNanos() / 1e3;
+	}
+
+	@Override
+	public double getPercentileMicros(String stage, double percentile) {
+		Stage s = stages.get(stage);
+		return s == null ? 0 : s.getPercentileNanos(percentile) / 1e3;
+	}
+
+	@Override
+	public long getAllocatedBytes(String stage) {
+		Stage s = stages.get(stage);
+		return s == null ? 0 : s.getAllocatedBytes();
+	}
+
+	@Override
+	public long getValue(String name) {
+		AtomicLong v = values.get(name);
+		return v == null ? 0 : v.get();
+	}
+
+	@Override
+	public String getReport() {
+		return MetricsReport.toCSV(this);
+	}
+
+	@Override
+	public void reset() {
+		stages.clear();
+		values.clear();
+	}
+
+	/**
+	 * A running sample of a stage.
+	 */
+	public static class Sample {
+
+		protected final Metrics metrics;
+		protected final String stage;
+		protected final long start;
+		protected final long bytes;
+
+		protected Sample(Metrics metrics, String stage, long start, long bytes) {
+			this.metrics = metrics;
+			this.stage = stage;
+			this.start = start;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Stops the sample and records it.
+		 *
+		 * @return the duration in nanoseconds
+		 */
+		public long stop() {
+			long nanos = System.nanoTime() - start;
+			long allocated = metrics.allocationTracking ? Allocation.getAllocatedBytes() - bytes : 0;
+			metrics.record(stage, nanos, allocated);
+			return nanos;
+		}
+	}
+
+	/**
+	 * The statistics of a stage.
+	 */
+	public static class Stage {
+
+		protected static final int BUCKETS = 64;
+
+		protected final String name;
+		protected final AtomicLong count = new AtomicLong();
+		protected final AtomicLong totalNanos = new AtomicLong();
+		protected final AtomicLong maxNanos = new AtomicLong();
+		protected final AtomicLong allocatedBytes = new AtomicLong();
+		protected final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		public Stage(String name) {
+			this.name = name;
+		}
+
+		protected void add(long nanos, long bytes) {
+			nanos = Math.max(0, nanos);
+			count.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			allocatedBytes.addAndGet(Math.max(0, bytes));
+			long max = maxNanos.get();
+			while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+				max = maxNanos.get();
+			}
+			histogram.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1));
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCount() {
+			return count.get();
+		}
+
+		public long getTotalNanos() {
+			return totalNanos.get();
+		}
+
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+
+		public long getAllocatedBytes() {
+			return allocatedBytes.get();
+		}
+
+		public double getMeanNanos() {
+			long c = count.get();
+			return c == 0 ? 0 : (double) totalNanos.get() / c;
+		}
+
+		/**
+		 * Returns an upper bound of the given percentile of the durations
+		 * that is derived from the histogram.
+		 *
+		 * @param percentile
+		 *            the percentile (between 0 and 100)
+		 * @return the upper bound in nanoseconds
+		 */
+		public long getPercentileNanos(double percentile) {
+			long c = count.get();
+			if (c == 0) {
+				return 0;
+			}
+			long threshold = (long) Math.ceil(c * percentile / 100.0);
+			long sum = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				sum += histogram.get(i);
+				if (sum >= threshold && sum > 0) {
+					long upper = i >= BUCKETS - 2 ? Long.MAX_VALUE : (2L << i) - 1;
+					return Math.min(upper, getMaxNanos());
+				}
+			}
+			return getMaxNanos();
+		}
+	}
+
+	/**
+	 * Measures the bytes allocated by the current thread if supported by the
+	 * virtual machine.
+	 */
+	protected static class Allocation {
+
+		protected static final com.sun.management.ThreadMXBean bean = getBean();
+
+		protected static com.sun.management.ThreadMXBean getBean() {
+			try {
+				java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+				if (bean instanceof com.sun.management.ThreadMXBean) {
+					com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+					if (b.isThreadAllocatedMemorySupported()) {
+						b.setThreadAllocatedMemoryEnabled(true);
+						return b;
+					}
+				}
+			} catch (Throwable e) {
+				// not supported by this virtual machine
+			}
+			return null;
+		}
+
+		protected static boolean isSupported() {
+			return bean != null;
+		}
+
+		protected static long getAllocatedBytes() {
+			return bean == null ? 0 : bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+
+}
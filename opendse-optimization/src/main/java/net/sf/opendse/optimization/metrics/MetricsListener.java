@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.metrics;
+
+/**
+ * The {@code MetricsListener} is notified by the {@link Metrics} whenever a
+ * stage sample was recorded or a value was set.
+ */
+public interface MetricsListener {
+
+	/**
+	 * Invoked when a stage sample was recorded.
+	 *
+	 * @param stage
+	 *            the name of the stage
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 * @param bytes
+	 *            the estimated number of allocated bytes (or 0 if allocation
+	 *            tracking is disabled)
+	 */
+	public void stageCompleted(String stage, long nanos, long bytes);
+
+	/**
+	 * Invoked when a value (e.g., the number of constraints) was set.
+	 *
+	 * @param name
+	 *            the name of the value
+	 * @param value
+	 *            the value
+	 */
+	public void valueChanged(String name, long value);
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.metrics;
+
+import net.sf.opendse.optimization.DesignSpaceExplorationModule;
+
+import org.opt4j.core.config.annotations.File;
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+import org.opt4j.core.start.Constant;
+
+public class MetricsModule extends DesignSpaceExplorationModule {
+
+	@Order(0)
+	@File
+	@Info("The report file (JSON if the name ends with .json, CSV otherwise).")
+	@Constant(namespace = MetricsReport.class, value = "filename")
+	protected String filename = "metrics.csv";
+
+	@Order(1)
+	@Info("Register the metrics as MBean.")
+	@Constant(namespace = MetricsReport.class, value = "jmx")
+	protected boolean jmx = false;
+
+	@Order(2)
+	@Info("Estimate the allocated bytes per stage.")
+	@Constant(namespace = MetricsReport.class, value = "allocationTracking")
+	protected boolean allocationTracking = false;
+
+	public String getFilename() {
+		return filename;
+	}
+
+	public void setFilename(String filename) {
+		this.filename = filename;
+	}
+
+	public boolean isJmx() {
+		return jmx;
+	}
+
+	public void setJmx(boolean jmx) {
+		this.jmx = jmx;
+	}
+
+	public boolean isAllocationTracking() {
+		return allocationTracking;
+	}
+
+	public void setAllocationTracking(boolean allocationTracking) {
+		this.allocationTracking = allocationTracking;
+	}
+
+	@Override
+	protected void config() {
+		bind(Metrics.class).toInstance(new Metrics(true));
+		addOptimizerStateListener(MetricsReport.class);
+	}
+
+}
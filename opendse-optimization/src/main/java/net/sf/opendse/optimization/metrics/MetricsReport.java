@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.metrics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.sf.opendse.optimization.metrics.Metrics.Stage;
+
+import org.opt4j.core.optimizer.Optimizer;
+import org.opt4j.core.optimizer.OptimizerStateListener;
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code MetricsReport} configures the {@link Metrics} when the
+ * optimization starts, optionally registers them as MBean, and writes a
+ * report once the optimization has stopped. The report is written as JSON if
+ * the filename ends with {@code .json} and as CSV otherwise.
+ */
+public class MetricsReport implements OptimizerStateListener {
+
+	protected final Metrics metrics;
+	protected final String filename;
+	protected final boolean jmx;
+	protected final boolean allocationTracking;
+
+	protected ObjectName objectName = null;
+
+	@Inject
+	public MetricsReport(Metrics metrics, @Constant(namespace = MetricsReport.class, value = "filename") String filename,
+			@Constant(namespace = MetricsReport.class, value = "jmx") boolean jmx,
+			@Constant(namespace = MetricsReport.class, value = "allocationTracking") boolean allocationTracking) {
+		super();
+		this.metrics = metrics;
+		this.filename = filename;
+		this.jmx = jmx;
+		this.allocationTracking = allocationTracking;
+	}
+
+	@Override
+	public void optimizationStarted(Optimizer optimizer) {
+		metrics.setAllocationTracking(allocationTracking);
+		if (jmx) {
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				objectName = new ObjectName("net.sf.opendse:type=Metrics,id="
+						+ Integer.toHexString(System.identityHashCode(metrics)));
+				server.registerMBean(metrics, objectName);
+			} catch (Exception e) {
+				System.err.println("Failed to register the metrics MBean: " + e.getMessage());
+				objectName = null;
+			}
+		}
+	}
+
+	@Override
+	public void optimizationStopped(Optimizer optimizer) {
+		if (objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (Exception e) {
+				// already unregistered
+			}
+			objectName = null;
+		}
+		if (filename != null && !filename.isEmpty()) {
+			try {
+				write(metrics, filename);
+			} catch (IOException e) {
+				System.err.println("Failed to write the metrics report " + filename + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Writes the report of the metrics to a file. The report is written as
+	 * JSON if the filename ends with {@code .json} and as CSV otherwise.
+	 *
+	 * @param metrics
+	 *            the metrics
+	 * @param filename
+	 *            the filename
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(Metrics metrics, String filename) throws IOException {
+		String report = filename.toLowerCase(Locale.ENGLISH).endsWith(".json") ? toJSON(metrics) : toCSV(metrics);
+		Writer writer = new FileWriter(filename);
+		try {
+			writer.write(report);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Returns the metrics as CSV. The stages are followed by an empty line and
+	 * the values.
+	 *
+	 * @param metrics
+	 *            the metrics
+	 * @return the CSV string
+	 */
+	public static String toCSV(Metrics metrics) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("stage,count,total_ms,mean_us,p50_us,p90_us,p99_us,max_us,allocated_bytes\n");
+		for (Stage stage : metrics.getStages()) {
+			sb.append(csv(stage.getName())).append(',');
+			sb.append(stage.getCount()).append(',');
+			sb.append(format(stage.getTotalNanos() / 1e6)).append(',');
+			sb.append(format(stage.getMeanNanos() / 1e3)).append(',');
+			sb.append(format(stage.getPercentileNanos(50) / 1e3)).append(',');
+			sb.append(format(stage.getPercentileNanos(90) / 1e3)).append(',');
+			sb.append(format(stage.getPercentileNanos(99) / 1e3)).append(',');
+			sb.append(format(stage.getMaxNanos() / 1e3)).append(',');
+			sb.append(stage.getAllocatedBytes()).append('\n');
+		}
+		sb.append('\n');
+		sb.append("value,count\n");
+		for (Entry<String, Long> entry : metrics.getValues().entrySet()) {
+			sb.append(csv(entry.getKey())).append(',').append(entry.getValue()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the metrics as JSON.
+	 *
+	 * @param metrics
+	 *            the metrics
+	 * @return the JSON string
+	 */
+	public static String toJSON(Metrics metrics) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"stages\": [");
+		Iterator<Stage> it = metrics.getStages().iterator();
+		while (it.hasNext()) {
+			Stage stage = it.next();
+			sb.append("\n    {");
+			sb.append("\"stage\": ").append(json(stage.getName()));
+			sb.append(", \"count\": ").append(stage.getCount());
+			sb.append(", \"total_ms\": ").append(format(stage.getTotalNanos() / 1e6));
+			sb.append(", \"mean_us\": ").append(format(stage.getMeanNanos() / 1e3));
+			sb.append(", \"p50_us\": ").append(format(stage.getPercentileNanos(50) / 1e3));
+			sb.append(", \"p90_us\": ").append(format(stage.getPercentileNanos(90) / 1e3));
+			sb.append(", \"p99_us\": ").append(format(stage.getPercentileNanos(99) / 1e3));
+			sb.append(", \"max_us\": ").append(format(stage.getMaxNanos() / 1e3));
+			sb.append(", \"allocated_bytes\": ").append(stage.getAllocatedBytes());
+			sb.append("}");
+			if (it.hasNext()) {
+				sb.append(",");
+			}
+		}
+		sb.append("\n  ],\n  \"values\": {");
+		Iterator<Entry<String, Long>> iv = metrics.getValues().entrySet().iterator();
+		while (iv.hasNext()) {
+			Entry<String, Long> entry = iv.next();
+			sb.append("\n    ").append(json(entry.getKey())).append(": ").append(entry.getValue());
+			if (iv.hasNext()) {
+				sb.append(",");
+			}
+		}
+		sb.append("\n  }\n}\n");
+		return sb.toString();
+	}
+
+	protected static String format(double value) {
+		return String.format(Locale.ENGLISH, "%.3f", value);
+	}
+
+	protected static String csv(String s) {
+		if (s.indexOf(',') < 0 && s.indexOf('"') < 0) {
+			return s;
+		}
+		return "\"" + s.replace("\"", "\"\"") + "\"";
+	}
+
+	protected static String json(String s) {
+		StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+}
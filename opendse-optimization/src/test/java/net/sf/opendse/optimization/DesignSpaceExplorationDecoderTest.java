@@ -0,0 +1,78 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.opt4j.core.Genotype;
+import org.opt4j.core.genotype.CompositeGenotype;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterReference;
+import net.sf.opendse.model.parameter.Parameters;
+
+public class DesignSpaceExplorationDecoderTest {
+
+	@Test
+	public void testDecodeParameters() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t = new Task("t");
+		t.setAttribute("priority", Parameters.range(2, 0, 10));
+		application.addVertex(t);
+
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		r0.setAttribute("frequency", Parameters.select(100, 100, 200, 300));
+		r0.setAttribute("voltage", Parameters.selectRef("frequency", 1.0, 1.0, 1.2, 1.5));
+		Resource r1 = new Resource("r1");
+		r1.setAttribute("cost", 5);
+		architecture.addVertex(r0);
+		architecture.addVertex(r1);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(new Mapping<Task, Resource>("m", t, r0));
+		Specification specification = new Specification(application, architecture, mappings);
+
+		Specification implementation = Models.copy(specification);
+
+		SATCreatorDecoder satDecoder = mock(SATCreatorDecoder.class);
+		when(satDecoder.decode(any(Genotype.class))).thenReturn(new ImplementationWrapper(implementation));
+
+		ParameterMap parameterMap = new ParameterMap();
+		parameterMap.put(new ParameterReference(r0, "frequency"), 200);
+		parameterMap.put(new ParameterReference(t, "priority"), 7);
+		ParameterDecoder parameterDecoder = mock(ParameterDecoder.class);
+		when(parameterDecoder.decode(ArgumentMatchers.<CompositeGenotype<String, Genotype>> any())).thenReturn(parameterMap);
+
+		SpecificationWrapper specificationWrapper = mock(SpecificationWrapper.class);
+		when(specificationWrapper.getSpecification()).thenReturn(specification);
+
+		DesignSpaceExplorationDecoder decoder = new DesignSpaceExplorationDecoder(satDecoder, parameterDecoder,
+				specificationWrapper);
+		CompositeGenotype<String, Genotype> genotype = new CompositeGenotype<String, Genotype>();
+		genotype.put("SAT", mock(Genotype.class));
+		genotype.put("PARAMETER", new CompositeGenotype<String, Genotype>());
+
+		Specification result = decoder.decode(genotype).getImplementation();
+		assertSame(implementation, result);
+
+		Resource ir0 = result.getArchitecture().getVertex("r0");
+		assertEquals(200, (int) ir0.<Integer> getAttribute("frequency"));
+		assertEquals(1.2, ir0.<Double> getAttribute("voltage"), 0.0);
+		assertEquals(7, (int) result.getApplication().getVertex("t").<Integer> getAttribute("priority"));
+		assertEquals(5, (int) result.getArchitecture().getVertex("r1").<Integer> getAttribute("cost"));
+	}
+
+}
@@ -0,0 +1,136 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.start.Opt4JModule;
+import org.opt4j.core.start.Opt4JTask;
+import org.opt4j.optimizers.ea.EvolutionaryAlgorithmModule;
+
+import com.google.inject.Module;
+
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.evaluator.SumEvaluatorModule;
+import net.sf.opendse.optimization.genotype.SATVectorGenotype;
+import net.sf.opendse.optimization.io.SpecificationWrapperInstance;
+import net.sf.opendse.optimization.test.TestSpecifications;
+
+public class IslandExplorationTest {
+
+	protected Collection<Module> getModules(final Specification specification) {
+		EvolutionaryAlgorithmModule ea = new EvolutionaryAlgorithmModule();
+		ea.setGenerations(6);
+		ea.setAlpha(4);
+		ea.setMu(2);
+		ea.setLambda(2);
+
+		SumEvaluatorModule sum = new SumEvaluatorModule();
+		sum.setSum("cost");
+
+		OptimizationModule optimization = new OptimizationModule();
+		optimization.setStagnationRestartEnabled(false);
+
+		Collection<Module> modules = new ArrayList<Module>();
+		modules.add(ea);
+		modules.add(optimization);
+		modules.add(sum);
+		modules.add(new Opt4JModule() {
+			@Override
+			protected void config() {
+				bind(SpecificationWrapper.class).toInstance(new SpecificationWrapperInstance(specification));
+			}
+		});
+		return modules;
+	}
+
+	@Test
+	public void testExplore() throws Exception {
+		IslandExploration exploration = new IslandExploration(getModules(TestSpecifications.getAlternatives(4)), 3);
+		exploration.setMigrationInterval(2);
+		exploration.setMigrants(2);
+
+		Archive archive = exploration.explore();
+		assertSame(archive, exploration.getArchive());
+		assertFalse(archive.isEmpty());
+
+		for (Individual individual : archive) {
+			Specification implementation = ((ImplementationWrapper) individual.getPhenotype()).getImplementation();
+			assertEquals(1, implementation.getMappings().size());
+		}
+	}
+
+	@Test
+	public void testSpecificationCopies() {
+		Specification specification = TestSpecifications.getAlternatives(4);
+		IslandExploration exploration = new IslandExploration(getModules(specification), 2);
+		Opt4JTask task0 = exploration.createTask(0);
+		Opt4JTask task1 = exploration.createTask(1);
+		try {
+			task0.open();
+			task1.open();
+			Specification specification0 = task0.getInstance(SpecificationWrapper.class).getSpecification();
+			Specification specification1 = task1.getInstance(SpecificationWrapper.class).getSpecification();
+			assertNotSame(specification, specification0);
+			assertNotSame(specification0, specification1);
+			assertEquals(specification.getArchitecture().getVertexCount(),
+					specification0.getArchitecture().getVertexCount());
+		} finally {
+			task0.close();
+			task1.close();
+		}
+	}
+
+	protected Set<String> getMappings(Genotype genotype, Opt4JTask task) {
+		@SuppressWarnings("unchecked")
+		CompositeGenotype<String, Genotype> composite = (CompositeGenotype<String, Genotype>) genotype;
+		ImplementationWrapper wrapper = task.getInstance(DesignSpaceExplorationDecoder.class).decode(composite);
+		Set<String> mappings = new HashSet<String>();
+		for (Mapping<Task, Resource> mapping : wrapper.getImplementation().getMappings()) {
+			mappings.add(mapping.getSource().getId() + ":" + mapping.getTarget().getId());
+		}
+		return mappings;
+	}
+
+	@Test
+	public void testMigratedGenotype() {
+		IslandExploration exploration = new IslandExploration(getModules(TestSpecifications.getAlternatives(4)), 2);
+		Opt4JTask task0 = exploration.createTask(0);
+		Opt4JTask task1 = exploration.createTask(1);
+		try {
+			task0.open();
+			task1.open();
+			Genotype genotype = task0.getInstance(DesignSpaceExplorationCreator.class).create();
+			Genotype local = task1.getInstance(DesignSpaceExplorationCreator.class).create();
+			IslandMigration migration = task1.getInstance(IslandMigration.class);
+
+			Genotype migrated = migration.remap(migration.copy.copy(genotype), local);
+			SATVectorGenotype satMigrated = ((CompositeGenotype<?, ?>) migrated).get("SAT");
+			SATVectorGenotype satLocal = ((CompositeGenotype<?, ?>) local).get("SAT");
+			SATVectorGenotype satGenotype = ((CompositeGenotype<?, ?>) genotype).get("SAT");
+			assertSame(satLocal.getIndex(), satMigrated.getIndex());
+			assertNotSame(satGenotype.getIndex(), satMigrated.getIndex());
+
+			assertEquals(getMappings(genotype, task0), getMappings(migrated, task1));
+		} finally {
+			task0.close();
+			task1.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoIslands() {
+		new IslandExploration(new ArrayList<Module>(), 0);
+	}
+}
@@ -2,14 +2,23 @@ package net.sf.opendse.optimization;
 
 import static org.junit.Assert.*;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 import org.opt4j.core.common.random.Rand;
 import org.opt4j.core.optimizer.Control;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
 import org.opt4j.satdecoding.SATManager;
 
 import net.sf.opendse.optimization.encoding.Interpreter;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 public class SATCreatorDecoderTest {
@@ -74,4 +83,36 @@ public class SATCreatorDecoderTest {
 		SATCreatorDecoder testObject = getObject();
 		testObject.getUpperOrderBound(orderSize, orderIndex);
 	}
+
+	@Test
+	public void testLazyConstraints() {
+		SATCreatorDecoder testObject = getObject();
+		final Model model = new Model();
+		model.set("a", true);
+		when(testObject.constraints.decorate(model)).thenReturn(model);
+		assertFalse(testObject.addViolatedConstraints(model));
+
+		final Constraint constraint = new Constraint("<=", 0);
+		LazyConstraints lazy = new LazyConstraints() {
+			boolean added = false;
+
+			@Override
+			public Collection<Constraint> getViolatedConstraints(Model m) {
+				assertSame(model, m);
+				if (added) {
+					return Collections.emptySet();
+				}
+				added = true;
+				return Collections.singleton(constraint);
+			}
+		};
+		Set<LazyConstraints> lazyConstraints = new HashSet<LazyConstraints>();
+		lazyConstraints.add(lazy);
+		SATIncremental incremental = mock(SATIncremental.class);
+		testObject.setLazyConstraints(lazyConstraints, incremental);
+
+		assertTrue(testObject.addViolatedConstraints(model));
+		verify(incremental).add(constraint);
+		assertFalse(testObject.addViolatedConstraints(model));
+	}
 }
@@ -4,45 +4,29 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 import org.opt4j.core.Individual;
+import org.opt4j.core.Objective.Sign;
 import org.opt4j.core.Objectives;
 import org.opt4j.core.optimizer.Population;
 
 public class StagnationRestartTest {
 
 	class MockIndividual extends Individual {
-		public MockIndividual(boolean dominated) {
+		public MockIndividual(double cost) {
 			super();
-			setObjectives(dominated ? new MockDominatedObjectives() : new MockDominantObjectives());
-		}
-	}
-
-	class MockPopulation extends Population {
-
-	}
-
-	class MockDominatedObjectives extends Objectives {
-		@Override
-		public boolean dominates(Objectives opponent) {
-			return false;
-		}
-	}
-
-	class MockDominantObjectives extends Objectives {
-		@Override
-		public boolean dominates(Objectives opponent) {
-			return true;
+			Objectives objectives = new Objectives();
+			objectives.add("cost", Sign.MIN, cost);
+			setObjectives(objectives);
 		}
 	}
 
 	@Test
 	public void testNoStagnation() {
 		Population population = new Population();
-		Individual indi1 = new MockIndividual(false);
-		Individual indi2 = new MockIndividual(false);
+		Individual indi1 = new MockIndividual(1);
+		Individual indi2 = new MockIndividual(2);
 		population.add(indi1);
 		population.add(indi2);
 		StagnationRestart restart = new StagnationRestart(population, 20);
-		restart.archive.add(indi1);
 		restart.archive.add(indi2);
 		assertEquals(0, restart.lastUpdate);
 		restart.iterationComplete(21);
@@ -54,8 +38,8 @@ public class StagnationRestartTest {
 	@Test
 	public void testStagnation() {
 		Population population = new Population();
-		Individual indi1 = new MockIndividual(true);
-		Individual indi2 = new MockIndividual(true);
+		Individual indi1 = new MockIndividual(1);
+		Individual indi2 = new MockIndividual(1);
 		population.add(indi1);
 		population.add(indi2);
 		StagnationRestart restart = new StagnationRestart(population, 20);
@@ -0,0 +1,120 @@
+package net.sf.opendse.optimization.archive;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.core.Individual;
+import org.opt4j.core.Objective.Sign;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.common.archive.UnboundedArchive;
+
+public class NDTreeArchiveTest {
+
+	class MockIndividual extends Individual {
+		public MockIndividual(double... values) {
+			super();
+			Objectives objectives = new Objectives();
+			for (int i = 0; i < values.length; i++) {
+				objectives.add("o" + i, Sign.MIN, values[i]);
+			}
+			setObjectives(objectives);
+		}
+	}
+
+	protected Set<Individual> createIndividuals(Random random, int n, int dimension, int range) {
+		Set<Individual> individuals = new HashSet<Individual>();
+		for (int i = 0; i < n; i++) {
+			double[] values = new double[dimension];
+			for (int j = 0; j < dimension; j++) {
+				values[j] = random.nextInt(range);
+			}
+			individuals.add(new MockIndividual(values));
+		}
+		return individuals;
+	}
+
+	protected Set<List<Double>> getPoints(Set<Individual> individuals) {
+		Set<List<Double>> points = new HashSet<List<Double>>();
+		for (Individual individual : individuals) {
+			List<Double> point = new ArrayList<Double>();
+			for (double value : individual.getObjectives().array()) {
+				point.add(value);
+			}
+			points.add(point);
+		}
+		return points;
+	}
+
+	@Test
+	public void testUpdate() {
+		Random random = new Random(0);
+		NDTreeArchive archive = new NDTreeArchive();
+		UnboundedArchive reference = new UnboundedArchive();
+
+		for (int i = 0; i < 30; i++) {
+			Set<Individual> candidates = createIndividuals(random, 50, 5, 100);
+			assertEquals(reference.update(candidates), archive.update(candidates));
+			assertEquals(getPoints(reference), getPoints(archive));
+			assertEquals(archive.size(), archive.tree.size());
+
+			// remove some individuals to check the consistency of the index
+			List<Individual> individuals = new ArrayList<Individual>(archive);
+			for (int j = 0; j < individuals.size(); j += 7) {
+				archive.remove(individuals.get(j));
+				reference.remove(individuals.get(j));
+			}
+			assertEquals(archive.size(), archive.tree.size());
+		}
+		assertTrue(archive.size() > NDTree.MAX_LEAF_SIZE);
+	}
+
+	@Test
+	public void testCapacity() {
+		NDTreeArchive archive = new NDTreeArchive(10);
+		archive.update(createIndividuals(new Random(1), 500, 5, 1000));
+		assertEquals(10, archive.size());
+		assertEquals(10, archive.tree.size());
+	}
+
+	@Test
+	public void testDominanceListener() {
+		final List<Individual> dominated = new ArrayList<Individual>();
+		NDTreeArchive archive = new NDTreeArchive();
+		archive.addDominanceListener(new NDTreeArchive.DominanceListener() {
+			@Override
+			public void individualDominates(Individual individual, List<Individual> individuals) {
+				dominated.addAll(individuals);
+			}
+		});
+
+		Individual i0 = new MockIndividual(2, 2);
+		Individual i1 = new MockIndividual(1, 3);
+		Individual i2 = new MockIndividual(3, 1);
+		Individual i3 = new MockIndividual(1, 2);
+
+		archive.update(i0);
+		archive.update(i1);
+		archive.update(i2);
+		assertTrue(dominated.isEmpty());
+		assertEquals(3, archive.size());
+
+		archive.update(new MockIndividual(2, 2));
+		assertTrue(dominated.isEmpty());
+		assertEquals(3, archive.size());
+
+		archive.update(i3);
+		assertEquals(2, dominated.size());
+		assertTrue(dominated.contains(i0));
+		assertTrue(dominated.contains(i1));
+		assertEquals(2, archive.size());
+		assertTrue(archive.contains(i2));
+		assertTrue(archive.contains(i3));
+	}
+
+}
@@ -0,0 +1,84 @@
+package net.sf.opendse.optimization.constraints;
+
+import static net.sf.opendse.optimization.encoding.variables.Variables.p;
+import static net.sf.opendse.optimization.encoding.variables.Variables.var;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Term;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Models.DirectedLink;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.SpecificationWrapper;
+import net.sf.opendse.optimization.test.TestSpecifications;
+
+public class SpecificationCapacityConstraintsTest {
+
+	@Test
+	public void testRoutedCommunications() {
+		Specification specification = TestSpecifications.getCapacity();
+		Map<Element, List<Task>> routed = SpecificationCapacityConstraints.getRoutedCommunications(specification);
+		Task c0 = specification.getApplication().getVertex("c0");
+		Task c1 = specification.getApplication().getVertex("c1");
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+
+		assertEquals(1, routed.get(architecture.getVertex("r0")).size());
+		assertEquals(1, routed.get(architecture.getVertex("bus")).size());
+		assertEquals(2, routed.get(architecture.getVertex("r1")).size());
+		assertTrue(routed.get(architecture.getEdge("l0")).contains(c0));
+		assertTrue(routed.get(architecture.getVertex("r1")).contains(c1));
+		assertNull(routed.get(new Resource("unknown")));
+	}
+
+	@Test
+	public void testCapacityTerms() {
+		Specification specification = TestSpecifications.getCapacity();
+		SpecificationWrapper wrapper = mock(SpecificationWrapper.class);
+		when(wrapper.getSpecification()).thenReturn(specification);
+		SpecificationCapacityConstraints capacityConstraints = new SpecificationCapacityConstraints(wrapper);
+		List<Constraint> constraints = new ArrayList<Constraint>();
+		capacityConstraints.doEncoding(constraints);
+		assertEquals(2, constraints.size());
+
+		Task c0 = specification.getApplication().getVertex("c0");
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Resource bus = architecture.getVertex("bus");
+		Link l0 = architecture.getEdge("l0");
+
+		Set<Literal> busLiterals = new HashSet<Literal>();
+		busLiterals.add(p(var(c0, bus)));
+		Set<Literal> linkLiterals = new HashSet<Literal>();
+		for (DirectedLink lrr : Models.getLinks(architecture, l0)) {
+			linkLiterals.add(p(var(c0, lrr)));
+		}
+
+		for (Constraint constraint : constraints) {
+			assertEquals(10, constraint.getRhs());
+			Set<Literal> literals = new HashSet<Literal>();
+			for (Term term : constraint) {
+				assertEquals(3, term.getCoefficient());
+				literals.add(term.getLiteral());
+			}
+			assertTrue(literals.equals(busLiterals) || literals.equals(linkLiterals));
+		}
+	}
+
+}
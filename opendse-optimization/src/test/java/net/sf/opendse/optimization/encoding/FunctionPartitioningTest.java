@@ -0,0 +1,103 @@
+package net.sf.opendse.optimization.encoding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.CompiledSpecificationWrapper;
+import net.sf.opendse.optimization.SpecificationWrapper;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+import net.sf.opendse.optimization.io.SpecificationWrapperInstance;
+import net.sf.opendse.optimization.test.TestSpecifications;
+
+public class FunctionPartitioningTest {
+
+	protected Set<String> getTasks(Specification specification) {
+		Set<String> tasks = new HashSet<String>();
+		for (Task task : specification.getApplication()) {
+			tasks.add(task.getId());
+		}
+		return tasks;
+	}
+
+	@Test
+	public void testPartition() {
+		Specification specification = TestSpecifications.getFunctions();
+
+		List<Specification> partitions = FunctionPartitioning.partition(specification, 2);
+		assertEquals(2, partitions.size());
+		// the dependent functions f0 and f1 are kept together
+		assertEquals(new HashSet<String>(Arrays.asList("s0", "c0", "t0", "s1", "c1", "t1")),
+				getTasks(partitions.get(0)));
+		assertEquals(new HashSet<String>(Arrays.asList("s2", "c2", "t2")), getTasks(partitions.get(1)));
+
+		Specification partition = partitions.get(1);
+		assertEquals(2, partition.getApplication().getEdgeCount());
+		assertEquals(2, partition.getMappings().size());
+		assertEquals(specification.getRoutings().get(partition.getApplication().getVertex("c2")),
+				partition.getRoutings().get(partition.getApplication().getVertex("c2")));
+		assertTrue(partition.getArchitecture() == specification.getArchitecture());
+
+		assertEquals(1, FunctionPartitioning.partition(specification, 1).size());
+		assertEquals(3, FunctionPartitioning.partition(specification, 10).size());
+	}
+
+	@Test
+	public void testEncode() {
+		Specification specification = TestSpecifications.getFunctions();
+		SpecificationWrapper wrapper = new SpecificationWrapperInstance(specification);
+		Encoding encoding = new Encoding(mock(SpecificationConstraints.class), RoutingEncoding.FLOW, wrapper,
+				new CompiledSpecificationWrapper(wrapper));
+
+		List<Constraint> expected = encoding.toConstraints();
+
+		List<Constraint> constraints = new ArrayList<Constraint>();
+		for (List<Constraint> list : FunctionPartitioning.encode(encoding,
+				FunctionPartitioning.partition(specification, 3), 2)) {
+			constraints.addAll(list);
+		}
+		constraints.addAll(encoding.toSharedConstraints());
+
+		assertEquals(expected.size(), constraints.size());
+		assertEquals(new HashSet<Constraint>(expected), new HashSet<Constraint>(constraints));
+	}
+
+	@Test
+	public void testPreprocess() {
+		Constraint c0 = new Constraint(">=", 1);
+		c0.add(new Literal("x", true));
+		Constraint c1 = new Constraint(">=", 0);
+		c1.add(1, new Literal("y", true));
+		c1.add(-1, new Literal("x", true));
+		Constraint c2 = new Constraint("<=", 1);
+		c2.add(new Literal("y", true));
+		c2.add(new Literal("z", true));
+
+		List<List<Constraint>> partitions = new ArrayList<List<Constraint>>();
+		partitions.add(new ArrayList<Constraint>(Arrays.asList(c0, c1, c2)));
+		List<Constraint> constraints = FunctionPartitioning.preprocess(partitions, 1);
+
+		Set<Literal> units = new HashSet<Literal>();
+		for (Constraint constraint : constraints) {
+			if (constraint.size() == 1 && constraint.getRhs() == 1) {
+				units.add(constraint.get(0).getLiteral());
+			}
+		}
+		assertEquals(new HashSet<Literal>(Arrays.asList(new Literal("x", true), new Literal("y", true),
+				new Literal("z", false))), units);
+	}
+
+}
@@ -0,0 +1,129 @@
+package net.sf.opendse.optimization.encoding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.CompressedRoutings;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.encoding.RoutingFilter.Pruning;
+import net.sf.opendse.optimization.encoding.RoutingFilter.Report;
+
+public class RoutingFilterTest {
+
+	/*
+	 * r0 - r1 - r2 - r3 with the dead end r1 - r4 - r5 and the cycle r2 - r6 -
+	 * r7 - r2
+	 */
+	protected Specification getSpecification(int messages) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource[] r = new Resource[8];
+		for (int i = 0; i < r.length; i++) {
+			r[i] = new Resource("r" + i);
+		}
+		architecture.addEdge(new Link("l0"), r[0], r[1]);
+		architecture.addEdge(new Link("l1"), r[1], r[2]);
+		architecture.addEdge(new Link("l2"), r[2], r[3]);
+		architecture.addEdge(new Link("l3"), r[1], r[4]);
+		architecture.addEdge(new Link("l4"), r[4], r[5]);
+		architecture.addEdge(new Link("l5"), r[2], r[6]);
+		architecture.addEdge(new Link("l6"), r[6], r[7]);
+		architecture.addEdge(new Link("l7"), r[7], r[2]);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (int i = 0; i < messages; i++) {
+			Task sender = new Task("s" + i);
+			Task receiver = new Task("t" + i);
+			Communication c = new Communication("c" + i);
+			application.addEdge(new Dependency("d" + i + "a"), sender, c);
+			application.addEdge(new Dependency("d" + i + "b"), c, receiver);
+			mappings.add(new Mapping<Task, Resource>("m" + i + "a", sender, r[0]));
+			mappings.add(new Mapping<Task, Resource>("m" + i + "b", receiver, r[3]));
+		}
+		return new Specification(application, architecture, mappings);
+	}
+
+	@Test
+	public void testFilter() {
+		Specification specification = getSpecification(1);
+		Report report = RoutingFilter.filter(specification, 1);
+
+		Task c = specification.getApplication().getVertex("c0");
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (String id : new String[] { "r0", "r1", "r2", "r3", "r6", "r7" }) {
+			assertNotNull(routing.getVertex(id));
+		}
+		assertNull(routing.getVertex("r4"));
+		assertNull(routing.getVertex("r5"));
+
+		Pruning pruning = report.get(c);
+		assertEquals(8, pruning.getVertices());
+		assertEquals(6, pruning.getRemainingVertices());
+		assertEquals(8, pruning.getEdges());
+		assertEquals(6, pruning.getRemainingEdges());
+		assertEquals(2, report.getRemovedVertices());
+		assertEquals(2, report.getRemovedEdges());
+	}
+
+	@Test
+	public void testFilterSingleTarget() {
+		Specification specification = getSpecification(1);
+		Task receiver = specification.getApplication().getVertex("t0");
+		Mappings<Task, Resource> mappings = specification.getMappings();
+		for (Mapping<Task, Resource> mapping : mappings.get(receiver)) {
+			mappings.remove(mapping);
+		}
+		mappings.add(new Mapping<Task, Resource>("m", receiver, specification.getArchitecture().getVertex("r0")));
+		RoutingFilter.filter(specification, 1);
+
+		Architecture<Resource, Link> routing = specification.getRoutings().get(
+				specification.getApplication().getVertex("c0"));
+		assertEquals(1, routing.getVertexCount());
+		assertEquals(0, routing.getEdgeCount());
+	}
+
+	@Test
+	public void testFilterParallel() {
+		Specification specification = getSpecification(50);
+		Report report = RoutingFilter.filter(specification, 4);
+
+		assertEquals(50, report.getPrunings().size());
+		assertEquals(100, report.getRemovedVertices());
+		for (Pruning pruning : report.getPrunings()) {
+			Architecture<Resource, Link> routing = specification.getRoutings().get(pruning.getCommunication());
+			assertEquals(6, routing.getVertexCount());
+			assertEquals(6, pruning.getRemainingVertices());
+		}
+	}
+
+	@Test
+	public void testFilterCompressed() {
+		Specification specification = getSpecification(2);
+		CompressedRoutings<Task, Resource, Link> routings = specification.getRoutings();
+		Task c0 = specification.getApplication().getVertex("c0");
+		Task c1 = specification.getApplication().getVertex("c1");
+		assertTrue(routings.isCompressed(c0));
+
+		RoutingFilter.filter(specification, 1);
+
+		assertTrue(routings.isCompressed(c0));
+		assertTrue(routings.isCompressed(c1));
+		assertEquals(6, routings.get(c0).getVertexCount());
+		assertEquals(6, routings.get(c1).getVertexCount());
+		assertTrue(routings.isCompressed(c0));
+	}
+
+}
@@ -0,0 +1,170 @@
+package net.sf.opendse.optimization.encoding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Model;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.test.TestSpecifications;
+
+public class SymmetryBreakingTest {
+
+	protected Specification specification;
+	protected Resource bus;
+	protected Resource e0;
+	protected Resource e1;
+	protected Resource e2;
+	protected Resource e3;
+	protected Task c;
+
+	@Before
+	public void init() {
+		specification = TestSpecifications.getBus();
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		bus = architecture.getVertex("bus");
+		e0 = architecture.getVertex("e0");
+		e1 = architecture.getVertex("e1");
+		e2 = architecture.getVertex("e2");
+		e3 = architecture.getVertex("e3");
+		c = specification.getApplication().getVertex("c");
+	}
+
+	protected Set<Object> getVariables(Specification specification) {
+		Set<Object> variables = new HashSet<Object>();
+		variables.addAll(specification.getArchitecture().getVertices());
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			variables.add(mapping);
+		}
+		return variables;
+	}
+
+	@Test
+	public void testClasses() {
+		SymmetryBreaking symmetryBreaking = new SymmetryBreaking(specification);
+
+		assertEquals(1, symmetryBreaking.getClasses().size());
+		assertEquals(Arrays.asList(e0, e1, e2), symmetryBreaking.getClasses().get(0));
+		assertTrue(symmetryBreaking.isSymmetric("e1"));
+		assertFalse(symmetryBreaking.isSymmetric("e3"));
+		assertFalse(symmetryBreaking.isSymmetric("bus"));
+	}
+
+	@Test
+	public void testReferencedResource() {
+		bus.setAttribute(SpecificationConstraints.ELEMENTS_EXCLUDE, "e2");
+		SymmetryBreaking symmetryBreaking = new SymmetryBreaking(specification);
+
+		assertEquals(1, symmetryBreaking.getClasses().size());
+		assertEquals(Arrays.asList(e0, e1), symmetryBreaking.getClasses().get(0));
+	}
+
+	@Test
+	public void testConstraints() {
+		SymmetryBreaking symmetryBreaking = new SymmetryBreaking(specification);
+		List<Constraint> constraints = symmetryBreaking.toConstraints(getVariables(specification));
+		assertEquals(2, constraints.size());
+
+		// e1 is allocated without e0
+		Model model = getModel(specification, e1);
+		assertFalse(constraints.get(0).isSatisfied(model));
+
+		// e0 is allocated without e1
+		model = getModel(specification, e0);
+		assertTrue(constraints.get(0).isSatisfied(model));
+		assertTrue(constraints.get(1).isSatisfied(model));
+
+		// e0 and e1 are allocated, t0 is bound to e1 only
+		model = getModel(specification, e0, e1);
+		model.set(getMapping(specification, "mt0e1"), true);
+		model.set(getMapping(specification, "mt1e0"), true);
+		assertFalse(constraints.get(0).isSatisfied(model));
+
+		// no constraints without the variables
+		assertTrue(symmetryBreaking.toConstraints(new HashSet<Object>()).isEmpty());
+	}
+
+	protected Mapping<Task, Resource> getMapping(Specification specification, String id) {
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			if (mapping.getId().equals(id)) {
+				return mapping;
+			}
+		}
+		return null;
+	}
+
+	protected Model getModel(Specification specification, Resource... allocated) {
+		Model model = new Model();
+		for (Object variable : getVariables(specification)) {
+			model.set(variable, false);
+		}
+		for (Resource resource : allocated) {
+			model.set(resource, true);
+		}
+		return model;
+	}
+
+	@Test
+	public void testCanonicalHash() {
+		SymmetryBreaking symmetryBreaking = new SymmetryBreaking(specification);
+
+		Specification i0 = getImplementation(specification, e0, e0);
+		Specification i1 = getImplementation(specification, e1, e1);
+		Specification i2 = getImplementation(specification, e0, e1);
+		Specification i3 = getImplementation(specification, e2, e0);
+		Specification i4 = getImplementation(specification, e3, e3);
+
+		assertEquals(symmetryBreaking.getCanonicalHash(i0), symmetryBreaking.getCanonicalHash(i1));
+		assertNotEquals(symmetryBreaking.getHash(i0), symmetryBreaking.getHash(i1));
+		assertEquals(symmetryBreaking.getCanonicalHash(i2), symmetryBreaking.getCanonicalHash(i3));
+		assertNotEquals(symmetryBreaking.getCanonicalHash(i0), symmetryBreaking.getCanonicalHash(i2));
+		assertNotEquals(symmetryBreaking.getCanonicalHash(i0), symmetryBreaking.getCanonicalHash(i4));
+	}
+
+	protected Specification getImplementation(Specification specification, Resource r0, Resource r1) {
+		Architecture<Resource, Link> sArchitecture = specification.getArchitecture();
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		List<Resource> resources = new ArrayList<Resource>(new HashSet<Resource>(Arrays.asList(r0, r1)));
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		for (Resource resource : resources) {
+			Link link = sArchitecture.findEdge(resource, bus);
+			architecture.addEdge(new Link(link), new Resource(resource), new Resource(bus));
+			if (resources.size() > 1) {
+				routing.addEdge(new Link(link), new Resource(resource), new Resource(bus));
+			}
+		}
+		if (resources.size() == 1) {
+			routing.addVertex(new Resource(r0));
+		}
+
+		Application<Task, Dependency> application = specification.getApplication();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(getMapping(specification, "mt0" + r0.getId()));
+		mappings.add(getMapping(specification, "mt1" + r1.getId()));
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		routings.set(c, routing);
+		return new Specification(application, architecture, mappings, routings);
+	}
+
+}
@@ -0,0 +1,121 @@
+package net.sf.opendse.optimization.evaluator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map.Entry;
+
+import org.junit.Test;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.Value;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Dependency;
+
+public class SumEvaluatorTest {
+
+	protected double get(Objectives objectives, String name) {
+		for (Entry<Objective, Value<?>> entry : objectives) {
+			if (entry.getKey().getName().equals(name)) {
+				return entry.getValue().getDouble();
+			}
+		}
+		throw new AssertionError("no objective " + name);
+	}
+
+	protected Specification getImplementation(Resource s1, Resource s2, Mapping<Task, Resource> sm) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r1 = new Resource(s1);
+		Resource r2 = new Resource(s2);
+		architecture.addEdge(new Link("l"), r1, r2);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(new Mapping<Task, Resource>(sm, sm.getSource(), r1));
+
+		return new Specification(new Application<Task, Dependency>(), architecture, mappings);
+	}
+
+	@Test
+	public void testSum() {
+		Resource s1 = new Resource("r1");
+		s1.setAttribute("cost", 2);
+		s1.setAttribute("cost.extra", 1.5);
+		s1.setAttribute("area", 4.0);
+		Resource s2 = new Resource("r2");
+		s2.setAttribute("cost", 3);
+		Mapping<Task, Resource> sm = new Mapping<Task, Resource>("m", new Task("t"), s1);
+		sm.setAttribute("cost", 0.5);
+
+		SumEvaluator evaluator = new SumEvaluator("cost,area", 0, true);
+
+		for (int i = 0; i < 2; i++) {
+			Objectives objectives = new Objectives();
+			evaluator.evaluate(getImplementation(s1, s2, sm), objectives);
+			assertEquals(7.0, get(objectives, "cost"), 0.0);
+			assertEquals(4.0, get(objectives, "area"), 0.0);
+		}
+	}
+
+	@Test
+	public void testSumLocalAttributes() {
+		Resource s1 = new Resource("r1");
+		s1.setAttribute("cost", 2);
+		Resource s2 = new Resource("r2");
+		Mapping<Task, Resource> sm = new Mapping<Task, Resource>("m", new Task("t"), s1);
+
+		SumEvaluator evaluator = new SumEvaluator("cost", 0, true);
+
+		Objectives objectives = new Objectives();
+		evaluator.evaluate(getImplementation(s1, s2, sm), objectives);
+		assertEquals(2.0, get(objectives, "cost"), 0.0);
+
+		Specification implementation = getImplementation(s1, s2, sm);
+		implementation.getArchitecture().getVertex("r1").setAttribute("cost", 5);
+		implementation.getArchitecture().getVertex("r2").setAttribute("cost.extra", 1);
+		objectives = new Objectives();
+		evaluator.evaluate(implementation, objectives);
+		assertEquals(6.0, get(objectives, "cost"), 0.0);
+	}
+
+	@Test
+	public void testPlan() {
+		Resource s1 = new Resource("r1");
+		s1.setAttribute("cost", 2);
+		Resource s2 = new Resource("r2");
+		s2.setAttribute("cost", 3);
+		Mapping<Task, Resource> sm = new Mapping<Task, Resource>("m", new Task("t"), s1);
+		sm.setAttribute("cost", 0.5);
+
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		architecture.addVertex(s1);
+		architecture.addVertex(s2);
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(sm);
+		Specification specification = new Specification(new Application<Task, Dependency>(), architecture,
+				mappings);
+
+		SumEvaluator evaluator = new SumEvaluator("cost", 0, true);
+		evaluator.setSpecification(specification);
+		assertEquals(2, evaluator.resourcePlan.size());
+		assertEquals(1, evaluator.mappingPlan.size());
+
+		Objectives objectives = new Objectives();
+		evaluator.evaluate(getImplementation(s1, s2, sm), objectives);
+		assertEquals(5.5, get(objectives, "cost"), 0.0);
+
+		// elements with the same ids that are not derived from the
+		// specification are summed up directly
+		Resource o1 = new Resource("r1");
+		o1.setAttribute("cost", 10);
+		objectives = new Objectives();
+		evaluator.evaluate(getImplementation(o1, s2, new Mapping<Task, Resource>("m", new Task("t"), o1)), objectives);
+		assertEquals(13.0, get(objectives, "cost"), 0.0);
+	}
+}
@@ -0,0 +1,149 @@
+package net.sf.opendse.optimization.genotype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.core.common.random.RandomJava;
+import org.opt4j.operators.crossover.Pair;
+
+public class SATVectorGenotypeTest {
+
+	protected static final int SIZE = 1000;
+
+	protected SATVectorIndex getIndex() {
+		List<Object> variables = new ArrayList<Object>();
+		int[] classes = new int[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			variables.add("v" + i);
+			classes[i] = i % 2;
+		}
+		return new SATVectorIndex(variables, classes, new double[] { 0.5, 0.0 }, new double[] { 1.0, 0.5 });
+	}
+
+	protected SATVectorGenotype getGenotype(SATVectorIndex index, Rand random) {
+		SATVectorGenotype genotype = new SATVectorGenotype(index);
+		for (int i = 0; i < index.size(); i++) {
+			genotype.setPhase(i, random.nextBoolean());
+			genotype.setPriority(i, index.getLowerBound(i) + 0.5 * (index.getUpperBound(i) - index.getLowerBound(i)));
+		}
+		return genotype;
+	}
+
+	@Test
+	public void testCopy() {
+		Rand random = new RandomJava(0);
+		SATVectorGenotype genotype = getGenotype(getIndex(), random);
+		SATVectorGenotype copy = new CopySATVector().copy(genotype);
+		assertEquals(genotype.size(), copy.size());
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(genotype.getPhase(i), copy.getPhase(i));
+			assertEquals(genotype.getPriority(i), copy.getPriority(i), 0.0);
+		}
+		copy.setPhase(0, !copy.getPhase(0));
+		copy.setPriority(0, 0.9);
+		assertNotEquals(genotype.getPhase(0), copy.getPhase(0));
+		assertEquals(0.75, genotype.getPriority(0), 0.0);
+	}
+
+	@Test
+	public void testRemap() {
+		Rand random = new RandomJava(0);
+		SATVectorIndex index = getIndex();
+		SATVectorGenotype genotype = getGenotype(index, random);
+		for (int i = 0; i < SIZE; i++) {
+			genotype.setPriority(i, random.nextDouble());
+		}
+
+		List<Object> variables = new ArrayList<Object>(index.getVariables());
+		Collections.reverse(variables);
+		variables.set(0, "w");
+		SATVectorIndex reversed = new SATVectorIndex(variables, new int[SIZE], new double[] { 0.0 },
+				new double[] { 1.0 });
+
+		int[] positions = reversed.getPositions(index);
+		SATVectorGenotype remapped = new SATVectorGenotype(genotype, reversed, positions);
+		assertSame(reversed, remapped.getIndex());
+		assertEquals(-1, positions[0]);
+		assertFalse(remapped.getPhase(0));
+		assertEquals(0.0, remapped.getPriority(0), 0.0);
+		for (int i = 1; i < SIZE; i++) {
+			assertEquals(genotype.getPhase(SIZE - 1 - i), remapped.getPhase(i));
+			assertEquals(genotype.getPriority(SIZE - 1 - i), remapped.getPriority(i), 0.0);
+		}
+	}
+
+	@Test
+	public void testMutateBounds() {
+		Rand random = new RandomJava(0);
+		SATVectorIndex index = getIndex();
+		SATVectorGenotype genotype = getGenotype(index, random);
+		SATVectorGenotype original = new SATVectorGenotype(genotype);
+		MutateSATVector mutate = new MutateSATVector(random);
+		for (int k = 0; k < 100; k++) {
+			mutate.mutate(genotype, 0.1);
+		}
+		int changed = 0;
+		for (int i = 0; i < SIZE; i++) {
+			assertTrue(genotype.getPriority(i) >= index.getLowerBound(i));
+			assertTrue(genotype.getPriority(i) <= index.getUpperBound(i));
+			if (genotype.getPriority(i) != original.getPriority(i)) {
+				changed++;
+			}
+		}
+		assertTrue(changed > SIZE / 2);
+	}
+
+	@Test
+	public void testMutateRate() {
+		Rand random = new RandomJava(0);
+		SATVectorGenotype genotype = getGenotype(getIndex(), random);
+		SATVectorGenotype original = new SATVectorGenotype(genotype);
+		new MutateSATVector(random).mutate(genotype, 0.0);
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(original.getPhase(i), genotype.getPhase(i));
+		}
+		new MutateSATVector(random).mutate(genotype, 1.0);
+		for (int i = 0; i < SIZE; i++) {
+			assertFalse(original.getPhase(i) == genotype.getPhase(i));
+		}
+	}
+
+	@Test
+	public void testCrossover() {
+		Rand random = new RandomJava(0);
+		SATVectorIndex index = getIndex();
+		SATVectorGenotype p1 = getGenotype(index, random);
+		SATVectorGenotype p2 = getGenotype(index, random);
+		for (int i = 0; i < SIZE; i++) {
+			p2.setPriority(i, index.getLowerBound(i));
+		}
+		Pair<SATVectorGenotype> offspring = new CrossoverSATVector(random).crossover(p1, p2);
+		SATVectorGenotype o1 = offspring.getFirst();
+		SATVectorGenotype o2 = offspring.getSecond();
+		int fromSecond = 0;
+		for (int i = 0; i < SIZE; i++) {
+			boolean swapped = o1.getPriority(i) == p2.getPriority(i);
+			if (swapped) {
+				fromSecond++;
+				assertEquals(p2.getPhase(i), o1.getPhase(i));
+				assertEquals(p1.getPhase(i), o2.getPhase(i));
+				assertEquals(p1.getPriority(i), o2.getPriority(i), 0.0);
+			} else {
+				assertEquals(p1.getPhase(i), o1.getPhase(i));
+				assertEquals(p2.getPhase(i), o2.getPhase(i));
+				assertEquals(p2.getPriority(i), o2.getPriority(i), 0.0);
+			}
+		}
+		assertTrue(fromSecond > SIZE / 4 && fromSecond < 3 * SIZE / 4);
+	}
+
+}
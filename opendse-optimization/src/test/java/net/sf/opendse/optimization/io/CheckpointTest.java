@@ -0,0 +1,229 @@
+package net.sf.opendse.optimization.io;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.core.Individual;
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.core.common.random.RandomModule;
+import org.opt4j.core.optimizer.Archive;
+import org.opt4j.core.optimizer.Iteration;
+import org.opt4j.core.start.Opt4JModule;
+import org.opt4j.core.start.Opt4JTask;
+import org.opt4j.optimizers.ea.EvolutionaryAlgorithmModule;
+
+import com.google.inject.Module;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.OptimizationModule;
+import net.sf.opendse.optimization.SpecificationWrapper;
+import net.sf.opendse.optimization.evaluator.SumEvaluatorModule;
+import net.sf.opendse.optimization.test.TestSpecifications;
+
+public class CheckpointTest {
+
+	protected Opt4JTask getTask(final Specification specification, File file, int generations) {
+		return getTask(specification, file, generations, 2);
+	}
+
+	protected Opt4JTask getTask(final Specification specification, File file, int generations, int interval) {
+		EvolutionaryAlgorithmModule ea = new EvolutionaryAlgorithmModule();
+		ea.setGenerations(generations);
+		ea.setAlpha(4);
+		ea.setMu(2);
+		ea.setLambda(2);
+
+		SumEvaluatorModule sum = new SumEvaluatorModule();
+		sum.setSum("cost");
+
+		OptimizationModule optimization = new OptimizationModule();
+		optimization.setStagnationRestartEnabled(false);
+
+		CheckpointModule checkpoint = new CheckpointModule();
+		checkpoint.setFilename(file.getPath());
+		checkpoint.setInterval(interval);
+
+		Collection<Module> modules = new ArrayList<Module>();
+		modules.add(ea);
+		modules.add(optimization);
+		modules.add(sum);
+		modules.add(checkpoint);
+		// a fixed seed
+		modules.add(new RandomModule());
+		modules.add(new Opt4JModule() {
+			@Override
+			protected void config() {
+				bind(SpecificationWrapper.class).toInstance(new SpecificationWrapperInstance(specification));
+			}
+		});
+
+		Opt4JTask task = new Opt4JTask(false);
+		task.init(modules);
+		return task;
+	}
+
+	protected Set<String> getObjectives(Archive archive) {
+		Set<String> objectives = new HashSet<String>();
+		for (Individual individual : archive) {
+			objectives.add(individual.getObjectives().toString());
+		}
+		return objectives;
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		File file = File.createTempFile("checkpoint", ".bin");
+		file.delete();
+		Specification specification = TestSpecifications.getParameterAlternatives(4);
+
+		Opt4JTask first = getTask(specification, file, 4);
+		Set<String> objectives;
+		try {
+			first.execute();
+			objectives = getObjectives(first.getInstance(Archive.class));
+		} finally {
+			first.close();
+		}
+		assertTrue(file.exists());
+		assertFalse(objectives.isEmpty());
+
+		Opt4JTask second = getTask(specification, file, 4);
+		try {
+			second.execute();
+			assertEquals(4, second.getInstance(Iteration.class).value());
+			assertEquals(objectives, getObjectives(second.getInstance(Archive.class)));
+		} finally {
+			second.close();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testResumeVersion1() throws Exception {
+		File file = File.createTempFile("checkpoint", ".bin");
+		file.delete();
+		Specification specification = TestSpecifications.getParameterAlternatives(4);
+
+		Opt4JTask first = getTask(specification, file, 4);
+		try {
+			first.execute();
+		} finally {
+			first.close();
+		}
+
+		// version 1 contains a seed instead of the state of the random number
+		// generator
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		byte[] rest;
+		int value;
+		try {
+			assertEquals(Checkpoint.MAGIC, in.readInt());
+			assertEquals(Checkpoint.VERSION, in.readInt());
+			value = in.readInt();
+			if (in.readBoolean()) {
+				in.readFully(new byte[in.readInt()]);
+			} else {
+				in.readLong();
+			}
+			rest = new byte[in.available()];
+			in.readFully(rest);
+		} finally {
+			in.close();
+		}
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		try {
+			out.writeInt(Checkpoint.MAGIC);
+			out.writeInt(1);
+			out.writeInt(value);
+			out.writeLong(42);
+			out.write(rest);
+		} finally {
+			out.close();
+		}
+
+		Opt4JTask second = getTask(specification, file, 4);
+		try {
+			second.execute();
+			assertEquals(4, second.getInstance(Iteration.class).value());
+		} finally {
+			second.close();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testWriteKeepsRandom() throws Exception {
+		File file = File.createTempFile("checkpoint", ".bin");
+		file.delete();
+
+		Opt4JTask task = getTask(TestSpecifications.getParameterAlternatives(4), file, 4);
+		try {
+			task.execute();
+			Rand random = task.getInstance(Rand.class);
+			Checkpoint checkpoint = task.getInstance(Checkpoint.class);
+
+			assertTrue(checkpoint.write());
+			double value = random.nextGaussian();
+			long next = random.nextLong();
+
+			// the checkpoint restores the state at the time it was written
+			checkpoint.read(file);
+			assertEquals(value, random.nextGaussian(), 0.0);
+			assertEquals(next, random.nextLong());
+		} finally {
+			task.close();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testReproducible() throws Exception {
+		Specification specification = TestSpecifications.getParameterAlternatives(4);
+		File file = File.createTempFile("checkpoint", ".bin");
+		file.delete();
+
+		long[] next = new long[2];
+		int[] intervals = { 1, 0 };
+		for (int i = 0; i < intervals.length; i++) {
+			Opt4JTask task = getTask(specification, file, 6, intervals[i]);
+			try {
+				task.execute();
+				next[i] = task.getInstance(Rand.class).nextLong();
+			} finally {
+				task.close();
+				file.delete();
+			}
+		}
+		// the random numbers do not depend on the number of checkpoints
+		assertEquals(next[0], next[1]);
+	}
+
+	@Test
+	public void testWriteFailure() throws Exception {
+		// the directory of the checkpoint does not exist
+		File directory = File.createTempFile("checkpoint", "");
+		directory.delete();
+		File file = new File(directory, "checkpoint.bin");
+
+		Opt4JTask task = getTask(TestSpecifications.getParameterAlternatives(4), file, 4);
+		try {
+			task.execute();
+			assertEquals(4, task.getInstance(Iteration.class).value());
+			assertFalse(task.getInstance(Checkpoint.class).write());
+		} finally {
+			task.close();
+		}
+		assertFalse(file.exists());
+	}
+
+}
@@ -0,0 +1,95 @@
+package net.sf.opendse.optimization.metrics;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+
+import net.sf.opendse.optimization.metrics.Metrics.Stage;
+
+public class MetricsTest {
+
+	public static class Client {
+		protected Metrics metrics = Metrics.DISABLED;
+
+		@Inject(optional = true)
+		public void setMetrics(Metrics metrics) {
+			this.metrics = metrics;
+		}
+	}
+
+	@Test
+	public void testBinding() {
+		assertSame(Metrics.DISABLED, Guice.createInjector().getInstance(Client.class).metrics);
+		assertTrue(Guice.createInjector(new MetricsModule()).getInstance(Client.class).metrics.isEnabled());
+	}
+
+	@Test
+	public void testRecord() {
+		Metrics metrics = new Metrics(true);
+		final List<String> completed = new ArrayList<String>();
+		metrics.addListener(new MetricsListener() {
+			@Override
+			public void stageCompleted(String stage, long nanos, long bytes) {
+				completed.add(stage);
+			}
+
+			@Override
+			public void valueChanged(String name, long value) {
+				completed.add(name + "=" + value);
+			}
+		});
+
+		for (int i = 1; i <= 100; i++) {
+			metrics.record("SAT", i * 1000, 0);
+		}
+		metrics.start("Interpreter").stop();
+		metrics.setValue("constraints", 42);
+
+		Stage stage = metrics.getStage("SAT");
+		assertEquals(100, stage.getCount());
+		assertEquals(5050000, stage.getTotalNanos());
+		assertEquals(100000, stage.getMaxNanos());
+		assertEquals(50500.0, stage.getMeanNanos(), 0.0);
+		// 50000 lies in the bucket [32768, 65535]
+		assertEquals(65535, stage.getPercentileNanos(50));
+		assertEquals(100000, stage.getPercentileNanos(100));
+
+		assertEquals(1, metrics.getCount("Interpreter"));
+		assertEquals(42, metrics.getValue("constraints"));
+		assertArrayEquals(new String[] { "Interpreter", "SAT" }, metrics.getStageNames());
+		assertEquals(102, completed.size());
+		assertEquals("constraints=42", completed.get(101));
+	}
+
+	@Test
+	public void testDisabled() {
+		Metrics metrics = Metrics.DISABLED;
+		metrics.start("SAT").stop();
+		metrics.setValue("constraints", 1);
+		assertEquals(0, metrics.getStageNames().length);
+		assertEquals(0, metrics.getValue("constraints"));
+	}
+
+	@Test
+	public void testReport() {
+		Metrics metrics = new Metrics(true);
+		metrics.record("SAT", 2000000, 16);
+		metrics.setValue("variables", 7);
+
+		String csv = MetricsReport.toCSV(metrics);
+		assertTrue(csv.startsWith("stage,count,total_ms,"));
+		assertTrue(csv.contains("\nSAT,1,2.000,2000.000,"));
+		assertTrue(csv.endsWith("value,count\nvariables,7\n"));
+
+		String json = MetricsReport.toJSON(metrics);
+		assertTrue(json.contains("{\"stage\": \"SAT\", \"count\": 1, \"total_ms\": 2.000"));
+		assertTrue(json.contains("\"allocated_bytes\": 16}"));
+		assertTrue(json.contains("\"variables\": 7"));
+	}
+}
@@ -0,0 +1,197 @@
+package net.sf.opendse.optimization.test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameters;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.RoutingFilter;
+
+/**
+ * The small specifications that are shared by the unit tests.
+ */
+public class TestSpecifications {
+
+	private TestSpecifications() {
+	}
+
+	/**
+	 * Returns a specification with the single task {@code t} that can be bound
+	 * to each of the unconnected resources {@code r0} to {@code r<n-1>}. The
+	 * resource {@code ri} has the cost {@code 10-i}.
+	 *
+	 * @param n
+	 *            the number of resources
+	 * @return the specification
+	 */
+	public static Specification getAlternatives(int n) {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t = new Task("t");
+		application.addVertex(t);
+
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (int i = 0; i < n; i++) {
+			Resource r = new Resource("r" + i);
+			r.setAttribute("cost", 10 - i);
+			architecture.addVertex(r);
+			mappings.add(new Mapping<Task, Resource>("m" + i, t, r));
+		}
+		return new Specification(application, architecture, mappings);
+	}
+
+	/**
+	 * Returns a specification with the single task {@code t} that can be bound
+	 * to each of the unconnected resources {@code r0} to {@code r<n-1>}. The
+	 * cost of each resource is a parameter in the range from 1 to 10.
+	 *
+	 * @param n
+	 *            the number of resources
+	 * @return the specification
+	 */
+	public static Specification getParameterAlternatives(int n) {
+		Specification specification = getAlternatives(n);
+		for (Resource r : specification.getArchitecture()) {
+			r.setAttribute("cost", Parameters.range(5, 1, 10, 1));
+		}
+		return specification;
+	}
+
+	/**
+	 * Returns a specification with the ECUs {@code e0}, {@code e1},
+	 * {@code e2}, and {@code e3} that are connected to the resource
+	 * {@code bus}. The ECU {@code e3} is more expensive than the others. The
+	 * tasks {@code t0} and {@code t1} communicate via {@code c} and can be
+	 * bound to each ECU.
+	 *
+	 * @return the specification
+	 */
+	public static Specification getBus() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource bus = new Resource("bus");
+		List<Resource> ecus = Arrays.asList(new Resource("e0"), new Resource("e1"), new Resource("e2"),
+				new Resource("e3"));
+		for (Resource ecu : ecus) {
+			ecu.setAttribute("cost", ecu.getId().equals("e3") ? 20 : 10);
+			architecture.addEdge(new Link("l" + ecu.getId()), ecu, bus);
+		}
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		Communication c = new Communication("c");
+		application.addEdge(new Dependency("d0"), t0, c);
+		application.addEdge(new Dependency("d1"), c, t1);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (Resource ecu : ecus) {
+			for (Task task : Arrays.asList(t0, t1)) {
+				Mapping<Task, Resource> mapping = new Mapping<Task, Resource>("m" + task.getId() + ecu.getId(), task,
+						ecu);
+				mapping.setAttribute("time", 5);
+				mappings.add(mapping);
+			}
+		}
+		return new Specification(application, architecture, mappings);
+	}
+
+	/**
+	 * Returns a specification with three functions {@code s<f> -> c<f> ->
+	 * t<f>}. The first two functions can be bound to {@code r0} and
+	 * {@code r1} that are connected by {@code bus}, the third function can
+	 * only be bound to {@code r2} that is connected to {@code bus2}. The
+	 * routings are filtered.
+	 *
+	 * @return the specification
+	 */
+	public static Specification getFunctions() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Resource bus = new Resource("bus");
+		Resource bus2 = new Resource("bus2");
+		architecture.addEdge(new Link("l0"), r0, bus);
+		architecture.addEdge(new Link("l1"), r1, bus);
+		architecture.addEdge(new Link("l2"), r2, bus2);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		List<List<Resource>> targets = Arrays.asList(Arrays.asList(r0, r1), Arrays.asList(r0, r1),
+				Arrays.asList(r2));
+		for (int f = 0; f < targets.size(); f++) {
+			Task sender = new Task("s" + f);
+			Task receiver = new Task("t" + f);
+			Communication c = new Communication("c" + f);
+			application.addEdge(new Dependency("d" + f + "a"), sender, c);
+			application.addEdge(new Dependency("d" + f + "b"), c, receiver);
+			for (Resource target : targets.get(f)) {
+				mappings.add(new Mapping<Task, Resource>("m" + sender + target, sender, target));
+				mappings.add(new Mapping<Task, Resource>("m" + receiver + target, receiver, target));
+			}
+		}
+		Specification specification = new Specification(application, architecture, mappings);
+		RoutingFilter.filter(specification, 1);
+		return specification;
+	}
+
+	/**
+	 * Returns a specification with the route {@code r0 -> bus -> r1}. The
+	 * resource {@code bus} and the link {@code l0} have a {@code load}
+	 * capacity of 10. The messages {@code c0} and {@code c1} with the loads 3
+	 * and 4 are sent from {@code t0} on {@code r0} to {@code t1} on
+	 * {@code r1}. The message {@code c0} uses the route, the message
+	 * {@code c1} can only stay on {@code r1}.
+	 *
+	 * @return the specification
+	 */
+	public static Specification getCapacity() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Resource bus = new Resource("bus");
+		bus.setAttribute("load" + SpecificationConstraints.CAPACITY, 10);
+		Link l0 = new Link("l0");
+		l0.setAttribute("load" + SpecificationConstraints.CAPACITY, 10);
+		architecture.addEdge(l0, r0, bus);
+		architecture.addEdge(new Link("l1"), bus, r1);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		Communication c0 = new Communication("c0");
+		c0.setAttribute("load", 3);
+		Communication c1 = new Communication("c1");
+		c1.setAttribute("load", 4);
+		application.addEdge(new Dependency("d0"), t0, c0);
+		application.addEdge(new Dependency("d1"), c0, t1);
+		application.addEdge(new Dependency("d2"), t0, c1);
+		application.addEdge(new Dependency("d3"), c1, t1);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		mappings.add(new Mapping<Task, Resource>("m0", t0, r0));
+		mappings.add(new Mapping<Task, Resource>("m1", t1, r1));
+
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		Architecture<Resource, Link> routing0 = new Architecture<Resource, Link>();
+		routing0.addEdge(new Link(l0), new Resource(r0), new Resource(bus));
+		routing0.addEdge(new Link("l1"), new Resource(bus), new Resource(r1));
+		routings.set(c0, routing0);
+		Architecture<Resource, Link> routing1 = new Architecture<Resource, Link>();
+		routing1.addVertex(new Resource(r1));
+		routings.set(c1, routing1);
+
+		return new Specification(application, architecture, mappings, routings);
+	}
+}
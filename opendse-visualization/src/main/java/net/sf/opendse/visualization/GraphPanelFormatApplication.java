@@ -45,6 +45,7 @@ import net.sf.opendse.model.Routings;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.parameter.Parameter;
+import net.sf.opendse.visualization.algorithm.ComponentLayoutCache;
 import net.sf.opendse.visualization.algorithm.DistanceFlowLayout;
 import edu.uci.ics.jung.algorithms.layout.Layout;
 import edu.uci.ics.jung.graph.DirectedGraph;
@@ -58,14 +59,21 @@ public class GraphPanelFormatApplication extends AbstractGraphPanelFormat {
 	protected final Routings<Task, Resource, Link> routings;
 	protected final Specification specification;
 	protected final ElementSelection selection;
+	protected final ComponentLayoutCache<Node> layoutCache;
 
 	public GraphPanelFormatApplication(Specification specification, ElementSelection selection) {
+		this(specification, selection, new ComponentLayoutCache<Node>());
+	}
+
+	public GraphPanelFormatApplication(Specification specification, ElementSelection selection,
+			ComponentLayoutCache<Node> layoutCache) {
 		super(new ColorModelApplication());
 		this.specification = specification;
 		this.application = convert(specification.getApplication());
 		this.mappings = specification.getMappings();
 		this.routings = specification.getRoutings();
 		this.selection = selection;
+		this.layoutCache = layoutCache;
 	}
 
 	class FunctionTask extends Task {
@@ -159,7 +167,7 @@ public class GraphPanelFormatApplication extends AbstractGraphPanelFormat {
 
 	@Override
 	public Layout<Node, LocalEdge> getLayout(DirectedGraph<Node, LocalEdge> graph) {
-		return new DistanceFlowLayout<Node, LocalEdge>(graph);
+		return new DistanceFlowLayout<Node, LocalEdge>(graph, layoutCache);
 	}
 
 	@Override
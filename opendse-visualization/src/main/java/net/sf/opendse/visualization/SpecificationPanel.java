@@ -42,9 +42,11 @@ import org.opt4j.core.config.Icons;
 import net.sf.opendse.io.SpecificationReader;
 import net.sf.opendse.io.SpecificationWriter;
 import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.visualization.algorithm.ComponentLayoutCache;
 
 public class SpecificationPanel extends JPanel {
 
@@ -52,7 +54,23 @@ public class SpecificationPanel extends JPanel {
 
 	protected JToolBar bar = null;
 
+	protected final ComponentLayoutCache<Node> layoutCache;
+
 	public SpecificationPanel(final Specification specification) {
+		this(specification, new ComponentLayoutCache<Node>());
+	}
+
+	/**
+	 * Constructs a panel that shares the layouts of the application components
+	 * with other panels, e.g., the panels of different implementations.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param layoutCache
+	 *            the cache of the application component layouts
+	 */
+	public SpecificationPanel(final Specification specification, ComponentLayoutCache<Node> layoutCache) {
+		this.layoutCache = layoutCache;
 
 		try {
 			UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -74,7 +92,7 @@ public class SpecificationPanel extends JPanel {
 
 		ElementSelection selection = new ElementSelection();
 
-		GraphPanel applicationPanel = new GraphPanel(new GraphPanelFormatApplication(specification, selection),
+		GraphPanel applicationPanel = new GraphPanel(new GraphPanelFormatApplication(specification, selection, layoutCache),
 				selection);
 		GraphPanel architecturePanel = new GraphPanel(new GraphPanelFormatArchitecture(specification, selection),
 				selection);
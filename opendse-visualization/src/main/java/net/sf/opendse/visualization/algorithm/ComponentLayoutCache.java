@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.visualization.algorithm;
+
+import java.awt.geom.Point2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code ComponentLayoutCache} stores the relative vertex locations of
+ * the weak components that were laid out by the {@link DistanceFlowLayout}. A
+ * component is identified by its vertices and the endpoints of its directed
+ * edges such that structurally equal components of different graphs (e.g.,
+ * the applications of different implementations) are laid out only once. The
+ * cache keeps the most recently used components up to a given capacity.
+ *
+ * @param <V>
+ *            the type of vertices
+ */
+public class ComponentLayoutCache<V> {
+
+	protected final int capacity;
+	protected final Map<Key<V>, Entry<V>> entries;
+
+	protected int hits = 0;
+	protected int misses = 0;
+
+	/**
+	 * Constructs a cache with a capacity of 4096 components.
+	 */
+	public ComponentLayoutCache() {
+		this(4096);
+	}
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param capacity
+	 *            the maximal number of cached components
+	 */
+	public ComponentLayoutCache(final int capacity) {
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<Key<V>, Entry<V>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key<V>, ComponentLayoutCache.Entry<V>> eldest) {
+				return size() > ComponentLayoutCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached layout of a component or {@code null}.
+	 *
+	 * @param vertices
+	 *            the vertices of the component
+	 * @param edges
+	 *            the endpoints of the directed edges of the component
+	 * @return the relative locations of the vertices or {@code null}
+	 */
+	public synchronized Entry<V> get(Set<V> vertices, Set<Pair<V>> edges) {
+		Entry<V> entry = entries.get(new Key<V>(vertices, edges));
+		if (entry == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return entry;
+	}
+
+	/**
+	 * Puts the layout of a component into the cache.
+	 *
+	 * @param vertices
+	 *            the vertices of the component
+	 * @param edges
+	 *            the endpoints of the directed edges of the component
+	 * @param entry
+	 *            the relative locations of the vertices
+	 */
+	public synchronized void put(Set<V> vertices, Set<Pair<V>> edges, Entry<V> entry) {
+		entries.put(new Key<V>(vertices, edges), entry);
+	}
+
+	/**
+	 * Removes all cached components.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the number of cached components.
+	 *
+	 * @return the number of cached components
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of components that were found in the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of components that were not found in the cache.
+	 *
+	 * @return the number of cache misses
+	 */
+	public synchronized int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * The relative locations of the vertices of a component and its width.
+	 *
+	 * @param <V>
+	 *            the type of vertices
+	 */
+	public static class Entry<V> {
+
+		protected final Map<V, Point2D> locations;
+		protected final double width;
+
+		public Entry(Map<V, Point2D> locations, double width) {
+			this.locations = locations;
+			this.width = width;
+		}
+
+		public Map<V, Point2D> getLocations() {
+			return locations;
+		}
+
+		public double getWidth() {
+			return width;
+		}
+	}
+
+	protected static class Key<V> {
+
+		protected final Set<V> vertices;
+		protected final Set<Pair<V>> edges;
+		protected final int hashCode;
+
+		public Key(Set<V> vertices, Set<Pair<V>> edges) {
+			this.vertices = vertices;
+			this.edges = edges;
+			this.hashCode = 31 * vertices.hashCode() + edges.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key<?> other = (Key<?>) obj;
+			return hashCode == other.hashCode && vertices.equals(other.vertices) && edges.equals(other.edges);
+		}
+	}
+}
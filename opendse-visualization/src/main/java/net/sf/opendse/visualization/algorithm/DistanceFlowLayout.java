@@ -23,27 +23,49 @@ package net.sf.opendse.visualization.algorithm;
 
 import java.awt.Dimension;
 import java.awt.geom.Point2D;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.collections15.Transformer;
-import org.apache.commons.collections15.map.LazyMap;
 
-import edu.uci.ics.jung.algorithms.cluster.WeakComponentClusterer;
 import edu.uci.ics.jung.algorithms.layout.Layout;
 import edu.uci.ics.jung.graph.DirectedGraph;
 import edu.uci.ics.jung.graph.DirectedSparseGraph;
 import edu.uci.ics.jung.graph.Graph;
-
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code DistanceFlowLayout} is a layered layout. Each weak component of
+ * the graph is laid out separately: the vertices are assigned to levels by
+ * their longest distance from a source vertex and the vertices of each level
+ * are ordered by the barycenter of their neighbors in the previous level.
+ * <p>
+ * The layout of each component is stored in a {@link ComponentLayoutCache}.
+ * If the cache is shared between layouts (e.g., for the implementations of a
+ * specification) or the graph is changed with {@link #setGraph(Graph)}, only
+ * the components that are not in the cache are laid out again. The layout
+ * does not require a display and the vertex locations are available with
+ * {@link #getLocations()}.
+ * 
+ * @param <V>
+ *            the type of vertices
+ * @param <E>
+ *            the type of edges
+ */
 public class DistanceFlowLayout<V, E> implements Layout<V, E> {
 
 	protected Graph<V, E> graph;
+	protected final ComponentLayoutCache<V> cache;
 
 	private int maxX = 0;
 	private int maxY = 0;
@@ -51,14 +73,29 @@ public class DistanceFlowLayout<V, E> implements Layout<V, E> {
 	private int ox = 100;
 	private int oy = 50;
 
-	protected Map<V, Point2D> locations = LazyMap.decorate(new HashMap<V, Point2D>(), new Transformer<V, Point2D>() {
-		public Point2D transform(V vertex) {
-			return new Point2D.Double();
-		}
-	});
+	protected Map<V, Point2D> locations = new HashMap<V, Point2D>();
 
+	/**
+	 * Constructs and performs the layout.
+	 * 
+	 * @param graph
+	 *            the graph
+	 */
 	public DistanceFlowLayout(Graph<V, E> graph) {
+		this(graph, new ComponentLayoutCache<V>());
+	}
+
+	/**
+	 * Constructs and performs the layout with a given cache.
+	 * 
+	 * @param graph
+	 *            the graph
+	 * @param cache
+	 *            the cache of the component layouts
+	 */
+	public DistanceFlowLayout(Graph<V, E> graph, ComponentLayoutCache<V> cache) {
 		this.graph = graph;
+		this.cache = cache;
 		doLayout();
 	}
 
@@ -91,7 +128,8 @@ public class DistanceFlowLayout<V, E> implements Layout<V, E> {
 	}
 
 	@Override
-	public void setGraph(Graph<V, E> arg0) {
+	public void setGraph(Graph<V, E> graph) {
+		this.graph = graph;
 		doLayout();
 	}
 
@@ -101,7 +139,7 @@ public class DistanceFlowLayout<V, E> implements Layout<V, E> {
 
 	@Override
 	public void setLocation(V vertex, Point2D location) {
-		locations.get(vertex).setLocation(location);
+		getLocation(vertex).setLocation(location);
 	}
 
 	@Override
@@ -110,140 +148,271 @@ public class DistanceFlowLayout<V, E> implements Layout<V, E> {
 
 	@Override
 	public Point2D transform(V vertex) {
-		return locations.get(vertex);
+		return getLocation(vertex);
+	}
+
+	/**
+	 * Returns the locations of all vertices.
+	 * 
+	 * @return the locations of the vertices
+	 */
+	public Map<V, Point2D> getLocations() {
+		return Collections.unmodifiableMap(locations);
+	}
+
+	/**
+	 * Returns the cache of the component layouts.
+	 * 
+	 * @return the cache
+	 */
+	public ComponentLayoutCache<V> getCache() {
+		return cache;
+	}
+
+	protected Point2D getLocation(V vertex) {
+		Point2D location = locations.get(vertex);
+		if (location == null) {
+			location = new Point2D.Double();
+			locations.put(vertex, location);
+		}
+		return location;
 	}
 
 	protected void doLayout() {
-		WeakComponentClusterer<V, E> clusterer = new WeakComponentClusterer<V, E>();
-		Set<Set<V>> sets = clusterer.transform(graph);
+		locations.clear();
+		maxX = 0;
+		maxY = 0;
 
-		Set<DirectedGraph<V, E>> graphs = new HashSet<DirectedGraph<V, E>>();
-		for (Set<V> set : sets) {
-			DirectedGraph<V, E> g = new DirectedSparseGraph<V, E>();
+		double xOffset = 0;
+
+		for (Set<V> component : getComponents()) {
+			Map<Pair<V>, E> edges = getEdges(component);
+
+			ComponentLayoutCache.Entry<V> entry = cache.get(component, edges.keySet());
+			if (entry == null) {
+				entry = layoutComponent(component, edges);
+				cache.put(component, new HashSet<Pair<V>>(edges.keySet()), entry);
+			}
 
-			for (V v : set) {
-				g.addVertex(v);
+			for (V vertex : component) {
+				Point2D location = entry.getLocations().get(vertex);
+				setLocation(vertex, new Point2D.Double(location.getX() + xOffset, location.getY()));
 			}
-			for (V v : set) {
-				for (E e : graph.getOutEdges(v)) {
-					if (graph.getSource(e) != null && graph.getSource(e).equals(v)) {
-						V target = graph.getOpposite(v, e);
-						if (g.findEdge(v, target) == null) {
-							g.addEdge(e, v, target);
+
+			xOffset += entry.getWidth() + ox;
+		}
+
+		for (Point2D location : locations.values()) {
+			maxX = Math.max(maxX, (int) location.getX());
+			maxY = Math.max(maxY, (int) location.getY());
+		}
+	}
+
+	/**
+	 * Returns the weak components of the graph in the order of the vertices of
+	 * the graph.
+	 * 
+	 * @return the weak components
+	 */
+	protected List<Set<V>> getComponents() {
+		List<Set<V>> components = new ArrayList<Set<V>>();
+		Set<V> visited = new HashSet<V>();
+		Deque<V> queue = new ArrayDeque<V>();
+
+		for (V vertex : graph.getVertices()) {
+			if (visited.add(vertex)) {
+				Set<V> component = new LinkedHashSet<V>();
+				queue.add(vertex);
+				while (!queue.isEmpty()) {
+					V v = queue.poll();
+					component.add(v);
+					for (V neighbor : graph.getNeighbors(v)) {
+						if (visited.add(neighbor)) {
+							queue.add(neighbor);
 						}
 					}
 				}
+				components.add(component);
 			}
-			graphs.add(g);
 		}
+		return components;
+	}
 
-		int xOffset = 0;
+	/**
+	 * Returns the directed edges of a component (at most one edge for each
+	 * pair of vertices).
+	 * 
+	 * @param component
+	 *            the vertices of the component
+	 * @return the map of the endpoints to the edges
+	 */
+	protected Map<Pair<V>, E> getEdges(Set<V> component) {
+		Map<Pair<V>, E> edges = new LinkedHashMap<Pair<V>, E>();
+		for (V v : component) {
+			for (E e : graph.getOutEdges(v)) {
+				if (graph.getSource(e) != null && graph.getSource(e).equals(v)) {
+					Pair<V> pair = new Pair<V>(v, graph.getOpposite(v, e));
+					if (!edges.containsKey(pair)) {
+						edges.put(pair, e);
+					}
+				}
+			}
+		}
+		return edges;
+	}
 
-		for (DirectedGraph<V, E> graph : graphs) {
-			CycleBreakFilter<V, E> cycleBreak = new CycleBreakFilter<V, E>();
+	/**
+	 * Lays out a single component with an x-offset of zero.
+	 * 
+	 * @param component
+	 *            the vertices of the component
+	 * @param edges
+	 *            the directed edges of the component
+	 * @return the relative locations and the width of the component
+	 */
+	protected ComponentLayoutCache.Entry<V> layoutComponent(Set<V> component, Map<Pair<V>, E> edges) {
+		DirectedGraph<V, E> g = new DirectedSparseGraph<V, E>();
+		for (V v : component) {
+			g.addVertex(v);
+		}
+		for (Map.Entry<Pair<V>, E> entry : edges.entrySet()) {
+			g.addEdge(entry.getValue(), entry.getKey().getFirst(), entry.getKey().getSecond());
+		}
 
-			Set<E> edges = cycleBreak.transform(graph);
-			for (E edge : edges) {
-				graph.removeEdge(edge);
-			}
+		CycleBreakFilter<V, E> cycleBreak = new CycleBreakFilter<V, E>();
+		for (E edge : cycleBreak.transform(g)) {
+			g.removeEdge(edge);
+		}
 
-			Map<Integer, List<V>> level = new HashMap<Integer, List<V>>();
+		List<List<V>> levels = getLevels(g, component);
 
-			BellmanFord<V, E> bellmanFord = new BellmanFord<V, E>();
-			Transformer<V, Double> t = bellmanFord.transform(graph);
+		int maxVerticesPerLevel = 0;
+		for (List<V> vertices : levels) {
+			maxVerticesPerLevel = Math.max(maxVerticesPerLevel, vertices.size());
+		}
 
-			for (V vertex : graph.getVertices()) {
-				int l = t.transform(vertex).intValue();
-				if (level.containsKey(l)) {
-					level.get(l).add(vertex);
-				} else {
-					List<V> set = new ArrayList<V>();
-					set.add(vertex);
-					level.put(l, set);
-				}
-			}
+		Map<V, Point2D> relative = new HashMap<V, Point2D>();
+		double width = 0;
 
-			int maxVerticesPerLevel = 0;
-			for (List<V> set : level.values()) {
-				maxVerticesPerLevel = Math.max(maxVerticesPerLevel, set.size());
+		for (int i = 0; i < levels.size(); i++) {
+			List<V> vertices = levels.get(i);
+			if (i > 0) {
+				order(g, levels.get(i - 1), vertices);
 			}
 
-			for (int i = 0;; i++) {
-				if (!level.containsKey(i)) {
-					break;
-				} else {
-					List<V> vertices = level.get(i);
-					if (i > 0) {
-						List<V> previous = level.get(i - 1);
-						Comparator<V> comp = new DependencyComparator(graph, previous);
-						Collections.sort(vertices, comp);
-					}
-
-					int offset = (ox / 2) * (maxVerticesPerLevel - vertices.size() - 1);
-					int x = offset;
-					for (V vertex : vertices) {
-						Point2D location = new Point2D.Double(x + xOffset + ox / 2, i * oy + oy / 2);
-						setLocation(vertex, location);
-						x += ox;
-					}
-				}
+			int offset = (ox / 2) * (maxVerticesPerLevel - vertices.size() - 1);
+			int x = offset;
+			for (V vertex : vertices) {
+				Point2D location = new Point2D.Double(x + ox / 2, i * oy + oy / 2);
+				relative.put(vertex, location);
+				width = Math.max(width, location.getX());
+				x += ox;
 			}
+		}
+		return new ComponentLayoutCache.Entry<V>(relative, width);
+	}
 
-			for (V vertex : graph.getVertices()) {
-				xOffset = Math.max(xOffset, (int) transform(vertex).getX());
+	/**
+	 * Assigns the vertices to levels by their longest distance from a source
+	 * vertex in the acyclic graph.
+	 * 
+	 * @param g
+	 *            the acyclic graph
+	 * @param component
+	 *            the vertices in their initial order
+	 * @return the vertices of each level
+	 */
+	protected List<List<V>> getLevels(DirectedGraph<V, E> g, Set<V> component) {
+		Map<V, Integer> level = new HashMap<V, Integer>();
+		Map<V, Integer> indegree = new HashMap<V, Integer>();
+		Deque<V> queue = new ArrayDeque<V>();
+
+		for (V v : component) {
+			int d = g.getPredecessorCount(v);
+			indegree.put(v, d);
+			level.put(v, 0);
+			if (d == 0) {
+				queue.add(v);
 			}
+		}
 
-			xOffset += ox;
+		int maxLevel = 0;
+		while (!queue.isEmpty()) {
+			V v = queue.poll();
+			int l = level.get(v);
+			maxLevel = Math.max(maxLevel, l);
+			for (V successor : g.getSuccessors(v)) {
+				if (level.get(successor) < l + 1) {
+					level.put(successor, l + 1);
+				}
+				int d = indegree.get(successor) - 1;
+				indegree.put(successor, d);
+				if (d == 0) {
+					queue.add(successor);
+				}
+			}
 		}
 
-		for (V v : graph.getVertices()) {
-			Point2D location = transform(v);
-			maxX = Math.max(maxX, (int) location.getX());
-			maxY = Math.max(maxY, (int) location.getY());
+		List<List<V>> levels = new ArrayList<List<V>>();
+		for (int i = 0; i <= maxLevel; i++) {
+			levels.add(new ArrayList<V>());
+		}
+		for (V v : component) {
+			levels.get(level.get(v)).add(v);
 		}
+		return levels;
 	}
 
-	class DependencyComparator implements Comparator<V> {
-
-		final Graph<V, E> graph;
-		final List<V> previous;
-
-		public DependencyComparator(Graph<V, E> graph, List<V> previous) {
-			super();
-			this.graph = graph;
-			this.previous = previous;
+	/**
+	 * Orders the vertices of a level by the average position of their
+	 * neighbors in the previous level. Vertices without neighbors in the
+	 * previous level keep their position.
+	 * 
+	 * @param g
+	 *            the graph
+	 * @param previous
+	 *            the ordered vertices of the previous level
+	 * @param vertices
+	 *            the vertices of the level to order
+	 */
+	protected void order(DirectedGraph<V, E> g, List<V> previous, List<V> vertices) {
+		Map<V, Integer> index = new HashMap<V, Integer>();
+		for (int i = 0; i < previous.size(); i++) {
+			index.put(previous.get(i), i);
 		}
 
-		@Override
-		public int compare(V v1, V v2) {
-
-			Double i1 = 0d;
-			Double i2 = 0d;
-			int c1 = 0;
-			int c2 = 0;
-
-			for (int i = 0; i < previous.size(); i++) {
-				V v = previous.get(i);
-				if (graph.isNeighbor(v, v1)) {
-					i1 += i;
-					c1++;
-				}
-				if (graph.isNeighbor(v, v2)) {
-					i2 += i;
-					c2++;
+		final Map<V, Double> barycenter = new HashMap<V, Double>();
+		List<Integer> slots = new ArrayList<Integer>();
+		List<V> anchored = new ArrayList<V>();
+
+		for (int i = 0; i < vertices.size(); i++) {
+			V v = vertices.get(i);
+			double sum = 0;
+			int count = 0;
+			for (V neighbor : g.getNeighbors(v)) {
+				Integer j = index.get(neighbor);
+				if (j != null) {
+					sum += j;
+					count++;
 				}
 			}
+			if (count > 0) {
+				barycenter.put(v, sum / count);
+				slots.add(i);
+				anchored.add(v);
+			}
+		}
 
-			if (c1 == 0 || c2 == 0) {
-				return 0;
-			} else {
-				i1 /= c1;
-				i2 /= c2;
-				return i1.compareTo(i2);
+		Collections.sort(anchored, new Comparator<V>() {
+			@Override
+			public int compare(V v1, V v2) {
+				return barycenter.get(v1).compareTo(barycenter.get(v2));
 			}
+		});
 
+		for (int i = 0; i < slots.size(); i++) {
+			vertices.set(slots.get(i), anchored.get(i));
 		}
-
 	}
 
 }
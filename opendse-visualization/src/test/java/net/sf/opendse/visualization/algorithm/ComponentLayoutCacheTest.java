@@ -0,0 +1,60 @@
+package net.sf.opendse.visualization.algorithm;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.util.Pair;
+
+public class ComponentLayoutCacheTest {
+
+	protected Set<String> vertices(String... vertices) {
+		return new HashSet<String>(Arrays.asList(vertices));
+	}
+
+	protected ComponentLayoutCache.Entry<String> entry() {
+		return new ComponentLayoutCache.Entry<String>(Collections.<String, Point2D> emptyMap(), 0);
+	}
+
+	@Test
+	public void testChangedComponent() {
+		ComponentLayoutCache<String> cache = new ComponentLayoutCache<String>();
+		Set<Pair<String>> edges = Collections.singleton(new Pair<String>("a", "b"));
+		ComponentLayoutCache.Entry<String> entry = entry();
+		cache.put(vertices("a", "b"), edges, entry);
+
+		Assert.assertSame(entry, cache.get(vertices("a", "b"), edges));
+		// a changed vertex set, a reversed edge, or an added edge is a miss
+		Assert.assertNull(cache.get(vertices("a", "b", "c"), edges));
+		Assert.assertNull(cache.get(vertices("a", "b"), Collections.singleton(new Pair<String>("b", "a"))));
+		Set<Pair<String>> added = new HashSet<Pair<String>>(edges);
+		added.add(new Pair<String>("b", "a"));
+		Assert.assertNull(cache.get(vertices("a", "b"), added));
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(3, cache.getMisses());
+	}
+
+	@Test
+	public void testCapacity() {
+		ComponentLayoutCache<String> cache = new ComponentLayoutCache<String>(2);
+		Set<Pair<String>> edges = Collections.emptySet();
+		cache.put(vertices("a"), edges, entry());
+		cache.put(vertices("b"), edges, entry());
+		Assert.assertNotNull(cache.get(vertices("a"), edges));
+		cache.put(vertices("c"), edges, entry());
+
+		// the least recently used component is removed
+		Assert.assertEquals(2, cache.size());
+		Assert.assertNull(cache.get(vertices("b"), edges));
+		Assert.assertNotNull(cache.get(vertices("a"), edges));
+		Assert.assertNotNull(cache.get(vertices("c"), edges));
+
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+	}
+}
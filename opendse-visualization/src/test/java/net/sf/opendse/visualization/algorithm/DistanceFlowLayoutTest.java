@@ -0,0 +1,66 @@
+package net.sf.opendse.visualization.algorithm;
+
+import java.awt.geom.Point2D;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+
+public class DistanceFlowLayoutTest {
+
+	/*
+	 * the components a -> b -> c, a -> c and d -> e
+	 */
+	protected Graph<String, String> getGraph() {
+		Graph<String, String> graph = new DirectedSparseGraph<String, String>();
+		graph.addEdge("ab", "a", "b");
+		graph.addEdge("bc", "b", "c");
+		graph.addEdge("ac", "a", "c");
+		graph.addEdge("de", "d", "e");
+		return graph;
+	}
+
+	protected Map<String, Point2D> copy(Map<String, Point2D> locations) {
+		return new HashMap<String, Point2D>(locations);
+	}
+
+	@Test
+	public void testLevels() {
+		DistanceFlowLayout<String, String> layout = new DistanceFlowLayout<String, String>(getGraph());
+		Map<String, Point2D> locations = layout.getLocations();
+		Assert.assertEquals(5, locations.size());
+		Assert.assertTrue(locations.get("a").getY() < locations.get("b").getY());
+		Assert.assertTrue(locations.get("b").getY() < locations.get("c").getY());
+		Assert.assertEquals(locations.get("d").getY(), locations.get("a").getY(), 0.0);
+		Assert.assertEquals(locations.get("e").getY(), locations.get("b").getY(), 0.0);
+	}
+
+	@Test
+	public void testIncremental() {
+		Graph<String, String> graph = getGraph();
+		DistanceFlowLayout<String, String> layout = new DistanceFlowLayout<String, String>(graph);
+		Assert.assertEquals(2, layout.getCache().getMisses());
+
+		graph.addEdge("ef", "e", "f");
+		layout.setGraph(graph);
+		Assert.assertEquals(1, layout.getCache().getHits());
+		Assert.assertEquals(3, layout.getCache().getMisses());
+
+		DistanceFlowLayout<String, String> full = new DistanceFlowLayout<String, String>(graph);
+		Assert.assertEquals(copy(full.getLocations()), copy(layout.getLocations()));
+		Assert.assertEquals(full.getSize(), layout.getSize());
+	}
+
+	@Test
+	public void testSharedCache() {
+		ComponentLayoutCache<String> cache = new ComponentLayoutCache<String>();
+		DistanceFlowLayout<String, String> layout0 = new DistanceFlowLayout<String, String>(getGraph(), cache);
+		DistanceFlowLayout<String, String> layout1 = new DistanceFlowLayout<String, String>(getGraph(), cache);
+		Assert.assertEquals(2, cache.getHits());
+		Assert.assertEquals(copy(layout0.getLocations()), copy(layout1.getLocations()));
+	}
+}